@@ -0,0 +1,151 @@
+package com.sdu.streaming.warehouse.benchmark;
+
+import com.sdu.streaming.warehouse.deserializer.NoahArkDataDeserializer;
+import com.sdu.streaming.warehouse.deserializer.NoahArkDataSerializer;
+import com.sdu.streaming.warehouse.utils.ByteArrayDataInput;
+import com.sdu.streaming.warehouse.utils.ByteArrayDataOutput;
+import org.apache.flink.table.data.DecimalData;
+import org.apache.flink.table.data.GenericArrayData;
+import org.apache.flink.table.data.GenericMapData;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.data.TimestampData;
+import org.apache.flink.table.types.logical.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.sdu.streaming.warehouse.deserializer.NoahArkDataDeserializer.createDataDeserializer;
+import static com.sdu.streaming.warehouse.deserializer.NoahArkDataSerializer.createDataSerializer;
+
+// NoahArk 单字段编解码: 覆盖所有支持的 LogicalType
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NoahArkDataSerializerBenchmark {
+
+    @Param({"BOOLEAN", "TINYINT", "SMALLINT", "INTEGER", "BIGINT", "FLOAT", "DOUBLE", "VARCHAR",
+            "VARBINARY", "DECIMAL", "TIMESTAMP", "ARRAY", "MAP", "ROW"})
+    private String type;
+
+    private NoahArkDataSerializer serializer;
+    private NoahArkDataDeserializer deserializer;
+    private Object data;
+    private byte[] bytes;
+
+    @Setup
+    public void setup() throws Exception {
+        LogicalType logicalType = logicalType(type);
+        serializer = createDataSerializer(logicalType);
+        deserializer = createDataDeserializer(logicalType);
+        data = sampleData(type);
+        ByteArrayDataOutput out = new ByteArrayDataOutput();
+        serializer.serializer(data, out);
+        bytes = out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        ByteArrayDataOutput out = new ByteArrayDataOutput();
+        serializer.serializer(data, out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public Object deserialize() throws Exception {
+        return deserializer.deserializer(new ByteArrayDataInput(bytes));
+    }
+
+    static LogicalType logicalType(String type) {
+        switch (type) {
+            case "BOOLEAN":
+                return new BooleanType();
+            case "TINYINT":
+                return new TinyIntType();
+            case "SMALLINT":
+                return new SmallIntType();
+            case "INTEGER":
+                return new IntType();
+            case "BIGINT":
+                return new BigIntType();
+            case "FLOAT":
+                return new FloatType();
+            case "DOUBLE":
+                return new DoubleType();
+            case "VARCHAR":
+                return new VarCharType(VarCharType.MAX_LENGTH);
+            case "VARBINARY":
+                return new VarBinaryType(VarBinaryType.MAX_LENGTH);
+            case "DECIMAL":
+                return new DecimalType(20, 4);
+            case "TIMESTAMP":
+                return new TimestampType(3);
+            case "ARRAY":
+                return new ArrayType(new IntType());
+            case "MAP":
+                return new MapType(new VarCharType(VarCharType.MAX_LENGTH), new BigIntType());
+            case "ROW":
+                return RowType.of(new BigIntType(), new VarCharType(VarCharType.MAX_LENGTH), new DoubleType(), new ArrayType(new IntType()));
+            default:
+                throw new IllegalArgumentException("unknown type: " + type);
+        }
+    }
+
+    static Object sampleData(String type) {
+        switch (type) {
+            case "BOOLEAN":
+                return true;
+            case "TINYINT":
+                return (byte) 7;
+            case "SMALLINT":
+                return (short) 1024;
+            case "INTEGER":
+                return 123456;
+            case "BIGINT":
+                return 1234567890123L;
+            case "FLOAT":
+                return 3.14f;
+            case "DOUBLE":
+                return 2.718281828d;
+            case "VARCHAR":
+                return StringData.fromString("flink-warehouse-benchmark");
+            case "VARBINARY":
+                return new byte[64];
+            case "DECIMAL":
+                return DecimalData.fromBigDecimal(new BigDecimal("12345678.1234"), 20, 4);
+            case "TIMESTAMP":
+                return TimestampData.fromEpochMillis(1660000000000L);
+            case "ARRAY":
+                return new GenericArrayData(new int[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+            case "MAP":
+                Map<Object, Object> map = new HashMap<>();
+                for (int i = 0; i < 8; ++i) {
+                    map.put(StringData.fromString("key-" + i), (long) i);
+                }
+                return new GenericMapData(map);
+            case "ROW":
+                return GenericRowData.of(1L, StringData.fromString("name"), 1.0d, new GenericArrayData(new int[] {1, 2, 3}));
+            default:
+                throw new IllegalArgumentException("unknown type: " + type);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(NoahArkDataSerializerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.sdu.streaming.warehouse.benchmark;
+
+import com.google.protobuf.DescriptorProtos;
+import com.sdu.streaming.warehouse.format.protobuf.ProtobufRowDataDeserializationSchema;
+import org.apache.flink.api.common.serialization.DeserializationSchema;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.table.api.DataTypes;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.types.DataType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.util.SimpleUserCodeClassLoader;
+import org.apache.flink.util.UserCodeClassLoader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// protobuf 嵌套消息解析: 使用 protobuf-java 自带的 FileDescriptorProto 作为测试消息,
+// message_type(repeated message) -> field(repeated message) 两层嵌套
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProtobufDeserializationBenchmark {
+
+    private static final String FIELD_MAPPING = "name=$.name;package=$.package;dependency=$.dependency;"
+            + "message_type=$.message_type;field=$.field;number=$.number;type=$.type;type_name=$.type_name";
+
+    @Param({"4", "32"})
+    private int messageCount;
+
+    @Param({"false", "true"})
+    private boolean directDecode;
+
+    private ProtobufRowDataDeserializationSchema schema;
+    private byte[] message;
+
+    @Setup
+    public void setup() throws Exception {
+        DataType fieldType = DataTypes.ROW(
+                DataTypes.FIELD("name", DataTypes.STRING()),
+                DataTypes.FIELD("number", DataTypes.INT()),
+                DataTypes.FIELD("type", DataTypes.STRING()),
+                DataTypes.FIELD("type_name", DataTypes.STRING()));
+        DataType messageType = DataTypes.ROW(
+                DataTypes.FIELD("name", DataTypes.STRING()),
+                DataTypes.FIELD("field", DataTypes.ARRAY(fieldType)));
+        DataType dataType = DataTypes.ROW(
+                DataTypes.FIELD("name", DataTypes.STRING()),
+                DataTypes.FIELD("package", DataTypes.STRING()),
+                DataTypes.FIELD("dependency", DataTypes.ARRAY(DataTypes.STRING())),
+                DataTypes.FIELD("message_type", DataTypes.ARRAY(messageType)));
+
+        schema = new ProtobufRowDataDeserializationSchema(
+                (RowType) dataType.getLogicalType(),
+                null,
+                DescriptorProtos.FileDescriptorProto.class.getName(),
+                FIELD_MAPPING,
+                false,
+                false,
+                directDecode);
+        schema.open(new DeserializationSchema.InitializationContext() {
+            @Override
+            public MetricGroup getMetricGroup() {
+                return new UnregisteredMetricsGroup();
+            }
+
+            @Override
+            public UserCodeClassLoader getUserCodeClassLoader() {
+                return SimpleUserCodeClassLoader.create(ProtobufDeserializationBenchmark.class.getClassLoader());
+            }
+        });
+
+        DescriptorProtos.FileDescriptorProto.Builder builder = DescriptorProtos.FileDescriptorProto.newBuilder()
+                .setName("benchmark.proto")
+                .setPackage("com.sdu.streaming.benchmark")
+                .addDependency("google/protobuf/timestamp.proto")
+                .addDependency("google/protobuf/any.proto");
+        for (int i = 0; i < messageCount; ++i) {
+            DescriptorProtos.DescriptorProto.Builder messageBuilder = DescriptorProtos.DescriptorProto.newBuilder()
+                    .setName("Message" + i);
+            for (int j = 0; j < 8; ++j) {
+                messageBuilder.addField(DescriptorProtos.FieldDescriptorProto.newBuilder()
+                        .setName("field_" + j)
+                        .setNumber(j + 1)
+                        .setType(DescriptorProtos.FieldDescriptorProto.Type.TYPE_STRING)
+                        .setTypeName(".google.protobuf.StringValue"));
+            }
+            builder.addMessageType(messageBuilder);
+        }
+        message = builder.build().toByteArray();
+    }
+
+    @Benchmark
+    public RowData deserialize() throws Exception {
+        return schema.deserialize(message);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(ProtobufDeserializationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.sdu.streaming.warehouse.benchmark;
+
+import com.sdu.streaming.warehouse.connector.redis.RedisRowDataRuntimeConverter;
+import com.sdu.streaming.warehouse.connector.redis.entry.RedisData;
+import com.sdu.streaming.warehouse.connector.redis.entry.RedisDataType;
+import com.sdu.streaming.warehouse.connector.redis.entry.RedisKeyFormat;
+import com.sdu.streaming.warehouse.connector.redis.sink.RedisWriteOptions;
+import com.sdu.streaming.warehouse.deserializer.NoahArkEncoding;
+import org.apache.flink.table.data.GenericArrayData;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.data.TimestampData;
+import org.apache.flink.table.types.logical.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// redis 写入行编码: key + STRING/MAP/LIST 三种 value 布局
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedisRowDataConverterBenchmark {
+
+    @Param({"STRING", "MAP", "LIST"})
+    private RedisDataType redisDataType;
+
+    @Param({"FIXED", "COMPACT"})
+    private NoahArkEncoding encoding;
+
+    @Param({"BINARY", "READABLE"})
+    private RedisKeyFormat keyFormat;
+
+    private RedisRowDataRuntimeConverter converter;
+    private RowData row;
+
+    @Setup
+    public void setup() throws Exception {
+        RowType rowType = RowType.of(
+                new LogicalType[] {
+                        new BigIntType(false),
+                        new VarCharType(VarCharType.MAX_LENGTH),
+                        new IntType(),
+                        new DoubleType(),
+                        new TimestampType(3),
+                        new ArrayType(new VarCharType(VarCharType.MAX_LENGTH))
+                },
+                new String[] {"id", "name", "age", "score", "update_time", "tags"});
+        RedisWriteOptions writeOptions = RedisWriteOptions.builder(rowType)
+                .keyPrefix("user")
+                .redisDataType(redisDataType)
+                .valueEncoding(encoding)
+                .keyFormat(keyFormat)
+                .clusterName("redis://127.0.0.1:6379")
+                .expireSeconds(3600L)
+                .build();
+        converter = new RedisRowDataRuntimeConverter(writeOptions, new int[][] {{0, 0}});
+        converter.open();
+        row = GenericRowData.of(
+                10001L,
+                StringData.fromString("flink-warehouse"),
+                28,
+                99.5d,
+                TimestampData.fromEpochMillis(1660000000000L),
+                new GenericArrayData(new Object[] {StringData.fromString("a"), StringData.fromString("b"), StringData.fromString("c")}));
+    }
+
+    @Benchmark
+    public RedisData<?> serialize() throws Exception {
+        return converter.serialize(row);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(RedisRowDataConverterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+}
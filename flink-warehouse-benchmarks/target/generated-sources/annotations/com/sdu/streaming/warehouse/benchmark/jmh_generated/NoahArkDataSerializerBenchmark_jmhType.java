@@ -0,0 +1,4 @@
+package com.sdu.streaming.warehouse.benchmark.jmh_generated;
+public class NoahArkDataSerializerBenchmark_jmhType extends NoahArkDataSerializerBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.sdu.streaming.warehouse.benchmark.jmh_generated;
+public class ProtobufDeserializationBenchmark_jmhType extends ProtobufDeserializationBenchmark_jmhType_B3 {
+}
+
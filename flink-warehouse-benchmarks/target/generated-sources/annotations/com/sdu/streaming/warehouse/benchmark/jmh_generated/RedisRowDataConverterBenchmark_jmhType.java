@@ -0,0 +1,4 @@
+package com.sdu.streaming.warehouse.benchmark.jmh_generated;
+public class RedisRowDataConverterBenchmark_jmhType extends RedisRowDataConverterBenchmark_jmhType_B3 {
+}
+
@@ -16,37 +16,54 @@ public interface NoahArkDataDeserializer extends Serializable {
     Object deserializer(DataInput input) throws IOException;
 
     static NoahArkDataDeserializer createDataDeserializer(LogicalType fieldType) {
+        return createDataDeserializer(fieldType, NoahArkEncoding.FIXED);
+    }
+
+    static NoahArkDataDeserializer createDataDeserializer(LogicalType fieldType, NoahArkEncoding encoding) {
+        final boolean compact = encoding.isCompact();
         NoahArkDataDeserializer deserializer;
         switch (fieldType.getTypeRoot()) {
             case CHAR:
             case VARCHAR:
-                deserializer = NoahArkDataDeserializerUtils::deserializeStringData;
+                deserializer = compact
+                        ? NoahArkDataDeserializerUtils::deserializeCompactStringData
+                        : NoahArkDataDeserializerUtils::deserializeStringData;
                 break;
             case BOOLEAN:
                 deserializer = NoahArkDataDeserializerUtils::deserializeBooleanData;
                 break;
             case BINARY:
             case VARBINARY:
-                deserializer = NoahArkDataDeserializerUtils::deserializeBinaryData;
+                deserializer = compact
+                        ? NoahArkDataDeserializerUtils::deserializeCompactBinaryData
+                        : NoahArkDataDeserializerUtils::deserializeBinaryData;
                 break;
             case DECIMAL:
-                deserializer = NoahArkDataDeserializerUtils::deserializeDecimalData;
+                deserializer = compact
+                        ? NoahArkDataDeserializerUtils::deserializeCompactDecimalData
+                        : NoahArkDataDeserializerUtils::deserializeDecimalData;
                 break;
             case TINYINT:
                 deserializer = NoahArkDataDeserializerUtils::deserializeByteData;
                 break;
             case SMALLINT:
-                deserializer = NoahArkDataDeserializerUtils::deserializeShortData;
+                deserializer = compact
+                        ? NoahArkDataDeserializerUtils::deserializeCompactShortData
+                        : NoahArkDataDeserializerUtils::deserializeShortData;
                 break;
             case INTEGER:
             case DATE:
             case TIME_WITHOUT_TIME_ZONE:
             case INTERVAL_YEAR_MONTH:
-                deserializer = NoahArkDataDeserializerUtils::deserializeIntData;
+                deserializer = compact
+                        ? NoahArkDataDeserializerUtils::deserializeCompactIntData
+                        : NoahArkDataDeserializerUtils::deserializeIntData;
                 break;
             case BIGINT:
             case INTERVAL_DAY_TIME:
-                deserializer = NoahArkDataDeserializerUtils::deserializeLongData;
+                deserializer = compact
+                        ? NoahArkDataDeserializerUtils::deserializeCompactLongData
+                        : NoahArkDataDeserializerUtils::deserializeLongData;
                 break;
             case FLOAT:
                 deserializer = NoahArkDataDeserializerUtils::deserializeFloatData;
@@ -56,25 +73,43 @@ public interface NoahArkDataDeserializer extends Serializable {
                 break;
             case TIMESTAMP_WITHOUT_TIME_ZONE:
             case TIMESTAMP_WITH_LOCAL_TIME_ZONE:
-                deserializer = NoahArkDataDeserializerUtils::deserializeTimestampData;
+                deserializer = compact
+                        ? NoahArkDataDeserializerUtils::deserializeCompactTimestampData
+                        : NoahArkDataDeserializerUtils::deserializeTimestampData;
                 break;
             case RAW:
             case DISTINCT_TYPE:
             case TIMESTAMP_WITH_TIME_ZONE:
                 throw new UnsupportedOperationException();
             case ARRAY:
-                ArrayType arrayType = (ArrayType) fieldType;
-                deserializer = input -> deserializeArrayData(input, arrayType.getElementType());
+                // 嵌套类型的元素(字段)反序列化器在此一次性构建
+                LogicalType elementType = ((ArrayType) fieldType).getElementType();
+                if (NoahArkPrimitiveArrays.isPrimitiveElement(elementType)) {
+                    deserializer = NoahArkPrimitiveArrays.createArrayDeserializer(elementType, encoding);
+                    break;
+                }
+                NoahArkDataDeserializer elementDeserializer = createDataDeserializer(elementType, encoding);
+                boolean elementNullBitmap = hasNullBitmap(elementType, encoding);
+                deserializer = input -> deserializeArrayData(input, elementDeserializer, elementNullBitmap, encoding);
                 break;
             case MULTISET:
             case MAP:
                 MapType mapType = (MapType) fieldType;
-                deserializer = input -> deserializeMapData(input, mapType.getKeyType(), mapType.getValueType());
+                NoahArkDataDeserializer keyDeserializer = createDataDeserializer(mapType.getKeyType(), encoding);
+                boolean keyNullBitmap = hasNullBitmap(mapType.getKeyType(), encoding);
+                NoahArkDataDeserializer valueDeserializer = createDataDeserializer(mapType.getValueType(), encoding);
+                boolean valueNullBitmap = hasNullBitmap(mapType.getValueType(), encoding);
+                deserializer = input -> deserializeMapData(input, keyDeserializer, keyNullBitmap, valueDeserializer, valueNullBitmap, encoding);
                 break;
             case ROW:
             case STRUCTURED_TYPE:
                 RowType rowType = (RowType) fieldType;
-                deserializer = input -> deserializeRowData(input, rowType);
+                NoahArkDataDeserializer[] fieldDeserializers = new NoahArkDataDeserializer[rowType.getFieldCount()];
+                for (int pos = 0; pos < rowType.getFieldCount(); ++pos) {
+                    fieldDeserializers[pos] = createDataDeserializer(rowType.getTypeAt(pos), encoding);
+                }
+                boolean nullBitmap = hasNullBitmap(rowType, encoding);
+                deserializer = input -> deserializeRowData(input, fieldDeserializers, nullBitmap, encoding);
                 break;
             case NULL:
             case SYMBOL:
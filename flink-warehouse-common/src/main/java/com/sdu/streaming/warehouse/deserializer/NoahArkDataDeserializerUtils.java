@@ -2,6 +2,7 @@ package com.sdu.streaming.warehouse.deserializer;
 
 import java.io.DataInput;
 import java.io.DataOutput;
+import java.io.EOFException;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
@@ -15,14 +16,16 @@ import org.apache.flink.table.data.MapData;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.data.StringData;
 import org.apache.flink.table.data.TimestampData;
-import org.apache.flink.table.data.binary.BinaryArrayData;
+import org.apache.flink.table.types.logical.ArrayType;
 import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.MapType;
 import org.apache.flink.table.types.logical.RowType;
 import org.apache.flink.types.RowKind;
 import org.apache.flink.util.Preconditions;
 
 import static com.sdu.streaming.warehouse.deserializer.NoahArkDataDeserializer.createDataDeserializer;
 import static com.sdu.streaming.warehouse.deserializer.NoahArkDataSerializer.createDataSerializer;
+import static java.lang.String.format;
 
 public class NoahArkDataDeserializerUtils {
 
@@ -54,11 +57,11 @@ public class NoahArkDataDeserializerUtils {
         out.write(data);
     }
 
-    public static BinaryArrayData deserializeBinaryData(DataInput input) throws IOException {
+    public static byte[] deserializeBinaryData(DataInput input) throws IOException {
         int length = input.readInt();
         byte[] values = new byte[length];
         input.readFully(values);
-        return BinaryArrayData.fromPrimitiveArray(values);
+        return values;
     }
 
     public static void serializeDecimalData(DecimalData data, DataOutput out) throws IOException {
@@ -135,72 +138,407 @@ public class NoahArkDataDeserializerUtils {
         return TimestampData.fromEpochMillis(input.readLong(), input.readInt());
     }
 
+    // 以下按 LogicalType 的方法每次调用都会创建元素(字段)序列化器, 热路径应使用 createDataSerializer 预先构建的序列化器
+
     public static void serializeArrayData(ArrayData data, LogicalType elementType, DataOutput out) throws IOException {
-        out.writeInt(data.size());
-        NoahArkDataSerializer serializer = createDataSerializer(elementType);
-        ArrayData.ElementGetter elementGetter = ArrayData.createElementGetter(elementType);
-        for (int arrayIndex = 0; arrayIndex < data.size(); ++arrayIndex) {
+        serializeArrayData(data, elementType, NoahArkEncoding.FIXED, out);
+    }
+
+    public static void serializeArrayData(ArrayData data, LogicalType elementType, NoahArkEncoding encoding, DataOutput out) throws IOException {
+        createDataSerializer(new ArrayType(elementType), encoding).serializer(data, out);
+    }
+
+    public static void serializeArrayData(ArrayData data, ArrayData.ElementGetter elementGetter, NoahArkDataSerializer elementSerializer, boolean nullBitmap, NoahArkEncoding encoding, DataOutput out) throws IOException {
+        int size = data.size();
+        writeSize(size, encoding, out);
+        if (nullBitmap) {
+            writeNullBitmap(data, size, out);
+        }
+        for (int arrayIndex = 0; arrayIndex < size; ++arrayIndex) {
             Object element = elementGetter.getElementOrNull(data, arrayIndex);
-            serializer.serializer(element, out);
+            if (element != null) {
+                elementSerializer.serializer(element, out);
+            } else if (!nullBitmap) {
+                throw nullValueUnsupported(encoding, arrayIndex);
+            }
         }
     }
 
     public static ArrayData deserializeArrayData(DataInput input, LogicalType elementType) throws IOException {
-        int arraySize = input.readInt();
-        NoahArkDataDeserializer deserializer = createDataDeserializer(elementType);
+        return deserializeArrayData(input, elementType, NoahArkEncoding.FIXED);
+    }
+
+    public static ArrayData deserializeArrayData(DataInput input, LogicalType elementType, NoahArkEncoding encoding) throws IOException {
+        return (ArrayData) createDataDeserializer(new ArrayType(elementType), encoding).deserializer(input);
+    }
+
+    public static ArrayData deserializeArrayData(DataInput input, NoahArkDataDeserializer elementDeserializer, boolean nullBitmap, NoahArkEncoding encoding) throws IOException {
+        return new GenericArrayData(deserializeArrayElements(input, elementDeserializer, nullBitmap, encoding));
+    }
+
+    private static Object[] deserializeArrayElements(DataInput input, NoahArkDataDeserializer elementDeserializer, boolean hasNullBitmap, NoahArkEncoding encoding) throws IOException {
+        int arraySize = readSize(input, encoding);
+        byte[] nullBitmap = hasNullBitmap ? readNullBitmap(input, arraySize) : null;
         Object[] arrayData = new Object[arraySize];
         for (int arrayIndex = 0; arrayIndex < arraySize; ++arrayIndex) {
-            arrayData[arrayIndex] = deserializer.deserializer(input);
+            if (nullBitmap == null || !isNullAt(nullBitmap, arrayIndex)) {
+                arrayData[arrayIndex] = elementDeserializer.deserializer(input);
+            }
         }
-        return new GenericArrayData(arrayData);
+        return arrayData;
     }
 
     public static void serializeMapData(MapData data, LogicalType keyType, LogicalType valueType, DataOutput out) throws IOException {
-        serializeArrayData(data.keyArray(), keyType, out);
-        serializeArrayData(data.valueArray(), valueType, out);
+        serializeMapData(data, keyType, valueType, NoahArkEncoding.FIXED, out);
+    }
+
+    public static void serializeMapData(MapData data, LogicalType keyType, LogicalType valueType, NoahArkEncoding encoding, DataOutput out) throws IOException {
+        createDataSerializer(new MapType(keyType, valueType), encoding).serializer(data, out);
     }
 
     public static MapData deserializeMapData(DataInput input, LogicalType keyType, LogicalType valueType) throws IOException {
-        ArrayData keyArray = deserializeArrayData(input, keyType);
-        ArrayData.ElementGetter keyElementGetter = ArrayData.createElementGetter(keyType);
-        ArrayData valueArray = deserializeArrayData(input, valueType);
-        ArrayData.ElementGetter valueElementGetter = ArrayData.createElementGetter(valueType);
+        return deserializeMapData(input, keyType, valueType, NoahArkEncoding.FIXED);
+    }
 
-        Preconditions.checkArgument(keyArray.size() == valueArray.size());
+    public static MapData deserializeMapData(DataInput input, LogicalType keyType, LogicalType valueType, NoahArkEncoding encoding) throws IOException {
+        return deserializeMapData(
+                input,
+                createDataDeserializer(keyType, encoding),
+                hasNullBitmap(keyType, encoding),
+                createDataDeserializer(valueType, encoding),
+                hasNullBitmap(valueType, encoding),
+                encoding);
+    }
 
-        Map<Object, Object> map = new HashMap<>();
-        for (int i = 0; i < keyArray.size(); ++i) {
-            Object key = keyElementGetter.getElementOrNull(keyArray, i);
-            Object value = valueElementGetter.getElementOrNull(valueArray, i);
-            map.put(key, value);
+    // map 按 key 数组 + value 数组写入
+    public static MapData deserializeMapData(DataInput input,
+                                             NoahArkDataDeserializer keyDeserializer,
+                                             boolean keyNullBitmap,
+                                             NoahArkDataDeserializer valueDeserializer,
+                                             boolean valueNullBitmap,
+                                             NoahArkEncoding encoding) throws IOException {
+        Object[] keys = deserializeArrayElements(input, keyDeserializer, keyNullBitmap, encoding);
+        Object[] values = deserializeArrayElements(input, valueDeserializer, valueNullBitmap, encoding);
+
+        Preconditions.checkArgument(keys.length == values.length);
+
+        Map<Object, Object> map = new HashMap<>(keys.length * 2);
+        for (int i = 0; i < keys.length; ++i) {
+            map.put(keys[i], values[i]);
         }
 
         return new GenericMapData(map);
     }
 
     public static void serializeRowData(RowData data, RowType rowType, DataOutput out) throws IOException {
-        out.writeInt(rowType.getFieldCount());
+        serializeRowData(data, rowType, NoahArkEncoding.FIXED, out);
+    }
+
+    public static void serializeRowData(RowData data, RowType rowType, NoahArkEncoding encoding, DataOutput out) throws IOException {
+        createDataSerializer(rowType, encoding).serializer(data, out);
+    }
+
+    public static void serializeRowData(RowData data, RowData.FieldGetter[] fieldGetters, NoahArkDataSerializer[] fieldSerializers, boolean nullBitmap, NoahArkEncoding encoding, DataOutput out) throws IOException {
+        writeSize(fieldGetters.length, encoding, out);
         out.writeByte(data.getRowKind().toByteValue());
-        int index = 0;
-        for (RowType.RowField field : rowType.getFields()) {
-            RowData.FieldGetter fieldGetter = RowData.createFieldGetter(field.getType(), index);
-            NoahArkDataSerializer deserializer = createDataSerializer(field.getType());
-            deserializer.serializer(fieldGetter.getFieldOrNull(data), out);
-            index += 1;
+        if (nullBitmap) {
+            writeNullBitmap(data, fieldGetters.length, out);
+        }
+        for (int index = 0; index < fieldGetters.length; ++index) {
+            Object fieldValue = fieldGetters[index].getFieldOrNull(data);
+            if (fieldValue != null) {
+                fieldSerializers[index].serializer(fieldValue, out);
+            } else if (!nullBitmap) {
+                throw nullValueUnsupported(encoding, index);
+            }
         }
     }
 
     public static RowData deserializeRowData(DataInput input, RowType rowType) throws IOException {
-        int fieldCount = input.readInt();
+        return deserializeRowData(input, rowType, NoahArkEncoding.FIXED);
+    }
+
+    public static RowData deserializeRowData(DataInput input, RowType rowType, NoahArkEncoding encoding) throws IOException {
+        return (RowData) createDataDeserializer(rowType, encoding).deserializer(input);
+    }
+
+    public static RowData deserializeRowData(DataInput input, NoahArkDataDeserializer[] fieldDeserializers, boolean hasNullBitmap, NoahArkEncoding encoding) throws IOException {
+        int fieldCount = readSize(input, encoding);
         RowKind kind = RowKind.fromByteValue(input.readByte());
         GenericRowData rowData = new GenericRowData(kind, fieldCount);
-        int index = 0;
-        for (RowType.RowField field : rowType.getFields()) {
-            NoahArkDataDeserializer deserializer = createDataDeserializer(field.getType());
-            rowData.setField(index, deserializer.deserializer(input));
-            index += 1;
+        byte[] nullBitmap = hasNullBitmap ? readNullBitmap(input, fieldCount) : null;
+        for (int index = 0; index < fieldDeserializers.length; ++index) {
+            if (nullBitmap == null || !isNullAt(nullBitmap, index)) {
+                rowData.setField(index, fieldDeserializers[index].deserializer(input));
+            }
         }
         return rowData;
     }
 
+    // ------------------------------------------------------------------------------------------
+    // null bitmap: COMPACT/TAGGED 编码下字段(元素)类型含 nullable 时紧跟长度写入, 每个位置 1 bit, 置位表示 null 且不再写入数据;
+    // FIXED 编码与存量数据布局一致, 不写 bitmap, 写入 null 值时抛出异常
+    // ------------------------------------------------------------------------------------------
+
+    public static boolean hasNullableField(RowType rowType) {
+        for (RowType.RowField field : rowType.getFields()) {
+            if (field.getType().isNullable()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ROW 字段前是否有 null bitmap
+    public static boolean hasNullBitmap(RowType rowType, NoahArkEncoding encoding) {
+        return encoding.hasNullBitmap() && hasNullableField(rowType);
+    }
+
+    // ARRAY 元素(MAP key/value)前是否有 null bitmap
+    public static boolean hasNullBitmap(LogicalType elementType, NoahArkEncoding encoding) {
+        return encoding.hasNullBitmap() && elementType.isNullable();
+    }
+
+    public static IOException nullValueUnsupported(NoahArkEncoding encoding, int pos) {
+        if (!encoding.hasNullBitmap()) {
+            return new IOException(format("null value at position %d, %s NoahArk encoding can't store null values, use COMPACT or TAGGED", pos, encoding));
+        }
+        return new IOException(format("null value at position %d of NOT NULL type", pos));
+    }
+
+    public static int nullBitmapBytes(int size) {
+        return (size + 7) >>> 3;
+    }
+
+    public static boolean isNullAt(byte[] nullBitmap, int pos) {
+        return (nullBitmap[pos >>> 3] & (1 << (pos & 7))) != 0;
+    }
+
+    // 逐字节写入, 不分配 bitmap 数组
+    private static void writeNullBitmap(RowData data, int size, DataOutput out) throws IOException {
+        for (int offset = 0; offset < size; offset += 8) {
+            int bits = 0;
+            for (int pos = offset; pos < size && pos < offset + 8; ++pos) {
+                if (data.isNullAt(pos)) {
+                    bits |= 1 << (pos - offset);
+                }
+            }
+            out.writeByte(bits);
+        }
+    }
+
+    static void writeNullBitmap(ArrayData data, int size, DataOutput out) throws IOException {
+        for (int offset = 0; offset < size; offset += 8) {
+            int bits = 0;
+            for (int pos = offset; pos < size && pos < offset + 8; ++pos) {
+                if (data.isNullAt(pos)) {
+                    bits |= 1 << (pos - offset);
+                }
+            }
+            out.writeByte(bits);
+        }
+    }
+
+    public static byte[] readNullBitmap(DataInput input, int size) throws IOException {
+        byte[] nullBitmap = new byte[nullBitmapBytes(size)];
+        input.readFully(nullBitmap);
+        return nullBitmap;
+    }
+
+    // ------------------------------------------------------------------------------------------
+    // COMPACT encoding
+    // ------------------------------------------------------------------------------------------
+
+    static void writeSize(int size, NoahArkEncoding encoding, DataOutput out) throws IOException {
+        if (encoding.isCompact()) {
+            writeVarInt(size, out);
+        } else {
+            out.writeInt(size);
+        }
+    }
+
+    static int readSize(DataInput input, NoahArkEncoding encoding) throws IOException {
+        return encoding.isCompact() ? readVarInt(input) : input.readInt();
+    }
+
+    // unsigned LEB128
+    public static void writeVarInt(int value, DataOutput out) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    public static int readVarInt(DataInput input) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = input.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed varint");
+    }
+
+    public static void writeVarLong(long value, DataOutput out) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    public static long readVarLong(DataInput input) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = input.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed varlong");
+    }
+
+    public static int encodeZigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    public static int decodeZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public static long encodeZigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    public static long decodeZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public static void serializeCompactStringData(StringData data, DataOutput out) throws IOException {
+        byte[] values = data.toBytes();
+        writeVarInt(values.length, out);
+        out.write(values);
+    }
+
+    public static StringData deserializeCompactStringData(DataInput input) throws IOException {
+        byte[] values = new byte[readVarInt(input)];
+        input.readFully(values);
+        return StringData.fromBytes(values);
+    }
+
+    public static void serializeCompactBinaryData(byte[] data, DataOutput out) throws IOException {
+        writeVarInt(data.length, out);
+        out.write(data);
+    }
+
+    public static byte[] deserializeCompactBinaryData(DataInput input) throws IOException {
+        byte[] values = new byte[readVarInt(input)];
+        input.readFully(values);
+        return values;
+    }
+
+    // precision <= 18 时 unscaled value 可用 long 表示, 直接写 zig-zag varlong
+    public static void serializeCompactDecimalData(DecimalData data, DataOutput out) throws IOException {
+        out.writeByte(data.precision());
+        out.writeByte(data.scale());
+        if (DecimalData.isCompact(data.precision())) {
+            writeVarLong(encodeZigZag(data.toUnscaledLong()), out);
+            return;
+        }
+        byte[] values = data.toUnscaledBytes();
+        writeVarInt(values.length, out);
+        out.write(values);
+    }
+
+    public static DecimalData deserializeCompactDecimalData(DataInput input) throws IOException {
+        int precision = input.readUnsignedByte();
+        int scale = input.readUnsignedByte();
+        if (DecimalData.isCompact(precision)) {
+            return DecimalData.fromUnscaledLong(decodeZigZag(readVarLong(input)), precision, scale);
+        }
+        byte[] values = new byte[readVarInt(input)];
+        input.readFully(values);
+        return DecimalData.fromUnscaledBytes(values, precision, scale);
+    }
+
+    public static void serializeCompactShortData(short data, DataOutput out) throws IOException {
+        writeVarInt(encodeZigZag((int) data), out);
+    }
+
+    public static short deserializeCompactShortData(DataInput input) throws IOException {
+        return (short) decodeZigZag(readVarInt(input));
+    }
+
+    public static void serializeCompactIntData(int data, DataOutput out) throws IOException {
+        writeVarInt(encodeZigZag(data), out);
+    }
+
+    public static int deserializeCompactIntData(DataInput input) throws IOException {
+        return decodeZigZag(readVarInt(input));
+    }
+
+    public static void serializeCompactLongData(long data, DataOutput out) throws IOException {
+        writeVarLong(encodeZigZag(data), out);
+    }
+
+    public static long deserializeCompactLongData(DataInput input) throws IOException {
+        return decodeZigZag(readVarLong(input));
+    }
+
+    public static void serializeCompactTimestampData(TimestampData data, DataOutput out) throws IOException {
+        writeVarLong(encodeZigZag(data.getMillisecond()), out);
+        writeVarInt(data.getNanoOfMillisecond(), out);
+    }
+
+    public static TimestampData deserializeCompactTimestampData(DataInput input) throws IOException {
+        long millisecond = decodeZigZag(readVarLong(input));
+        return TimestampData.fromEpochMillis(millisecond, readVarInt(input));
+    }
+
+    // 列裁剪时跳过不读取的字段: 定长字段直接跳过, 变长字段按长度前缀跳过, 不做解码
+
+    public static void skipFully(DataInput input, int length) throws IOException {
+        if (input.skipBytes(length) != length) {
+            throw new EOFException("failed skip bytes: " + length);
+        }
+    }
+
+    public static void skipBinaryData(DataInput input) throws IOException {
+        skipFully(input, input.readInt());
+    }
+
+    public static void skipDecimalData(DataInput input) throws IOException {
+        // precision + scale
+        skipFully(input, 8);
+        skipFully(input, input.readInt());
+    }
+
+    // varint / varlong 均适用
+    public static void skipVarInt(DataInput input) throws IOException {
+        for (int i = 0; i < 10; ++i) {
+            if ((input.readByte() & 0x80) == 0) {
+                return;
+            }
+        }
+        throw new IOException("malformed varint");
+    }
+
+    public static void skipCompactBinaryData(DataInput input) throws IOException {
+        skipFully(input, readVarInt(input));
+    }
+
+    public static void skipCompactDecimalData(DataInput input) throws IOException {
+        int precision = input.readUnsignedByte();
+        input.readUnsignedByte();
+        if (DecimalData.isCompact(precision)) {
+            skipVarInt(input);
+        } else {
+            skipFully(input, readVarInt(input));
+        }
+    }
+
 }
@@ -17,38 +17,55 @@ public interface NoahArkDataSerializer extends Serializable {
     void serializer(Object data, DataOutput out) throws IOException;
 
     static NoahArkDataSerializer createDataSerializer(LogicalType fieldType) {
+        return createDataSerializer(fieldType, NoahArkEncoding.FIXED);
+    }
+
+    static NoahArkDataSerializer createDataSerializer(LogicalType fieldType, NoahArkEncoding encoding) {
+        final boolean compact = encoding.isCompact();
         NoahArkDataSerializer serializer;
         // ordered by type root definition
         switch (fieldType.getTypeRoot()) {
             case CHAR:
             case VARCHAR:
-                serializer = (data, out) -> serializeStringData((StringData) data, out);
+                serializer = compact
+                        ? (data, out) -> serializeCompactStringData((StringData) data, out)
+                        : (data, out) -> serializeStringData((StringData) data, out);
                 break;
             case BOOLEAN:
                 serializer = (data, out) -> serializeBooleanData((boolean) data, out);;
                 break;
             case BINARY:
             case VARBINARY:
-                serializer = (data, out) -> serializeBinaryData((byte[]) data, out);
+                serializer = compact
+                        ? (data, out) -> serializeCompactBinaryData((byte[]) data, out)
+                        : (data, out) -> serializeBinaryData((byte[]) data, out);
                 break;
             case DECIMAL:
-                serializer = (data, out) ->  serializeDecimalData((DecimalData) data, out);
+                serializer = compact
+                        ? (data, out) -> serializeCompactDecimalData((DecimalData) data, out)
+                        : (data, out) -> serializeDecimalData((DecimalData) data, out);
                 break;
             case TINYINT:
                 serializer = (data, out) -> serializeByteData((byte) data, out);;
                 break;
             case SMALLINT:
-                serializer = (data, out) -> serializeShortData((short) data, out);
+                serializer = compact
+                        ? (data, out) -> serializeCompactShortData((short) data, out)
+                        : (data, out) -> serializeShortData((short) data, out);
                 break;
             case INTEGER:
             case DATE:
             case TIME_WITHOUT_TIME_ZONE:
             case INTERVAL_YEAR_MONTH:
-                serializer = (data, out) -> serializeIntData((int) data, out);
+                serializer = compact
+                        ? (data, out) -> serializeCompactIntData((int) data, out)
+                        : (data, out) -> serializeIntData((int) data, out);
                 break;
             case BIGINT:
             case INTERVAL_DAY_TIME:
-                serializer = (data, out) ->  serializeLongData((long) data, out);
+                serializer = compact
+                        ? (data, out) -> serializeCompactLongData((long) data, out)
+                        : (data, out) -> serializeLongData((long) data, out);
                 break;
             case FLOAT:
                 serializer = (data, out) -> serializeFloatData((float) data, out);;
@@ -58,25 +75,52 @@ public interface NoahArkDataSerializer extends Serializable {
                 break;
             case TIMESTAMP_WITHOUT_TIME_ZONE:
             case TIMESTAMP_WITH_LOCAL_TIME_ZONE:
-                serializer = (data, out) -> serializeTimestampData((TimestampData) data, out);;
+                serializer = compact
+                        ? (data, out) -> serializeCompactTimestampData((TimestampData) data, out)
+                        : (data, out) -> serializeTimestampData((TimestampData) data, out);
                 break;
             case RAW:
             case DISTINCT_TYPE:
             case TIMESTAMP_WITH_TIME_ZONE:
                 throw new UnsupportedOperationException();
             case ARRAY:
-                ArrayType arrayType = (ArrayType) fieldType;
-                serializer = (data, out) -> serializeArrayData((ArrayData) data, arrayType.getElementType(), out);
+                // 嵌套类型的元素(字段)序列化器在此一次性构建
+                LogicalType elementType = ((ArrayType) fieldType).getElementType();
+                if (NoahArkPrimitiveArrays.isPrimitiveElement(elementType)) {
+                    serializer = NoahArkPrimitiveArrays.createArraySerializer(elementType, encoding);
+                    break;
+                }
+                ArrayData.ElementGetter elementGetter = ArrayData.createElementGetter(elementType);
+                NoahArkDataSerializer elementSerializer = createDataSerializer(elementType, encoding);
+                boolean elementNullBitmap = hasNullBitmap(elementType, encoding);
+                serializer = (data, out) -> serializeArrayData((ArrayData) data, elementGetter, elementSerializer, elementNullBitmap, encoding, out);
                 break;
             case MULTISET:
             case MAP:
                 MapType type = (MapType) fieldType;
-                serializer = (data, out) -> serializeMapData((MapData) data, type.getKeyType(), type.getValueType(), out);
+                ArrayData.ElementGetter keyGetter = ArrayData.createElementGetter(type.getKeyType());
+                NoahArkDataSerializer keySerializer = createDataSerializer(type.getKeyType(), encoding);
+                boolean keyNullBitmap = hasNullBitmap(type.getKeyType(), encoding);
+                ArrayData.ElementGetter valueGetter = ArrayData.createElementGetter(type.getValueType());
+                NoahArkDataSerializer valueSerializer = createDataSerializer(type.getValueType(), encoding);
+                boolean valueNullBitmap = hasNullBitmap(type.getValueType(), encoding);
+                serializer = (data, out) -> {
+                    MapData mapData = (MapData) data;
+                    serializeArrayData(mapData.keyArray(), keyGetter, keySerializer, keyNullBitmap, encoding, out);
+                    serializeArrayData(mapData.valueArray(), valueGetter, valueSerializer, valueNullBitmap, encoding, out);
+                };
                 break;
             case ROW:
             case STRUCTURED_TYPE:
                 RowType rowType = (RowType) fieldType;
-                serializer = (data, out) -> serializeRowData((RowData) data, rowType, out);;
+                RowData.FieldGetter[] fieldGetters = new RowData.FieldGetter[rowType.getFieldCount()];
+                NoahArkDataSerializer[] fieldSerializers = new NoahArkDataSerializer[rowType.getFieldCount()];
+                for (int pos = 0; pos < rowType.getFieldCount(); ++pos) {
+                    fieldGetters[pos] = RowData.createFieldGetter(rowType.getTypeAt(pos), pos);
+                    fieldSerializers[pos] = createDataSerializer(rowType.getTypeAt(pos), encoding);
+                }
+                boolean nullBitmap = hasNullBitmap(rowType, encoding);
+                serializer = (data, out) -> serializeRowData((RowData) data, fieldGetters, fieldSerializers, nullBitmap, encoding, out);
                 break;
             case NULL:
             case SYMBOL:
@@ -88,6 +132,7 @@ public interface NoahArkDataSerializer extends Serializable {
         if (!fieldType.isNullable()) {
             return serializer;
         }
+        // nullable 字段的 null 由外层 null bitmap 记录(FIXED 编码由外层拒绝), 不写入任何数据
         return (data, out) -> {
             if (data == null) {
                 return;
@@ -0,0 +1,52 @@
+package com.sdu.streaming.warehouse.deserializer;
+
+// NoahArk 编码版本:
+//  FIXED: 定长整数及长度前缀, 无版本头及 null bitmap, 与存量数据布局一致, 不能写入 null 值
+//  COMPACT: 长度及整数使用 varint, 有符号数使用 zig-zag, decimal 精度单字节, nullable 字段(元素)写入 null bitmap; 数据以版本号开头
+//  TAGGED: 字段编码同 COMPACT, 每个字段附带字段 ID(见 NoahArkFieldIds), 读取时跳过未知字段, 缺失字段为 null, 支持 schema 演进
+public enum NoahArkEncoding {
+
+    FIXED((byte) 0),
+
+    COMPACT((byte) 1),
+
+    TAGGED((byte) 2);
+
+    // 版本号须小于 0x80, 最高位为 1 的首字节留作 redis value 压缩标记
+    private final byte version;
+
+    NoahArkEncoding(byte version) {
+        this.version = version;
+    }
+
+    public byte getVersion() {
+        return version;
+    }
+
+    public boolean hasHeader() {
+        return this != FIXED;
+    }
+
+    public boolean isCompact() {
+        return this != FIXED;
+    }
+
+    public boolean hasNullBitmap() {
+        return this != FIXED;
+    }
+
+    public boolean isTagged() {
+        return this == TAGGED;
+    }
+
+    // 未知版本返回 null
+    public static NoahArkEncoding fromVersion(byte version) {
+        for (NoahArkEncoding encoding : values()) {
+            if (encoding.version == version) {
+                return encoding;
+            }
+        }
+        return null;
+    }
+
+}
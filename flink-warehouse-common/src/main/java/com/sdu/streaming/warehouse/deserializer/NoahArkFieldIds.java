@@ -0,0 +1,90 @@
+package com.sdu.streaming.warehouse.deserializer;
+
+import org.apache.flink.table.types.logical.RowType;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// TAGGED 编码的字段 ID 及 schema 指纹:
+//  字段 ID = hash(字段名 + 字段类型), 与字段位置无关; 类型变更(不含 nullable)视为新字段, 旧数据读取为 null
+//  schema 指纹 = hash(按位置排列的字段 ID), 读写两端一致时按位置顺序匹配字段, 否则按字段 ID 查找
+public class NoahArkFieldIds implements Serializable {
+
+    private static final int FNV_OFFSET = 0x811c9dc5;
+    private static final int FNV_PRIME = 0x01000193;
+
+    private final int[] fieldIds;
+    private final Map<Integer, Integer> positions;
+    private final int fingerprint;
+
+    private NoahArkFieldIds(int[] fieldIds, Map<Integer, Integer> positions, int fingerprint) {
+        this.fieldIds = fieldIds;
+        this.positions = positions;
+        this.fingerprint = fingerprint;
+    }
+
+    public int getFieldId(int pos) {
+        return fieldIds[pos];
+    }
+
+    public int getFingerprint() {
+        return fingerprint;
+    }
+
+    public int size() {
+        return fieldIds.length;
+    }
+
+    // 未知字段返回 -1
+    public int getPosition(int fieldId) {
+        Integer pos = positions.get(fieldId);
+        return pos == null ? -1 : pos;
+    }
+
+    // 指纹一致时字段按位置顺序写入, 从 from 开始顺序查找, 避免 hash 查找
+    public int getPosition(int fieldId, int from) {
+        for (int pos = from; pos < fieldIds.length; ++pos) {
+            if (fieldIds[pos] == fieldId) {
+                return pos;
+            }
+        }
+        return getPosition(fieldId);
+    }
+
+    public static NoahArkFieldIds of(RowType rowType) {
+        List<RowType.RowField> fields = rowType.getFields();
+        int[] fieldIds = new int[fields.size()];
+        Map<Integer, Integer> positions = new HashMap<>(fields.size() * 2);
+        int fingerprint = FNV_OFFSET;
+        for (int pos = 0; pos < fields.size(); ++pos) {
+            RowType.RowField field = fields.get(pos);
+            String signature = field.getName() + ":" + field.getType().copy(true).asSummaryString();
+            fieldIds[pos] = hash(FNV_OFFSET, signature.getBytes(StandardCharsets.UTF_8));
+            Integer previous = positions.put(fieldIds[pos], pos);
+            if (previous != null) {
+                throw new IllegalArgumentException("NoahArk field id conflict: " + fields.get(previous).getName() + ", " + field.getName());
+            }
+            fingerprint = hash(fingerprint, fieldIds[pos]);
+        }
+        return new NoahArkFieldIds(fieldIds, positions, fingerprint);
+    }
+
+    // FNV-1a
+    private static int hash(int hash, byte[] bytes) {
+        for (byte b : bytes) {
+            hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static int hash(int hash, int value) {
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            hash = (hash ^ ((value >>> shift) & 0xFF)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+}
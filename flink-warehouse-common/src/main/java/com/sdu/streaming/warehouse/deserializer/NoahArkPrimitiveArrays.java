@@ -0,0 +1,291 @@
+package com.sdu.streaming.warehouse.deserializer;
+
+import com.sdu.streaming.warehouse.utils.ByteArrayDataInput;
+import com.sdu.streaming.warehouse.utils.ByteArrayDataOutput;
+import org.apache.flink.table.data.ArrayData;
+import org.apache.flink.table.data.GenericArrayData;
+import org.apache.flink.table.data.binary.BinaryArrayData;
+import org.apache.flink.table.types.logical.LogicalType;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static com.sdu.streaming.warehouse.deserializer.NoahArkDataDeserializerUtils.*;
+
+// 基本类型数组: size + [null bitmap] + 连续数据块, null 元素按 0 占位(FIXED 编码无 null bitmap, 不能写入 null 元素);
+// 定长元素(FIXED 编码或 FLOAT/DOUBLE 等)整块读写, 反序列化直接生成基本类型数组, 含 null 时使用 BinaryArrayData
+public final class NoahArkPrimitiveArrays {
+
+    private NoahArkPrimitiveArrays() { }
+
+    public static boolean isPrimitiveElement(LogicalType elementType) {
+        switch (elementType.getTypeRoot()) {
+            case BOOLEAN:
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case DATE:
+            case TIME_WITHOUT_TIME_ZONE:
+            case INTERVAL_YEAR_MONTH:
+            case BIGINT:
+            case INTERVAL_DAY_TIME:
+            case FLOAT:
+            case DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public static NoahArkDataSerializer createArraySerializer(LogicalType elementType, NoahArkEncoding encoding) {
+        final boolean compact = encoding.isCompact();
+        final boolean nullable = elementType.isNullable();
+        switch (elementType.getTypeRoot()) {
+            case BOOLEAN:
+                return (data, out) -> {
+                    ArrayData array = writeArrayHeader((ArrayData) data, nullable, encoding, out);
+                    for (int i = 0; i < array.size(); ++i) {
+                        out.writeBoolean(!array.isNullAt(i) && array.getBoolean(i));
+                    }
+                };
+            case TINYINT:
+                return (data, out) -> {
+                    ArrayData array = writeArrayHeader((ArrayData) data, nullable, encoding, out);
+                    if (isPrimitiveBacked(array)) {
+                        out.write(((GenericArrayData) array).toByteArray());
+                        return;
+                    }
+                    for (int i = 0; i < array.size(); ++i) {
+                        out.writeByte(array.isNullAt(i) ? 0 : array.getByte(i));
+                    }
+                };
+            case SMALLINT:
+                return (data, out) -> {
+                    ArrayData array = writeArrayHeader((ArrayData) data, nullable, encoding, out);
+                    if (!compact && isPrimitiveBacked(array) && out instanceof ByteArrayDataOutput) {
+                        short[] values = ((GenericArrayData) array).toShortArray();
+                        ((ByteArrayDataOutput) out).writeShorts(values, 0, values.length);
+                        return;
+                    }
+                    for (int i = 0; i < array.size(); ++i) {
+                        short value = array.isNullAt(i) ? 0 : array.getShort(i);
+                        if (compact) {
+                            serializeCompactShortData(value, out);
+                        } else {
+                            out.writeShort(value);
+                        }
+                    }
+                };
+            case INTEGER:
+            case DATE:
+            case TIME_WITHOUT_TIME_ZONE:
+            case INTERVAL_YEAR_MONTH:
+                return (data, out) -> {
+                    ArrayData array = writeArrayHeader((ArrayData) data, nullable, encoding, out);
+                    if (!compact && isPrimitiveBacked(array) && out instanceof ByteArrayDataOutput) {
+                        int[] values = ((GenericArrayData) array).toIntArray();
+                        ((ByteArrayDataOutput) out).writeInts(values, 0, values.length);
+                        return;
+                    }
+                    for (int i = 0; i < array.size(); ++i) {
+                        int value = array.isNullAt(i) ? 0 : array.getInt(i);
+                        if (compact) {
+                            serializeCompactIntData(value, out);
+                        } else {
+                            out.writeInt(value);
+                        }
+                    }
+                };
+            case BIGINT:
+            case INTERVAL_DAY_TIME:
+                return (data, out) -> {
+                    ArrayData array = writeArrayHeader((ArrayData) data, nullable, encoding, out);
+                    if (!compact && isPrimitiveBacked(array) && out instanceof ByteArrayDataOutput) {
+                        long[] values = ((GenericArrayData) array).toLongArray();
+                        ((ByteArrayDataOutput) out).writeLongs(values, 0, values.length);
+                        return;
+                    }
+                    for (int i = 0; i < array.size(); ++i) {
+                        long value = array.isNullAt(i) ? 0L : array.getLong(i);
+                        if (compact) {
+                            serializeCompactLongData(value, out);
+                        } else {
+                            out.writeLong(value);
+                        }
+                    }
+                };
+            case FLOAT:
+                return (data, out) -> {
+                    ArrayData array = writeArrayHeader((ArrayData) data, nullable, encoding, out);
+                    if (isPrimitiveBacked(array) && out instanceof ByteArrayDataOutput) {
+                        float[] values = ((GenericArrayData) array).toFloatArray();
+                        ((ByteArrayDataOutput) out).writeFloats(values, 0, values.length);
+                        return;
+                    }
+                    for (int i = 0; i < array.size(); ++i) {
+                        out.writeFloat(array.isNullAt(i) ? 0.0f : array.getFloat(i));
+                    }
+                };
+            case DOUBLE:
+                return (data, out) -> {
+                    ArrayData array = writeArrayHeader((ArrayData) data, nullable, encoding, out);
+                    if (isPrimitiveBacked(array) && out instanceof ByteArrayDataOutput) {
+                        double[] values = ((GenericArrayData) array).toDoubleArray();
+                        ((ByteArrayDataOutput) out).writeDoubles(values, 0, values.length);
+                        return;
+                    }
+                    for (int i = 0; i < array.size(); ++i) {
+                        out.writeDouble(array.isNullAt(i) ? 0.0d : array.getDouble(i));
+                    }
+                };
+            default:
+                throw new IllegalArgumentException("unsupported primitive array element type: " + elementType);
+        }
+    }
+
+    public static NoahArkDataDeserializer createArrayDeserializer(LogicalType elementType, NoahArkEncoding encoding) {
+        final boolean compact = encoding.isCompact();
+        final boolean hasBitmap = hasNullBitmap(elementType, encoding);
+        switch (elementType.getTypeRoot()) {
+            case BOOLEAN:
+                return input -> {
+                    int size = readSize(input, encoding);
+                    byte[] nullBitmap = hasBitmap ? readNullBitmap(input, size) : null;
+                    boolean[] values = new boolean[size];
+                    for (int i = 0; i < size; ++i) {
+                        values[i] = input.readBoolean();
+                    }
+                    return hasNull(nullBitmap, size) ? withNulls(BinaryArrayData.fromPrimitiveArray(values), nullBitmap) : new GenericArrayData(values);
+                };
+            case TINYINT:
+                return input -> {
+                    int size = readSize(input, encoding);
+                    byte[] nullBitmap = hasBitmap ? readNullBitmap(input, size) : null;
+                    byte[] values = new byte[size];
+                    input.readFully(values);
+                    return hasNull(nullBitmap, size) ? withNulls(BinaryArrayData.fromPrimitiveArray(values), nullBitmap) : new GenericArrayData(values);
+                };
+            case SMALLINT:
+                return input -> {
+                    int size = readSize(input, encoding);
+                    byte[] nullBitmap = hasBitmap ? readNullBitmap(input, size) : null;
+                    short[] values = new short[size];
+                    if (!compact && input instanceof ByteArrayDataInput) {
+                        ((ByteArrayDataInput) input).readShorts(values, 0, size);
+                    } else {
+                        for (int i = 0; i < size; ++i) {
+                            values[i] = compact ? deserializeCompactShortData(input) : input.readShort();
+                        }
+                    }
+                    return hasNull(nullBitmap, size) ? withNulls(BinaryArrayData.fromPrimitiveArray(values), nullBitmap) : new GenericArrayData(values);
+                };
+            case INTEGER:
+            case DATE:
+            case TIME_WITHOUT_TIME_ZONE:
+            case INTERVAL_YEAR_MONTH:
+                return input -> {
+                    int size = readSize(input, encoding);
+                    byte[] nullBitmap = hasBitmap ? readNullBitmap(input, size) : null;
+                    int[] values = new int[size];
+                    if (!compact && input instanceof ByteArrayDataInput) {
+                        ((ByteArrayDataInput) input).readInts(values, 0, size);
+                    } else {
+                        for (int i = 0; i < size; ++i) {
+                            values[i] = compact ? deserializeCompactIntData(input) : input.readInt();
+                        }
+                    }
+                    return hasNull(nullBitmap, size) ? withNulls(BinaryArrayData.fromPrimitiveArray(values), nullBitmap) : new GenericArrayData(values);
+                };
+            case BIGINT:
+            case INTERVAL_DAY_TIME:
+                return input -> {
+                    int size = readSize(input, encoding);
+                    byte[] nullBitmap = hasBitmap ? readNullBitmap(input, size) : null;
+                    long[] values = new long[size];
+                    if (!compact && input instanceof ByteArrayDataInput) {
+                        ((ByteArrayDataInput) input).readLongs(values, 0, size);
+                    } else {
+                        for (int i = 0; i < size; ++i) {
+                            values[i] = compact ? deserializeCompactLongData(input) : input.readLong();
+                        }
+                    }
+                    return hasNull(nullBitmap, size) ? withNulls(BinaryArrayData.fromPrimitiveArray(values), nullBitmap) : new GenericArrayData(values);
+                };
+            case FLOAT:
+                return input -> {
+                    int size = readSize(input, encoding);
+                    byte[] nullBitmap = hasBitmap ? readNullBitmap(input, size) : null;
+                    float[] values = new float[size];
+                    if (input instanceof ByteArrayDataInput) {
+                        ((ByteArrayDataInput) input).readFloats(values, 0, size);
+                    } else {
+                        for (int i = 0; i < size; ++i) {
+                            values[i] = input.readFloat();
+                        }
+                    }
+                    return hasNull(nullBitmap, size) ? withNulls(BinaryArrayData.fromPrimitiveArray(values), nullBitmap) : new GenericArrayData(values);
+                };
+            case DOUBLE:
+                return input -> {
+                    int size = readSize(input, encoding);
+                    byte[] nullBitmap = hasBitmap ? readNullBitmap(input, size) : null;
+                    double[] values = new double[size];
+                    if (input instanceof ByteArrayDataInput) {
+                        ((ByteArrayDataInput) input).readDoubles(values, 0, size);
+                    } else {
+                        for (int i = 0; i < size; ++i) {
+                            values[i] = input.readDouble();
+                        }
+                    }
+                    return hasNull(nullBitmap, size) ? withNulls(BinaryArrayData.fromPrimitiveArray(values), nullBitmap) : new GenericArrayData(values);
+                };
+            default:
+                throw new IllegalArgumentException("unsupported primitive array element type: " + elementType);
+        }
+    }
+
+    private static ArrayData writeArrayHeader(ArrayData array, boolean nullable, NoahArkEncoding encoding, DataOutput out) throws IOException {
+        writeSize(array.size(), encoding, out);
+        if (!nullable) {
+            return array;
+        }
+        if (encoding.hasNullBitmap()) {
+            writeNullBitmap(array, array.size(), out);
+            return array;
+        }
+        // FIXED 无 null bitmap, 不能以 0 占位
+        for (int i = 0; i < array.size(); ++i) {
+            if (array.isNullAt(i)) {
+                throw nullValueUnsupported(encoding, i);
+            }
+        }
+        return array;
+    }
+
+    // GenericArrayData 基本类型数组可直接取底层数组, 不拷贝
+    private static boolean isPrimitiveBacked(ArrayData array) {
+        return array instanceof GenericArrayData && ((GenericArrayData) array).isPrimitiveArray();
+    }
+
+    private static boolean hasNull(byte[] nullBitmap, int size) {
+        if (nullBitmap == null) {
+            return false;
+        }
+        for (byte bits : nullBitmap) {
+            if (bits != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ArrayData withNulls(BinaryArrayData array, byte[] nullBitmap) {
+        for (int i = 0; i < array.size(); ++i) {
+            if (isNullAt(nullBitmap, i)) {
+                array.setNullAt(i);
+            }
+        }
+        return array;
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.sdu.streaming.warehouse.deserializer;
+
+import org.apache.flink.util.Preconditions;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+// 列裁剪: fields[i] 为输出行第 i 列在完整行中的位置
+public class NoahArkProjection implements Serializable {
+
+    private final int[] fields;
+    // 完整行位置 -> 输出行位置, 未读取为 -1
+    private final int[] targets;
+    // 最后一个读取字段的位置, 之后的字段无需再跳过
+    private final int lastField;
+
+    private NoahArkProjection(int[] fields, int fieldCount) {
+        Preconditions.checkArgument(fields.length > 0, "projection requires at least one field");
+        this.fields = fields;
+        this.targets = new int[fieldCount];
+        Arrays.fill(targets, -1);
+        int last = -1;
+        for (int i = 0; i < fields.length; ++i) {
+            Preconditions.checkArgument(fields[i] >= 0 && fields[i] < fieldCount, "projected field out of range: " + fields[i]);
+            targets[fields[i]] = i;
+            last = Math.max(last, fields[i]);
+        }
+        this.lastField = last;
+    }
+
+    public int[] getFields() {
+        return fields;
+    }
+
+    public int[] getTargets() {
+        return targets;
+    }
+
+    public int getLastField() {
+        return lastField;
+    }
+
+    public int getArity() {
+        return fields.length;
+    }
+
+    public boolean isProjected(int pos) {
+        return targets[pos] >= 0;
+    }
+
+    public static NoahArkProjection of(int[] fields, int fieldCount) {
+        return new NoahArkProjection(fields, fieldCount);
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.sdu.streaming.warehouse.deserializer;
+
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.types.logical.RowType;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// 按 RowType 生成的行编解码器, 字段按类型直接读写, 布局与 NoahArkDataSerializer 逐字段序列化一致:
+//  serialize/deserialize: [null bitmap(COMPACT/TAGGED)] + 非 null 字段
+//  deserialize 返回生成的 NoahArkRowData, 基本类型字段不装箱
+//  serializeField/deserializeField: 单个非 null 字段
+//  deserialize(input, projection): 只解码裁剪后的字段, 其余字段按长度跳过, 读完最后一个裁剪字段即返回
+public interface NoahArkRowCodec {
+
+    void serialize(RowData row, DataOutput out) throws IOException;
+
+    RowData deserialize(DataInput input) throws IOException;
+
+    RowData deserialize(DataInput input, NoahArkProjection projection) throws IOException;
+
+    void serializeField(int pos, RowData row, DataOutput out) throws IOException;
+
+    Object deserializeField(int pos, DataInput input) throws IOException;
+
+    // TAGGED 编码使用的字段 ID
+    NoahArkFieldIds getFieldIds();
+
+    static NoahArkRowCodec createRowCodec(RowType rowType) {
+        return createRowCodec(rowType, NoahArkEncoding.FIXED);
+    }
+
+    static NoahArkRowCodec createRowCodec(RowType rowType, NoahArkEncoding encoding) {
+        return NoahArkRowCodecGenerator.generate(rowType, encoding);
+    }
+
+}
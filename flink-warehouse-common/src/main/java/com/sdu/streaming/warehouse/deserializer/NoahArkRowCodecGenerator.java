@@ -0,0 +1,374 @@
+package com.sdu.streaming.warehouse.deserializer;
+
+import com.sdu.streaming.warehouse.utils.FreeMarkerUtils;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.sdu.streaming.warehouse.deserializer.NoahArkDataDeserializer.createDataDeserializer;
+import static com.sdu.streaming.warehouse.deserializer.NoahArkDataSerializer.createDataSerializer;
+import static com.sdu.streaming.warehouse.utils.VariableUtils.getSerialId;
+import static java.lang.String.format;
+import static org.apache.flink.table.runtime.generated.CompileUtils.compile;
+import static org.apache.flink.table.types.logical.utils.LogicalTypeChecks.getFieldCount;
+import static org.apache.flink.table.types.logical.utils.LogicalTypeChecks.getPrecision;
+import static org.apache.flink.table.types.logical.utils.LogicalTypeChecks.getScale;
+
+// 按 RowType 生成 NoahArkRowCodec, 编译后的类按 (编码, 类型签名) 缓存
+public class NoahArkRowCodecGenerator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NoahArkRowCodecGenerator.class);
+
+    private static final String CODEC_TEMPLATE_NAME = "NoahArkRowCodec.ftl";
+    private static final String CODEC_PACKAGE = "com.sdu.streaming.warehouse.deserializer";
+    private static final String UTILS = "NoahArkDataDeserializerUtils";
+
+    private static final Map<String, Class<NoahArkRowCodec>> CODEC_CLASSES = new ConcurrentHashMap<>();
+
+    // 成员类型 -> RowData getter
+    private static final Map<String, String> ROW_GETTERS = new LinkedHashMap<>();
+
+    static {
+        ROW_GETTERS.put("boolean", "boolean getBoolean(int pos)");
+        ROW_GETTERS.put("byte", "byte getByte(int pos)");
+        ROW_GETTERS.put("short", "short getShort(int pos)");
+        ROW_GETTERS.put("int", "int getInt(int pos)");
+        ROW_GETTERS.put("long", "long getLong(int pos)");
+        ROW_GETTERS.put("float", "float getFloat(int pos)");
+        ROW_GETTERS.put("double", "double getDouble(int pos)");
+        ROW_GETTERS.put("StringData", "StringData getString(int pos)");
+        ROW_GETTERS.put("DecimalData", "DecimalData getDecimal(int pos, int precision, int scale)");
+        ROW_GETTERS.put("TimestampData", "TimestampData getTimestamp(int pos, int precision)");
+        ROW_GETTERS.put("byte[]", "byte[] getBinary(int pos)");
+        ROW_GETTERS.put("ArrayData", "ArrayData getArray(int pos)");
+        ROW_GETTERS.put("MapData", "MapData getMap(int pos)");
+        ROW_GETTERS.put("RowData", "RowData getRow(int pos, int numFields)");
+    }
+
+    private NoahArkRowCodecGenerator() { }
+
+    public static NoahArkRowCodec generate(RowType rowType, NoahArkEncoding encoding) {
+        Class<NoahArkRowCodec> codecClass = CODEC_CLASSES.computeIfAbsent(
+                encoding + ":" + rowType.asSummaryString(), signature -> compileCodec(rowType, encoding));
+
+        int size = rowType.getFieldCount();
+        NoahArkDataSerializer[] serializers = new NoahArkDataSerializer[size];
+        NoahArkDataDeserializer[] deserializers = new NoahArkDataDeserializer[size];
+        for (int pos = 0; pos < size; ++pos) {
+            serializers[pos] = createDataSerializer(rowType.getTypeAt(pos), encoding);
+            deserializers[pos] = createDataDeserializer(rowType.getTypeAt(pos), encoding);
+        }
+        try {
+            return codecClass.getConstructor(NoahArkDataSerializer[].class, NoahArkDataDeserializer[].class, NoahArkFieldIds.class)
+                    .newInstance(serializers, deserializers, NoahArkFieldIds.of(rowType));
+        } catch (Exception e) {
+            throw new RuntimeException("failed create NoahArk row codec for type: " + rowType, e);
+        }
+    }
+
+    private static Class<NoahArkRowCodec> compileCodec(RowType rowType, NoahArkEncoding encoding) {
+        boolean compact = encoding.isCompact();
+        int size = rowType.getFieldCount();
+        boolean hasNullBitmap = NoahArkDataDeserializerUtils.hasNullBitmap(rowType, encoding);
+
+        StringBuilder serializeCode = new StringBuilder();
+        StringBuilder deserializeCode = new StringBuilder();
+        StringBuilder projectedDeserializeCode = new StringBuilder();
+        List<String> serializeFields = new ArrayList<>(size);
+        List<String> deserializeFields = new ArrayList<>(size);
+        // 生成的 NoahArkRowData: 字段按类型声明成员, 同类型字段共用一个 getter
+        StringBuilder rowFields = new StringBuilder();
+        StringBuilder sourceFieldCases = new StringBuilder();
+        Map<String, StringBuilder> getterCases = new LinkedHashMap<>();
+
+        // null bitmap
+        if (hasNullBitmap) {
+            // 逐字节写入: out.writeByte((row.isNullAt(0) ? 1 : 0) | (row.isNullAt(2) ? 4 : 0))
+            for (int offset = 0; offset < size; offset += 8) {
+                StringBuilder bits = new StringBuilder("0");
+                for (int pos = offset; pos < size && pos < offset + 8; ++pos) {
+                    if (rowType.getTypeAt(pos).isNullable()) {
+                        bits.append(format(" | (row.isNullAt(%d) ? %d : 0)", pos, 1 << (pos - offset)));
+                    }
+                }
+                serializeCode.append(format("out.writeByte(%s);", bits));
+            }
+            deserializeCode.append(format("byte[] nullBitmap = %s.readNullBitmap(input, %d);", UTILS, size));
+            projectedDeserializeCode.append(format("byte[] nullBitmap = %s.readNullBitmap(input, %d);", UTILS, size));
+        }
+
+        for (int pos = 0; pos < size; ++pos) {
+            LogicalType type = rowType.getTypeAt(pos);
+            String writeCode = writeCode(type, pos, compact);
+            String readCode = readCode(type, pos, compact);
+            String skipCode = skipCode(type, pos, compact);
+            String setCode = format("row.f%d = %s;", pos, readCode);
+            String nullCode = format("row.setNullField(%d);", pos);
+            // 未裁剪字段跳过
+            String projectedCode = format("if (targets[%d] >= 0) { %s } else { %s }", pos, setCode, skipCode);
+            if (type.isNullable() && !hasNullBitmap) {
+                // FIXED: 与存量数据布局一致, 无法表示 null
+                serializeCode.append(format("if (row.isNullAt(%d)) { throw %s.nullValueUnsupported(%s.%s, %d); } %s",
+                        pos, UTILS, NoahArkEncoding.class.getName(), encoding.name(), pos, writeCode));
+                deserializeCode.append(setCode);
+                projectedDeserializeCode.append(projectedCode);
+            } else if (type.isNullable()) {
+                String isNull = format("(nullBitmap[%d] & %d) != 0", pos >>> 3, 1 << (pos & 7));
+                serializeCode.append(format("if (!row.isNullAt(%d)) { %s }", pos, writeCode));
+                deserializeCode.append(format("if (%s) { %s } else { %s }", isNull, nullCode, setCode));
+                projectedDeserializeCode.append(format("if (%s) { %s } else { %s }", isNull, nullCode, projectedCode));
+            } else {
+                serializeCode.append(writeCode);
+                deserializeCode.append(setCode);
+                projectedDeserializeCode.append(projectedCode);
+            }
+            projectedDeserializeCode.append(format("if (lastField == %d) { return row; }", pos));
+            serializeFields.add(writeCode);
+            deserializeFields.add(boxCode(type, readCode));
+
+            String javaType = javaType(type);
+            rowFields.append(format("%s f%d;", javaType, pos));
+            sourceFieldCases.append(format("case %d: return %s;", pos, boxCode(type, "f" + pos)));
+            getterCases.computeIfAbsent(javaType, t -> new StringBuilder()).append(format("case %d: return f%d;", pos, pos));
+        }
+
+        StringBuilder rowGetters = new StringBuilder();
+        for (Map.Entry<String, String> getter : ROW_GETTERS.entrySet()) {
+            StringBuilder cases = getterCases.getOrDefault(getter.getKey(), new StringBuilder());
+            rowGetters.append(format("public %s { switch (sources[pos]) { %s default: throw unsupported(pos, \"%s\"); } }",
+                    getter.getValue(), cases, getter.getKey()));
+        }
+
+        String className = format("NoahArkRowCodec$%d", getSerialId());
+        Map<String, Object> props = new HashMap<>();
+        props.put("class_name", className);
+        props.put("field_size", size);
+        props.put("serialize_code", serializeCode.toString());
+        props.put("deserialize_code", deserializeCode.toString());
+        props.put("projected_deserialize_code", projectedDeserializeCode.toString());
+        props.put("serialize_fields", serializeFields);
+        props.put("deserialize_fields", deserializeFields);
+        props.put("row_fields", rowFields.toString());
+        props.put("row_source_fields", sourceFieldCases.toString());
+        props.put("row_getters", rowGetters.toString());
+        String code = FreeMarkerUtils.getTemplateCode(CODEC_TEMPLATE_NAME, props);
+        LOG.debug("NoahArk row codec, type: {}, encoding: {}, codegen: \n {}", rowType, encoding, code);
+        return compile(NoahArkRowCodec.class.getClassLoader(), CODEC_PACKAGE + "." + className, code);
+    }
+
+    // 写入非 null 字段, 与 NoahArkDataSerializer 对应类型的编码一致
+    private static String writeCode(LogicalType type, int pos, boolean compact) {
+        switch (type.getTypeRoot()) {
+            case CHAR:
+            case VARCHAR:
+                return format("%s.%s(row.getString(%d), out);", UTILS, compact ? "serializeCompactStringData" : "serializeStringData", pos);
+            case BOOLEAN:
+                return format("out.writeBoolean(row.getBoolean(%d));", pos);
+            case BINARY:
+            case VARBINARY:
+                return format("%s.%s(row.getBinary(%d), out);", UTILS, compact ? "serializeCompactBinaryData" : "serializeBinaryData", pos);
+            case DECIMAL:
+                return format("%s.%s(row.getDecimal(%d, %d, %d), out);",
+                        UTILS, compact ? "serializeCompactDecimalData" : "serializeDecimalData", pos, getPrecision(type), getScale(type));
+            case TINYINT:
+                return format("out.writeByte(row.getByte(%d));", pos);
+            case SMALLINT:
+                return compact
+                        ? format("%s.serializeCompactShortData(row.getShort(%d), out);", UTILS, pos)
+                        : format("out.writeShort(row.getShort(%d));", pos);
+            case INTEGER:
+            case DATE:
+            case TIME_WITHOUT_TIME_ZONE:
+            case INTERVAL_YEAR_MONTH:
+                return compact
+                        ? format("%s.serializeCompactIntData(row.getInt(%d), out);", UTILS, pos)
+                        : format("out.writeInt(row.getInt(%d));", pos);
+            case BIGINT:
+            case INTERVAL_DAY_TIME:
+                return compact
+                        ? format("%s.serializeCompactLongData(row.getLong(%d), out);", UTILS, pos)
+                        : format("out.writeLong(row.getLong(%d));", pos);
+            case FLOAT:
+                return format("out.writeFloat(row.getFloat(%d));", pos);
+            case DOUBLE:
+                return format("out.writeDouble(row.getDouble(%d));", pos);
+            case TIMESTAMP_WITHOUT_TIME_ZONE:
+            case TIMESTAMP_WITH_LOCAL_TIME_ZONE:
+                return format("%s.%s(row.getTimestamp(%d, %d), out);",
+                        UTILS, compact ? "serializeCompactTimestampData" : "serializeTimestampData", pos, getPrecision(type));
+            case ARRAY:
+                return format("serializers[%d].serializer(row.getArray(%d), out);", pos, pos);
+            case MULTISET:
+            case MAP:
+                return format("serializers[%d].serializer(row.getMap(%d), out);", pos, pos);
+            case ROW:
+            case STRUCTURED_TYPE:
+                return format("serializers[%d].serializer(row.getRow(%d, %d), out);", pos, pos, getFieldCount(type));
+            default:
+                throw new UnsupportedOperationException("unsupported NoahArk type: " + type);
+        }
+    }
+
+    // 跳过非 null 字段: 定长类型直接跳过, 变长类型按长度前缀跳过; ARRAY/MAP/ROW 无整体长度, 只能解码后丢弃
+    private static String skipCode(LogicalType type, int pos, boolean compact) {
+        switch (type.getTypeRoot()) {
+            case CHAR:
+            case VARCHAR:
+            case BINARY:
+            case VARBINARY:
+                return format("%s.%s(input);", UTILS, compact ? "skipCompactBinaryData" : "skipBinaryData");
+            case DECIMAL:
+                return format("%s.%s(input);", UTILS, compact ? "skipCompactDecimalData" : "skipDecimalData");
+            case BOOLEAN:
+            case TINYINT:
+                return format("%s.skipFully(input, 1);", UTILS);
+            case SMALLINT:
+                return compact ? format("%s.skipVarInt(input);", UTILS) : format("%s.skipFully(input, 2);", UTILS);
+            case INTEGER:
+            case DATE:
+            case TIME_WITHOUT_TIME_ZONE:
+            case INTERVAL_YEAR_MONTH:
+                return compact ? format("%s.skipVarInt(input);", UTILS) : format("%s.skipFully(input, 4);", UTILS);
+            case BIGINT:
+            case INTERVAL_DAY_TIME:
+                return compact ? format("%s.skipVarInt(input);", UTILS) : format("%s.skipFully(input, 8);", UTILS);
+            case FLOAT:
+                return format("%s.skipFully(input, 4);", UTILS);
+            case DOUBLE:
+                return format("%s.skipFully(input, 8);", UTILS);
+            case TIMESTAMP_WITHOUT_TIME_ZONE:
+            case TIMESTAMP_WITH_LOCAL_TIME_ZONE:
+                // millisecond + nanoOfMillisecond
+                return compact
+                        ? format("%s.skipVarInt(input); %s.skipVarInt(input);", UTILS, UTILS)
+                        : format("%s.skipFully(input, 12);", UTILS);
+            case ARRAY:
+            case MULTISET:
+            case MAP:
+            case ROW:
+            case STRUCTURED_TYPE:
+                return format("deserializers[%d].deserializer(input);", pos);
+            default:
+                throw new UnsupportedOperationException("unsupported NoahArk type: " + type);
+        }
+    }
+
+    // 读取非 null 字段, 返回与 javaType 一致的未装箱值
+    private static String readCode(LogicalType type, int pos, boolean compact) {
+        switch (type.getTypeRoot()) {
+            case CHAR:
+            case VARCHAR:
+                return format("%s.%s(input)", UTILS, compact ? "deserializeCompactStringData" : "deserializeStringData");
+            case BOOLEAN:
+                return "input.readBoolean()";
+            case BINARY:
+            case VARBINARY:
+                return format("%s.%s(input)", UTILS, compact ? "deserializeCompactBinaryData" : "deserializeBinaryData");
+            case DECIMAL:
+                return format("%s.%s(input)", UTILS, compact ? "deserializeCompactDecimalData" : "deserializeDecimalData");
+            case TINYINT:
+                return "input.readByte()";
+            case SMALLINT:
+                return compact ? format("%s.deserializeCompactShortData(input)", UTILS) : "input.readShort()";
+            case INTEGER:
+            case DATE:
+            case TIME_WITHOUT_TIME_ZONE:
+            case INTERVAL_YEAR_MONTH:
+                return compact ? format("%s.deserializeCompactIntData(input)", UTILS) : "input.readInt()";
+            case BIGINT:
+            case INTERVAL_DAY_TIME:
+                return compact ? format("%s.deserializeCompactLongData(input)", UTILS) : "input.readLong()";
+            case FLOAT:
+                return "input.readFloat()";
+            case DOUBLE:
+                return "input.readDouble()";
+            case TIMESTAMP_WITHOUT_TIME_ZONE:
+            case TIMESTAMP_WITH_LOCAL_TIME_ZONE:
+                return format("%s.%s(input)", UTILS, compact ? "deserializeCompactTimestampData" : "deserializeTimestampData");
+            case ARRAY:
+            case MULTISET:
+            case MAP:
+            case ROW:
+            case STRUCTURED_TYPE:
+                return format("((%s) deserializers[%d].deserializer(input))", javaType(type), pos);
+            default:
+                throw new UnsupportedOperationException("unsupported NoahArk type: " + type);
+        }
+    }
+
+    // 生成的 NoahArkRowData 成员类型
+    private static String javaType(LogicalType type) {
+        switch (type.getTypeRoot()) {
+            case CHAR:
+            case VARCHAR:
+                return "StringData";
+            case BOOLEAN:
+                return "boolean";
+            case BINARY:
+            case VARBINARY:
+                return "byte[]";
+            case DECIMAL:
+                return "DecimalData";
+            case TINYINT:
+                return "byte";
+            case SMALLINT:
+                return "short";
+            case INTEGER:
+            case DATE:
+            case TIME_WITHOUT_TIME_ZONE:
+            case INTERVAL_YEAR_MONTH:
+                return "int";
+            case BIGINT:
+            case INTERVAL_DAY_TIME:
+                return "long";
+            case FLOAT:
+                return "float";
+            case DOUBLE:
+                return "double";
+            case TIMESTAMP_WITHOUT_TIME_ZONE:
+            case TIMESTAMP_WITH_LOCAL_TIME_ZONE:
+                return "TimestampData";
+            case ARRAY:
+                return "ArrayData";
+            case MULTISET:
+            case MAP:
+                return "MapData";
+            case ROW:
+            case STRUCTURED_TYPE:
+                return "RowData";
+            default:
+                throw new UnsupportedOperationException("unsupported NoahArk type: " + type);
+        }
+    }
+
+    // 装箱, 仅用于返回 Object 的 deserializeField / getField
+    private static String boxCode(LogicalType type, String code) {
+        switch (javaType(type)) {
+            case "boolean":
+                return format("Boolean.valueOf(%s)", code);
+            case "byte":
+                return format("Byte.valueOf(%s)", code);
+            case "short":
+                return format("Short.valueOf(%s)", code);
+            case "int":
+                return format("Integer.valueOf(%s)", code);
+            case "long":
+                return format("Long.valueOf(%s)", code);
+            case "float":
+                return format("Float.valueOf(%s)", code);
+            case "double":
+                return format("Double.valueOf(%s)", code);
+            default:
+                return code;
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.sdu.streaming.warehouse.deserializer;
+
+import org.apache.flink.table.data.RawValueData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.types.RowKind;
+import org.apache.flink.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+// NoahArkRowCodec 反序列化结果: 生成的子类按字段类型声明成员(long f0, StringData f1 ...), getLong 等直接返回, 不装箱;
+// getField 装箱返回字段值, 仅用于 equals / hashCode / toString 及缓存大小估算等非热点路径
+public abstract class NoahArkRowData implements RowData {
+
+    // 输出行位置 -> 完整行位置, 列裁剪时输出行只包含部分字段
+    protected final int[] sources;
+    // 按完整行位置记录
+    protected final boolean[] nulls;
+
+    private RowKind rowKind = RowKind.INSERT;
+
+    protected NoahArkRowData(int[] sources, int fieldCount) {
+        this.sources = sources;
+        this.nulls = new boolean[fieldCount];
+    }
+
+    // 按完整行位置装箱读取非 null 字段
+    protected abstract Object getSourceField(int source);
+
+    public Object getField(int pos) {
+        int source = sources[pos];
+        return nulls[source] ? null : getSourceField(source);
+    }
+
+    protected UnsupportedOperationException unsupported(int pos, String type) {
+        return new UnsupportedOperationException("field " + pos + " is not of type " + type);
+    }
+
+    @Override
+    public int getArity() {
+        return sources.length;
+    }
+
+    @Override
+    public RowKind getRowKind() {
+        return rowKind;
+    }
+
+    @Override
+    public void setRowKind(RowKind kind) {
+        this.rowKind = kind;
+    }
+
+    @Override
+    public boolean isNullAt(int pos) {
+        return nulls[sources[pos]];
+    }
+
+    @Override
+    public <T> RawValueData<T> getRawValue(int pos) {
+        throw unsupported(pos, "RAW");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NoahArkRowData)) {
+            return false;
+        }
+        NoahArkRowData that = (NoahArkRowData) o;
+        if (rowKind != that.rowKind || getArity() != that.getArity()) {
+            return false;
+        }
+        for (int pos = 0; pos < getArity(); ++pos) {
+            if (!Objects.deepEquals(getField(pos), that.getField(pos))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        Object[] fields = new Object[getArity()];
+        for (int pos = 0; pos < fields.length; ++pos) {
+            fields[pos] = getField(pos);
+        }
+        return 31 * Objects.hash(rowKind) + Arrays.deepHashCode(fields);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(rowKind.shortString()).append('(');
+        for (int pos = 0; pos < getArity(); ++pos) {
+            if (pos != 0) {
+                sb.append(',');
+            }
+            sb.append(StringUtils.arrayAwareToString(getField(pos)));
+        }
+        sb.append(')');
+        return sb.toString();
+    }
+
+}
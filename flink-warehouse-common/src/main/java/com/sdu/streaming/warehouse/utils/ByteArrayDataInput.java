@@ -1,98 +1,188 @@
 package com.sdu.streaming.warehouse.utils;
 
-import java.io.ByteArrayInputStream;
 import java.io.DataInput;
 import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
+// 直接基于 byte[] 游标读取(大端序, 与 DataInputStream 一致), 可通过 reset 复用实例
 public class ByteArrayDataInput implements DataInput {
 
-    private final DataInput input;
-//    private final NoahArkByteArrayInputStream stream;
-
+    private byte[] buffer;
+    private int position;
+    private int limit;
 
     public ByteArrayDataInput(byte[] bytes) {
-        this.input = new DataInputStream(new ByteArrayInputStream(bytes));
-//        this.stream = new NoahArkByteArrayInputStream(bytes);
-//        this.input = new DataInputStream(stream);
+        this(bytes, 0, bytes.length);
+    }
+
+    public ByteArrayDataInput(byte[] bytes, int offset, int length) {
+        reset(bytes, offset, length);
+    }
+
+    public void reset(byte[] bytes) {
+        reset(bytes, 0, bytes.length);
+    }
+
+    public void reset(byte[] bytes, int offset, int length) {
+        this.buffer = bytes;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public int available() {
+        return limit - position;
+    }
+
+    private void require(int n) throws EOFException {
+        if (limit - position < n) {
+            throw new EOFException();
+        }
     }
 
     @Override
     public void readFully(byte[] b) throws IOException {
-        this.input.readFully(b);
+        readFully(b, 0, b.length);
     }
 
     @Override
     public void readFully(byte[] b, int off, int len) throws IOException {
-        this.input.readFully(b, off, len);
+        require(len);
+        System.arraycopy(buffer, position, b, off, len);
+        position += len;
     }
 
     @Override
-    public int skipBytes(int n) throws IOException {
-        return this.input.skipBytes(n);
+    public int skipBytes(int n) {
+        int skip = Math.max(0, Math.min(n, limit - position));
+        position += skip;
+        return skip;
     }
 
     @Override
     public boolean readBoolean() throws IOException {
-        return this.input.readBoolean();
+        return readByte() != 0;
     }
 
     @Override
     public byte readByte() throws IOException {
-        return this.input.readByte();
+        require(1);
+        return buffer[position++];
     }
 
     @Override
     public int readUnsignedByte() throws IOException {
-        return this.input.readUnsignedByte();
+        return readByte() & 0xFF;
     }
 
     @Override
     public short readShort() throws IOException {
-        return this.input.readShort();
+        return (short) readUnsignedShort();
     }
 
     @Override
     public int readUnsignedShort() throws IOException {
-        return this.input.readUnsignedShort();
+        require(2);
+        int value = ((buffer[position] & 0xFF) << 8) | (buffer[position + 1] & 0xFF);
+        position += 2;
+        return value;
     }
 
     @Override
     public char readChar() throws IOException {
-        return this.input.readChar();
+        return (char) readUnsignedShort();
     }
 
     @Override
     public int readInt() throws IOException {
-        return this.input.readInt();
+        require(4);
+        int value = ((buffer[position] & 0xFF) << 24)
+                | ((buffer[position + 1] & 0xFF) << 16)
+                | ((buffer[position + 2] & 0xFF) << 8)
+                | (buffer[position + 3] & 0xFF);
+        position += 4;
+        return value;
     }
 
     @Override
     public long readLong() throws IOException {
-        return this.input.readLong();
+        require(8);
+        long value = 0;
+        for (int i = 0; i < 8; ++i) {
+            value = (value << 8) | (buffer[position + i] & 0xFF);
+        }
+        position += 8;
+        return value;
     }
 
     @Override
     public float readFloat() throws IOException {
-        return this.input.readFloat();
+        return Float.intBitsToFloat(readInt());
     }
 
     @Override
     public double readDouble() throws IOException {
-        return this.input.readDouble();
+        return Double.longBitsToDouble(readLong());
+    }
+
+    // 批量读取基本类型数组(大端序), 单次拷贝
+
+    public void readShorts(short[] values, int offset, int length) throws EOFException {
+        require(length << 1);
+        ByteBuffer.wrap(buffer, position, length << 1).asShortBuffer().get(values, offset, length);
+        position += length << 1;
+    }
+
+    public void readInts(int[] values, int offset, int length) throws EOFException {
+        require(length << 2);
+        ByteBuffer.wrap(buffer, position, length << 2).asIntBuffer().get(values, offset, length);
+        position += length << 2;
+    }
+
+    public void readLongs(long[] values, int offset, int length) throws EOFException {
+        require(length << 3);
+        ByteBuffer.wrap(buffer, position, length << 3).asLongBuffer().get(values, offset, length);
+        position += length << 3;
+    }
+
+    public void readFloats(float[] values, int offset, int length) throws EOFException {
+        require(length << 2);
+        ByteBuffer.wrap(buffer, position, length << 2).asFloatBuffer().get(values, offset, length);
+        position += length << 2;
+    }
+
+    public void readDoubles(double[] values, int offset, int length) throws EOFException {
+        require(length << 3);
+        ByteBuffer.wrap(buffer, position, length << 3).asDoubleBuffer().get(values, offset, length);
+        position += length << 3;
     }
 
     @Override
-    public String readLine() throws IOException {
-        return this.input.readLine();
+    public String readLine() {
+        if (position >= limit) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        while (position < limit) {
+            int c = buffer[position++] & 0xFF;
+            if (c == '\n') {
+                break;
+            }
+            if (c == '\r') {
+                if (position < limit && buffer[position] == '\n') {
+                    position++;
+                }
+                break;
+            }
+            sb.append((char) c);
+        }
+        return sb.toString();
     }
 
     @Override
     public String readUTF() throws IOException {
-        return this.input.readUTF();
+        return DataInputStream.readUTF(this);
     }
 
-//    public void replace(byte[] bytes) {
-//        this.stream.replace(bytes);
-//    }
 }
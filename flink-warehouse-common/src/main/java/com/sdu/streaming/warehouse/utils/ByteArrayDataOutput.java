@@ -1,100 +1,221 @@
 package com.sdu.streaming.warehouse.utils;
 
-import java.io.ByteArrayOutputStream;
 import java.io.DataOutput;
-import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
-// 参考: Guava ByteArrayDataInput
+// 直接写入可扩容 byte[](大端序, 与 DataOutputStream 一致), 可通过 reset 复用实例;
+// getBuffer + size 提供不拷贝的数据视图, toByteArray 返回拷贝
 public class ByteArrayDataOutput implements DataOutput {
 
-    final DataOutput output;
-    final ByteArrayOutputStream byteArrayOutputStream;
+    private byte[] buffer;
+    private int position;
 
     public ByteArrayDataOutput() {
         this(32);
     }
 
     public ByteArrayDataOutput(int size) {
-        byteArrayOutputStream = new ByteArrayOutputStream(size);
-        output = new DataOutputStream(byteArrayOutputStream);
+        this.buffer = new byte[size];
+        this.position = 0;
+    }
+
+    // 保证还可写入 n 字节
+    public void ensureCapacity(int n) {
+        int required = position + n;
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length << 1));
+        }
     }
 
     @Override
-    public void write(int b) throws IOException {
-        this.output.write(b);
+    public void write(int b) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) b;
     }
 
     @Override
-    public void write(byte[] b) throws IOException {
-        this.output.write(b);
+    public void write(byte[] b) {
+        write(b, 0, b.length);
     }
 
     @Override
-    public void write(byte[] b, int off, int len) throws IOException {
-        this.output.write(b, off, len);
+    public void write(byte[] b, int off, int len) {
+        ensureCapacity(len);
+        System.arraycopy(b, off, buffer, position, len);
+        position += len;
     }
 
     @Override
-    public void writeBoolean(boolean v) throws IOException {
-        this.output.writeBoolean(v);
+    public void writeBoolean(boolean v) {
+        write(v ? 1 : 0);
     }
 
     @Override
-    public void writeByte(int v) throws IOException {
-        this.output.writeByte(v);
+    public void writeByte(int v) {
+        write(v);
     }
 
     @Override
-    public void writeShort(int v) throws IOException {
-        this.output.writeShort(v);
+    public void writeShort(int v) {
+        ensureCapacity(2);
+        buffer[position++] = (byte) (v >>> 8);
+        buffer[position++] = (byte) v;
     }
 
     @Override
-    public void writeChar(int v) throws IOException {
-        this.output.writeChar(v);
+    public void writeChar(int v) {
+        writeShort(v);
     }
 
     @Override
-    public void writeInt(int v) throws IOException {
-        this.output.writeInt(v);
+    public void writeInt(int v) {
+        ensureCapacity(4);
+        buffer[position++] = (byte) (v >>> 24);
+        buffer[position++] = (byte) (v >>> 16);
+        buffer[position++] = (byte) (v >>> 8);
+        buffer[position++] = (byte) v;
     }
 
     @Override
-    public void writeLong(long v) throws IOException {
-        this.output.writeLong(v);
+    public void writeLong(long v) {
+        ensureCapacity(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (v >>> shift);
+        }
     }
 
     @Override
-    public void writeFloat(float v) throws IOException {
-        this.output.writeFloat(v);
+    public void writeFloat(float v) {
+        writeInt(Float.floatToIntBits(v));
     }
 
     @Override
-    public void writeDouble(double v) throws IOException {
-        this.output.writeDouble(v);
+    public void writeDouble(double v) {
+        writeLong(Double.doubleToLongBits(v));
     }
 
     @Override
-    public void writeBytes(String s) throws IOException {
-        this.output.writeBytes(s);
+    public void writeBytes(String s) {
+        int length = s.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; ++i) {
+            buffer[position++] = (byte) s.charAt(i);
+        }
     }
 
     @Override
-    public void writeChars(String s) throws IOException {
-        this.output.writeChars(s);
+    public void writeChars(String s) {
+        int length = s.length();
+        ensureCapacity(length * 2);
+        for (int i = 0; i < length; ++i) {
+            char c = s.charAt(i);
+            buffer[position++] = (byte) (c >>> 8);
+            buffer[position++] = (byte) c;
+        }
     }
 
     @Override
     public void writeUTF(String s) throws IOException {
-        this.output.writeUTF(s);
+        // modified UTF-8, 同 DataOutputStream.writeUTF
+        int length = s.length();
+        int utfLength = 0;
+        for (int i = 0; i < length; ++i) {
+            char c = s.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                utfLength += 1;
+            } else if (c > 0x07FF) {
+                utfLength += 3;
+            } else {
+                utfLength += 2;
+            }
+        }
+        if (utfLength > 65535) {
+            throw new UTFDataFormatException("encoded string too long: " + utfLength + " bytes");
+        }
+        writeShort(utfLength);
+        ensureCapacity(utfLength);
+        for (int i = 0; i < length; ++i) {
+            char c = s.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                buffer[position++] = (byte) c;
+            } else if (c > 0x07FF) {
+                buffer[position++] = (byte) (0xE0 | ((c >> 12) & 0x0F));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else {
+                buffer[position++] = (byte) (0xC0 | ((c >> 6) & 0x1F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    // 批量写入基本类型数组(大端序), 单次拷贝
+
+    public void writeShorts(short[] values, int offset, int length) {
+        ensureCapacity(length << 1);
+        ByteBuffer.wrap(buffer, position, length << 1).asShortBuffer().put(values, offset, length);
+        position += length << 1;
+    }
+
+    public void writeInts(int[] values, int offset, int length) {
+        ensureCapacity(length << 2);
+        ByteBuffer.wrap(buffer, position, length << 2).asIntBuffer().put(values, offset, length);
+        position += length << 2;
+    }
+
+    public void writeLongs(long[] values, int offset, int length) {
+        ensureCapacity(length << 3);
+        ByteBuffer.wrap(buffer, position, length << 3).asLongBuffer().put(values, offset, length);
+        position += length << 3;
+    }
+
+    public void writeFloats(float[] values, int offset, int length) {
+        ensureCapacity(length << 2);
+        ByteBuffer.wrap(buffer, position, length << 2).asFloatBuffer().put(values, offset, length);
+        position += length << 2;
+    }
+
+    public void writeDoubles(double[] values, int offset, int length) {
+        ensureCapacity(length << 3);
+        ByteBuffer.wrap(buffer, position, length << 3).asDoubleBuffer().put(values, offset, length);
+        position += length << 3;
+    }
+
+    public byte[] getBuffer() {
+        return buffer;
+    }
+
+    public int size() {
+        return position;
     }
 
     public byte[] toByteArray() {
-        return this.byteArrayOutputStream.toByteArray();
+        return Arrays.copyOf(buffer, position);
+    }
+
+    // 回填已写入位置的 int, 用于先占位后写长度
+    public void setInt(int pos, int v) {
+        if (pos < 0 || pos + 4 > position) {
+            throw new IndexOutOfBoundsException("set int at " + pos + ", size: " + position);
+        }
+        buffer[pos] = (byte) (v >>> 24);
+        buffer[pos + 1] = (byte) (v >>> 16);
+        buffer[pos + 2] = (byte) (v >>> 8);
+        buffer[pos + 3] = (byte) v;
+    }
+
+    // 外部直接写入 getBuffer 后推进写位置, 需先 ensureCapacity
+    public void skip(int n) {
+        if (position + n > buffer.length) {
+            throw new IndexOutOfBoundsException("skip " + n + " bytes exceeds buffer capacity");
+        }
+        position += n;
     }
 
     public void reset() {
-        this.byteArrayOutputStream.reset();
+        this.position = 0;
     }
 }
@@ -0,0 +1,120 @@
+package com.sdu.streaming.warehouse.deserializer;
+
+import com.sdu.streaming.warehouse.deserializer.NoahArkDataDeserializer;
+import com.sdu.streaming.warehouse.deserializer.NoahArkDataDeserializerUtils;
+import com.sdu.streaming.warehouse.deserializer.NoahArkDataSerializer;
+import com.sdu.streaming.warehouse.deserializer.NoahArkFieldIds;
+import com.sdu.streaming.warehouse.deserializer.NoahArkProjection;
+import com.sdu.streaming.warehouse.deserializer.NoahArkRowCodec;
+import com.sdu.streaming.warehouse.deserializer.NoahArkRowData;
+
+import org.apache.flink.table.data.ArrayData;
+import org.apache.flink.table.data.DecimalData;
+import org.apache.flink.table.data.MapData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.data.TimestampData;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.Boolean;
+import java.lang.Byte;
+import java.lang.Double;
+import java.lang.Float;
+import java.lang.Integer;
+import java.lang.Long;
+import java.lang.Short;
+
+public class ${class_name} implements NoahArkRowCodec {
+
+    // ARRAY / MAP / ROW 字段仍使用对应类型的序列化器
+    private final NoahArkDataSerializer[] serializers;
+    private final NoahArkDataDeserializer[] deserializers;
+    private final NoahArkFieldIds fieldIds;
+    // 完整行输出
+    private final int[] identity;
+
+    public ${class_name}(NoahArkDataSerializer[] serializers, NoahArkDataDeserializer[] deserializers, NoahArkFieldIds fieldIds) {
+        this.serializers = serializers;
+        this.deserializers = deserializers;
+        this.fieldIds = fieldIds;
+        this.identity = new int[${field_size}];
+        for (int i = 0; i < identity.length; ++i) {
+            identity[i] = i;
+        }
+    }
+
+    @Override
+    public NoahArkFieldIds getFieldIds() {
+        return fieldIds;
+    }
+
+    @Override
+    public void serialize(RowData row, DataOutput out) throws IOException {
+        ${serialize_code}
+    }
+
+    @Override
+    public RowData deserialize(DataInput input) throws IOException {
+        Row row = new Row(identity);
+        ${deserialize_code}
+        return row;
+    }
+
+    @Override
+    public RowData deserialize(DataInput input, NoahArkProjection projection) throws IOException {
+        Row row = new Row(projection.getFields());
+        int[] targets = projection.getTargets();
+        int lastField = projection.getLastField();
+        ${projected_deserialize_code}
+        return row;
+    }
+
+    @Override
+    public void serializeField(int pos, RowData row, DataOutput out) throws IOException {
+        switch (pos) {
+<#list serialize_fields as field>
+            case ${field_index}: ${field} return;
+</#list>
+            default: throw new IndexOutOfBoundsException("field index: " + pos);
+        }
+    }
+
+    @Override
+    public Object deserializeField(int pos, DataInput input) throws IOException {
+        switch (pos) {
+<#list deserialize_fields as field>
+            case ${field_index}: return ${field};
+</#list>
+            default: throw new IndexOutOfBoundsException("field index: " + pos);
+        }
+    }
+
+    // 字段按类型存储, getter 不装箱
+    public static final class Row extends NoahArkRowData {
+
+        ${row_fields}
+
+        Row(int[] sources) {
+            super(sources, ${field_size});
+        }
+
+        // 生成类与 NoahArkRowData 不在同一类加载器, 外部类无法直接访问 protected 成员
+        void setNullField(int source) {
+            nulls[source] = true;
+        }
+
+        @Override
+        protected Object getSourceField(int source) {
+            switch (source) {
+                ${row_source_fields}
+                default: throw new IndexOutOfBoundsException("field index: " + source);
+            }
+        }
+
+        ${row_getters}
+
+    }
+
+}
@@ -1,26 +1,69 @@
 package com.sdu.streaming.warehouse.connector.redis;
 
-import com.sdu.streaming.warehouse.deserializer.NoahArkDataSerializer;
+import com.sdu.streaming.warehouse.deserializer.NoahArkEncoding;
+import com.sdu.streaming.warehouse.deserializer.NoahArkRowCodec;
+import com.sdu.streaming.warehouse.utils.ByteArrayDataInput;
 import com.sdu.streaming.warehouse.utils.ByteArrayDataOutput;
-import org.apache.flink.table.data.RowData;
-import org.apache.flink.util.Preconditions;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 
 public abstract class AbstractRedisTypeSerializer<T> implements RedisTypeSerializer<T> {
 
-    @Override
-    public byte[] serializeKey(RowData rowData, String prefix, RowData.FieldGetter[] keyFieldGetters, NoahArkDataSerializer[] rowKeySerializers) throws IOException {
-        Preconditions.checkArgument(keyFieldGetters.length == rowKeySerializers.length);
-        ByteArrayDataOutput out = new ByteArrayDataOutput();
-        byte[] prefixBytes = prefix.getBytes(StandardCharsets.UTF_8);
-        out.writeInt(prefixBytes.length);
-        out.write(prefixBytes);
-        for (int index = 0; index < keyFieldGetters.length; ++index) {
-            Object keyField = keyFieldGetters[index].getFieldOrNull(rowData);
-            rowKeySerializers[index].serializer(keyField, out);
+    protected static final byte[] EMPTY_BYTES = new byte[0];
+
+    // 序列化器为单例, 会被 task 线程及 redis 回调线程同时使用, 按线程复用读写缓冲
+    private static final ThreadLocal<ByteArrayDataOutput> THREAD_OUTPUT = ThreadLocal.withInitial(() -> new ByteArrayDataOutput(256));
+    private static final ThreadLocal<ByteArrayDataInput> THREAD_INPUT = ThreadLocal.withInitial(() -> new ByteArrayDataInput(EMPTY_BYTES));
+
+    protected static ByteArrayDataOutput threadOutput() {
+        ByteArrayDataOutput out = THREAD_OUTPUT.get();
+        out.reset();
+        return out;
+    }
+
+    // 开启压缩时先解压, 返回的 input 指向解压后的 value
+    protected static ByteArrayDataInput threadInput(byte[] bytes, RedisValueCompressor compressor) throws IOException {
+        ByteArrayDataInput input = THREAD_INPUT.get();
+        compressor.decompress(bytes, input);
+        return input;
+    }
+
+    // 带版本头的编码(COMPACT/TAGGED)在每个 value 前写入版本号, FIXED 无头部以兼容存量数据
+    protected static void writeHeader(DataOutput out, NoahArkEncoding encoding) throws IOException {
+        if (encoding.hasHeader()) {
+            out.writeByte(encoding.getVersion());
+        }
+    }
+
+    // TAGGED: 字段 value 在版本头后写入字段 ID
+    protected static void writeFieldId(DataOutput out, NoahArkEncoding encoding, NoahArkRowCodec rowCodec, int pos) throws IOException {
+        if (encoding.isTagged()) {
+            out.writeInt(rowCodec.getFieldIds().getFieldId(pos));
         }
-        return out.toByteArray();
     }
+
+    // TAGGED: 按字段 ID 定位字段(index 为预期位置), 未知字段返回 -1; 其余编码按位置
+    protected static int readFieldPosition(DataInput input, NoahArkEncoding encoding, NoahArkRowCodec rowCodec, int index) throws IOException {
+        if (!encoding.isTagged()) {
+            return index;
+        }
+        return rowCodec.getFieldIds().getPosition(input.readInt(), index);
+    }
+
+    // 返回 value 实际的编码: 带头部的编码按版本号分派, COMPACT 与 TAGGED 字段编码相同、共用 rowCodec, 可互相读取;
+    // FIXED 无头部, 无法与带头部的编码相互识别, 在 FIXED 与 COMPACT/TAGGED 之间切换需重写存量数据
+    protected static NoahArkEncoding readHeader(DataInput input, NoahArkEncoding encoding) throws IOException {
+        if (!encoding.hasHeader()) {
+            return encoding;
+        }
+        byte version = input.readByte();
+        NoahArkEncoding actual = NoahArkEncoding.fromVersion(version);
+        if (actual == null || !actual.hasHeader()) {
+            throw new IOException("unsupported NoahArk value version: " + version + ", expected: " + encoding);
+        }
+        return actual;
+    }
+
 }
@@ -1,8 +1,14 @@
 package com.sdu.streaming.warehouse.connector.redis;
 
+import com.sdu.streaming.warehouse.connector.redis.cache.RedisCacheMode;
+import com.sdu.streaming.warehouse.connector.redis.cache.RedisCachePolicy;
 import com.sdu.streaming.warehouse.connector.redis.entry.RedisDataType;
+import com.sdu.streaming.warehouse.connector.redis.entry.RedisKeyFormat;
+import com.sdu.streaming.warehouse.connector.redis.entry.RedisValueCompression;
+import com.sdu.streaming.warehouse.deserializer.NoahArkEncoding;
 import org.apache.flink.configuration.ConfigOption;
 import org.apache.flink.configuration.ConfigOptions;
+import org.apache.flink.configuration.MemorySize;
 
 import java.io.Serializable;
 
@@ -22,12 +28,57 @@ public class RedisConfigOptions implements Serializable {
                     .defaultValue(RedisDataType.STRING)
                     .withDescription("redis data type, default: string");
 
+    public static final ConfigOption<NoahArkEncoding> REDIS_VALUE_ENCODING =
+            ConfigOptions.key("redis-value-encoding")
+                    .enumType(NoahArkEncoding.class)
+                    .defaultValue(NoahArkEncoding.FIXED)
+                    .withDescription("redis value encoding, FIXED uses fixed-width integers and length prefixes, "
+                            + "COMPACT uses versioned varint/zig-zag encoding, "
+                            + "TAGGED is COMPACT with field ids and a schema fingerprint, tolerating added/removed columns. "
+                            + "COMPACT and TAGGED values start with a version byte, so a table reading either one also reads the other; "
+                            + "FIXED values have no header and cannot be told apart, switching between FIXED and COMPACT/TAGGED requires rewriting the data. "
+                            + "FIXED keeps the original layout without null bitmaps and rejects null values (except whole LIST/HASH fields), "
+                            + "tables writing null values should move to COMPACT or TAGGED by rewriting their data, default: FIXED");
+
+    public static final ConfigOption<RedisValueCompression> REDIS_VALUE_COMPRESSION =
+            ConfigOptions.key("redis-value-compression")
+                    .enumType(RedisValueCompression.class)
+                    .defaultValue(RedisValueCompression.NONE)
+                    .withDescription("redis value compression, NONE, LZ4 or ZSTD, compressed values are prefixed with a flag byte "
+                            + "that never starts a COMPACT/TAGGED value, so uncompressed values remain readable after enabling compression; "
+                            + "disabling compression requires rewriting compressed values. Requires COMPACT or TAGGED value encoding, default: NONE");
+
+    public static final ConfigOption<MemorySize> REDIS_VALUE_COMPRESSION_THRESHOLD =
+            ConfigOptions.key("redis-value-compression-threshold")
+                    .memoryType()
+                    .defaultValue(MemorySize.parse("1kb"))
+                    .withDescription("only compress redis values not smaller than the threshold, default: 1kb");
+
+    public static final ConfigOption<RedisKeyFormat> REDIS_KEY_FORMAT =
+            ConfigOptions.key("redis-key-format")
+                    .enumType(RedisKeyFormat.class)
+                    .defaultValue(RedisKeyFormat.BINARY)
+                    .withDescription("redis key format, BINARY uses length-prefixed prefix and NoahArk encoded key fields, "
+                            + "READABLE uses 'prefix:k1:k2' strings readable by external systems, ':' and '\\' in key values are escaped "
+                            + "with '\\' and null is written as '\\N', default: BINARY");
+
     public static final ConfigOption<String> REDIS_KEY_PREFIX =
             ConfigOptions.key("redis-key-prefix")
                     .stringType()
                     .defaultValue("")
                     .withDescription("redis key prefix, default: empty");
 
+    public static final ConfigOption<Boolean> REDIS_CLUSTER_MODE =
+            ConfigOptions.key("redis-cluster-mode")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription("connect redis in cluster mode, 'redis-address' may contain several seed nodes separated by ',', default: false");
+
+    public static final ConfigOption<Integer> REDIS_CLUSTER_MAX_REDIRECTS =
+            ConfigOptions.key("redis-cluster-max-redirects")
+                    .intType()
+                    .defaultValue(5)
+                    .withDescription("max MOVED/ASK redirects followed per command in cluster mode, default: 5");
 
     // Read
     public static final ConfigOption<Boolean> REDIS_READ_ASYNCABLE =
@@ -51,8 +102,48 @@ public class RedisConfigOptions implements Serializable {
     public static final ConfigOption<Integer> REDIS_READ_CACHE_SIZE =
             ConfigOptions.key("redis-read-cache-size")
                     .intType()
-                    .defaultValue(64)
-                    .withDescription("redis data cache size, default: 64");
+                    .defaultValue(10000)
+                    .withDescription("redis data cache max entries, ignored if 'redis-read-cache-max-bytes' is set, default: 10000");
+
+    public static final ConfigOption<MemorySize> REDIS_READ_CACHE_MAX_BYTES =
+            ConfigOptions.key("redis-read-cache-max-bytes")
+                    .memoryType()
+                    .noDefaultValue()
+                    .withDescription("bound redis data cache by estimated row bytes instead of entries, eg: '64mb', default: none");
+
+    public static final ConfigOption<RedisCacheMode> REDIS_READ_CACHE_MODE =
+            ConfigOptions.key("redis-read-cache-mode")
+                    .enumType(RedisCacheMode.class)
+                    .defaultValue(RedisCacheMode.HEAP)
+                    .withDescription("HEAP caches deserialized rows, OFF_HEAP caches serialized rows in off-heap memory "
+                            + "bounded by 'redis-read-cache-max-bytes' (if unset, estimated from 'redis-read-cache-size' and the row type) "
+                            + "and decodes them on hit; OFF_HEAP evicts the oldest memory segment (hit entries about to be evicted are kept, "
+                            + "approximating LRU) and expires entries after write, so it only supports cache policy LRU "
+                            + "without 'redis-read-cache-expire-after-access', entries larger than a segment are not cached, default: HEAP");
+
+    public static final ConfigOption<RedisCachePolicy> REDIS_READ_CACHE_POLICY =
+            ConfigOptions.key("redis-read-cache-policy")
+                    .enumType(RedisCachePolicy.class)
+                    .defaultValue(RedisCachePolicy.LRU)
+                    .withDescription("redis data cache eviction policy, LRU or W_TINY_LFU, default: LRU");
+
+    public static final ConfigOption<Boolean> REDIS_READ_CACHE_EXPIRE_AFTER_ACCESS =
+            ConfigOptions.key("redis-read-cache-expire-after-access")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription("expire cached data after last access instead of after write, default: false");
+
+    public static final ConfigOption<Long> REDIS_READ_NEGATIVE_CACHE_SIZE =
+            ConfigOptions.key("redis-read-negative-cache-size")
+                    .longType()
+                    .defaultValue(0L)
+                    .withDescription("max keys remembered as absent in redis, default: 0 (disabled)");
+
+    public static final ConfigOption<Long> REDIS_READ_NEGATIVE_CACHE_EXPIRE =
+            ConfigOptions.key("redis-read-negative-cache-expire")
+                    .longType()
+                    .defaultValue(60 * 1000L)
+                    .withDescription("absent key cache expire time, default: 60 * 1000L ms");
 
     public static final ConfigOption<Long> REDIS_READ_CACHE_EXPIRE =
             ConfigOptions.key("redis-read-cache-expire")
@@ -60,6 +151,36 @@ public class RedisConfigOptions implements Serializable {
                     .defaultValue(10 * 60 * 1000L)
                     .withDescription("redis cache expire time, default: 10 * 60 * 1000L ms");
 
+    public static final ConfigOption<Integer> REDIS_READ_BATCH_SIZE =
+            ConfigOptions.key("redis-read-batch-size")
+                    .intType()
+                    .defaultValue(1)
+                    .withDescription("max keys of async lookup merged into one MGET or pipeline, default: 1 (no batch)");
+
+    public static final ConfigOption<Long> REDIS_READ_BATCH_LINGER =
+            ConfigOptions.key("redis-read-batch-linger")
+                    .longType()
+                    .defaultValue(5L)
+                    .withDescription("max time a async lookup waits for batch to fill, default: 5 ms");
+
+    public static final ConfigOption<Boolean> REDIS_READ_PRELOAD =
+            ConfigOptions.key("redis-read-preload")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription("load all data under 'redis-key-prefix' into memory and serve lookup from the snapshot, default: false");
+
+    public static final ConfigOption<Long> REDIS_READ_PRELOAD_INTERVAL =
+            ConfigOptions.key("redis-read-preload-interval")
+                    .longType()
+                    .defaultValue(60 * 60 * 1000L)
+                    .withDescription("preload snapshot refresh interval, non-positive means never refresh, default: 60 * 60 * 1000L ms");
+
+    public static final ConfigOption<Integer> REDIS_READ_PRELOAD_SCAN_COUNT =
+            ConfigOptions.key("redis-read-preload-scan-count")
+                    .intType()
+                    .defaultValue(1000)
+                    .withDescription("COUNT hint of each SCAN when preload, default: 1000");
+
     // Write
     public static final ConfigOption<Integer> REDIS_WRITE_BATCH_SIZE =
             ConfigOptions.key("redis-write-batch-size")
@@ -73,6 +194,12 @@ public class RedisConfigOptions implements Serializable {
                     .defaultValue(60)
                     .withDescription("write buffer flush interval, default: 60s");
 
+    public static final ConfigOption<Boolean> REDIS_WRITE_BUFFER_COMPACTION =
+            ConfigOptions.key("redis-write-buffer-compaction")
+                    .booleanType()
+                    .defaultValue(true)
+                    .withDescription("keep only the last change of each redis key in write buffer, default: true");
+
     public static final ConfigOption<Long> REDIS_EXPIRE_SECONDS =
             ConfigOptions.key("redis-expire-seconds")
                     .longType()
@@ -85,5 +212,24 @@ public class RedisConfigOptions implements Serializable {
                     .defaultValue(1)
                     .withDescription("write parallelism, default: 1");
 
+    public static final ConfigOption<Integer> REDIS_WRITE_RETRIES =
+            ConfigOptions.key("redis-write-retries")
+                    .intType()
+                    .defaultValue(2)
+                    .withDescription("retry flush buffer when failed, the cluster topology is refreshed and scripts are reloaded before each retry, default: 2");
+
+    public static final ConfigOption<Integer> REDIS_WRITE_MAX_INFLIGHT_BATCHES =
+            ConfigOptions.key("redis-write-max-inflight-batches")
+                    .intType()
+                    .defaultValue(2)
+                    .withDescription("max flushed batches handed to a background writer, the task only waits for them at checkpoint; "
+                            + "batches are written in order with the same retries, 0 means flush synchronously in the task thread, default: 2");
+
+    public static final ConfigOption<Long> REDIS_WRITE_TIMEOUT =
+            ConfigOptions.key("redis-write-timeout")
+                    .longType()
+                    .defaultValue(60 * 1000L)
+                    .withDescription("max time waiting for redis responses of a flushed batch, the checkpoint fails on timeout, default: 60 * 1000L ms");
+
 
 }
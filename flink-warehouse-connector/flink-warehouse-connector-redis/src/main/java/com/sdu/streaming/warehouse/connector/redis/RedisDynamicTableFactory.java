@@ -5,6 +5,7 @@ import com.sdu.streaming.warehouse.connector.redis.sink.RedisWriteOptions;
 import com.sdu.streaming.warehouse.connector.redis.source.RedisDynamicTableSource;
 import com.sdu.streaming.warehouse.connector.redis.source.RedisReadOptions;
 import org.apache.flink.configuration.ConfigOption;
+import org.apache.flink.configuration.MemorySize;
 import org.apache.flink.configuration.ReadableConfig;
 import org.apache.flink.table.api.TableSchema;
 import org.apache.flink.table.catalog.ResolvedSchema;
@@ -66,18 +67,39 @@ public class RedisDynamicTableFactory implements DynamicTableSourceFactory, Dyna
     public Set<ConfigOption<?>> optionalOptions() {
         Set<ConfigOption<?>> options = new HashSet<>();
         options.add(REDIS_DATA_TYPE);
+        options.add(REDIS_VALUE_ENCODING);
         options.add(REDIS_KEY_PREFIX);
+        options.add(REDIS_KEY_FORMAT);
+        options.add(REDIS_VALUE_COMPRESSION);
+        options.add(REDIS_VALUE_COMPRESSION_THRESHOLD);
+        options.add(REDIS_CLUSTER_MODE);
+        options.add(REDIS_CLUSTER_MAX_REDIRECTS);
         // write
         options.add(REDIS_EXPIRE_SECONDS);
         options.add(REDIS_WRITE_BATCH_SIZE);
         options.add(REDIS_WRITE_FLUSH_INTERVAL);
+        options.add(REDIS_WRITE_BUFFER_COMPACTION);
         options.add(REDIS_WRITE_PARALLELISM);
+        options.add(REDIS_WRITE_RETRIES);
+        options.add(REDIS_WRITE_MAX_INFLIGHT_BATCHES);
+        options.add(REDIS_WRITE_TIMEOUT);
         // read
         options.add(REDIS_READ_ASYNCABLE);
         options.add(REDIS_READ_RETRIES);
         options.add(REDIS_READ_CACHEABLE);
         options.add(REDIS_READ_CACHE_SIZE);
         options.add(REDIS_READ_CACHE_EXPIRE);
+        options.add(REDIS_READ_CACHE_MAX_BYTES);
+        options.add(REDIS_READ_CACHE_MODE);
+        options.add(REDIS_READ_CACHE_POLICY);
+        options.add(REDIS_READ_CACHE_EXPIRE_AFTER_ACCESS);
+        options.add(REDIS_READ_NEGATIVE_CACHE_SIZE);
+        options.add(REDIS_READ_NEGATIVE_CACHE_EXPIRE);
+        options.add(REDIS_READ_BATCH_SIZE);
+        options.add(REDIS_READ_BATCH_LINGER);
+        options.add(REDIS_READ_PRELOAD);
+        options.add(REDIS_READ_PRELOAD_INTERVAL);
+        options.add(REDIS_READ_PRELOAD_SCAN_COUNT);
 
         return options;
     }
@@ -85,32 +107,53 @@ public class RedisDynamicTableFactory implements DynamicTableSourceFactory, Dyna
     private static RedisReadOptions getRedisReadOptions(ReadableConfig tableOption, Context context) {
         DataType rowDataType =  context.getCatalogTable().getSchema().toPhysicalRowDataType();
 
-        return new RedisReadOptions(
-                (RowType) rowDataType.getLogicalType(),
-                tableOption.get(REDIS_KEY_PREFIX),
-                tableOption.get(REDIS_DATA_TYPE),
-                tableOption.get(REDIS_ADDRESS),
-                tableOption.get(REDIS_READ_ASYNCABLE),
-                tableOption.get(REDIS_READ_RETRIES),
-                tableOption.get(REDIS_READ_CACHEABLE),
-                tableOption.get(REDIS_READ_CACHE_SIZE),
-                tableOption.get(REDIS_READ_CACHE_EXPIRE)
-        );
+        return RedisReadOptions.builder((RowType) rowDataType.getLogicalType())
+                .keyPrefix(tableOption.get(REDIS_KEY_PREFIX))
+                .redisDataType(tableOption.get(REDIS_DATA_TYPE))
+                .valueEncoding(tableOption.get(REDIS_VALUE_ENCODING))
+                .keyFormat(tableOption.get(REDIS_KEY_FORMAT))
+                .valueCompression(tableOption.get(REDIS_VALUE_COMPRESSION), (int) tableOption.get(REDIS_VALUE_COMPRESSION_THRESHOLD).getBytes())
+                .clusterAddress(tableOption.get(REDIS_ADDRESS))
+                .async(tableOption.get(REDIS_READ_ASYNCABLE))
+                .maxRetryTimes(tableOption.get(REDIS_READ_RETRIES))
+                .cacheable(tableOption.get(REDIS_READ_CACHEABLE))
+                .cacheMaxSize(tableOption.get(REDIS_READ_CACHE_SIZE))
+                .cacheExpireMs(tableOption.get(REDIS_READ_CACHE_EXPIRE))
+                .cacheMaxBytes(tableOption.getOptional(REDIS_READ_CACHE_MAX_BYTES).map(MemorySize::getBytes).orElse(-1L))
+                .cacheMode(tableOption.get(REDIS_READ_CACHE_MODE))
+                .cachePolicy(tableOption.get(REDIS_READ_CACHE_POLICY))
+                .cacheExpireAfterAccess(tableOption.get(REDIS_READ_CACHE_EXPIRE_AFTER_ACCESS))
+                .negativeCacheMaxSize(tableOption.get(REDIS_READ_NEGATIVE_CACHE_SIZE))
+                .negativeCacheExpireMs(tableOption.get(REDIS_READ_NEGATIVE_CACHE_EXPIRE))
+                .batchSize(tableOption.get(REDIS_READ_BATCH_SIZE))
+                .batchLingerMs(tableOption.get(REDIS_READ_BATCH_LINGER))
+                .preload(tableOption.get(REDIS_READ_PRELOAD))
+                .preloadIntervalMs(tableOption.get(REDIS_READ_PRELOAD_INTERVAL))
+                .preloadScanCount(tableOption.get(REDIS_READ_PRELOAD_SCAN_COUNT))
+                .build();
     }
 
     private static RedisWriteOptions getRedisWriteOptions(ReadableConfig tableOption, Context context) {
         DataType rowDataType =  context.getCatalogTable().getSchema().toPhysicalRowDataType();
 
-        return new RedisWriteOptions(
-                (RowType) rowDataType.getLogicalType(),
-                tableOption.get(REDIS_KEY_PREFIX),
-                tableOption.get(REDIS_DATA_TYPE),
-                tableOption.get(REDIS_ADDRESS),
-                tableOption.get(REDIS_WRITE_BATCH_SIZE),
-                tableOption.get(REDIS_WRITE_FLUSH_INTERVAL),
-                tableOption.get(REDIS_EXPIRE_SECONDS),
-                tableOption.get(REDIS_WRITE_PARALLELISM)
-        );
+        return RedisWriteOptions.builder((RowType) rowDataType.getLogicalType())
+                .keyPrefix(tableOption.get(REDIS_KEY_PREFIX))
+                .redisDataType(tableOption.get(REDIS_DATA_TYPE))
+                .valueEncoding(tableOption.get(REDIS_VALUE_ENCODING))
+                .keyFormat(tableOption.get(REDIS_KEY_FORMAT))
+                .valueCompression(tableOption.get(REDIS_VALUE_COMPRESSION), (int) tableOption.get(REDIS_VALUE_COMPRESSION_THRESHOLD).getBytes())
+                .clusterName(tableOption.get(REDIS_ADDRESS))
+                .clusterMode(tableOption.get(REDIS_CLUSTER_MODE))
+                .clusterMaxRedirects(tableOption.get(REDIS_CLUSTER_MAX_REDIRECTS))
+                .bufferFlushMaxSize(tableOption.get(REDIS_WRITE_BATCH_SIZE))
+                .bufferFlushInterval(tableOption.get(REDIS_WRITE_FLUSH_INTERVAL))
+                .bufferCompaction(tableOption.get(REDIS_WRITE_BUFFER_COMPACTION))
+                .expireSeconds(tableOption.get(REDIS_EXPIRE_SECONDS))
+                .parallelism(tableOption.get(REDIS_WRITE_PARALLELISM))
+                .maxRetryTimes(tableOption.get(REDIS_WRITE_RETRIES))
+                .maxInFlightBatches(tableOption.get(REDIS_WRITE_MAX_INFLIGHT_BATCHES))
+                .writeTimeout(tableOption.get(REDIS_WRITE_TIMEOUT))
+                .build();
     }
 
     private static int[] getPrimaryKeyIndexes(ResolvedSchema schema) {
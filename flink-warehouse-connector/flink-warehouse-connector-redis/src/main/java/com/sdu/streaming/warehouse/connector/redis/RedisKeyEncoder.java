@@ -0,0 +1,109 @@
+package com.sdu.streaming.warehouse.connector.redis;
+
+import com.sdu.streaming.warehouse.connector.redis.entry.RedisKeyFormat;
+import com.sdu.streaming.warehouse.deserializer.NoahArkDataSerializer;
+import com.sdu.streaming.warehouse.utils.ByteArrayDataOutput;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.util.Preconditions;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+// redis key 编码, 所有 redis 数据类型共用; prefix 在构造时编码一次, 按线程复用写缓冲
+public class RedisKeyEncoder {
+
+    private static final byte SEPARATOR = ':';
+    // READABLE: 字段值中的分隔符及转义符前加转义符, null 写作 \N, 与任何转义后的字段值不同
+    private static final byte ESCAPE = '\\';
+    private static final byte[] NULL_TOKEN = new byte[] {ESCAPE, 'N'};
+
+    private static final ThreadLocal<ByteArrayDataOutput> THREAD_OUTPUT = ThreadLocal.withInitial(() -> new ByteArrayDataOutput(64));
+
+    private final RedisKeyFormat keyFormat;
+    // BINARY: [prefix 长度 + prefix]; READABLE: prefix
+    private final byte[] header;
+    private final RowData.FieldGetter[] keyFieldGetters;
+    private final NoahArkDataSerializer[] keySerializers;
+
+    public RedisKeyEncoder(RedisKeyFormat keyFormat, String prefix, RowData.FieldGetter[] keyFieldGetters, NoahArkDataSerializer[] keySerializers) {
+        Preconditions.checkArgument(keyFieldGetters.length == keySerializers.length);
+        this.keyFormat = keyFormat;
+        this.header = keyFormat == RedisKeyFormat.BINARY ? binaryHeader(prefix) : prefix.getBytes(StandardCharsets.UTF_8);
+        this.keyFieldGetters = keyFieldGetters;
+        this.keySerializers = keySerializers;
+    }
+
+    public byte[] encode(RowData rowData) throws IOException {
+        ByteArrayDataOutput out = THREAD_OUTPUT.get();
+        out.reset();
+        out.write(header);
+        for (int index = 0; index < keyFieldGetters.length; ++index) {
+            Object keyField = keyFieldGetters[index].getFieldOrNull(rowData);
+            if (keyFormat == RedisKeyFormat.BINARY) {
+                keySerializers[index].serializer(keyField, out);
+                continue;
+            }
+            // prefix 为空时不以分隔符开头
+            if (index > 0 || header.length > 0) {
+                out.writeByte(SEPARATOR);
+            }
+            writeReadableField(keyField, out);
+        }
+        return out.toByteArray();
+    }
+
+    // SCAN 匹配 prefix 下全部 key, glob 特殊字符需转义
+    public byte[] scanPattern() {
+        ByteArrayOutputStream pattern = new ByteArrayOutputStream(header.length * 2 + 2);
+        for (byte b : header) {
+            if (b == '*' || b == '?' || b == '[' || b == ']' || b == '\\') {
+                pattern.write('\\');
+            }
+            pattern.write(b);
+        }
+        if (keyFormat == RedisKeyFormat.READABLE && header.length > 0) {
+            pattern.write(SEPARATOR);
+        }
+        pattern.write('*');
+        return pattern.toByteArray();
+    }
+
+    private static void writeReadableField(Object keyField, ByteArrayDataOutput out) {
+        if (keyField == null) {
+            out.write(NULL_TOKEN);
+            return;
+        }
+        // 数值 / DecimalData / TimestampData 等使用其字符串形式
+        byte[] value = keyField instanceof StringData
+                ? ((StringData) keyField).toBytes()
+                : keyField.toString().getBytes(StandardCharsets.UTF_8);
+        writeEscaped(value, out);
+    }
+
+    // UTF-8 多字节字符不含 ASCII 字节, 可按字节转义
+    private static void writeEscaped(byte[] value, ByteArrayDataOutput out) {
+        int start = 0;
+        for (int i = 0; i < value.length; ++i) {
+            if (value[i] == SEPARATOR || value[i] == ESCAPE) {
+                out.write(value, start, i - start);
+                out.writeByte(ESCAPE);
+                start = i;
+            }
+        }
+        out.write(value, start, value.length - start);
+    }
+
+    private static byte[] binaryHeader(String prefix) {
+        byte[] prefixBytes = prefix.getBytes(StandardCharsets.UTF_8);
+        byte[] header = new byte[4 + prefixBytes.length];
+        header[0] = (byte) (prefixBytes.length >>> 24);
+        header[1] = (byte) (prefixBytes.length >>> 16);
+        header[2] = (byte) (prefixBytes.length >>> 8);
+        header[3] = (byte) prefixBytes.length;
+        System.arraycopy(prefixBytes, 0, header, 4, prefixBytes.length);
+        return header;
+    }
+
+}
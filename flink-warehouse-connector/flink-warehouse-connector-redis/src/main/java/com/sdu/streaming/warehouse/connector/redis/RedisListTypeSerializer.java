@@ -1,7 +1,8 @@
 package com.sdu.streaming.warehouse.connector.redis;
 
-import com.sdu.streaming.warehouse.deserializer.NoahArkDataDeserializer;
-import com.sdu.streaming.warehouse.deserializer.NoahArkDataSerializer;
+import com.sdu.streaming.warehouse.deserializer.NoahArkEncoding;
+import com.sdu.streaming.warehouse.deserializer.NoahArkProjection;
+import com.sdu.streaming.warehouse.deserializer.NoahArkRowCodec;
 import com.sdu.streaming.warehouse.utils.ByteArrayDataInput;
 import com.sdu.streaming.warehouse.utils.ByteArrayDataOutput;
 import org.apache.flink.table.data.GenericRowData;
@@ -18,15 +19,19 @@ public class RedisListTypeSerializer extends AbstractRedisTypeSerializer<byte[][
     private RedisListTypeSerializer() { }
 
     @Override
-    public byte[][] serializeValue(RowData rowData, String[] fieldNames, RowData.FieldGetter[] rowFieldGetters, NoahArkDataSerializer[] rowFieldSerializers) throws IOException {
-        Preconditions.checkArgument(rowFieldGetters.length == rowFieldSerializers.length);
-
-        ByteArrayDataOutput out = new ByteArrayDataOutput();
+    public byte[][] serializeValue(RowData rowData, String[] fieldNames, NoahArkRowCodec rowCodec, NoahArkEncoding encoding, RedisValueCompressor compressor) throws IOException {
+        ByteArrayDataOutput out = threadOutput();
         byte[][] values = new byte[rowData.getArity()][];
         for (int pos = 0; pos < rowData.getArity(); ++pos) {
-            Object fieldValue = rowFieldGetters[pos].getFieldOrNull(rowData);
-            rowFieldSerializers[pos].serializer(fieldValue, out);
-            values[pos] = out.toByteArray();
+            // 字段单独存储, null 字段写入空值(非 null 值至少占 1 字节)
+            if (rowData.isNullAt(pos)) {
+                values[pos] = EMPTY_BYTES;
+                continue;
+            }
+            writeHeader(out, encoding);
+            writeFieldId(out, encoding, rowCodec, pos);
+            rowCodec.serializeField(pos, rowData, out);
+            values[pos] = compressor.compress(out);
             out.reset();
         }
         return values;
@@ -34,19 +39,75 @@ public class RedisListTypeSerializer extends AbstractRedisTypeSerializer<byte[][
     }
 
     @Override
-    public RowData deserializeValue(byte[][] bytes, String[] fieldNames, NoahArkDataDeserializer[] rowFieldDeserializers) throws IOException {
+    public RowData deserializeValue(byte[][] bytes, String[] fieldNames, NoahArkRowCodec rowCodec, NoahArkEncoding encoding, RedisValueCompressor compressor) throws IOException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (encoding.isTagged()) {
+            return deserializeTagged(bytes, rowCodec, null, encoding, compressor);
+        }
         Preconditions.checkArgument(bytes.length == fieldNames.length);
-        Preconditions.checkArgument(fieldNames.length == rowFieldDeserializers.length);
 
         GenericRowData rowData = new GenericRowData(fieldNames.length);
         for (int pos = 0; pos < fieldNames.length; ++pos) {
-            // TODO: 优化频繁实例化
-            ByteArrayDataInput input = new ByteArrayDataInput(bytes[pos]);
-            Object fieldValue = rowFieldDeserializers[pos].deserializer(input);
+            if (bytes[pos].length == 0) {
+                continue;
+            }
+            ByteArrayDataInput input = threadInput(bytes[pos], compressor);
+            // COMPACT 读取 TAGGED 写入的元素: schema 一致时元素位置与字段位置相同
+            if (readFieldPosition(input, readHeader(input, encoding), rowCodec, pos) != pos) {
+                continue;
+            }
+            Object fieldValue = rowCodec.deserializeField(pos, input);
             rowData.setField(pos, fieldValue);
         }
 
         return rowData;
     }
 
+    // 列裁剪: bytes 只需包含 [0, projection.getLastField()] 范围内的字段
+    public RowData deserializeValue(byte[][] bytes, NoahArkRowCodec rowCodec, NoahArkProjection projection, NoahArkEncoding encoding, RedisValueCompressor compressor) throws IOException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (encoding.isTagged()) {
+            return deserializeTagged(bytes, rowCodec, projection, encoding, compressor);
+        }
+        Preconditions.checkArgument(bytes.length > projection.getLastField());
+
+        int[] fields = projection.getFields();
+        GenericRowData rowData = new GenericRowData(fields.length);
+        for (int i = 0; i < fields.length; ++i) {
+            byte[] fieldBytes = bytes[fields[i]];
+            if (fieldBytes.length == 0) {
+                continue;
+            }
+            ByteArrayDataInput input = threadInput(fieldBytes, compressor);
+            if (readFieldPosition(input, readHeader(input, encoding), rowCodec, fields[i]) != fields[i]) {
+                continue;
+            }
+            rowData.setField(i, rowCodec.deserializeField(fields[i], input));
+        }
+
+        return rowData;
+    }
+
+    // TAGGED: 元素位置可与当前 schema 不一致, 按字段 ID 定位, 未知字段跳过, 缺失字段为 null
+    private static RowData deserializeTagged(byte[][] bytes, NoahArkRowCodec rowCodec, NoahArkProjection projection, NoahArkEncoding encoding, RedisValueCompressor compressor) throws IOException {
+        GenericRowData rowData = new GenericRowData(projection == null ? rowCodec.getFieldIds().size() : projection.getArity());
+        for (int index = 0; index < bytes.length; ++index) {
+            if (bytes[index].length == 0) {
+                continue;
+            }
+            ByteArrayDataInput input = threadInput(bytes[index], compressor);
+            int pos = readFieldPosition(input, readHeader(input, encoding), rowCodec, index);
+            int target = pos < 0 || projection == null ? pos : projection.getTargets()[pos];
+            if (target < 0) {
+                continue;
+            }
+            rowData.setField(target, rowCodec.deserializeField(pos, input));
+        }
+        return rowData;
+    }
+
 }
@@ -1,17 +1,22 @@
 package com.sdu.streaming.warehouse.connector.redis;
 
-import com.sdu.streaming.warehouse.deserializer.NoahArkDataDeserializer;
-import com.sdu.streaming.warehouse.deserializer.NoahArkDataSerializer;
+import com.sdu.streaming.warehouse.deserializer.NoahArkEncoding;
+import com.sdu.streaming.warehouse.deserializer.NoahArkProjection;
+import com.sdu.streaming.warehouse.deserializer.NoahArkRowCodec;
 import com.sdu.streaming.warehouse.utils.ByteArrayDataInput;
 import com.sdu.streaming.warehouse.utils.ByteArrayDataOutput;
+import io.lettuce.core.KeyValue;
 import org.apache.flink.table.data.GenericRowData;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.util.Preconditions;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 public class RedisMapTypeSerializer extends AbstractRedisTypeSerializer<Map<byte[], byte[]>> {
@@ -19,21 +24,33 @@ public class RedisMapTypeSerializer extends AbstractRedisTypeSerializer<Map<byte
     public static final RedisMapTypeSerializer REDIS_MAP_DESERIALIZER =
             new RedisMapTypeSerializer();
 
+    // 字段名 UTF-8 编码缓存
+    private static final Map<String, byte[]> FIELD_NAME_BYTES = new ConcurrentHashMap<>();
+
     private RedisMapTypeSerializer() { }
 
+    private static byte[] fieldNameBytes(String fieldName) {
+        return FIELD_NAME_BYTES.computeIfAbsent(fieldName, name -> name.getBytes(StandardCharsets.UTF_8));
+    }
+
     @Override
-    public Map<byte[], byte[]> serializeValue(RowData rowData, String[] fieldNames, RowData.FieldGetter[] rowFieldGetters, NoahArkDataSerializer[] rowFieldSerializers) throws IOException {
-        Preconditions.checkArgument(rowFieldGetters.length == fieldNames.length);
-        Preconditions.checkArgument(rowFieldGetters.length == rowFieldSerializers.length);
+    public Map<byte[], byte[]> serializeValue(RowData rowData, String[] fieldNames, NoahArkRowCodec rowCodec, NoahArkEncoding encoding, RedisValueCompressor compressor) throws IOException {
+        Preconditions.checkArgument(rowData.getArity() == fieldNames.length);
 
-        ByteArrayDataOutput out = new ByteArrayDataOutput();
-        Map<byte[], byte[]> values = new HashMap<>();
+        ByteArrayDataOutput out = threadOutput();
         int arity = rowData.getArity();
+        Map<byte[], byte[]> values = new HashMap<>(arity * 2);
         for (int pos = 0; pos < arity; ++pos) {
-            byte[] key = fieldNames[pos].getBytes(StandardCharsets.UTF_8);
-            Object fieldValue = rowFieldGetters[pos].getFieldOrNull(rowData);
-            rowFieldSerializers[pos].serializer(fieldValue, out);
-            byte[] value = out.toByteArray();
+            byte[] key = fieldNameBytes(fieldNames[pos]);
+            // 字段单独存储, null 字段写入空值(非 null 值至少占 1 字节)
+            if (rowData.isNullAt(pos)) {
+                values.put(key, EMPTY_BYTES);
+                continue;
+            }
+            writeHeader(out, encoding);
+            writeFieldId(out, encoding, rowCodec, pos);
+            rowCodec.serializeField(pos, rowData, out);
+            byte[] value = compressor.compress(out);
             values.put(key, value);
             out.reset();
         }
@@ -42,19 +59,85 @@ public class RedisMapTypeSerializer extends AbstractRedisTypeSerializer<Map<byte
     }
 
     @Override
-    public RowData deserializeValue(Map<byte[], byte[]> bytes, String[] fieldNames, NoahArkDataDeserializer[] rowFieldDeserializers) throws IOException {
-        Preconditions.checkArgument(bytes.keySet().size() == fieldNames.length);
-        Preconditions.checkArgument(fieldNames.length == rowFieldDeserializers.length);
+    public RowData deserializeValue(Map<byte[], byte[]> bytes, String[] fieldNames, NoahArkRowCodec rowCodec, NoahArkEncoding encoding, RedisValueCompressor compressor) throws IOException {
+        if (bytes == null || bytes.isEmpty()) {
+            return null;
+        }
+        // TAGGED 允许字段增减: 未知字段忽略, 缺失字段为 null
+        Preconditions.checkArgument(encoding.isTagged() || bytes.keySet().size() == fieldNames.length);
 
+        // redis 返回的 byte[] key 按引用比较, 不能直接 get; 小 hash 按写入顺序返回, 优先按位置匹配字段
         GenericRowData rowData = new GenericRowData(fieldNames.length);
-        for (int pos = 0; pos < fieldNames.length; ++pos) {
-            byte[] key = fieldNames[pos].getBytes(StandardCharsets.UTF_8);
-            byte[] value = bytes.get(key);
-            // TODO: 优化频繁实例化
-            ByteArrayDataInput input = new ByteArrayDataInput(value);
-            Object fieldValue = rowFieldDeserializers[pos].deserializer(input);
+        int index = 0;
+        for (Map.Entry<byte[], byte[]> entry : bytes.entrySet()) {
+            int pos = fieldIndex(entry.getKey(), fieldNames, index++);
+            if (pos < 0) {
+                if (encoding.isTagged()) {
+                    continue;
+                }
+                throw new IOException("unknown redis hash field: " + new String(entry.getKey(), StandardCharsets.UTF_8));
+            }
+            if (entry.getValue().length == 0) {
+                continue;
+            }
+            ByteArrayDataInput input = threadInput(entry.getValue(), compressor);
+            // TAGGED: 字段类型变更后字段 ID 不一致, 旧数据读取为 null
+            if (readFieldPosition(input, readHeader(input, encoding), rowCodec, pos) != pos) {
+                continue;
+            }
+            Object fieldValue = rowCodec.deserializeField(pos, input);
             rowData.setField(pos, fieldValue);
         }
         return rowData;
     }
+
+    // HMGET 参数: 裁剪后的字段名
+    public byte[][] projectedFieldNames(String[] fieldNames, NoahArkProjection projection) {
+        int[] fields = projection.getFields();
+        byte[][] names = new byte[fields.length][];
+        for (int i = 0; i < fields.length; ++i) {
+            names[i] = fieldNameBytes(fieldNames[fields[i]]);
+        }
+        return names;
+    }
+
+    // 列裁剪: values 为 HMGET 结果, 与 projection 字段一一对应; key 不存在时全部无值
+    public RowData deserializeValue(List<KeyValue<byte[], byte[]>> values, NoahArkRowCodec rowCodec, NoahArkProjection projection, NoahArkEncoding encoding, RedisValueCompressor compressor) throws IOException {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        Preconditions.checkArgument(values.size() == projection.getArity());
+
+        int[] fields = projection.getFields();
+        GenericRowData rowData = new GenericRowData(fields.length);
+        boolean exists = false;
+        for (int i = 0; i < fields.length; ++i) {
+            KeyValue<byte[], byte[]> value = values.get(i);
+            if (!value.hasValue()) {
+                continue;
+            }
+            exists = true;
+            if (value.getValue().length == 0) {
+                continue;
+            }
+            ByteArrayDataInput input = threadInput(value.getValue(), compressor);
+            if (readFieldPosition(input, readHeader(input, encoding), rowCodec, fields[i]) != fields[i]) {
+                continue;
+            }
+            rowData.setField(i, rowCodec.deserializeField(fields[i], input));
+        }
+        return exists ? rowData : null;
+    }
+
+    private static int fieldIndex(byte[] key, String[] fieldNames, int hint) {
+        if (hint < fieldNames.length && Arrays.equals(key, fieldNameBytes(fieldNames[hint]))) {
+            return hint;
+        }
+        for (int pos = 0; pos < fieldNames.length; ++pos) {
+            if (Arrays.equals(key, fieldNameBytes(fieldNames[pos]))) {
+                return pos;
+            }
+        }
+        return -1;
+    }
 }
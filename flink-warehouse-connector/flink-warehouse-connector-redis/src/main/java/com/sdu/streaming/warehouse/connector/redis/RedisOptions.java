@@ -1,20 +1,46 @@
 package com.sdu.streaming.warehouse.connector.redis;
 
 import com.sdu.streaming.warehouse.connector.redis.entry.RedisDataType;
+import com.sdu.streaming.warehouse.connector.redis.entry.RedisKeyFormat;
+import com.sdu.streaming.warehouse.connector.redis.entry.RedisValueCompression;
+import com.sdu.streaming.warehouse.deserializer.NoahArkEncoding;
 import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.util.Preconditions;
 
 import java.io.Serializable;
 
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_DATA_TYPE;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_KEY_FORMAT;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_KEY_PREFIX;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_VALUE_COMPRESSION;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_VALUE_COMPRESSION_THRESHOLD;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_VALUE_ENCODING;
+
 public abstract class RedisOptions implements Serializable {
 
     private final RowType rowType;
     private final String keyPrefix;
     private final RedisDataType redisDataType;
+    // value 编码格式
+    private final NoahArkEncoding valueEncoding;
+    // key 格式
+    private final RedisKeyFormat keyFormat;
+    // value 压缩
+    private final RedisValueCompression valueCompression;
+    private final int valueCompressionThreshold;
 
-    public RedisOptions(RowType rowType, String keyPrefix, RedisDataType redisDataType) {
-        this.rowType = rowType;
-        this.keyPrefix = keyPrefix;
-        this.redisDataType = redisDataType;
+    protected RedisOptions(Builder<?> builder) {
+        this.rowType = builder.rowType;
+        this.keyPrefix = builder.keyPrefix;
+        this.redisDataType = builder.redisDataType;
+        this.valueEncoding = builder.valueEncoding;
+        this.keyFormat = builder.keyFormat;
+        this.valueCompression = builder.valueCompression;
+        this.valueCompressionThreshold = builder.valueCompressionThreshold;
+        // 压缩标记依赖版本头区分压缩与未压缩的 value
+        Preconditions.checkArgument(
+                valueCompression == RedisValueCompression.NONE || valueEncoding.hasHeader(),
+                "redis value compression %s requires COMPACT or TAGGED value encoding, actual: %s", valueCompression, valueEncoding);
     }
 
     public RowType getRowType() {
@@ -29,5 +55,65 @@ public abstract class RedisOptions implements Serializable {
         return redisDataType;
     }
 
+    public NoahArkEncoding getValueEncoding() {
+        return valueEncoding;
+    }
+
+    public RedisKeyFormat getKeyFormat() {
+        return keyFormat;
+    }
+
+    public RedisValueCompression getValueCompression() {
+        return valueCompression;
+    }
+
+    public int getValueCompressionThreshold() {
+        return valueCompressionThreshold;
+    }
+
     public abstract long expireTime();
+
+    // 未设置的选项取 RedisConfigOptions 默认值
+    @SuppressWarnings("unchecked")
+    public abstract static class Builder<B extends Builder<B>> {
+
+        private final RowType rowType;
+        private String keyPrefix = REDIS_KEY_PREFIX.defaultValue();
+        private RedisDataType redisDataType = REDIS_DATA_TYPE.defaultValue();
+        private NoahArkEncoding valueEncoding = REDIS_VALUE_ENCODING.defaultValue();
+        private RedisKeyFormat keyFormat = REDIS_KEY_FORMAT.defaultValue();
+        private RedisValueCompression valueCompression = REDIS_VALUE_COMPRESSION.defaultValue();
+        private int valueCompressionThreshold = (int) REDIS_VALUE_COMPRESSION_THRESHOLD.defaultValue().getBytes();
+
+        protected Builder(RowType rowType) {
+            this.rowType = rowType;
+        }
+
+        public B keyPrefix(String keyPrefix) {
+            this.keyPrefix = keyPrefix;
+            return (B) this;
+        }
+
+        public B redisDataType(RedisDataType redisDataType) {
+            this.redisDataType = redisDataType;
+            return (B) this;
+        }
+
+        public B valueEncoding(NoahArkEncoding valueEncoding) {
+            this.valueEncoding = valueEncoding;
+            return (B) this;
+        }
+
+        public B keyFormat(RedisKeyFormat keyFormat) {
+            this.keyFormat = keyFormat;
+            return (B) this;
+        }
+
+        public B valueCompression(RedisValueCompression valueCompression, int valueCompressionThreshold) {
+            this.valueCompression = valueCompression;
+            this.valueCompressionThreshold = valueCompressionThreshold;
+            return (B) this;
+        }
+
+    }
 }
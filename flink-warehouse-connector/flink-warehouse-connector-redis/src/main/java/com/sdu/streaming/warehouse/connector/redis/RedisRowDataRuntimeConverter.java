@@ -1,23 +1,34 @@
 package com.sdu.streaming.warehouse.connector.redis;
 
 import com.sdu.streaming.warehouse.connector.redis.entry.*;
-import com.sdu.streaming.warehouse.deserializer.NoahArkDataDeserializer;
 import com.sdu.streaming.warehouse.deserializer.NoahArkDataSerializer;
+import com.sdu.streaming.warehouse.deserializer.NoahArkEncoding;
+import com.sdu.streaming.warehouse.deserializer.NoahArkProjection;
+import com.sdu.streaming.warehouse.deserializer.NoahArkRowCodec;
+import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanCursor;
 import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.types.logical.LogicalType;
 import org.apache.flink.table.types.logical.RowType;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 
 import static com.sdu.streaming.warehouse.connector.redis.RedisListTypeSerializer.REDIS_LIST_DESERIALIZER;
 import static com.sdu.streaming.warehouse.connector.redis.RedisMapTypeSerializer.REDIS_MAP_DESERIALIZER;
 import static com.sdu.streaming.warehouse.connector.redis.RedisStringTypeSerializer.REDIS_STRING_DESERIALIZER;
-import static com.sdu.streaming.warehouse.deserializer.NoahArkDataDeserializer.createDataDeserializer;
 import static com.sdu.streaming.warehouse.deserializer.NoahArkDataSerializer.createDataSerializer;
+import static com.sdu.streaming.warehouse.deserializer.NoahArkRowCodec.createRowCodec;
 
 
 public class RedisRowDataRuntimeConverter implements RedisRuntimeConverter<RowData> {
@@ -30,51 +41,83 @@ public class RedisRowDataRuntimeConverter implements RedisRuntimeConverter<RowDa
     //  primaryKeyIndexes[i][1]: RowType中索引位置
     private final int[][] primaryKeyIndexes;
     private final RedisOptions redisOptions;
+    // read: 列裁剪后输出字段在 RowType 中的位置, null 表示读取全部字段
+    private final int[] projectedFields;
 
     // primary key
-    private transient NoahArkDataSerializer[] rowKeySerializers;
-    private transient RowData.FieldGetter[] rowKeyFieldGetters;
+    private transient RedisKeyEncoder keyEncoder;
 
-    // row field
-    private transient NoahArkDataSerializer[] rowFieldSerializers;
-    private transient RowData.FieldGetter[] rowFieldGetters;
-
-    private transient NoahArkDataDeserializer[] rowFieldDeserializers;
+    // row field: 按 RowType 生成的编解码器
+    private transient NoahArkRowCodec rowCodec;
     private transient String[] fieldNames;
+    // value 编码, key 始终使用 FIXED 保证 lookup/scan 可定位
+    private transient NoahArkEncoding valueEncoding;
+    // value 压缩, 超过阈值的 value 压缩存储
+    private transient RedisValueCompressor compressor;
+
+    // projection: MAP 走 HMGET 只取所需字段, LIST 只取到最后一个所需字段, STRING 跳过不需要的字段
+    private transient NoahArkProjection projection;
+    private transient byte[][] projectedFieldNames;
+    // 输出行(裁剪后)的编解码器, 用于缓存序列化
+    private transient NoahArkRowCodec producedCodec;
+    private transient String[] producedFieldNames;
 
     public RedisRowDataRuntimeConverter(RedisOptions redisOptions, int[][] primaryKeyIndexes) {
+        this(redisOptions, primaryKeyIndexes, null);
+    }
+
+    public RedisRowDataRuntimeConverter(RedisOptions redisOptions, int[][] primaryKeyIndexes, int[] projectedFields) {
         this.redisOptions = redisOptions;
         this.primaryKeyIndexes = primaryKeyIndexes;
+        this.projectedFields = projectedFields;
     }
 
     @Override
     public void open() throws IOException {
         RowType rowType = redisOptions.getRowType();
+        valueEncoding = redisOptions.getValueEncoding();
+        compressor = new RedisValueCompressor(redisOptions.getValueCompression(), redisOptions.getValueCompressionThreshold());
 
         // primary key
-        rowKeySerializers = new NoahArkDataSerializer[primaryKeyIndexes.length];
-        rowKeyFieldGetters = new RowData.FieldGetter[primaryKeyIndexes.length];
+        NoahArkDataSerializer[] rowKeySerializers = new NoahArkDataSerializer[primaryKeyIndexes.length];
+        RowData.FieldGetter[] rowKeyFieldGetters = new RowData.FieldGetter[primaryKeyIndexes.length];
         for (int i = 0; i < primaryKeyIndexes.length; ++i) {
             LogicalType rowKeyType = rowType.getTypeAt(primaryKeyIndexes[i][1]);
             rowKeySerializers[i] = createDataSerializer(rowKeyType);
             rowKeyFieldGetters[i] = RowData.createFieldGetter(rowKeyType, primaryKeyIndexes[i][0]);
         }
+        keyEncoder = new RedisKeyEncoder(redisOptions.getKeyFormat(), redisOptions.getKeyPrefix(), rowKeyFieldGetters, rowKeySerializers);
 
-        // write
-        rowFieldSerializers = new NoahArkDataSerializer[rowType.getFieldCount()];
-        rowFieldGetters = new RowData.FieldGetter[rowType.getFieldCount()];
-        for (int i = 0; i < rowType.getFieldCount(); ++i) {
-            rowFieldSerializers[i] = createDataSerializer(rowType.getTypeAt(i));
-            rowFieldGetters[i] = RowData.createFieldGetter(rowType.getTypeAt(i), i);
-        }
+        // read & write
+        rowCodec = createRowCodec(rowType, valueEncoding);
 
-        // read
-        rowFieldDeserializers = new NoahArkDataDeserializer[rowType.getFieldCount()];
-        for (int i = 0; i < rowType.getFieldCount(); ++i) {
-            rowFieldDeserializers[i] = createDataDeserializer(rowType.getTypeAt(i));
+        fieldNames = rowType.getFieldNames().toArray(new String[0]);
+
+        producedCodec = rowCodec;
+        producedFieldNames = fieldNames;
+        if (projectedFields != null && !isIdentity(projectedFields, rowType.getFieldCount())) {
+            projection = NoahArkProjection.of(projectedFields, rowType.getFieldCount());
+            projectedFieldNames = REDIS_MAP_DESERIALIZER.projectedFieldNames(fieldNames, projection);
+            List<RowType.RowField> producedFields = new ArrayList<>(projectedFields.length);
+            for (int field : projectedFields) {
+                producedFields.add(rowType.getFields().get(field));
+            }
+            RowType producedType = new RowType(rowType.isNullable(), producedFields);
+            producedCodec = createRowCodec(producedType, valueEncoding);
+            producedFieldNames = producedType.getFieldNames().toArray(new String[0]);
         }
+    }
 
-        fieldNames = rowType.getFieldNames().toArray(new String[0]);
+    private static boolean isIdentity(int[] fields, int fieldCount) {
+        if (fields.length != fieldCount) {
+            return false;
+        }
+        for (int i = 0; i < fields.length; ++i) {
+            if (fields[i] != i) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
@@ -83,32 +126,35 @@ public class RedisRowDataRuntimeConverter implements RedisRuntimeConverter<RowDa
         long expireSeconds = redisOptions.expireTime();
         switch (redisDataType) {
             case MAP:
-                byte[] mapKeys = REDIS_MAP_DESERIALIZER.serializeKey(data, redisOptions.getKeyPrefix(), rowKeyFieldGetters, rowKeySerializers);
+                byte[] mapKeys = keyEncoder.encode(data);
                 Map<byte[], byte[]> mapValues = REDIS_MAP_DESERIALIZER.serializeValue(
                         data,
                         fieldNames,
-                        rowFieldGetters,
-                        rowFieldSerializers
+                        rowCodec,
+                        valueEncoding,
+                        compressor
                 );
                 return new RedisMapData(expireSeconds, data.getRowKind(), mapKeys, mapValues);
 
             case LIST:
-                byte[] listKeys = REDIS_LIST_DESERIALIZER.serializeKey(data, redisOptions.getKeyPrefix(), rowKeyFieldGetters, rowKeySerializers);
+                byte[] listKeys = keyEncoder.encode(data);
                 byte[][] listValues = REDIS_LIST_DESERIALIZER.serializeValue(
                         data,
                         fieldNames,
-                        rowFieldGetters,
-                        rowFieldSerializers
+                        rowCodec,
+                        valueEncoding,
+                        compressor
                 );
                 return new RedisListData(expireSeconds, data.getRowKind(), listKeys, listValues);
 
             case STRING:
-                byte[] stringKeys = REDIS_STRING_DESERIALIZER.serializeKey(data, redisOptions.getKeyPrefix(), rowKeyFieldGetters, rowKeySerializers);
+                byte[] stringKeys = keyEncoder.encode(data);
                 byte[] stringValues = REDIS_STRING_DESERIALIZER.serializeValue(
                         data,
                         fieldNames,
-                        rowFieldGetters,
-                        rowFieldSerializers
+                        rowCodec,
+                        valueEncoding,
+                        compressor
                 );
                 return new RedisStringData(expireSeconds, data.getRowKind(), stringKeys, stringValues);
 
@@ -120,22 +166,24 @@ public class RedisRowDataRuntimeConverter implements RedisRuntimeConverter<RowDa
     @Override
     public RowData deserialize(StatefulRedisConnection<byte[], byte[]> client, RowData key) throws IOException {
         RedisDataType redisDataType = redisOptions.getRedisDataType();
-        String keyPrefix = redisOptions.getKeyPrefix();
         switch (redisDataType) {
             case MAP:
-                byte[] mapKeys = REDIS_MAP_DESERIALIZER.serializeKey(key, keyPrefix, rowKeyFieldGetters, rowKeySerializers);
+                byte[] mapKeys = keyEncoder.encode(key);
+                if (projection != null) {
+                    return deserializeMapValue(client.sync().hmget(mapKeys, projectedFieldNames));
+                }
                 Map<byte[], byte[]> mapValues = client.sync().hgetall(mapKeys);
-                return REDIS_MAP_DESERIALIZER.deserializeValue(mapValues, fieldNames, rowFieldDeserializers);
+                return REDIS_MAP_DESERIALIZER.deserializeValue(mapValues, fieldNames, rowCodec, valueEncoding, compressor);
 
             case LIST:
-                byte[] listKeys = REDIS_LIST_DESERIALIZER.serializeKey(key, keyPrefix, rowKeyFieldGetters, rowKeySerializers);
-                List<byte[]> listValues = client.sync().lrange(listKeys, 0, -1);
-                return REDIS_LIST_DESERIALIZER.deserializeValue(listValues.toArray(new byte[0][0]), fieldNames, rowFieldDeserializers);
+                byte[] listKeys = keyEncoder.encode(key);
+                List<byte[]> listValues = client.sync().lrange(listKeys, 0, listEnd());
+                return deserializeListValue(listValues);
 
             case STRING:
-                byte[] stringKeys = REDIS_STRING_DESERIALIZER.serializeKey(key, keyPrefix, rowKeyFieldGetters, rowKeySerializers);
+                byte[] stringKeys = keyEncoder.encode(key);
                 byte[] stringValues = client.sync().get(stringKeys);
-                return REDIS_STRING_DESERIALIZER.deserializeValue(stringValues, fieldNames, rowFieldDeserializers);
+                return deserializeStringValue(stringValues);
 
             default:
                 throw new UnsupportedOperationException("Unsupported redis data type: " + redisOptions.getRedisDataType());
@@ -145,16 +193,29 @@ public class RedisRowDataRuntimeConverter implements RedisRuntimeConverter<RowDa
     @Override
     public void asyncDeserialize(StatefulRedisConnection<byte[], byte[]> client, RowData key, BiConsumer<RowData, Throwable> resultConsumer) throws IOException{
         RedisDataType redisDataType = redisOptions.getRedisDataType();
-        String keyPrefix = redisOptions.getKeyPrefix();
         switch (redisDataType) {
             case MAP:
-                byte[] mapKeys = REDIS_MAP_DESERIALIZER.serializeKey(key, keyPrefix, rowKeyFieldGetters, rowKeySerializers);
+                byte[] mapKeys = keyEncoder.encode(key);
+                if (projection != null) {
+                    client.async().hmget(mapKeys, projectedFieldNames).whenComplete((mapValues, throwable) -> {
+                        if (throwable != null) {
+                            resultConsumer.accept(null, throwable);
+                        } else {
+                            try {
+                                resultConsumer.accept(deserializeMapValue(mapValues), null);
+                            } catch (IOException ex) {
+                                resultConsumer.accept(null, ex);
+                            }
+                        }
+                    });
+                    break;
+                }
                 client.async().hgetall(mapKeys).whenComplete((mapValues, throwable) -> {
                             if (throwable != null) {
                                 resultConsumer.accept(null, throwable);
                             } else {
                                 try {
-                                    RowData valueRow = REDIS_MAP_DESERIALIZER.deserializeValue(mapValues, fieldNames, rowFieldDeserializers);
+                                    RowData valueRow = REDIS_MAP_DESERIALIZER.deserializeValue(mapValues, fieldNames, rowCodec, valueEncoding, compressor);
                                     resultConsumer.accept(valueRow, null);
                                 } catch (IOException ex) {
                                     resultConsumer.accept(null, ex);
@@ -162,40 +223,238 @@ public class RedisRowDataRuntimeConverter implements RedisRuntimeConverter<RowDa
 
                             }
                         });
+                break;
 
             case LIST:
-                byte[] listKeys = REDIS_LIST_DESERIALIZER.serializeKey(key, keyPrefix, rowKeyFieldGetters, rowKeySerializers);
-                client.async().lrange(listKeys, 0, -1).whenComplete((listValues, throwable) -> {
+                byte[] listKeys = keyEncoder.encode(key);
+                client.async().lrange(listKeys, 0, listEnd()).whenComplete((listValues, throwable) -> {
                     if (throwable != null) {
                         resultConsumer.accept(null, throwable);
                     } else {
                         try {
-                            RowData valueRow = REDIS_LIST_DESERIALIZER.deserializeValue(listValues.toArray(new byte[0][0]), fieldNames, rowFieldDeserializers);
+                            RowData valueRow = deserializeListValue(listValues);
                             resultConsumer.accept(valueRow, null);
                         } catch (IOException ex) {
                             resultConsumer.accept(null, ex);
                         }
                     }
                 });
+                break;
 
             case STRING:
-                byte[] stringKeys = REDIS_STRING_DESERIALIZER.serializeKey(key, keyPrefix, rowKeyFieldGetters, rowKeySerializers);
+                byte[] stringKeys = keyEncoder.encode(key);
                 client.async().get(stringKeys).whenComplete((stringValues, throwable) -> {
                     if (throwable != null) {
                         resultConsumer.accept(null, throwable);
                     } else {
                         try {
-                            RowData valueRow = REDIS_STRING_DESERIALIZER.deserializeValue(stringValues, fieldNames, rowFieldDeserializers);
+                            RowData valueRow = deserializeStringValue(stringValues);
                             resultConsumer.accept(valueRow, null);
                         } catch (IOException ex) {
                             resultConsumer.accept(null, ex);
                         }
                     }
                 });
+                break;
+
+            default:
+                throw new UnsupportedOperationException("Unsupported redis data type: " + redisOptions.getRedisDataType());
+        }
+    }
+
+    @Override
+    public void asyncBatchDeserialize(StatefulRedisConnection<byte[], byte[]> client, List<RowData> keys, BatchResultConsumer<RowData> resultConsumer) throws IOException {
+        RedisDataType redisDataType = redisOptions.getRedisDataType();
+        RedisAsyncCommands<byte[], byte[]> commands = client.async();
+        switch (redisDataType) {
+            case MAP:
+                if (projection != null) {
+                    List<CompletableFuture<List<KeyValue<byte[], byte[]>>>> projectedFutures = new ArrayList<>(keys.size());
+                    for (RowData key : keys) {
+                        byte[] mapKeys = keyEncoder.encode(key);
+                        projectedFutures.add(commands.hmget(mapKeys, projectedFieldNames).toCompletableFuture());
+                    }
+                    whenAllComplete(projectedFutures, this::deserializeMapValue, resultConsumer);
+                    break;
+                }
+                List<CompletableFuture<Map<byte[], byte[]>>> mapFutures = new ArrayList<>(keys.size());
+                for (RowData key : keys) {
+                    byte[] mapKeys = keyEncoder.encode(key);
+                    mapFutures.add(commands.hgetall(mapKeys).toCompletableFuture());
+                }
+                whenAllComplete(mapFutures, mapValues -> REDIS_MAP_DESERIALIZER.deserializeValue(mapValues, fieldNames, rowCodec, valueEncoding, compressor), resultConsumer);
+                break;
+
+            case LIST:
+                List<CompletableFuture<List<byte[]>>> listFutures = new ArrayList<>(keys.size());
+                for (RowData key : keys) {
+                    byte[] listKeys = keyEncoder.encode(key);
+                    listFutures.add(commands.lrange(listKeys, 0, listEnd()).toCompletableFuture());
+                }
+                whenAllComplete(listFutures, this::deserializeListValue, resultConsumer);
+                break;
+
+            case STRING:
+                byte[][] stringKeys = new byte[keys.size()][];
+                for (int i = 0; i < keys.size(); ++i) {
+                    stringKeys[i] = keyEncoder.encode(keys.get(i));
+                }
+                commands.mget(stringKeys).whenComplete((keyValues, throwable) -> {
+                    for (int i = 0; i < stringKeys.length; ++i) {
+                        if (throwable != null) {
+                            resultConsumer.accept(i, null, throwable);
+                            continue;
+                        }
+                        try {
+                            resultConsumer.accept(i, deserializeStringValue(keyValues.get(i).getValueOrElse(null)), null);
+                        } catch (IOException ex) {
+                            resultConsumer.accept(i, null, ex);
+                        }
+                    }
+                });
+                break;
+
+            default:
+                throw new UnsupportedOperationException("Unsupported redis data type: " + redisOptions.getRedisDataType());
+        }
+    }
+
+    @Override
+    public void scan(StatefulRedisConnection<byte[], byte[]> client, int scanCount, BiConsumer<byte[], RowData> consumer) throws IOException {
+        ScanArgs scanArgs = new ScanArgs().match(keyEncoder.scanPattern()).limit(scanCount);
+        RedisAsyncCommands<byte[], byte[]> commands = client.async();
+        ScanCursor cursor = ScanCursor.INITIAL;
+        do {
+            KeyScanCursor<byte[]> keyCursor = client.sync().scan(cursor, scanArgs);
+            List<byte[]> keys = keyCursor.getKeys();
+            if (!keys.isEmpty()) {
+                List<RowData> valueRows = fetchValues(client, commands, keys);
+                for (int i = 0; i < keys.size(); ++i) {
+                    if (valueRows.get(i) != null) {
+                        consumer.accept(keys.get(i), valueRows.get(i));
+                    }
+                }
+            }
+            cursor = keyCursor;
+        } while (!cursor.isFinished());
+    }
+
+    // 每批 SCAN 结果: STRING 走 MGET, MAP/LIST 流水线发送后统一等待
+    private List<RowData> fetchValues(StatefulRedisConnection<byte[], byte[]> client, RedisAsyncCommands<byte[], byte[]> commands, List<byte[]> keys) throws IOException {
+        List<RowData> valueRows = new ArrayList<>(keys.size());
+        switch (redisOptions.getRedisDataType()) {
+            case MAP:
+                if (projection != null) {
+                    List<RedisFuture<List<KeyValue<byte[], byte[]>>>> projectedFutures = new ArrayList<>(keys.size());
+                    for (byte[] key : keys) {
+                        projectedFutures.add(commands.hmget(key, projectedFieldNames));
+                    }
+                    awaitAll(client, projectedFutures);
+                    for (RedisFuture<List<KeyValue<byte[], byte[]>>> future : projectedFutures) {
+                        valueRows.add(deserializeMapValue(future.toCompletableFuture().join()));
+                    }
+                    return valueRows;
+                }
+                List<RedisFuture<Map<byte[], byte[]>>> mapFutures = new ArrayList<>(keys.size());
+                for (byte[] key : keys) {
+                    mapFutures.add(commands.hgetall(key));
+                }
+                awaitAll(client, mapFutures);
+                for (RedisFuture<Map<byte[], byte[]>> future : mapFutures) {
+                    valueRows.add(REDIS_MAP_DESERIALIZER.deserializeValue(future.toCompletableFuture().join(), fieldNames, rowCodec, valueEncoding, compressor));
+                }
+                return valueRows;
+
+            case LIST:
+                List<RedisFuture<List<byte[]>>> listFutures = new ArrayList<>(keys.size());
+                for (byte[] key : keys) {
+                    listFutures.add(commands.lrange(key, 0, listEnd()));
+                }
+                awaitAll(client, listFutures);
+                for (RedisFuture<List<byte[]>> future : listFutures) {
+                    valueRows.add(deserializeListValue(future.toCompletableFuture().join()));
+                }
+                return valueRows;
+
+            case STRING:
+                List<KeyValue<byte[], byte[]>> keyValues = client.sync().mget(keys.toArray(new byte[0][]));
+                for (KeyValue<byte[], byte[]> keyValue : keyValues) {
+                    valueRows.add(deserializeStringValue(keyValue.getValueOrElse(null)));
+                }
+                return valueRows;
 
             default:
                 throw new UnsupportedOperationException("Unsupported redis data type: " + redisOptions.getRedisDataType());
         }
     }
 
+    // LIST 列裁剪时只需取到最后一个所需字段; TAGGED 元素位置可能与当前 schema 不一致, 需读取全部
+    private long listEnd() {
+        return projection == null || valueEncoding.isTagged() ? -1 : projection.getLastField();
+    }
+
+    private RowData deserializeMapValue(List<KeyValue<byte[], byte[]>> values) throws IOException {
+        return REDIS_MAP_DESERIALIZER.deserializeValue(values, rowCodec, projection, valueEncoding, compressor);
+    }
+
+    private RowData deserializeListValue(List<byte[]> values) throws IOException {
+        byte[][] bytes = values.toArray(new byte[0][0]);
+        return projection == null
+                ? REDIS_LIST_DESERIALIZER.deserializeValue(bytes, fieldNames, rowCodec, valueEncoding, compressor)
+                : REDIS_LIST_DESERIALIZER.deserializeValue(bytes, rowCodec, projection, valueEncoding, compressor);
+    }
+
+    private RowData deserializeStringValue(byte[] bytes) throws IOException {
+        return projection == null
+                ? REDIS_STRING_DESERIALIZER.deserializeValue(bytes, fieldNames, rowCodec, valueEncoding, compressor)
+                : REDIS_STRING_DESERIALIZER.deserializeValue(bytes, rowCodec, projection, valueEncoding, compressor);
+    }
+
+    private static void awaitAll(StatefulRedisConnection<byte[], byte[]> client, List<? extends RedisFuture<?>> futures) throws IOException {
+        if (!LettuceFutures.awaitAll(client.getTimeout(), futures.toArray(new RedisFuture[0]))) {
+            throw new IOException("timeout fetch redis values, keys: " + futures.size());
+        }
+    }
+
+    @Override
+    public byte[] serializeLookupKey(RowData key) throws IOException {
+        // key layout is shared by all redis data types
+        return keyEncoder.encode(key);
+    }
+
+    @Override
+    public byte[] serializeCacheValue(RowData data) throws IOException {
+        // 缓存的是输出行, 列裁剪后按裁剪后的行类型编码; 缓存命中不做解压
+        return REDIS_STRING_DESERIALIZER.serializeValue(data, producedFieldNames, producedCodec, valueEncoding, RedisValueCompressor.NONE);
+    }
+
+    @Override
+    public RowData deserializeCacheValue(byte[] bytes) throws IOException {
+        return REDIS_STRING_DESERIALIZER.deserializeValue(bytes, producedFieldNames, producedCodec, valueEncoding, RedisValueCompressor.NONE);
+    }
+
+    // pipeline 中每个命令独立完成, 结果按下标回调
+    private static <V> void whenAllComplete(List<CompletableFuture<V>> futures, RedisValueDeserializer<V> deserializer, BatchResultConsumer<RowData> resultConsumer) {
+        for (int i = 0; i < futures.size(); ++i) {
+            final int index = i;
+            futures.get(i).whenComplete((value, throwable) -> {
+                if (throwable != null) {
+                    resultConsumer.accept(index, null, throwable);
+                    return;
+                }
+                try {
+                    resultConsumer.accept(index, deserializer.deserialize(value), null);
+                } catch (IOException ex) {
+                    resultConsumer.accept(index, null, ex);
+                }
+            });
+        }
+    }
+
+    private interface RedisValueDeserializer<V> {
+
+        RowData deserialize(V value) throws IOException;
+
+    }
+
 }
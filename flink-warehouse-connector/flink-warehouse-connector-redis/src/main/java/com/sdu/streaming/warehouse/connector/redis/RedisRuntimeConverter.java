@@ -6,6 +6,7 @@ import org.apache.flink.table.data.RowData;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.List;
 import java.util.function.BiConsumer;
 
 public interface RedisRuntimeConverter<T> extends Serializable {
@@ -17,4 +18,24 @@ public interface RedisRuntimeConverter<T> extends Serializable {
     T deserialize(StatefulRedisConnection<byte[], byte[]> client, RowData key) throws IOException;
 
     void asyncDeserialize(StatefulRedisConnection<byte[], byte[]> client, RowData key, BiConsumer<T, Throwable> resultConsumer) throws IOException;
+
+    // value of keys[i] is passed to resultConsumer.accept(i, value, throwable), null if absent;
+    // pipelined commands fail per key, MGET fails all keys together
+    void asyncBatchDeserialize(StatefulRedisConnection<byte[], byte[]> client, List<RowData> keys, BatchResultConsumer<T> resultConsumer) throws IOException;
+
+    // 全量扫描 key prefix 下的数据, consumer 接收 redis key 及行数据
+    void scan(StatefulRedisConnection<byte[], byte[]> client, int scanCount, BiConsumer<byte[], T> consumer) throws IOException;
+
+    // 序列化形式缓存: redis key 及 NoahArk 行编码
+    byte[] serializeLookupKey(RowData key) throws IOException;
+
+    byte[] serializeCacheValue(T data) throws IOException;
+
+    T deserializeCacheValue(byte[] bytes) throws IOException;
+
+    interface BatchResultConsumer<T> {
+
+        void accept(int index, T value, Throwable throwable);
+
+    }
 }
@@ -1,15 +1,18 @@
 package com.sdu.streaming.warehouse.connector.redis;
 
-import com.sdu.streaming.warehouse.deserializer.NoahArkDataDeserializer;
-import com.sdu.streaming.warehouse.deserializer.NoahArkDataSerializer;
+import com.sdu.streaming.warehouse.deserializer.NoahArkEncoding;
+import com.sdu.streaming.warehouse.deserializer.NoahArkFieldIds;
+import com.sdu.streaming.warehouse.deserializer.NoahArkProjection;
+import com.sdu.streaming.warehouse.deserializer.NoahArkRowCodec;
 import com.sdu.streaming.warehouse.utils.ByteArrayDataInput;
 import com.sdu.streaming.warehouse.utils.ByteArrayDataOutput;
 import org.apache.flink.table.data.GenericRowData;
 import org.apache.flink.table.data.RowData;
-import org.apache.flink.util.Preconditions;
 
 import java.io.IOException;
 
+import static com.sdu.streaming.warehouse.deserializer.NoahArkDataDeserializerUtils.skipFully;
+
 public class RedisStringTypeSerializer extends AbstractRedisTypeSerializer<byte[]> {
 
     public static final RedisStringTypeSerializer REDIS_STRING_DESERIALIZER =
@@ -18,28 +21,78 @@ public class RedisStringTypeSerializer extends AbstractRedisTypeSerializer<byte[
     private RedisStringTypeSerializer() { }
 
     @Override
-    public byte[] serializeValue(RowData rowData, String[] fieldNames, RowData.FieldGetter[] rowFieldGetters, NoahArkDataSerializer[] rowFieldSerializers) throws IOException {
-        Preconditions.checkArgument(rowFieldGetters.length == rowFieldSerializers.length);
-
-        ByteArrayDataOutput out = new ByteArrayDataOutput();
-        for (int pos = 0; pos < rowData.getArity(); ++pos) {
-            Object fieldValue = rowFieldGetters[pos].getFieldOrNull(rowData);
-            rowFieldSerializers[pos].serializer(fieldValue, out);
+    public byte[] serializeValue(RowData rowData, String[] fieldNames, NoahArkRowCodec rowCodec, NoahArkEncoding encoding, RedisValueCompressor compressor) throws IOException {
+        ByteArrayDataOutput out = threadOutput();
+        writeHeader(out, encoding);
+        if (encoding.isTagged()) {
+            serializeTagged(rowData, rowCodec, out);
+        } else {
+            // COMPACT 含 nullable 字段时 codec 在字段前写入 null bitmap, null 字段不占数据; FIXED 不能写入 null 字段
+            rowCodec.serialize(rowData, out);
         }
-        return out.toByteArray();
+        return compressor.compress(out);
     }
 
     @Override
-    public RowData deserializeValue(byte[] bytes, String[] fieldNames, NoahArkDataDeserializer[] rowFieldDeserializers) throws IOException {
+    public RowData deserializeValue(byte[] bytes, String[] fieldNames, NoahArkRowCodec rowCodec, NoahArkEncoding encoding, RedisValueCompressor compressor) throws IOException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        ByteArrayDataInput input = threadInput(bytes, compressor);
+        if (readHeader(input, encoding).isTagged()) {
+            return deserializeTagged(input, rowCodec, null);
+        }
+        return rowCodec.deserialize(input);
+    }
+
+    // 列裁剪: 只解码 projection 中的字段, 其余字段按长度跳过
+    public RowData deserializeValue(byte[] bytes, NoahArkRowCodec rowCodec, NoahArkProjection projection, NoahArkEncoding encoding, RedisValueCompressor compressor) throws IOException {
         if (bytes == null || bytes.length == 0) {
             return null;
         }
-        Preconditions.checkArgument(fieldNames.length == rowFieldDeserializers.length);
-        GenericRowData rowData = new GenericRowData(fieldNames.length);
-        ByteArrayDataInput input = new ByteArrayDataInput(bytes);
-        for (int pos = 0; pos < fieldNames.length; ++pos) {
-            Object fieldValue = rowFieldDeserializers[pos].deserializer(input);
-            rowData.setField(pos, fieldValue);
+        ByteArrayDataInput input = threadInput(bytes, compressor);
+        if (readHeader(input, encoding).isTagged()) {
+            return deserializeTagged(input, rowCodec, projection);
+        }
+        return rowCodec.deserialize(input, projection);
+    }
+
+    // TAGGED: schema 指纹 + 非 null 字段 [字段 ID + 长度 + 字段数据], null 字段不写入
+    private static void serializeTagged(RowData rowData, NoahArkRowCodec rowCodec, ByteArrayDataOutput out) throws IOException {
+        NoahArkFieldIds fieldIds = rowCodec.getFieldIds();
+        out.writeInt(fieldIds.getFingerprint());
+        for (int pos = 0; pos < rowData.getArity(); ++pos) {
+            if (rowData.isNullAt(pos)) {
+                continue;
+            }
+            out.writeInt(fieldIds.getFieldId(pos));
+            int lengthPos = out.size();
+            out.writeInt(0);
+            rowCodec.serializeField(pos, rowData, out);
+            out.setInt(lengthPos, out.size() - lengthPos - 4);
+        }
+    }
+
+    // 未知字段按长度跳过, 缺失字段为 null; 指纹一致时字段按位置顺序出现
+    private static RowData deserializeTagged(ByteArrayDataInput input, NoahArkRowCodec rowCodec, NoahArkProjection projection) throws IOException {
+        NoahArkFieldIds fieldIds = rowCodec.getFieldIds();
+        boolean sameSchema = input.readInt() == fieldIds.getFingerprint();
+        GenericRowData rowData = new GenericRowData(projection == null ? fieldIds.size() : projection.getArity());
+        int next = 0;
+        while (input.available() > 0) {
+            int fieldId = input.readInt();
+            int length = input.readInt();
+            int pos = sameSchema ? fieldIds.getPosition(fieldId, next) : fieldIds.getPosition(fieldId);
+            int target = pos < 0 || projection == null ? pos : projection.getTargets()[pos];
+            if (target < 0) {
+                skipFully(input, length);
+                continue;
+            }
+            rowData.setField(target, rowCodec.deserializeField(pos, input));
+            if (sameSchema && projection != null && pos == projection.getLastField()) {
+                break;
+            }
+            next = pos + 1;
         }
         return rowData;
     }
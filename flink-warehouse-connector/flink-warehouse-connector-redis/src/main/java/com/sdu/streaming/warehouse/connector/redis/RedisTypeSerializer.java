@@ -1,7 +1,7 @@
 package com.sdu.streaming.warehouse.connector.redis;
 
-import com.sdu.streaming.warehouse.deserializer.NoahArkDataDeserializer;
-import com.sdu.streaming.warehouse.deserializer.NoahArkDataSerializer;
+import com.sdu.streaming.warehouse.deserializer.NoahArkEncoding;
+import com.sdu.streaming.warehouse.deserializer.NoahArkRowCodec;
 import org.apache.flink.table.data.RowData;
 
 import java.io.IOException;
@@ -9,10 +9,10 @@ import java.io.Serializable;
 
 public interface RedisTypeSerializer<T> extends Serializable {
 
-    byte[] serializeKey(RowData rowData, String prefix, RowData.FieldGetter[] keyFieldGetters, NoahArkDataSerializer[] rowKeySerializers) throws IOException;
+    // encoding: 需与 rowCodec 的编码一致, 决定是否写入(校验)版本头
+    // compressor: 在版本头之外包装压缩标记, 读写两端配置需一致
+    T serializeValue(RowData rowData, String[] fieldNames, NoahArkRowCodec rowCodec, NoahArkEncoding encoding, RedisValueCompressor compressor) throws IOException;
 
-    T serializeValue(RowData rowData, String[] fieldNames, RowData.FieldGetter[] rowFieldGetters, NoahArkDataSerializer[] rowFieldSerializers) throws IOException;
-
-    RowData deserializeValue(T bytes, String[] fieldNames, NoahArkDataDeserializer[] rowFieldDeserializers) throws IOException;
+    RowData deserializeValue(T bytes, String[] fieldNames, NoahArkRowCodec rowCodec, NoahArkEncoding encoding, RedisValueCompressor compressor) throws IOException;
 
 }
@@ -0,0 +1,143 @@
+package com.sdu.streaming.warehouse.connector.redis;
+
+import com.github.luben.zstd.Zstd;
+import com.sdu.streaming.warehouse.connector.redis.entry.RedisValueCompression;
+import com.sdu.streaming.warehouse.utils.ByteArrayDataInput;
+import com.sdu.streaming.warehouse.utils.ByteArrayDataOutput;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+import java.io.IOException;
+
+import static com.sdu.streaming.warehouse.deserializer.NoahArkDataDeserializerUtils.readVarInt;
+import static com.sdu.streaming.warehouse.deserializer.NoahArkDataDeserializerUtils.writeVarInt;
+
+// value 压缩: 压缩后的 value 以 1 字节标记开头, 未压缩的 value 原样存储
+//  LZ4 : [0x81] + varint(原始长度) + 压缩数据
+//  ZSTD: [0x82] + varint(原始长度) + 压缩数据
+// 标记最高位为 1, 而 COMPACT/TAGGED value 以版本号(< 0x80)开头, 因此开启压缩后仍可读取存量未压缩数据, 关闭压缩前需重写已压缩数据;
+// FIXED 无版本头, 首字节可能为任意值, 不支持压缩(见 RedisOptions)
+public class RedisValueCompressor {
+
+    public static final RedisValueCompressor NONE = new RedisValueCompressor(RedisValueCompression.NONE, Integer.MAX_VALUE);
+
+    private static final byte LZ4_FLAG = (byte) 0x81;
+    private static final byte ZSTD_FLAG = (byte) 0x82;
+
+    private static final int ZSTD_LEVEL = 3;
+
+    // 压缩结果 / 解压结果按线程复用
+    private static final ThreadLocal<ByteArrayDataOutput> THREAD_COMPRESSED = ThreadLocal.withInitial(() -> new ByteArrayDataOutput(256));
+    private static final ThreadLocal<byte[][]> THREAD_DECOMPRESSED = ThreadLocal.withInitial(() -> new byte[][] {new byte[256]});
+
+    private final RedisValueCompression compression;
+    private final int threshold;
+
+    public RedisValueCompressor(RedisValueCompression compression, int threshold) {
+        this.compression = compression;
+        this.threshold = threshold;
+    }
+
+    public boolean isEnabled() {
+        return compression != RedisValueCompression.NONE;
+    }
+
+    public static boolean isCompressed(byte[] value) {
+        return value.length > 0 && (value[0] == LZ4_FLAG || value[0] == ZSTD_FLAG);
+    }
+
+    public byte[] compress(ByteArrayDataOutput out) throws IOException {
+        int rawLength = out.size();
+        if (!isEnabled() || rawLength < threshold) {
+            return out.toByteArray();
+        }
+
+        byte[] raw = out.getBuffer();
+        ByteArrayDataOutput compressed = THREAD_COMPRESSED.get();
+        compressed.reset();
+        int maxLength;
+        int length;
+        switch (compression) {
+            case LZ4:
+                compressed.writeByte(LZ4_FLAG);
+                writeVarInt(rawLength, compressed);
+                maxLength = Lz4Holder.COMPRESSOR.maxCompressedLength(rawLength);
+                compressed.ensureCapacity(maxLength);
+                length = Lz4Holder.COMPRESSOR.compress(raw, 0, rawLength, compressed.getBuffer(), compressed.size(), maxLength);
+                break;
+
+            case ZSTD:
+                compressed.writeByte(ZSTD_FLAG);
+                writeVarInt(rawLength, compressed);
+                maxLength = (int) Zstd.compressBound(rawLength);
+                compressed.ensureCapacity(maxLength);
+                long size = Zstd.compressByteArray(compressed.getBuffer(), compressed.size(), maxLength, raw, 0, rawLength, ZSTD_LEVEL);
+                if (Zstd.isError(size)) {
+                    throw new IOException("failed zstd compress redis value: " + Zstd.getErrorName(size));
+                }
+                length = (int) size;
+                break;
+
+            default:
+                throw new UnsupportedOperationException("unsupported redis value compression: " + compression);
+        }
+
+        // 压缩无收益
+        if (compressed.size() + length >= out.size()) {
+            return out.toByteArray();
+        }
+        compressed.skip(length);
+        return compressed.toByteArray();
+    }
+
+    // 解压后的 value 重置到 input, 解压缓冲按线程复用, 读取完成前不可再次解压; 未压缩的 value 直接读取
+    public void decompress(byte[] value, ByteArrayDataInput input) throws IOException {
+        if (!isEnabled() || !isCompressed(value)) {
+            input.reset(value);
+            return;
+        }
+        byte flag = value[0];
+        input.reset(value, 1, value.length - 1);
+
+        int rawLength = readVarInt(input);
+        int offset = value.length - input.available();
+        byte[] raw = decompressBuffer(rawLength);
+        switch (flag) {
+            case LZ4_FLAG:
+                int length = Lz4Holder.DECOMPRESSOR.decompress(value, offset, value.length - offset, raw, 0, rawLength);
+                if (length != rawLength) {
+                    throw new IOException("corrupted lz4 redis value, expected length: " + rawLength + ", actual: " + length);
+                }
+                break;
+
+            case ZSTD_FLAG:
+                long size = Zstd.decompressByteArray(raw, 0, rawLength, value, offset, value.length - offset);
+                if (Zstd.isError(size) || size != rawLength) {
+                    throw new IOException("corrupted zstd redis value, expected length: " + rawLength);
+                }
+                break;
+
+            default:
+                throw new IOException("unsupported redis value compression flag: " + flag);
+        }
+        input.reset(raw, 0, rawLength);
+    }
+
+    private static byte[] decompressBuffer(int length) {
+        byte[][] holder = THREAD_DECOMPRESSED.get();
+        if (holder[0].length < length) {
+            holder[0] = new byte[Math.max(length, holder[0].length * 2)];
+        }
+        return holder[0];
+    }
+
+    // 延迟加载, 未使用 LZ4 时不初始化
+    private static final class Lz4Holder {
+
+        private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+        private static final LZ4SafeDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().safeDecompressor();
+
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.sdu.streaming.warehouse.connector.redis.cache;
+
+import com.sdu.streaming.warehouse.connector.redis.source.RedisReadOptions;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.Histogram;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.runtime.metrics.DescriptiveStatisticsHistogram;
+import org.apache.flink.shaded.curator5.com.google.common.cache.Cache;
+import org.apache.flink.shaded.curator5.com.google.common.cache.CacheBuilder;
+import org.apache.flink.table.data.RowData;
+
+import java.util.concurrent.TimeUnit;
+
+public abstract class AbstractRedisLookupCache implements RedisLookupCache {
+
+    private static final String CACHE_METRIC_GROUP = "redisLookupCache";
+    private static final int LOAD_LATENCY_WINDOW_SIZE = 1024;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter negativeHitCounter;
+    private final Counter evictionCounter;
+    private final Counter rejectionCounter;
+    private final Histogram loadLatency;
+
+    // 不存在的key单独缓存, 独立的容量和过期时间
+    private final Cache<RowData, Boolean> negativeCache;
+
+    public AbstractRedisLookupCache(RedisReadOptions readOptions, MetricGroup metricGroup) {
+        if (readOptions.getNegativeCacheMaxSize() > 0 && readOptions.getNegativeCacheExpireMs() > 0) {
+            this.negativeCache = CacheBuilder.newBuilder()
+                    .maximumSize(readOptions.getNegativeCacheMaxSize())
+                    .expireAfterWrite(readOptions.getNegativeCacheExpireMs(), TimeUnit.MILLISECONDS)
+                    .build();
+        } else {
+            this.negativeCache = null;
+        }
+        MetricGroup cacheGroup = metricGroup.addGroup(CACHE_METRIC_GROUP);
+        this.hitCounter = cacheGroup.counter("hitCount");
+        this.missCounter = cacheGroup.counter("missCount");
+        this.negativeHitCounter = cacheGroup.counter("negativeHitCount");
+        this.evictionCounter = cacheGroup.counter("evictionCount");
+        this.rejectionCounter = cacheGroup.counter("rejectionCount");
+        this.loadLatency = cacheGroup.histogram("loadLatencyNanos", new DescriptiveStatisticsHistogram(LOAD_LATENCY_WINDOW_SIZE));
+        cacheGroup.gauge("hitRate", (Gauge<Double>) this::hitRate);
+        cacheGroup.gauge("size", (Gauge<Long>) this::size);
+    }
+
+    @Override
+    public RowData getIfPresent(RowData key) {
+        RowData value = doGetIfPresent(key);
+        if (value != null) {
+            hitCounter.inc();
+            return value;
+        }
+        if (negativeCache != null && negativeCache.getIfPresent(key) != null) {
+            negativeHitCounter.inc();
+            return ABSENT_ROW;
+        }
+        missCounter.inc();
+        return null;
+    }
+
+    @Override
+    public void put(RowData key, RowData value) {
+        if (negativeCache != null) {
+            negativeCache.invalidate(key);
+        }
+        doPut(key, value);
+    }
+
+    @Override
+    public void putAbsent(RowData key) {
+        if (negativeCache != null) {
+            negativeCache.put(key, Boolean.TRUE);
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        if (negativeCache != null) {
+            negativeCache.invalidateAll();
+        }
+        doInvalidateAll();
+    }
+
+    @Override
+    public void recordLoadTime(long elapsedNanos) {
+        loadLatency.update(elapsedNanos);
+    }
+
+    protected void recordEviction() {
+        evictionCounter.inc();
+    }
+
+    // 数据未写入缓存(如超过堆外 segment 大小)
+    protected void recordRejection() {
+        rejectionCounter.inc();
+    }
+
+    @Override
+    public void close() {
+        invalidateAll();
+    }
+
+    private double hitRate() {
+        long hits = hitCounter.getCount() + negativeHitCounter.getCount();
+        long requests = hits + missCounter.getCount();
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    protected abstract RowData doGetIfPresent(RowData key);
+
+    protected abstract void doPut(RowData key, RowData value);
+
+    protected abstract void doInvalidateAll();
+
+}
@@ -0,0 +1,60 @@
+package com.sdu.streaming.warehouse.connector.redis.cache;
+
+import com.sdu.streaming.warehouse.connector.redis.source.RedisReadOptions;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.shaded.curator5.com.google.common.cache.Cache;
+import org.apache.flink.shaded.curator5.com.google.common.cache.CacheBuilder;
+import org.apache.flink.table.data.RowData;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.sdu.streaming.warehouse.connector.redis.cache.RowDataSizeEstimator.estimateEntrySize;
+
+public class LruRedisLookupCache extends AbstractRedisLookupCache {
+
+    private final Cache<RowData, RowData> cache;
+
+    public LruRedisLookupCache(RedisReadOptions readOptions, MetricGroup metricGroup) {
+        super(readOptions, metricGroup);
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
+        if (readOptions.getCacheMaxBytes() > 0) {
+            builder.maximumWeight(readOptions.getCacheMaxBytes())
+                    .weigher((RowData key, RowData value) -> estimateEntrySize(key, value));
+        } else {
+            builder.maximumSize(readOptions.getCacheMaxSize());
+        }
+        if (readOptions.isCacheExpireAfterAccess()) {
+            builder.expireAfterAccess(readOptions.getCacheExpireMs(), TimeUnit.MILLISECONDS);
+        } else {
+            builder.expireAfterWrite(readOptions.getCacheExpireMs(), TimeUnit.MILLISECONDS);
+        }
+        this.cache = builder
+                .<RowData, RowData>removalListener(notification -> {
+                    if (notification.wasEvicted()) {
+                        recordEviction();
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    protected RowData doGetIfPresent(RowData key) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    protected void doPut(RowData key, RowData value) {
+        cache.put(key, value);
+    }
+
+    @Override
+    public long size() {
+        return cache.size();
+    }
+
+    @Override
+    protected void doInvalidateAll() {
+        cache.invalidateAll();
+    }
+
+}
@@ -0,0 +1,324 @@
+package com.sdu.streaming.warehouse.connector.redis.cache;
+
+import com.sdu.streaming.warehouse.connector.redis.RedisRuntimeConverter;
+import com.sdu.streaming.warehouse.connector.redis.source.RedisReadOptions;
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.binary.BinaryRowData;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+// 堆外缓存: 按 redis key 缓存 NoahArk 编码后的行数据, 命中时再反序列化.
+// 内存按环形 segment 组织, 写满后淘汰最旧的 segment; 命中最旧 segment 中的数据会被重新追加(second chance), 保留原写入时间.
+// 只支持 LRU 策略及写入后过期(RedisReadOptions 校验), 超过 segment 大小的数据不缓存, 记入 rejectionCount.
+// key 索引同样在堆外(线性探测哈希表), 堆内存占用与缓存条数无关.
+public class OffHeapRedisLookupCache extends AbstractRedisLookupCache {
+
+    private static final int MIN_SEGMENT_COUNT = 16;
+    private static final int MIN_SEGMENT_SIZE = 4 * 1024;
+    private static final int MAX_SEGMENT_SIZE = 1 << 30;
+    // 未配置 redis-read-cache-max-bytes 时, 变长字段按该字节数估算
+    private static final int ESTIMATED_VARIABLE_FIELD_BYTES = 32;
+
+    // entry: writeTime(8) + keyLength(4) + valueLength(4) + key + value
+    private static final int ENTRY_HEADER_SIZE = 16;
+
+    // index slot: location(8) + hash(4) + used(4)
+    private static final int INDEX_SLOT_SIZE = 16;
+    private static final int MIN_INDEX_CAPACITY = 1024;
+    private static final int MAX_INDEX_CAPACITY = MAX_SEGMENT_SIZE / INDEX_SLOT_SIZE;
+
+    private final RedisRuntimeConverter<RowData> converter;
+    private final long expireMs;
+
+    private final int segmentSize;
+    private final MemorySegment[] segments;
+    private final int[] segmentPositions;
+    private int currentSegment;
+
+    // redis key -> (segment index << 32 | offset), 负载因子 0.75
+    private MemorySegment index;
+    private int indexCapacity;
+    private int indexSize;
+
+    public OffHeapRedisLookupCache(RedisReadOptions readOptions, MetricGroup metricGroup, RedisRuntimeConverter<RowData> converter) {
+        super(readOptions, metricGroup);
+        this.converter = converter;
+        this.expireMs = readOptions.getCacheExpireMs();
+        long maxBytes = readOptions.getCacheMaxBytes() > 0
+                ? readOptions.getCacheMaxBytes()
+                : Math.max((long) MIN_SEGMENT_COUNT * MIN_SEGMENT_SIZE, readOptions.getCacheMaxSize() * estimateEntrySize(readOptions.getRowType()));
+        int segmentCount = (int) Math.max(MIN_SEGMENT_COUNT, (maxBytes + MAX_SEGMENT_SIZE - 1) / MAX_SEGMENT_SIZE);
+        this.segmentSize = (int) (maxBytes / segmentCount);
+        this.segments = new MemorySegment[segmentCount];
+        for (int i = 0; i < segmentCount; ++i) {
+            segments[i] = MemorySegmentFactory.allocateOffHeapUnsafeMemory(segmentSize);
+        }
+        this.segmentPositions = new int[segmentCount];
+        this.currentSegment = 0;
+        this.indexCapacity = initialIndexCapacity(readOptions.getCacheMaxSize());
+        this.index = allocateIndex(indexCapacity);
+        this.indexSize = 0;
+    }
+
+    // key 为行的子集, 按两倍行大小估算 entry 上界
+    private static long estimateEntrySize(RowType rowType) {
+        long rowBytes = (rowType.getFieldCount() + 7) / 8;
+        for (LogicalType type : rowType.getChildren()) {
+            rowBytes += BinaryRowData.isInFixedLengthPart(type) ? 8 : 8 + ESTIMATED_VARIABLE_FIELD_BYTES;
+        }
+        return ENTRY_HEADER_SIZE + 2 * rowBytes;
+    }
+
+    private static int initialIndexCapacity(long maxEntries) {
+        long expected = Math.min(MAX_INDEX_CAPACITY, Math.max(MIN_INDEX_CAPACITY, maxEntries * 4 / 3));
+        int capacity = Integer.highestOneBit((int) expected);
+        return capacity < expected ? capacity << 1 : capacity;
+    }
+
+    @Override
+    protected RowData doGetIfPresent(RowData key) {
+        byte[] value = getValueBytes(serializeKey(key));
+        if (value == null) {
+            return null;
+        }
+        try {
+            return converter.deserializeCacheValue(value);
+        } catch (IOException e) {
+            throw new RuntimeException("failed deserialize cache data.", e);
+        }
+    }
+
+    @Override
+    protected void doPut(RowData key, RowData value) {
+        byte[] valueBytes;
+        try {
+            valueBytes = converter.serializeCacheValue(value);
+        } catch (IOException e) {
+            throw new RuntimeException("failed serialize cache data.", e);
+        }
+        byte[] keyBytes = serializeKey(key);
+        synchronized (this) {
+            append(keyBytes, valueBytes, System.currentTimeMillis());
+        }
+    }
+
+    private synchronized byte[] getValueBytes(byte[] keyBytes) {
+        int hash = hash(keyBytes);
+        int slot = findSlot(keyBytes, hash);
+        if (slot < 0) {
+            return null;
+        }
+        long location = index.getLong(slot * INDEX_SLOT_SIZE);
+        int segmentIndex = (int) (location >>> 32);
+        int offset = (int) location;
+        MemorySegment segment = segments[segmentIndex];
+        long writeTime = segment.getLong(offset);
+        if (System.currentTimeMillis() - writeTime > expireMs) {
+            removeSlot(slot);
+            return null;
+        }
+        int keyLength = segment.getInt(offset + 8);
+        int valueLength = segment.getInt(offset + 12);
+        byte[] value = new byte[valueLength];
+        segment.get(offset + ENTRY_HEADER_SIZE + keyLength, value, 0, valueLength);
+        // 即将被淘汰的热点数据重新追加
+        if (segmentIndex == nextSegment(currentSegment)) {
+            append(keyBytes, value, writeTime);
+        }
+        return value;
+    }
+
+    private void append(byte[] key, byte[] value, long writeTime) {
+        int entrySize = ENTRY_HEADER_SIZE + key.length + value.length;
+        if (entrySize > segmentSize) {
+            recordRejection();
+            return;
+        }
+        // 索引已达上限, 不再接收新数据
+        if (indexSize >= threshold(indexCapacity) && !growIndex()) {
+            recordRejection();
+            return;
+        }
+        if (segmentPositions[currentSegment] + entrySize > segmentSize) {
+            currentSegment = nextSegment(currentSegment);
+            evictSegment(currentSegment);
+        }
+        int offset = segmentPositions[currentSegment];
+        MemorySegment segment = segments[currentSegment];
+        segment.putLong(offset, writeTime);
+        segment.putInt(offset + 8, key.length);
+        segment.putInt(offset + 12, value.length);
+        segment.put(offset + ENTRY_HEADER_SIZE, key, 0, key.length);
+        segment.put(offset + ENTRY_HEADER_SIZE + key.length, value, 0, value.length);
+        segmentPositions[currentSegment] = offset + entrySize;
+
+        int hash = hash(key);
+        int slot = findSlot(key, hash);
+        if (slot < 0) {
+            slot = ~slot;
+            index.putInt(slot * INDEX_SLOT_SIZE + 8, hash);
+            index.putInt(slot * INDEX_SLOT_SIZE + 12, 1);
+            ++indexSize;
+        }
+        index.putLong(slot * INDEX_SLOT_SIZE, location(currentSegment, offset));
+    }
+
+    private void evictSegment(int segmentIndex) {
+        MemorySegment segment = segments[segmentIndex];
+        int position = 0;
+        while (position < segmentPositions[segmentIndex]) {
+            int keyLength = segment.getInt(position + 8);
+            int valueLength = segment.getInt(position + 12);
+            byte[] key = new byte[keyLength];
+            segment.get(position + ENTRY_HEADER_SIZE, key, 0, keyLength);
+            // entry may be overwritten by a newer copy in another segment
+            int slot = findSlot(key, hash(key));
+            if (slot >= 0 && index.getLong(slot * INDEX_SLOT_SIZE) == location(segmentIndex, position)) {
+                removeSlot(slot);
+                recordEviction();
+            }
+            position += ENTRY_HEADER_SIZE + keyLength + valueLength;
+        }
+        segmentPositions[segmentIndex] = 0;
+    }
+
+    // 命中返回 slot, 否则返回 ~(可插入的空 slot)
+    private int findSlot(byte[] key, int hash) {
+        int mask = indexCapacity - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int slotOffset = slot * INDEX_SLOT_SIZE;
+            if (index.getInt(slotOffset + 12) == 0) {
+                return ~slot;
+            }
+            if (index.getInt(slotOffset + 8) == hash && keyEquals(index.getLong(slotOffset), key)) {
+                return slot;
+            }
+        }
+    }
+
+    private boolean keyEquals(long location, byte[] key) {
+        MemorySegment segment = segments[(int) (location >>> 32)];
+        int offset = (int) location;
+        if (segment.getInt(offset + 8) != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; ++i) {
+            if (segment.get(offset + ENTRY_HEADER_SIZE + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 线性探测删除: 后续 slot 若探测路径经过空洞则前移, 不使用墓碑
+    private void removeSlot(int slot) {
+        int mask = indexCapacity - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; index.getInt(next * INDEX_SLOT_SIZE + 12) != 0; next = (next + 1) & mask) {
+            int home = index.getInt(next * INDEX_SLOT_SIZE + 8) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                index.copyTo(next * INDEX_SLOT_SIZE, index, hole * INDEX_SLOT_SIZE, INDEX_SLOT_SIZE);
+                hole = next;
+            }
+        }
+        index.putLong(hole * INDEX_SLOT_SIZE, 0L);
+        index.putLong(hole * INDEX_SLOT_SIZE + 8, 0L);
+        --indexSize;
+    }
+
+    private boolean growIndex() {
+        if (indexCapacity >= MAX_INDEX_CAPACITY) {
+            return false;
+        }
+        MemorySegment oldIndex = index;
+        int oldCapacity = indexCapacity;
+        indexCapacity = oldCapacity << 1;
+        index = allocateIndex(indexCapacity);
+        int mask = indexCapacity - 1;
+        for (int i = 0; i < oldCapacity; ++i) {
+            if (oldIndex.getInt(i * INDEX_SLOT_SIZE + 12) == 0) {
+                continue;
+            }
+            int slot = oldIndex.getInt(i * INDEX_SLOT_SIZE + 8) & mask;
+            while (index.getInt(slot * INDEX_SLOT_SIZE + 12) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            oldIndex.copyTo(i * INDEX_SLOT_SIZE, index, slot * INDEX_SLOT_SIZE, INDEX_SLOT_SIZE);
+        }
+        oldIndex.free();
+        return true;
+    }
+
+    // unsafe 分配的内存未清零
+    private static MemorySegment allocateIndex(int capacity) {
+        MemorySegment segment = MemorySegmentFactory.allocateOffHeapUnsafeMemory(capacity * INDEX_SLOT_SIZE);
+        clearIndex(segment, capacity);
+        return segment;
+    }
+
+    private static void clearIndex(MemorySegment segment, int capacity) {
+        for (int offset = 0; offset < capacity * INDEX_SLOT_SIZE; offset += 8) {
+            segment.putLong(offset, 0L);
+        }
+    }
+
+    private static int threshold(int capacity) {
+        return capacity - (capacity >>> 2);
+    }
+
+    private static int hash(byte[] key) {
+        int h = Arrays.hashCode(key) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int nextSegment(int segmentIndex) {
+        return (segmentIndex + 1) % segments.length;
+    }
+
+    private static long location(int segmentIndex, int offset) {
+        return ((long) segmentIndex << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    private byte[] serializeKey(RowData key) {
+        try {
+            return converter.serializeLookupKey(key);
+        } catch (IOException e) {
+            throw new RuntimeException("failed serialize cache key.", e);
+        }
+    }
+
+    @Override
+    public synchronized long size() {
+        return indexSize;
+    }
+
+    @Override
+    protected synchronized void doInvalidateAll() {
+        clearIndex(index, indexCapacity);
+        indexSize = 0;
+        for (int i = 0; i < segments.length; ++i) {
+            segmentPositions[i] = 0;
+        }
+        currentSegment = 0;
+    }
+
+    @Override
+    public synchronized void close() {
+        super.close();
+        if (!index.isFreed()) {
+            index.free();
+        }
+        for (MemorySegment segment : segments) {
+            if (!segment.isFreed()) {
+                segment.free();
+            }
+        }
+    }
+
+}
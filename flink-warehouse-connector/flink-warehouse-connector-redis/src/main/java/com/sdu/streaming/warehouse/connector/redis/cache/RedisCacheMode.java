@@ -0,0 +1,9 @@
+package com.sdu.streaming.warehouse.connector.redis.cache;
+
+public enum RedisCacheMode {
+
+    HEAP, OFF_HEAP;
+
+    RedisCacheMode() { }
+
+}
@@ -0,0 +1,9 @@
+package com.sdu.streaming.warehouse.connector.redis.cache;
+
+public enum RedisCachePolicy {
+
+    LRU, W_TINY_LFU;
+
+    RedisCachePolicy() { }
+
+}
@@ -0,0 +1,49 @@
+package com.sdu.streaming.warehouse.connector.redis.cache;
+
+import com.sdu.streaming.warehouse.connector.redis.RedisRuntimeConverter;
+import com.sdu.streaming.warehouse.connector.redis.source.RedisReadOptions;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+
+public interface RedisLookupCache extends AutoCloseable {
+
+    // marker returned by getIfPresent for keys known to be absent in redis
+    RowData ABSENT_ROW = new GenericRowData(0);
+
+    // null if unknown, ABSENT_ROW if key absent in redis
+    RowData getIfPresent(RowData key);
+
+    void put(RowData key, RowData value);
+
+    void putAbsent(RowData key);
+
+    // latency of loading a missed key from redis
+    void recordLoadTime(long elapsedNanos);
+
+    long size();
+
+    void invalidateAll();
+
+    // release off-heap memory
+    @Override
+    void close();
+
+    static RedisLookupCache createLookupCache(RedisReadOptions readOptions, MetricGroup metricGroup, RedisRuntimeConverter<RowData> converter) {
+        if (!readOptions.isCacheable() || readOptions.getCacheMaxSize() == -1 || readOptions.getCacheExpireMs() == -1) {
+            return null;
+        }
+        if (readOptions.getCacheMode() == RedisCacheMode.OFF_HEAP) {
+            return new OffHeapRedisLookupCache(readOptions, metricGroup, converter);
+        }
+        switch (readOptions.getCachePolicy()) {
+            case LRU:
+                return new LruRedisLookupCache(readOptions, metricGroup);
+            case W_TINY_LFU:
+                return new TinyLfuRedisLookupCache(readOptions, metricGroup);
+            default:
+                throw new UnsupportedOperationException("Unsupported redis cache policy: " + readOptions.getCachePolicy());
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.sdu.streaming.warehouse.connector.redis.cache;
+
+import com.sdu.streaming.warehouse.deserializer.NoahArkRowData;
+import org.apache.flink.table.data.GenericArrayData;
+import org.apache.flink.table.data.GenericMapData;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.binary.BinarySection;
+
+// 估算缓存数据的堆内存占用, 用于按字节数限制缓存大小
+public class RowDataSizeEstimator {
+
+    private static final int OBJECT_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 8;
+    private static final int BOXED_PRIMITIVE_BYTES = 16;
+
+    private RowDataSizeEstimator() { }
+
+    public static int estimateEntrySize(Object key, Object value) {
+        return (int) Math.min(Integer.MAX_VALUE, estimateSize(key) + estimateSize(value));
+    }
+
+    public static long estimateSize(Object data) {
+        if (data == null) {
+            return 0;
+        }
+        if (data instanceof BinarySection) {
+            // BinaryStringData, BinaryRowData, BinaryArrayData ...
+            return OBJECT_HEADER_BYTES + ((BinarySection) data).getSizeInBytes();
+        }
+        if (data instanceof byte[]) {
+            return OBJECT_HEADER_BYTES + ((byte[]) data).length;
+        }
+        if (data instanceof GenericRowData) {
+            GenericRowData row = (GenericRowData) data;
+            long size = OBJECT_HEADER_BYTES * 2 + (long) REFERENCE_BYTES * row.getArity();
+            for (int pos = 0; pos < row.getArity(); ++pos) {
+                size += estimateSize(row.getField(pos));
+            }
+            return size;
+        }
+        if (data instanceof NoahArkRowData) {
+            // 基本类型字段不装箱, 按 8 字节计入
+            NoahArkRowData row = (NoahArkRowData) data;
+            long size = OBJECT_HEADER_BYTES * 3 + (long) (REFERENCE_BYTES + 1) * row.getArity();
+            for (int pos = 0; pos < row.getArity(); ++pos) {
+                Object field = row.getField(pos);
+                if (!(field instanceof Number || field instanceof Boolean)) {
+                    size += estimateSize(field);
+                }
+            }
+            return size;
+        }
+        if (data instanceof GenericArrayData) {
+            GenericArrayData array = (GenericArrayData) data;
+            if (array.isPrimitiveArray()) {
+                // 按元素最大宽度估算
+                return OBJECT_HEADER_BYTES * 2 + 8L * array.size();
+            }
+            long size = OBJECT_HEADER_BYTES * 2 + (long) REFERENCE_BYTES * array.size();
+            for (Object element : array.toObjectArray()) {
+                size += estimateSize(element);
+            }
+            return size;
+        }
+        if (data instanceof GenericMapData) {
+            GenericMapData map = (GenericMapData) data;
+            return OBJECT_HEADER_BYTES + estimateSize(map.keyArray()) + estimateSize(map.valueArray());
+        }
+        // boxed primitive, DecimalData, TimestampData ...
+        return BOXED_PRIMITIVE_BYTES;
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.sdu.streaming.warehouse.connector.redis.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sdu.streaming.warehouse.connector.redis.source.RedisReadOptions;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.table.data.RowData;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.sdu.streaming.warehouse.connector.redis.cache.RowDataSizeEstimator.estimateEntrySize;
+
+// W-TinyLFU: admission by access frequency, one-hit keys do not evict hot keys
+public class TinyLfuRedisLookupCache extends AbstractRedisLookupCache {
+
+    private final Cache<RowData, RowData> cache;
+
+    public TinyLfuRedisLookupCache(RedisReadOptions readOptions, MetricGroup metricGroup) {
+        super(readOptions, metricGroup);
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                // maintenance on caller thread instead of ForkJoinPool.commonPool()
+                .executor(Runnable::run);
+        if (readOptions.getCacheMaxBytes() > 0) {
+            builder.maximumWeight(readOptions.getCacheMaxBytes())
+                    .weigher((RowData key, RowData value) -> estimateEntrySize(key, value));
+        } else {
+            builder.maximumSize(readOptions.getCacheMaxSize());
+        }
+        if (readOptions.isCacheExpireAfterAccess()) {
+            builder.expireAfterAccess(readOptions.getCacheExpireMs(), TimeUnit.MILLISECONDS);
+        } else {
+            builder.expireAfterWrite(readOptions.getCacheExpireMs(), TimeUnit.MILLISECONDS);
+        }
+        this.cache = builder
+                .<RowData, RowData>removalListener((key, value, cause) -> {
+                    if (cause.wasEvicted()) {
+                        recordEviction();
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    protected RowData doGetIfPresent(RowData key) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    protected void doPut(RowData key, RowData value) {
+        cache.put(key, value);
+    }
+
+    @Override
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    protected void doInvalidateAll() {
+        cache.invalidateAll();
+    }
+
+}
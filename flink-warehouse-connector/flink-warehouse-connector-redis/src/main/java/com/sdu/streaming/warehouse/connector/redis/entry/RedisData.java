@@ -1,7 +1,7 @@
 package com.sdu.streaming.warehouse.connector.redis.entry;
 
 import io.lettuce.core.RedisFuture;
-import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
 import org.apache.flink.types.RowKind;
 
 import java.util.List;
@@ -16,6 +16,6 @@ public interface RedisData<T> {
 
     T getRedisValue();
 
-    List<RedisFuture<?>> save(StatefulRedisConnection<byte[], byte[]> client);
+    List<RedisFuture<?>> save(RedisClusterAsyncCommands<byte[], byte[]> command);
 
 }
@@ -0,0 +1,12 @@
+package com.sdu.streaming.warehouse.connector.redis.entry;
+
+public enum RedisKeyFormat {
+
+    // [prefix 长度 + prefix] + NoahArk 编码的主键字段
+    BINARY,
+    // prefix:k1:k2, 主键字段按字符串拼接, 便于外部系统读取; 字段值中的 ':' 与 '\' 以 '\' 转义, null 写作 \N
+    READABLE;
+
+    RedisKeyFormat() { }
+
+}
@@ -2,8 +2,8 @@ package com.sdu.streaming.warehouse.connector.redis.entry;
 
 import com.sdu.streaming.warehouse.connector.redis.AbstractRedisData;
 import io.lettuce.core.RedisFuture;
-import io.lettuce.core.api.StatefulRedisConnection;
-import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
 import org.apache.flink.types.RowKind;
 
 import java.util.LinkedList;
@@ -18,17 +18,17 @@ public class RedisListData extends AbstractRedisData<byte[][]> {
 
 
     @Override
-    public List<RedisFuture<?>> save(StatefulRedisConnection<byte[], byte[]> client) {
-        RedisAsyncCommands<byte[], byte[]> command = client.async();
+    public List<RedisFuture<?>> save(RedisClusterAsyncCommands<byte[], byte[]> command) {
         List<RedisFuture<?>> result = new LinkedList<>();
 
         switch (getRedisDataKind()) {
             case INSERT:
             case UPDATE_AFTER:
                 // delete old, append new
-                result.add(command.del(getRedisKey()));
-                result.add(command.rpush(getRedisKey(), getRedisValue()));
-                result.add(command.expire(getRedisKey(), expireTime()));
+                byte[][] args = new byte[1 + getRedisValue().length][];
+                args[0] = RedisScripts.expireArgument(expireTime());
+                System.arraycopy(getRedisValue(), 0, args, 1, getRedisValue().length);
+                result.add(command.evalsha(RedisScripts.LIST_REPLACE_SCRIPT_SHA, ScriptOutputType.INTEGER, new byte[][] {getRedisKey()}, args));
                 break;
 
             case DELETE:
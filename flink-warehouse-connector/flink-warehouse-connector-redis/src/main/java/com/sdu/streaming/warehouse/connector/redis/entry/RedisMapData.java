@@ -2,8 +2,8 @@ package com.sdu.streaming.warehouse.connector.redis.entry;
 
 import com.sdu.streaming.warehouse.connector.redis.AbstractRedisData;
 import io.lettuce.core.RedisFuture;
-import io.lettuce.core.api.StatefulRedisConnection;
-import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
 import org.apache.flink.types.RowKind;
 
 import java.util.LinkedList;
@@ -17,14 +17,19 @@ public class RedisMapData extends AbstractRedisData<Map<byte[], byte[]>> {
     }
 
     @Override
-    public List<RedisFuture<?>> save(StatefulRedisConnection<byte[], byte[]> client) {
-        RedisAsyncCommands<byte[], byte[]> command = client.async();
+    public List<RedisFuture<?>> save(RedisClusterAsyncCommands<byte[], byte[]> command) {
         List<RedisFuture<?>> result = new LinkedList<>();
         switch (getRedisDataKind()) {
             case INSERT:
             case UPDATE_AFTER:
-                result.add(command.hmset(getRedisKey(), getRedisValue()));
-                result.add(command.expire(getRedisKey(), expireTime()));
+                byte[][] args = new byte[1 + 2 * getRedisValue().size()][];
+                int index = 0;
+                args[index++] = RedisScripts.expireArgument(expireTime());
+                for (Map.Entry<byte[], byte[]> entry : getRedisValue().entrySet()) {
+                    args[index++] = entry.getKey();
+                    args[index++] = entry.getValue();
+                }
+                result.add(command.evalsha(RedisScripts.HASH_SET_SCRIPT_SHA, ScriptOutputType.INTEGER, new byte[][] {getRedisKey()}, args));
                 break;
 
             case DELETE:
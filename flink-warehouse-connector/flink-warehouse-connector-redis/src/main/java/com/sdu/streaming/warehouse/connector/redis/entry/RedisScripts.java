@@ -0,0 +1,49 @@
+package com.sdu.streaming.warehouse.connector.redis.entry;
+
+import org.apache.flink.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+
+// 写入 + 过期在同一个 lua 脚本内原子执行, 每行数据只需一条 EVALSHA.
+// KEYS[1]: redis key, ARGV[1]: 过期秒数(非正数不设置过期), ARGV[2...]: 数据
+public class RedisScripts {
+
+    private RedisScripts() { }
+
+    public static final String HASH_SET_SCRIPT =
+            "redis.call('HMSET', KEYS[1], unpack(ARGV, 2)) "
+                    + "if tonumber(ARGV[1]) > 0 then redis.call('EXPIRE', KEYS[1], ARGV[1]) end "
+                    + "return 1";
+
+    public static final String LIST_REPLACE_SCRIPT =
+            "redis.call('DEL', KEYS[1]) "
+                    + "local size = redis.call('RPUSH', KEYS[1], unpack(ARGV, 2)) "
+                    + "if tonumber(ARGV[1]) > 0 then redis.call('EXPIRE', KEYS[1], ARGV[1]) end "
+                    + "return size";
+
+    public static final String HASH_SET_SCRIPT_SHA = sha1(HASH_SET_SCRIPT);
+
+    public static final String LIST_REPLACE_SCRIPT_SHA = sha1(LIST_REPLACE_SCRIPT);
+
+    public static List<String> scripts() {
+        return Arrays.asList(HASH_SET_SCRIPT, LIST_REPLACE_SCRIPT);
+    }
+
+    public static byte[] expireArgument(long expireSeconds) {
+        return String.valueOf(expireSeconds).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String sha1(String script) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            return StringUtils.byteToHexString(digest.digest(script.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
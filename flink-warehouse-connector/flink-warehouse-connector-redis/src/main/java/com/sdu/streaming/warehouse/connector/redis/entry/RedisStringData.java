@@ -2,8 +2,8 @@ package com.sdu.streaming.warehouse.connector.redis.entry;
 
 import com.sdu.streaming.warehouse.connector.redis.AbstractRedisData;
 import io.lettuce.core.RedisFuture;
-import io.lettuce.core.api.StatefulRedisConnection;
-import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
 import org.apache.flink.types.RowKind;
 
 import java.util.LinkedList;
@@ -16,15 +16,18 @@ public class RedisStringData extends AbstractRedisData<byte[]> {
     }
 
     @Override
-    public List<RedisFuture<?>> save(StatefulRedisConnection<byte[], byte[]> client) {
-        RedisAsyncCommands<byte[], byte[]> command = client.async();
+    public List<RedisFuture<?>> save(RedisClusterAsyncCommands<byte[], byte[]> command) {
         List<RedisFuture<?>> result = new LinkedList<>();
 
         switch (getRedisDataKind()) {
             case INSERT:
             case UPDATE_AFTER:
-                result.add(command.set(getRedisKey(), getRedisValue()));
-                result.add(command.expire(getRedisKey(), expireTime()));
+                // SET EX: 写入与过期原子完成
+                if (expireTime() > 0) {
+                    result.add(command.set(getRedisKey(), getRedisValue(), SetArgs.Builder.ex(expireTime())));
+                } else {
+                    result.add(command.set(getRedisKey(), getRedisValue()));
+                }
                 break;
 
             case DELETE:
@@ -0,0 +1,9 @@
+package com.sdu.streaming.warehouse.connector.redis.entry;
+
+public enum RedisValueCompression {
+
+    NONE, LZ4, ZSTD;
+
+    RedisValueCompression() { }
+
+}
@@ -0,0 +1,115 @@
+package com.sdu.streaming.warehouse.connector.redis.sink;
+
+import org.apache.flink.util.concurrent.ExecutorThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static java.lang.String.format;
+
+// 异步写入(双缓冲): flush 时交换缓冲区, 写满的缓冲区交给后台线程写入, 任务线程继续写入新缓冲区且不等待响应.
+// 未完成批次(等待写入 + 写入中)受 maxInFlightBatches 限制, 超出时 flush 阻塞; checkpoint/close 时等待全部完成.
+// 后台线程按顺序逐批调用 RedisBatchWriter: 与同步写入一致, 等待期间 flush 集群重定向的命令, 失败时恢复(刷新拓扑, 重新加载脚本)并重放;
+// 前一批次完成后才发送下一批次, 重放不会覆盖后续批次的写入. 重试耗尽后交给 failureHandler, 由作业从 checkpoint 恢复重放.
+public class RedisAsyncBatchWriter<T> implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RedisAsyncBatchWriter.class);
+
+    private final Supplier<RedisBufferQueue<T>> bufferFactory;
+    private final RedisBatchWriter<T> batchWriter;
+    private final Consumer<Throwable> failureHandler;
+    private final int maxInFlightBatches;
+    private final long timeoutMillis;
+
+    private final Object lock = new Object();
+    private RedisBufferQueue<T> buffer;
+    private int bufferedSize;
+
+    private final Semaphore inFlightPermits;
+    // 单线程写入, 保证批次顺序
+    private final ExecutorService sendExecutor;
+
+    public RedisAsyncBatchWriter(Supplier<RedisBufferQueue<T>> bufferFactory,
+                                 RedisBatchWriter<T> batchWriter,
+                                 Consumer<Throwable> failureHandler,
+                                 int maxInFlightBatches,
+                                 long timeoutMillis) {
+        this.bufferFactory = bufferFactory;
+        this.batchWriter = batchWriter;
+        this.failureHandler = failureHandler;
+        this.maxInFlightBatches = maxInFlightBatches;
+        this.timeoutMillis = timeoutMillis;
+        this.buffer = bufferFactory.get();
+        this.bufferedSize = 0;
+        this.inFlightPermits = new Semaphore(maxInFlightBatches);
+        this.sendExecutor = Executors.newSingleThreadExecutor(new ExecutorThreadFactory("redis-sink-async-writer"));
+    }
+
+    // 返回当前缓冲区的数据条数
+    public int buffer(T data) {
+        synchronized (lock) {
+            buffer.buffer(data);
+            return ++bufferedSize;
+        }
+    }
+
+    // 交换缓冲区并交给后台线程, 在锁内获取 permit 保证批次按交换顺序发送
+    public void flush() {
+        synchronized (lock) {
+            if (bufferedSize == 0) {
+                return;
+            }
+            try {
+                inFlightPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("interrupted while waiting in-flight redis batches.", e);
+            }
+            final RedisBufferQueue<T> filled = buffer;
+            buffer = bufferFactory.get();
+            bufferedSize = 0;
+            try {
+                sendExecutor.execute(() -> filled.flush(this::send));
+            } catch (RejectedExecutionException e) {
+                inFlightPermits.release();
+                throw e;
+            }
+        }
+    }
+
+    private void send(List<T> batch) {
+        try {
+            if (!batch.isEmpty()) {
+                batchWriter.write(batch);
+            }
+        } catch (RuntimeException e) {
+            LOG.error("failed flush {} records to redis", batch.size(), e);
+            failureHandler.accept(e);
+        } finally {
+            inFlightPermits.release();
+        }
+    }
+
+    // checkpoint 屏障: 等待已交出的批次全部写入, 超时抛出异常使 checkpoint 失败
+    public void waitInFlightBatches() throws InterruptedException {
+        if (!inFlightPermits.tryAcquire(maxInFlightBatches, timeoutMillis, TimeUnit.MILLISECONDS)) {
+            throw new RuntimeException(format("in-flight redis batches not completed in %d ms", timeoutMillis));
+        }
+        inFlightPermits.release(maxInFlightBatches);
+    }
+
+    // 调用方需先 flush 并 waitInFlightBatches, 否则丢弃未发送的批次
+    @Override
+    public void close() {
+        sendExecutor.shutdownNow();
+    }
+
+}
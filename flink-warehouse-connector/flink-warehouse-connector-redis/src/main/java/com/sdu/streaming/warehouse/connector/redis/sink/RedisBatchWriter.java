@@ -0,0 +1,79 @@
+package com.sdu.streaming.warehouse.connector.redis.sink;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+
+// 同步写入批次: 发送命令 + flushCommands 后有界等待响应, 失败或超时后执行恢复(刷新集群拓扑, 重新加载脚本)并重放整个批次.
+// 关闭 autoFlush 时, 集群 MOVED/ASK 重定向后重新发送的命令不会自动 flush, 等待期间需定期 flushCommands.
+public class RedisBatchWriter<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RedisBatchWriter.class);
+
+    // 等待响应期间 flushCommands 的间隔
+    private static final long REDIRECT_FLUSH_INTERVAL_MILLIS = 10L;
+
+    private final Function<List<T>, List<? extends Future<?>>> sender;
+    private final Runnable flusher;
+    private final Runnable recovery;
+    private final long timeoutMillis;
+    private final int maxRetryTimes;
+
+    public RedisBatchWriter(Function<List<T>, List<? extends Future<?>>> sender, Runnable flusher, Runnable recovery, long timeoutMillis, int maxRetryTimes) {
+        this.sender = sender;
+        this.flusher = flusher;
+        this.recovery = recovery;
+        this.timeoutMillis = timeoutMillis;
+        this.maxRetryTimes = maxRetryTimes;
+    }
+
+    // 写入幂等, 失败时重放整个批次
+    public void write(List<T> batch) {
+        for (int retry = 0; ; ++retry) {
+            try {
+                List<? extends Future<?>> result = sender.apply(batch);
+                flusher.run();
+                await(result);
+                return;
+            } catch (RuntimeException e) {
+                if (retry >= maxRetryTimes) {
+                    throw e;
+                }
+                LOG.warn("failed flush {} records to redis, retry times: {}", batch.size(), retry, e);
+                recovery.run();
+            }
+        }
+    }
+
+    // 超时抛出异常, 由调用方使 checkpoint 失败
+    public void await(List<? extends Future<?>> futures) {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        for (Future<?> future : futures) {
+            while (true) {
+                try {
+                    future.get(REDIRECT_FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                    break;
+                } catch (TimeoutException e) {
+                    if (System.currentTimeMillis() >= deadline) {
+                        throw new RuntimeException(format("redis commands not completed in %d ms", timeoutMillis), e);
+                    }
+                    flusher.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("interrupted while waiting redis commands.", e);
+                } catch (ExecutionException e) {
+                    throw new RuntimeException("failed write redis", e.getCause());
+                }
+            }
+        }
+    }
+
+}
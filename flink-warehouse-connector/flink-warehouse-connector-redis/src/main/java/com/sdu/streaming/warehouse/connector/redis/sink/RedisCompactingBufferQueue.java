@@ -0,0 +1,41 @@
+package com.sdu.streaming.warehouse.connector.redis.sink;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// 按 redis key 合并缓冲数据: 同一 key 只保留最后一次变更(含 RowKind),
+// 后到的 DELETE 会覆盖之前未刷新的 INSERT/UPDATE_AFTER.
+public class RedisCompactingBufferQueue<T> implements RedisBufferQueue<T> {
+
+    private final Function<T, byte[]> keyExtractor;
+
+    private LinkedHashMap<ByteBuffer, T> queue;
+
+    public RedisCompactingBufferQueue(Function<T, byte[]> keyExtractor) {
+        this.keyExtractor = keyExtractor;
+        this.queue = new LinkedHashMap<>();
+    }
+
+    @Override
+    public synchronized void buffer(T data) {
+        ByteBuffer key = ByteBuffer.wrap(keyExtractor.apply(data));
+        // 移到队尾, 保证刷新顺序与最后一次变更顺序一致
+        queue.remove(key);
+        queue.put(key, data);
+    }
+
+    @Override
+    public synchronized void flush(Consumer<List<T>> flusher) {
+        List<T> bufferData = new ArrayList<>(queue.size());
+        for (Map.Entry<ByteBuffer, T> entry : queue.entrySet()) {
+            bufferData.add(entry.getValue());
+        }
+        flusher.accept(bufferData);
+        queue.clear();
+    }
+}
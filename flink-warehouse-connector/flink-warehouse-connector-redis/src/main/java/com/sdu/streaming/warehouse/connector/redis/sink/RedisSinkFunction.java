@@ -2,10 +2,18 @@ package com.sdu.streaming.warehouse.connector.redis.sink;
 
 import com.sdu.streaming.warehouse.connector.redis.RedisRuntimeConverter;
 import com.sdu.streaming.warehouse.connector.redis.entry.RedisData;
-import com.sdu.streaming.warehouse.utils.MoreFutures;
+import com.sdu.streaming.warehouse.connector.redis.entry.RedisScripts;
+import io.lettuce.core.AbstractRedisClient;
 import io.lettuce.core.RedisClient;
 import io.lettuce.core.RedisFuture;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulConnection;
 import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
 import io.lettuce.core.codec.ByteArrayCodec;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.runtime.state.FunctionInitializationContext;
@@ -16,7 +24,7 @@ import org.apache.flink.util.concurrent.ExecutorThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -24,7 +32,8 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
-
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class RedisSinkFunction<T> extends RichSinkFunction<T> implements CheckpointedFunction {
 
@@ -33,17 +42,22 @@ public class RedisSinkFunction<T> extends RichSinkFunction<T> implements Checkpo
     private final RedisWriteOptions writeOptions;
     private final RedisRuntimeConverter<T> converter;
 
-    // 非集群模式
-    private transient RedisClient client;
-    private transient StatefulRedisConnection<byte[], byte[]> connection;
+    // 集群模式: RedisClusterClient, 非集群模式: RedisClient
+    private transient AbstractRedisClient client;
+    private transient StatefulConnection<byte[], byte[]> connection;
+    private transient RedisClusterAsyncCommands<byte[], byte[]> commands;
 
     private transient RedisBufferQueue<RedisData<?>> bufferQueue;
+    private transient RedisBatchWriter<RedisData<?>> batchWriter;
 
     // async write
     private transient AtomicInteger batchCount = new AtomicInteger(0);
     private transient ScheduledExecutorService executor;
     private transient ScheduledFuture scheduledFuture;
 
+    // 异步刷新(双缓冲): 批次交给后台线程写入(同样重试及恢复)且任务线程不等待响应, checkpoint 时等待全部完成
+    private transient RedisAsyncBatchWriter<RedisData<?>> asyncWriter;
+
     private transient volatile boolean closed = false;
 
     private final AtomicReference<Throwable> failureThrowable = new AtomicReference<>();
@@ -58,7 +72,7 @@ public class RedisSinkFunction<T> extends RichSinkFunction<T> implements Checkpo
         LOG.info("task[{} / {}] start initialize redis connection",
                 getRuntimeContext().getIndexOfThisSubtask(), getRuntimeContext().getNumberOfParallelSubtasks());
         converter.open();
-        bufferQueue = new RedisSyncBufferQueue<>();
+        bufferQueue = createBufferQueue();
         if (writeOptions.getBufferFlushInterval() != 0 && writeOptions.getBufferFlushMaxSize() != 1) {
             executor = Executors.newScheduledThreadPool(1, new ExecutorThreadFactory("redis-sink-flusher"));
             scheduledFuture = executor.scheduleWithFixedDelay(
@@ -78,9 +92,81 @@ public class RedisSinkFunction<T> extends RichSinkFunction<T> implements Checkpo
                     TimeUnit.SECONDS
             );
         }
-        client = RedisClient.create(writeOptions.getClusterName());
-        connection = client.connect(new ByteArrayCodec());
+        if (writeOptions.isClusterMode()) {
+            openClusterConnection();
+        } else {
+            RedisClient redisClient = RedisClient.create(writeOptions.getClusterName());
+            StatefulRedisConnection<byte[], byte[]> redisConnection = redisClient.connect(new ByteArrayCodec());
+            client = redisClient;
+            connection = redisConnection;
+            commands = redisConnection.async();
+        }
         connection.setAutoFlushCommands(false);
+        batchWriter = new RedisBatchWriter<>(this::save, connection::flushCommands, this::recover,
+                writeOptions.getWriteTimeout(), writeOptions.getMaxRetryTimes());
+        loadScripts();
+        if (writeOptions.getMaxInFlightBatches() > 0) {
+            // 每个批次最多等待 (重试次数 + 1) 次写入超时
+            long waitTimeout = writeOptions.getWriteTimeout() * (writeOptions.getMaxRetryTimes() + 1) * writeOptions.getMaxInFlightBatches();
+            asyncWriter = new RedisAsyncBatchWriter<>(this::createBufferQueue, batchWriter,
+                    e -> failureThrowable.compareAndSet(null, e), writeOptions.getMaxInFlightBatches(), waitTimeout);
+        }
+    }
+
+    private RedisBufferQueue<RedisData<?>> createBufferQueue() {
+        return writeOptions.isBufferCompaction()
+                ? new RedisCompactingBufferQueue<>(RedisData::getRedisKey)
+                : new RedisSyncBufferQueue<>();
+    }
+
+    // 集群模式下 SCRIPT LOAD 会发送到所有节点
+    private void loadScripts() {
+        final List<RedisFuture<?>> result = new ArrayList<>();
+        RedisScripts.scripts().forEach(script -> result.add(commands.scriptLoad(script)));
+        connection.flushCommands();
+        batchWriter.await(result);
+    }
+
+    // AsyncCommand + FlushCommands --> Redis Pipeline
+    // cluster mode: commands are routed by key slot into per-node pipelines, flushCommands
+    // writes all node pipelines at once, so a batch costs one round trip per shard.
+    private List<RedisFuture<?>> save(List<RedisData<?>> bufferData) {
+        final List<RedisFuture<?>> result = new ArrayList<>(bufferData.size() * 2);
+        bufferData.forEach(redisData -> result.addAll(redisData.save(commands)));
+        return result;
+    }
+
+    private void recover() {
+        if (client instanceof RedisClusterClient) {
+            ((RedisClusterClient) client).refreshPartitions();
+        }
+        // script cache is lost after redis restart or failover (NOSCRIPT)
+        try {
+            loadScripts();
+        } catch (RuntimeException ex) {
+            LOG.warn("failed reload redis scripts", ex);
+        }
+    }
+
+    private void openClusterConnection() {
+        List<RedisURI> seedNodes = Stream.of(writeOptions.getClusterName().split(","))
+                .map(String::trim)
+                .filter(address -> !address.isEmpty())
+                .map(RedisURI::create)
+                .collect(Collectors.toList());
+        RedisClusterClient clusterClient = RedisClusterClient.create(seedNodes);
+        // MOVED/ASK redirects are followed per command, and trigger a topology refresh so
+        // that the following commands are routed to the new slot owner during resharding.
+        clusterClient.setOptions(ClusterClientOptions.builder()
+                .maxRedirects(writeOptions.getClusterMaxRedirects())
+                .topologyRefreshOptions(ClusterTopologyRefreshOptions.builder()
+                        .enableAllAdaptiveRefreshTriggers()
+                        .build())
+                .build());
+        StatefulRedisClusterConnection<byte[], byte[]> clusterConnection = clusterClient.connect(new ByteArrayCodec());
+        client = clusterClient;
+        connection = clusterConnection;
+        commands = clusterConnection.async();
     }
 
     @Override
@@ -91,38 +177,46 @@ public class RedisSinkFunction<T> extends RichSinkFunction<T> implements Checkpo
     @Override
     public void snapshotState(FunctionSnapshotContext functionSnapshotContext) throws Exception {
         // flush buffer
-        if (batchCount.get() != 0) {
+        if (asyncWriter != null) {
+            flush();
+            asyncWriter.waitInFlightBatches();
+        } else if (batchCount.get() != 0) {
             flush();
         }
+        checkErrorAndRethrow();
     }
 
     @Override
     public void invoke(T value, Context context) throws Exception {
         checkErrorAndRethrow();
-        bufferQueue.buffer(converter.serialize(value));
-        if (batchCount.incrementAndGet() >= writeOptions.getBufferFlushMaxSize()) {
+        RedisData<?> redisData = converter.serialize(value);
+        int bufferedSize;
+        if (asyncWriter != null) {
+            bufferedSize = asyncWriter.buffer(redisData);
+        } else {
+            bufferQueue.buffer(redisData);
+            bufferedSize = batchCount.incrementAndGet();
+        }
+        if (bufferedSize >= writeOptions.getBufferFlushMaxSize()) {
             flush();
         }
     }
 
     private void flush() {
         try {
-            bufferQueue.flush(this::doFlush);
-            batchCount.set(0);
+            if (asyncWriter != null) {
+                asyncWriter.flush();
+            } else {
+                // buffer is only cleared after a successful flush, writes are idempotent so the whole batch is replayed on failure
+                bufferQueue.flush(batchWriter::write);
+                batchCount.set(0);
+            }
         } catch (Exception e) {
             failureThrowable.compareAndSet(null, e);
         }
         checkErrorAndRethrow();
     }
 
-    private void doFlush(List<RedisData<?>> bufferData) {
-        // AsyncCommand + FlushCommands --> Redis Pipeline
-        final List<RedisFuture<?>> result = new LinkedList<>();
-        bufferData.forEach(redisData -> result.addAll(redisData.save(connection)));
-        connection.flushCommands();
-        MoreFutures.tryAwait(result);
-    }
-
     private void checkErrorAndRethrow() {
         Throwable cause = failureThrowable.get();
         if (cause != null) {
@@ -133,15 +227,33 @@ public class RedisSinkFunction<T> extends RichSinkFunction<T> implements Checkpo
     @Override
     public void close() throws Exception {
         closed = true;
-        if (connection != null) {
-            connection.close();
-            client.shutdown();
-        }
         if (scheduledFuture != null) {
             scheduledFuture.cancel(false);
             if (executor != null) {
                 executor.shutdownNow();
             }
         }
+        try {
+            // 写出剩余缓冲数据并等待未完成批次, 已失败时不再写入
+            if (failureThrowable.get() == null) {
+                if (asyncWriter != null) {
+                    asyncWriter.flush();
+                    asyncWriter.waitInFlightBatches();
+                } else if (batchWriter != null && batchCount.get() != 0) {
+                    flush();
+                }
+            }
+            checkErrorAndRethrow();
+        } finally {
+            if (asyncWriter != null) {
+                asyncWriter.close();
+            }
+            if (connection != null) {
+                connection.close();
+            }
+            if (client != null) {
+                client.shutdown();
+            }
+        }
     }
 }
\ No newline at end of file
@@ -1,37 +1,69 @@
 package com.sdu.streaming.warehouse.connector.redis.sink;
 
 import com.sdu.streaming.warehouse.connector.redis.RedisOptions;
-import com.sdu.streaming.warehouse.connector.redis.entry.RedisDataType;
 import org.apache.flink.table.types.logical.RowType;
 
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_CLUSTER_MAX_REDIRECTS;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_CLUSTER_MODE;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_EXPIRE_SECONDS;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_WRITE_BATCH_SIZE;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_WRITE_BUFFER_COMPACTION;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_WRITE_FLUSH_INTERVAL;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_WRITE_MAX_INFLIGHT_BATCHES;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_WRITE_PARALLELISM;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_WRITE_RETRIES;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_WRITE_TIMEOUT;
+
 public class RedisWriteOptions extends RedisOptions {
 
     private final String clusterName;
+    // 集群模式
+    private final boolean clusterMode;
+    private final int clusterMaxRedirects;
     private final int bufferFlushMaxSize;
     private final int bufferFlushInterval;
+    // 按 key 合并缓冲数据
+    private final boolean bufferCompaction;
     private final long expireSeconds;
     private final int parallelism;
+    // 重试次数
+    private final int maxRetryTimes;
+    // 异步刷新时最多未完成批次
+    private final int maxInFlightBatches;
+    // 等待批次响应的超时时间(ms)
+    private final long writeTimeout;
+
+    private RedisWriteOptions(Builder builder) {
+        super(builder);
+        this.clusterName = builder.clusterName;
+        this.clusterMode = builder.clusterMode;
+        this.clusterMaxRedirects = builder.clusterMaxRedirects;
+        this.bufferFlushMaxSize = builder.bufferFlushMaxSize;
+        this.bufferFlushInterval = builder.bufferFlushInterval;
+        this.bufferCompaction = builder.bufferCompaction;
+        this.expireSeconds = builder.expireSeconds;
+        this.parallelism = builder.parallelism;
+        this.maxRetryTimes = builder.maxRetryTimes;
+        this.maxInFlightBatches = builder.maxInFlightBatches;
+        this.writeTimeout = builder.writeTimeout;
+    }
 
-    public RedisWriteOptions(RowType rowType,
-                             String keyPrefix,
-                             RedisDataType redisDataType,
-                             String clusterName,
-                             int bufferFlushMaxSize,
-                             int bufferFlushInterval,
-                             long expireSeconds,
-                             int parallelism) {
-        super(rowType, keyPrefix, redisDataType);
-        this.clusterName = clusterName;
-        this.bufferFlushMaxSize = bufferFlushMaxSize;
-        this.bufferFlushInterval = bufferFlushInterval;
-        this.expireSeconds = expireSeconds;
-        this.parallelism = parallelism;
+    public static Builder builder(RowType rowType) {
+        return new Builder(rowType);
     }
 
     public String getClusterName() {
         return clusterName;
     }
 
+    public boolean isClusterMode() {
+        return clusterMode;
+    }
+
+    public int getClusterMaxRedirects() {
+        return clusterMaxRedirects;
+    }
+
     public int getBufferFlushMaxSize() {
         return bufferFlushMaxSize;
     }
@@ -40,12 +72,106 @@ public class RedisWriteOptions extends RedisOptions {
         return bufferFlushInterval;
     }
 
+    public boolean isBufferCompaction() {
+        return bufferCompaction;
+    }
+
     public int getParallelism() {
         return parallelism;
     }
 
+    public int getMaxRetryTimes() {
+        return maxRetryTimes;
+    }
+
+    public int getMaxInFlightBatches() {
+        return maxInFlightBatches;
+    }
+
+    public long getWriteTimeout() {
+        return writeTimeout;
+    }
+
     @Override
     public long expireTime() {
         return expireSeconds;
     }
+
+    public static class Builder extends RedisOptions.Builder<Builder> {
+
+        private String clusterName = null;
+        private boolean clusterMode = REDIS_CLUSTER_MODE.defaultValue();
+        private int clusterMaxRedirects = REDIS_CLUSTER_MAX_REDIRECTS.defaultValue();
+        private int bufferFlushMaxSize = REDIS_WRITE_BATCH_SIZE.defaultValue();
+        private int bufferFlushInterval = REDIS_WRITE_FLUSH_INTERVAL.defaultValue();
+        private boolean bufferCompaction = REDIS_WRITE_BUFFER_COMPACTION.defaultValue();
+        private long expireSeconds = REDIS_EXPIRE_SECONDS.defaultValue();
+        private int parallelism = REDIS_WRITE_PARALLELISM.defaultValue();
+        private int maxRetryTimes = REDIS_WRITE_RETRIES.defaultValue();
+        private int maxInFlightBatches = REDIS_WRITE_MAX_INFLIGHT_BATCHES.defaultValue();
+        private long writeTimeout = REDIS_WRITE_TIMEOUT.defaultValue();
+
+        private Builder(RowType rowType) {
+            super(rowType);
+        }
+
+        public Builder clusterName(String clusterName) {
+            this.clusterName = clusterName;
+            return this;
+        }
+
+        public Builder clusterMode(boolean clusterMode) {
+            this.clusterMode = clusterMode;
+            return this;
+        }
+
+        public Builder clusterMaxRedirects(int clusterMaxRedirects) {
+            this.clusterMaxRedirects = clusterMaxRedirects;
+            return this;
+        }
+
+        public Builder bufferFlushMaxSize(int bufferFlushMaxSize) {
+            this.bufferFlushMaxSize = bufferFlushMaxSize;
+            return this;
+        }
+
+        public Builder bufferFlushInterval(int bufferFlushInterval) {
+            this.bufferFlushInterval = bufferFlushInterval;
+            return this;
+        }
+
+        public Builder bufferCompaction(boolean bufferCompaction) {
+            this.bufferCompaction = bufferCompaction;
+            return this;
+        }
+
+        public Builder expireSeconds(long expireSeconds) {
+            this.expireSeconds = expireSeconds;
+            return this;
+        }
+
+        public Builder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        public Builder maxRetryTimes(int maxRetryTimes) {
+            this.maxRetryTimes = maxRetryTimes;
+            return this;
+        }
+
+        public Builder maxInFlightBatches(int maxInFlightBatches) {
+            this.maxInFlightBatches = maxInFlightBatches;
+            return this;
+        }
+
+        public Builder writeTimeout(long writeTimeout) {
+            this.writeTimeout = writeTimeout;
+            return this;
+        }
+
+        public RedisWriteOptions build() {
+            return new RedisWriteOptions(this);
+        }
+    }
 }
@@ -1,11 +1,11 @@
 package com.sdu.streaming.warehouse.connector.redis.source;
 
 import com.sdu.streaming.warehouse.connector.redis.RedisRuntimeConverter;
+import com.sdu.streaming.warehouse.connector.redis.RedisRuntimeConverter.BatchResultConsumer;
+import com.sdu.streaming.warehouse.connector.redis.cache.RedisLookupCache;
 import io.lettuce.core.RedisClient;
 import io.lettuce.core.api.StatefulRedisConnection;
 import io.lettuce.core.codec.ByteArrayCodec;
-import org.apache.flink.shaded.curator5.com.google.common.cache.Cache;
-import org.apache.flink.shaded.curator5.com.google.common.cache.CacheBuilder;
 import org.apache.flink.table.data.GenericRowData;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.functions.AsyncTableFunction;
@@ -16,9 +16,10 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
 
+import static com.sdu.streaming.warehouse.connector.redis.cache.RedisLookupCache.createLookupCache;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 
@@ -26,12 +27,16 @@ public class RedisAsyncTableFunction extends AsyncTableFunction<RowData> {
 
     private static final Logger LOG = LoggerFactory.getLogger(RedisAsyncTableFunction.class);
 
+    // 批量读失败重试的初始退避时间, 每次重试翻倍
+    private static final long RETRY_BACKOFF_MS = 100L;
+
     private final RedisReadOptions readOptions;
     private final RedisRuntimeConverter<RowData> converter;
 
     private transient RedisClient client;
     private transient StatefulRedisConnection<byte[], byte[]> connection;
-    private transient Cache<RowData, RowData> cache;
+    private transient RedisLookupCache cache;
+    private transient RedisLookupBatcher<RowData, RowData> batcher;
 
     public RedisAsyncTableFunction(RedisReadOptions readOptions, RedisRuntimeConverter<RowData> converter) {
         this.readOptions = readOptions;
@@ -40,14 +45,18 @@ public class RedisAsyncTableFunction extends AsyncTableFunction<RowData> {
 
     @Override
     public void open(FunctionContext context) throws Exception {
+        converter.open();
         client = RedisClient.create(readOptions.getClusterAddress());
         connection = client.connect(new ByteArrayCodec());
-        connection.setAutoFlushCommands(true);
-        if (readOptions.isCacheable() && readOptions.getCacheMaxSize() != -1 && readOptions.getCacheExpireMs() != -1) {
-            cache = CacheBuilder.newBuilder()
-                    .expireAfterWrite(readOptions.getCacheExpireMs(), TimeUnit.MILLISECONDS)
-                    .build();
+        if (readOptions.getBatchSize() > 1) {
+            // batch commands are flushed explicitly as one pipeline
+            connection.setAutoFlushCommands(false);
+            batcher = new RedisLookupBatcher<>(readOptions.getBatchSize(), readOptions.getBatchLingerMs(),
+                    readOptions.getMaxRetryTimes(), RETRY_BACKOFF_MS, this::fetchBatchResult);
+        } else {
+            connection.setAutoFlushCommands(true);
         }
+        cache = createLookupCache(readOptions, context.getMetricGroup(), converter);
     }
 
     public void eval(CompletableFuture<Collection<RowData>> future, Object ... keys) {
@@ -64,10 +73,21 @@ public class RedisAsyncTableFunction extends AsyncTableFunction<RowData> {
                 return;
             }
         }
-        fetchResult(future, currentRetry, keyRow);
+        long startNanos = System.nanoTime();
+        if (batcher != null) {
+            batcher.add(keyRow, (rowData, throwable) -> {
+                if (throwable != null) {
+                    future.completeExceptionally(throwable);
+                } else {
+                    completeResult(future, keyRow, rowData, startNanos);
+                }
+            });
+            return;
+        }
+        fetchResult(future, currentRetry, keyRow, startNanos);
     }
 
-    private void fetchResult(CompletableFuture<Collection<RowData>> resultFuture, int currentRetry, RowData rowKey) {
+    private void fetchResult(CompletableFuture<Collection<RowData>> resultFuture, int currentRetry, RowData rowKey, long startNanos) {
         try {
             converter.asyncDeserialize(connection, rowKey, (rowData, throwable) -> {
                 if (throwable != null) {
@@ -80,19 +100,10 @@ public class RedisAsyncTableFunction extends AsyncTableFunction<RowData> {
                         } catch (InterruptedException ex) {
                             resultFuture.completeExceptionally(ex);
                         }
-                        fetchResult(resultFuture, currentRetry + 1, rowKey);
+                        fetchResult(resultFuture, currentRetry + 1, rowKey, startNanos);
                     }
                 } else {
-                    if (cache != null && rowData != null) {
-                        cache.put(rowKey, rowData);
-                        resultFuture.complete(singletonList(rowData));
-                        return;
-                    }
-                    if (rowData != null) {
-                        resultFuture.complete(singletonList(rowData));
-                        return;
-                    }
-                    resultFuture.complete(emptyList());
+                    completeResult(resultFuture, rowKey, rowData, startNanos);
                 }
             });
         } catch (IOException ex) {
@@ -101,12 +112,40 @@ public class RedisAsyncTableFunction extends AsyncTableFunction<RowData> {
                 resultFuture.completeExceptionally(ex);
                 return;
             }
-            fetchResult(resultFuture, currentRetry + 1, rowKey);
+            fetchResult(resultFuture, currentRetry + 1, rowKey, startNanos);
         }
     }
 
+    // called by batcher under its lock: MGET for string, one pipeline of HGETALL/LRANGE for map/list
+    private void fetchBatchResult(List<RowData> rowKeys, BatchResultConsumer<RowData> resultConsumer) throws IOException {
+        converter.asyncBatchDeserialize(connection, rowKeys, resultConsumer);
+        connection.flushCommands();
+    }
+
+    private void completeResult(CompletableFuture<Collection<RowData>> resultFuture, RowData rowKey, RowData rowData, long startNanos) {
+        if (cache != null) {
+            cache.recordLoadTime(System.nanoTime() - startNanos);
+            if (rowData == null) {
+                cache.putAbsent(rowKey);
+            } else {
+                cache.put(rowKey, rowData);
+            }
+        }
+        if (rowData == null) {
+            resultFuture.complete(emptyList());
+            return;
+        }
+        resultFuture.complete(singletonList(rowData));
+    }
+
     @Override
     public void close() throws Exception {
+        if (cache != null) {
+            cache.close();
+        }
+        if (batcher != null) {
+            batcher.close();
+        }
         if (client != null) {
             client.shutdown();
         }
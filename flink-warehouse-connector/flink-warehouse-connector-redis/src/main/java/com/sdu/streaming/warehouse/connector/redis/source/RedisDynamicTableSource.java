@@ -7,17 +7,28 @@ import org.apache.flink.table.connector.source.AsyncTableFunctionProvider;
 import org.apache.flink.table.connector.source.DynamicTableSource;
 import org.apache.flink.table.connector.source.LookupTableSource;
 import org.apache.flink.table.connector.source.TableFunctionProvider;
+import org.apache.flink.table.connector.source.abilities.SupportsProjectionPushDown;
 import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.types.DataType;
 import org.apache.flink.util.Preconditions;
 
-public class RedisDynamicTableSource implements LookupTableSource {
+import java.util.Arrays;
+
+public class RedisDynamicTableSource implements LookupTableSource, SupportsProjectionPushDown {
 
     private final TableSchema physicalSchema;
     private final RedisReadOptions readOptions;
+    // 列裁剪: 输出字段在 physicalSchema 中的位置, null 表示输出全部字段
+    private int[] projectedFields;
 
     public RedisDynamicTableSource(TableSchema physicalSchema, RedisReadOptions readOptions) {
+        this(physicalSchema, readOptions, null);
+    }
+
+    private RedisDynamicTableSource(TableSchema physicalSchema, RedisReadOptions readOptions, int[] projectedFields) {
         this.physicalSchema = physicalSchema;
         this.readOptions = readOptions;
+        this.projectedFields = projectedFields;
     }
 
     @Override
@@ -28,20 +39,36 @@ public class RedisDynamicTableSource implements LookupTableSource {
             int[] innerKeyIndexes = context.getKeys()[i];
             Preconditions.checkArgument(
                     innerKeyIndexes.length == 1, "redis only support non-nested look up keys");
-            primaryKeyIndexes[i] = new int[] {i, innerKeyIndexes[0]};
+            // lookup key 索引基于裁剪后的输出行, 转换为 physicalSchema 中的位置
+            int keyIndex = projectedFields == null ? innerKeyIndexes[0] : projectedFields[innerKeyIndexes[0]];
+            primaryKeyIndexes[i] = new int[] {i, keyIndex};
         }
 
-        RedisRuntimeConverter<RowData> converter = new RedisRowDataRuntimeConverter(readOptions, primaryKeyIndexes);
+        RedisRuntimeConverter<RowData> converter = new RedisRowDataRuntimeConverter(readOptions, primaryKeyIndexes, projectedFields);
 
+        // 全量快照在内存中查找, 无需异步
+        if (readOptions.isPreload()) {
+            return TableFunctionProvider.of(new RedisSnapshotTableFunction(converter, readOptions));
+        }
         if (readOptions.isAsync()) {
             return AsyncTableFunctionProvider.of(new RedisAsyncTableFunction(readOptions, converter));
         }
         return TableFunctionProvider.of(new RedisTableFunction(converter, readOptions));
     }
 
+    @Override
+    public boolean supportsNestedProjection() {
+        return false;
+    }
+
+    @Override
+    public void applyProjection(int[][] projectedFields, DataType producedDataType) {
+        this.projectedFields = Arrays.stream(projectedFields).mapToInt(fields -> fields[0]).toArray();
+    }
+
     @Override
     public DynamicTableSource copy() {
-        return new RedisDynamicTableSource(physicalSchema, readOptions);
+        return new RedisDynamicTableSource(physicalSchema, readOptions, projectedFields);
     }
 
     @Override
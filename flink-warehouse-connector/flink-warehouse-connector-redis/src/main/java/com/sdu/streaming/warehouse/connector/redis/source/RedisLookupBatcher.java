@@ -0,0 +1,125 @@
+package com.sdu.streaming.warehouse.connector.redis.source;
+
+import com.sdu.streaming.warehouse.connector.redis.RedisRuntimeConverter.BatchResultConsumer;
+import org.apache.flink.util.concurrent.ExecutorThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+// 批量读: 攒够 maxBatchSize 个请求或首个请求等待 lingerMs 后整批交给 loader,
+// loader 在锁内执行, 保证同一连接上不同批次的命令不会交错.
+// loader 按请求下标回调结果, 失败的请求退避后在 executor 上重新入队, 不在 redis IO 线程上重试.
+public class RedisLookupBatcher<K, V> implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RedisLookupBatcher.class);
+
+    private final int maxBatchSize;
+    private final long lingerMs;
+    private final int maxRetryTimes;
+    private final long retryBackoffMs;
+    private final BatchLoader<K, V> loader;
+    private final ScheduledExecutorService executor;
+
+    private List<Request<K, V>> batch;
+    private ScheduledFuture<?> lingerFuture;
+
+    public RedisLookupBatcher(int maxBatchSize, long lingerMs, int maxRetryTimes, long retryBackoffMs, BatchLoader<K, V> loader) {
+        this.maxBatchSize = maxBatchSize;
+        this.lingerMs = lingerMs;
+        this.maxRetryTimes = maxRetryTimes;
+        this.retryBackoffMs = retryBackoffMs;
+        this.loader = loader;
+        this.executor = Executors.newSingleThreadScheduledExecutor(new ExecutorThreadFactory("redis-lookup-batcher"));
+        this.batch = new ArrayList<>(maxBatchSize);
+    }
+
+    // callback 接收 key 的结果, 重试耗尽后接收最后一次异常
+    public void add(K key, BiConsumer<V, Throwable> callback) {
+        enqueue(new Request<>(key, callback, 0));
+    }
+
+    private synchronized void enqueue(Request<K, V> request) {
+        batch.add(request);
+        if (batch.size() >= maxBatchSize) {
+            flush();
+            return;
+        }
+        if (lingerFuture == null) {
+            lingerFuture = executor.schedule(this::flush, lingerMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void flush() {
+        if (lingerFuture != null) {
+            lingerFuture.cancel(false);
+            lingerFuture = null;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        final List<Request<K, V>> requests = batch;
+        batch = new ArrayList<>(maxBatchSize);
+        List<K> keys = new ArrayList<>(requests.size());
+        requests.forEach(request -> keys.add(request.key));
+        try {
+            loader.load(keys, (index, value, throwable) -> complete(requests.get(index), value, throwable));
+        } catch (Exception e) {
+            LOG.error("failed got batch data from redis, batch size: {}", requests.size(), e);
+            requests.forEach(request -> complete(request, null, e));
+        }
+    }
+
+    private void complete(Request<K, V> request, V value, Throwable throwable) {
+        if (throwable == null) {
+            request.callback.accept(value, null);
+            return;
+        }
+        if (request.retry >= maxRetryTimes) {
+            request.callback.accept(null, throwable);
+            return;
+        }
+        LOG.warn("failed got data from redis, retry: {}", request.retry, throwable);
+        Request<K, V> retryRequest = new Request<>(request.key, request.callback, request.retry + 1);
+        try {
+            executor.schedule(() -> enqueue(retryRequest), retryBackoffMs << Math.min(request.retry, 10), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // 已关闭
+            request.callback.accept(null, throwable);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    public interface BatchLoader<K, V> {
+
+        // 发送整批请求, 第 i 个 key 的结果通过 consumer.accept(i, value, throwable) 回调
+        void load(List<K> keys, BatchResultConsumer<V> consumer) throws Exception;
+
+    }
+
+    private static final class Request<K, V> {
+
+        private final K key;
+        private final BiConsumer<V, Throwable> callback;
+        private final int retry;
+
+        Request(K key, BiConsumer<V, Throwable> callback, int retry) {
+            this.key = key;
+            this.callback = callback;
+            this.retry = retry;
+        }
+    }
+
+}
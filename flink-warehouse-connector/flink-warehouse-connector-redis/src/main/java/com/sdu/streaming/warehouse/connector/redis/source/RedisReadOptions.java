@@ -1,9 +1,26 @@
 package com.sdu.streaming.warehouse.connector.redis.source;
 
-import com.sdu.streaming.warehouse.connector.redis.entry.RedisDataType;
+import com.sdu.streaming.warehouse.connector.redis.cache.RedisCacheMode;
+import com.sdu.streaming.warehouse.connector.redis.cache.RedisCachePolicy;
 import com.sdu.streaming.warehouse.connector.redis.RedisOptions;
 import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.util.Preconditions;
 
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_READ_ASYNCABLE;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_READ_BATCH_LINGER;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_READ_BATCH_SIZE;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_READ_CACHEABLE;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_READ_CACHE_EXPIRE;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_READ_CACHE_EXPIRE_AFTER_ACCESS;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_READ_CACHE_MODE;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_READ_CACHE_POLICY;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_READ_CACHE_SIZE;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_READ_NEGATIVE_CACHE_EXPIRE;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_READ_NEGATIVE_CACHE_SIZE;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_READ_PRELOAD;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_READ_PRELOAD_INTERVAL;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_READ_PRELOAD_SCAN_COUNT;
+import static com.sdu.streaming.warehouse.connector.redis.RedisConfigOptions.REDIS_READ_RETRIES;
 
 public class RedisReadOptions extends RedisOptions {
 
@@ -15,15 +32,50 @@ public class RedisReadOptions extends RedisOptions {
     private final boolean cacheable;
     private final long cacheMaxSize;
     private final long cacheExpireMs;
+    private final long cacheMaxBytes;
+    private final RedisCacheMode cacheMode;
+    private final RedisCachePolicy cachePolicy;
+    private final boolean cacheExpireAfterAccess;
+    private final long negativeCacheMaxSize;
+    private final long negativeCacheExpireMs;
+    // 批量读
+    private final int batchSize;
+    private final long batchLingerMs;
+    // 全量预加载
+    private final boolean preload;
+    private final long preloadIntervalMs;
+    private final int preloadScanCount;
 
-    public RedisReadOptions(RowType rowType, String keyPrefix, RedisDataType redisDataType, String clusterAddress, boolean async, int maxRetryTimes, boolean cacheable, long cacheMaxSize, long cacheExpireMs) {
-        super(rowType, keyPrefix, redisDataType);
-        this.clusterAddress = clusterAddress;
-        this.async = async;
-        this.maxRetryTimes = maxRetryTimes;
-        this.cacheable = cacheable;
-        this.cacheMaxSize = cacheMaxSize;
-        this.cacheExpireMs = cacheExpireMs;
+    private RedisReadOptions(Builder builder) {
+        super(builder);
+        this.clusterAddress = builder.clusterAddress;
+        this.async = builder.async;
+        this.maxRetryTimes = builder.maxRetryTimes;
+        this.cacheable = builder.cacheable;
+        this.cacheMaxSize = builder.cacheMaxSize;
+        this.cacheExpireMs = builder.cacheExpireMs;
+        this.cacheMaxBytes = builder.cacheMaxBytes;
+        this.cacheMode = builder.cacheMode;
+        this.cachePolicy = builder.cachePolicy;
+        this.cacheExpireAfterAccess = builder.cacheExpireAfterAccess;
+        this.negativeCacheMaxSize = builder.negativeCacheMaxSize;
+        this.negativeCacheExpireMs = builder.negativeCacheExpireMs;
+        this.batchSize = builder.batchSize;
+        this.batchLingerMs = builder.batchLingerMs;
+        this.preload = builder.preload;
+        this.preloadIntervalMs = builder.preloadIntervalMs;
+        this.preloadScanCount = builder.preloadScanCount;
+        // 堆外缓存按 segment 写入顺序淘汰(命中将被淘汰的数据时重新追加, 近似 LRU), 按写入时间过期
+        Preconditions.checkArgument(
+                cacheMode != RedisCacheMode.OFF_HEAP || cachePolicy == RedisCachePolicy.LRU,
+                "redis OFF_HEAP cache doesn't support cache policy %s", cachePolicy);
+        Preconditions.checkArgument(
+                cacheMode != RedisCacheMode.OFF_HEAP || !cacheExpireAfterAccess,
+                "redis OFF_HEAP cache doesn't support expire after access");
+    }
+
+    public static Builder builder(RowType rowType) {
+        return new Builder(rowType);
     }
 
     public String getClusterAddress() {
@@ -50,8 +102,167 @@ public class RedisReadOptions extends RedisOptions {
         return cacheExpireMs;
     }
 
+    public long getCacheMaxBytes() {
+        return cacheMaxBytes;
+    }
+
+    public RedisCacheMode getCacheMode() {
+        return cacheMode;
+    }
+
+    public RedisCachePolicy getCachePolicy() {
+        return cachePolicy;
+    }
+
+    public boolean isCacheExpireAfterAccess() {
+        return cacheExpireAfterAccess;
+    }
+
+    public long getNegativeCacheMaxSize() {
+        return negativeCacheMaxSize;
+    }
+
+    public long getNegativeCacheExpireMs() {
+        return negativeCacheExpireMs;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getBatchLingerMs() {
+        return batchLingerMs;
+    }
+
+    public boolean isPreload() {
+        return preload;
+    }
+
+    public long getPreloadIntervalMs() {
+        return preloadIntervalMs;
+    }
+
+    public int getPreloadScanCount() {
+        return preloadScanCount;
+    }
+
     @Override
     public long expireTime() {
         throw new UnsupportedOperationException("");
     }
+
+    public static class Builder extends RedisOptions.Builder<Builder> {
+
+        private String clusterAddress = null;
+        private boolean async = REDIS_READ_ASYNCABLE.defaultValue();
+        private int maxRetryTimes = REDIS_READ_RETRIES.defaultValue();
+        private boolean cacheable = REDIS_READ_CACHEABLE.defaultValue();
+        private long cacheMaxSize = REDIS_READ_CACHE_SIZE.defaultValue();
+        private long cacheExpireMs = REDIS_READ_CACHE_EXPIRE.defaultValue();
+        // 小于等于 0 表示按条数限制
+        private long cacheMaxBytes = -1L;
+        private RedisCacheMode cacheMode = REDIS_READ_CACHE_MODE.defaultValue();
+        private RedisCachePolicy cachePolicy = REDIS_READ_CACHE_POLICY.defaultValue();
+        private boolean cacheExpireAfterAccess = REDIS_READ_CACHE_EXPIRE_AFTER_ACCESS.defaultValue();
+        private long negativeCacheMaxSize = REDIS_READ_NEGATIVE_CACHE_SIZE.defaultValue();
+        private long negativeCacheExpireMs = REDIS_READ_NEGATIVE_CACHE_EXPIRE.defaultValue();
+        private int batchSize = REDIS_READ_BATCH_SIZE.defaultValue();
+        private long batchLingerMs = REDIS_READ_BATCH_LINGER.defaultValue();
+        private boolean preload = REDIS_READ_PRELOAD.defaultValue();
+        private long preloadIntervalMs = REDIS_READ_PRELOAD_INTERVAL.defaultValue();
+        private int preloadScanCount = REDIS_READ_PRELOAD_SCAN_COUNT.defaultValue();
+
+        private Builder(RowType rowType) {
+            super(rowType);
+        }
+
+        public Builder clusterAddress(String clusterAddress) {
+            this.clusterAddress = clusterAddress;
+            return this;
+        }
+
+        public Builder async(boolean async) {
+            this.async = async;
+            return this;
+        }
+
+        public Builder maxRetryTimes(int maxRetryTimes) {
+            this.maxRetryTimes = maxRetryTimes;
+            return this;
+        }
+
+        public Builder cacheable(boolean cacheable) {
+            this.cacheable = cacheable;
+            return this;
+        }
+
+        public Builder cacheMaxSize(long cacheMaxSize) {
+            this.cacheMaxSize = cacheMaxSize;
+            return this;
+        }
+
+        public Builder cacheExpireMs(long cacheExpireMs) {
+            this.cacheExpireMs = cacheExpireMs;
+            return this;
+        }
+
+        public Builder cacheMaxBytes(long cacheMaxBytes) {
+            this.cacheMaxBytes = cacheMaxBytes;
+            return this;
+        }
+
+        public Builder cacheMode(RedisCacheMode cacheMode) {
+            this.cacheMode = cacheMode;
+            return this;
+        }
+
+        public Builder cachePolicy(RedisCachePolicy cachePolicy) {
+            this.cachePolicy = cachePolicy;
+            return this;
+        }
+
+        public Builder cacheExpireAfterAccess(boolean cacheExpireAfterAccess) {
+            this.cacheExpireAfterAccess = cacheExpireAfterAccess;
+            return this;
+        }
+
+        public Builder negativeCacheMaxSize(long negativeCacheMaxSize) {
+            this.negativeCacheMaxSize = negativeCacheMaxSize;
+            return this;
+        }
+
+        public Builder negativeCacheExpireMs(long negativeCacheExpireMs) {
+            this.negativeCacheExpireMs = negativeCacheExpireMs;
+            return this;
+        }
+
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public Builder batchLingerMs(long batchLingerMs) {
+            this.batchLingerMs = batchLingerMs;
+            return this;
+        }
+
+        public Builder preload(boolean preload) {
+            this.preload = preload;
+            return this;
+        }
+
+        public Builder preloadIntervalMs(long preloadIntervalMs) {
+            this.preloadIntervalMs = preloadIntervalMs;
+            return this;
+        }
+
+        public Builder preloadScanCount(int preloadScanCount) {
+            this.preloadScanCount = preloadScanCount;
+            return this;
+        }
+
+        public RedisReadOptions build() {
+            return new RedisReadOptions(this);
+        }
+    }
 }
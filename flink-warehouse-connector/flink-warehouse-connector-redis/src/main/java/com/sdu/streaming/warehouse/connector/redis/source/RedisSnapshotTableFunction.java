@@ -0,0 +1,113 @@
+package com.sdu.streaming.warehouse.connector.redis.source;
+
+import com.sdu.streaming.warehouse.connector.redis.RedisRuntimeConverter;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.functions.FunctionContext;
+import org.apache.flink.table.functions.TableFunction;
+import org.apache.flink.util.concurrent.ExecutorThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// 全量快照: open 时 SCAN key prefix 下所有数据构建内存索引, 按周期重新加载并整体替换,
+// 查找时不访问 redis. 刷新失败保留旧快照.
+public class RedisSnapshotTableFunction extends TableFunction<RowData> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RedisSnapshotTableFunction.class);
+
+    private final RedisReadOptions readOptions;
+
+    private RedisRuntimeConverter<RowData> converter;
+
+    private transient RedisClient client;
+    private transient StatefulRedisConnection<byte[], byte[]> connection;
+    private transient ScheduledExecutorService executor;
+
+    // redis key -> row
+    private transient volatile Map<ByteBuffer, RowData> snapshot;
+    private transient volatile long lastLoadTimeMs;
+
+    public RedisSnapshotTableFunction(RedisRuntimeConverter<RowData> converter, RedisReadOptions readOptions) {
+        this.converter = converter;
+        this.readOptions = readOptions;
+    }
+
+    @Override
+    public void open(FunctionContext context) throws Exception {
+        converter.open();
+        connection = connect();
+
+        loadSnapshot();
+
+        MetricGroup snapshotGroup = context.getMetricGroup().addGroup("redisSnapshot");
+        snapshotGroup.gauge("size", (Gauge<Integer>) () -> snapshot.size());
+        snapshotGroup.gauge("lastLoadTimeMs", (Gauge<Long>) () -> lastLoadTimeMs);
+
+        if (readOptions.getPreloadIntervalMs() > 0) {
+            executor = Executors.newSingleThreadScheduledExecutor(new ExecutorThreadFactory("redis-snapshot-loader"));
+            executor.scheduleWithFixedDelay(
+                    this::refreshSnapshot,
+                    readOptions.getPreloadIntervalMs(),
+                    readOptions.getPreloadIntervalMs(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    StatefulRedisConnection<byte[], byte[]> connect() {
+        client = RedisClient.create(readOptions.getClusterAddress());
+        StatefulRedisConnection<byte[], byte[]> connection = client.connect(new ByteArrayCodec());
+        connection.setAutoFlushCommands(true);
+        return connection;
+    }
+
+    void refreshSnapshot() {
+        try {
+            loadSnapshot();
+        } catch (Exception e) {
+            LOG.error("failed refresh redis snapshot, keep previous one, size: {}", snapshot.size(), e);
+        }
+    }
+
+    private void loadSnapshot() throws IOException {
+        long startMs = System.currentTimeMillis();
+        Map<ByteBuffer, RowData> newSnapshot = new HashMap<>();
+        converter.scan(connection, readOptions.getPreloadScanCount(), (key, row) -> newSnapshot.put(ByteBuffer.wrap(key), row));
+        snapshot = newSnapshot;
+        lastLoadTimeMs = System.currentTimeMillis() - startMs;
+        LOG.info("loaded redis snapshot, size: {}, cost: {} ms", newSnapshot.size(), lastLoadTimeMs);
+    }
+
+    public void eval(Object ... keys) throws IOException {
+        byte[] redisKey = converter.serializeLookupKey(GenericRowData.of(keys));
+        RowData rowData = snapshot.get(ByteBuffer.wrap(redisKey));
+        if (rowData != null) {
+            collect(rowData);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (client != null) {
+            client.shutdown();
+        }
+        if (connection != null) {
+            connection.close();
+        }
+    }
+}
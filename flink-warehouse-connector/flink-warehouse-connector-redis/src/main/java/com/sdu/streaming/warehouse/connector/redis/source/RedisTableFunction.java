@@ -1,11 +1,10 @@
 package com.sdu.streaming.warehouse.connector.redis.source;
 
 import com.sdu.streaming.warehouse.connector.redis.RedisRuntimeConverter;
+import com.sdu.streaming.warehouse.connector.redis.cache.RedisLookupCache;
 import io.lettuce.core.RedisClient;
 import io.lettuce.core.api.StatefulRedisConnection;
 import io.lettuce.core.codec.ByteArrayCodec;
-import org.apache.flink.shaded.curator5.com.google.common.cache.Cache;
-import org.apache.flink.shaded.curator5.com.google.common.cache.CacheBuilder;
 import org.apache.flink.table.data.GenericRowData;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.functions.FunctionContext;
@@ -13,7 +12,7 @@ import org.apache.flink.table.functions.TableFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.TimeUnit;
+import static com.sdu.streaming.warehouse.connector.redis.cache.RedisLookupCache.createLookupCache;
 
 public class RedisTableFunction extends TableFunction<RowData> {
 
@@ -25,7 +24,7 @@ public class RedisTableFunction extends TableFunction<RowData> {
 
     private transient RedisClient client;
     private transient StatefulRedisConnection<byte[], byte[]> connection;
-    private transient Cache<RowData, RowData> cache;
+    private transient RedisLookupCache cache;
 
     public RedisTableFunction(RedisRuntimeConverter<RowData> converter, RedisReadOptions readOptions) {
         this.converter = converter;
@@ -38,11 +37,7 @@ public class RedisTableFunction extends TableFunction<RowData> {
         client = RedisClient.create(readOptions.getClusterAddress());
         connection = client.connect(new ByteArrayCodec());
         connection.setAutoFlushCommands(true);
-        if (readOptions.isCacheable() && readOptions.getCacheMaxSize() != -1 && readOptions.getCacheExpireMs() != -1) {
-            cache = CacheBuilder.newBuilder()
-                    .expireAfterWrite(readOptions.getCacheExpireMs(), TimeUnit.MILLISECONDS)
-                    .build();
-        }
+        cache = createLookupCache(readOptions, context.getMetricGroup(), converter);
     }
 
     public void eval(Object ... keys) {
@@ -50,22 +45,28 @@ public class RedisTableFunction extends TableFunction<RowData> {
         if (cache != null) {
             RowData cacheRow = cache.getIfPresent(keyRow);
             if (cacheRow != null) {
-                collect(cacheRow);
+                if (cacheRow.getArity() != 0) {
+                    collect(cacheRow);
+                }
                 return;
             }
         }
         for (int retry = 0; retry <= readOptions.getMaxRetryTimes(); ++retry) {
             try {
+                long startNanos = System.nanoTime();
                 RowData rowData = converter.deserialize(connection, keyRow);
-                if (cache == null && rowData != null) {
-                    collect(rowData);
-                    break;
+                if (cache != null) {
+                    cache.recordLoadTime(System.nanoTime() - startNanos);
+                    if (rowData == null) {
+                        cache.putAbsent(keyRow);
+                    } else {
+                        cache.put(keyRow, rowData);
+                    }
                 }
-                if (cache != null && rowData != null) {
-                    cache.put(keyRow, rowData);
+                if (rowData != null) {
                     collect(rowData);
-                    break;
                 }
+                break;
             } catch (Exception e) {
                 LOG.error("failed got data from redis, retry times: {}", retry, e);
                 if (retry >= readOptions.getMaxRetryTimes()) {
@@ -83,6 +84,9 @@ public class RedisTableFunction extends TableFunction<RowData> {
 
     @Override
     public void close() throws Exception {
+        if (cache != null) {
+            cache.close();
+        }
         if (client != null) {
             client.shutdown();
         }
@@ -0,0 +1,122 @@
+package com.sdu.streaming.warehouse.connector.redis;
+
+import com.sdu.streaming.warehouse.connector.redis.entry.RedisKeyFormat;
+import com.sdu.streaming.warehouse.deserializer.NoahArkDataSerializer;
+import com.sdu.streaming.warehouse.utils.ByteArrayDataOutput;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.types.logical.BigIntType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.VarCharType;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.sdu.streaming.warehouse.deserializer.NoahArkDataSerializer.createDataSerializer;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RedisKeyEncoderTest {
+
+    private static final LogicalType[] KEY_TYPES = new LogicalType[] {
+            new BigIntType(false),
+            new VarCharType(false, VarCharType.MAX_LENGTH)
+    };
+
+    private static RedisKeyEncoder keyEncoder(RedisKeyFormat keyFormat, String prefix) {
+        return keyEncoder(keyFormat, prefix, KEY_TYPES);
+    }
+
+    private static RedisKeyEncoder keyEncoder(RedisKeyFormat keyFormat, String prefix, LogicalType[] keyTypes) {
+        RowData.FieldGetter[] getters = new RowData.FieldGetter[keyTypes.length];
+        NoahArkDataSerializer[] serializers = new NoahArkDataSerializer[keyTypes.length];
+        for (int i = 0; i < keyTypes.length; ++i) {
+            getters[i] = RowData.createFieldGetter(keyTypes[i], i);
+            serializers[i] = createDataSerializer(keyTypes[i]);
+        }
+        return new RedisKeyEncoder(keyFormat, prefix, getters, serializers);
+    }
+
+    @Test
+    public void testBinaryKey() throws Exception {
+        RowData key = GenericRowData.of(7L, StringData.fromString("hz"));
+        // [prefix 长度 + prefix] + 主键字段
+        ByteArrayDataOutput expected = new ByteArrayDataOutput();
+        expected.writeInt(4);
+        expected.write("user".getBytes(StandardCharsets.UTF_8));
+        createDataSerializer(KEY_TYPES[0]).serializer(7L, expected);
+        createDataSerializer(KEY_TYPES[1]).serializer(StringData.fromString("hz"), expected);
+
+        RedisKeyEncoder encoder = keyEncoder(RedisKeyFormat.BINARY, "user");
+        assertArrayEquals(expected.toByteArray(), encoder.encode(key));
+        // 复用缓冲区, 多次编码结果一致
+        assertArrayEquals(expected.toByteArray(), encoder.encode(key));
+        assertArrayEquals(new byte[] {0, 0, 0, 4, 'u', 's', 'e', 'r', '*'}, encoder.scanPattern());
+    }
+
+    @Test
+    public void testReadableKey() throws Exception {
+        RowData key = GenericRowData.of(7L, StringData.fromString("hz"));
+        assertArrayEquals(bytes("user:7:hz"), keyEncoder(RedisKeyFormat.READABLE, "user").encode(key));
+        assertArrayEquals(bytes("7:hz"), keyEncoder(RedisKeyFormat.READABLE, "").encode(key));
+        assertArrayEquals(bytes("user\\*:*"), keyEncoder(RedisKeyFormat.READABLE, "user*").scanPattern());
+        assertArrayEquals(bytes("*"), keyEncoder(RedisKeyFormat.READABLE, "").scanPattern());
+    }
+
+    @Test
+    public void testReadableKeyEscape() throws Exception {
+        RedisKeyEncoder encoder = keyEncoder(
+                RedisKeyFormat.READABLE,
+                "user",
+                new LogicalType[] {new VarCharType(VarCharType.MAX_LENGTH), new VarCharType(VarCharType.MAX_LENGTH)});
+        assertArrayEquals(bytes("user:a\\:b:c"), encoder.encode(key("a:b", "c")));
+        assertArrayEquals(bytes("user:a\\\\:b"), encoder.encode(key("a\\", "b")));
+        assertArrayEquals(bytes("user:\\N:"), encoder.encode(key(null, "")));
+        // 多字节字符不受影响
+        assertArrayEquals(bytes("user:杭州\\:西湖:x"), encoder.encode(key("杭州:西湖", "x")));
+    }
+
+    @Test
+    public void testReadableKeyCollision() throws Exception {
+        RedisKeyEncoder encoder = keyEncoder(
+                RedisKeyFormat.READABLE,
+                "user",
+                new LogicalType[] {new VarCharType(VarCharType.MAX_LENGTH), new VarCharType(VarCharType.MAX_LENGTH)});
+        // 未转义时两两冲突: a:b:c, a\:b, :x, \N:x ...
+        String[][] keys = new String[][] {
+                {"a:b", "c"},
+                {"a", "b:c"},
+                {"a\\", "b"},
+                {"a", "\\b"},
+                {"a\\:", "b"},
+                {"a", ":b"},
+                {null, "x"},
+                {"", "x"},
+                {"\\N", "x"},
+                {"N", "x"},
+                {null, null},
+                {"", ""},
+                {":", ""},
+                {"", ":"}
+        };
+        Set<String> encoded = new HashSet<>();
+        for (String[] key : keys) {
+            String redisKey = new String(encoder.encode(key(key[0], key[1])), StandardCharsets.UTF_8);
+            assertTrue("duplicated redis key: " + redisKey, encoded.add(redisKey));
+        }
+    }
+
+    private static RowData key(String k1, String k2) {
+        return GenericRowData.of(
+                k1 == null ? null : StringData.fromString(k1),
+                k2 == null ? null : StringData.fromString(k2));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,557 @@
+package com.sdu.streaming.warehouse.connector.redis;
+
+import com.sdu.streaming.warehouse.connector.redis.entry.RedisValueCompression;
+import com.sdu.streaming.warehouse.connector.redis.source.RedisReadOptions;
+import com.sdu.streaming.warehouse.deserializer.NoahArkDataSerializer;
+import com.sdu.streaming.warehouse.deserializer.NoahArkEncoding;
+import com.sdu.streaming.warehouse.deserializer.NoahArkProjection;
+import com.sdu.streaming.warehouse.deserializer.NoahArkRowCodec;
+import com.sdu.streaming.warehouse.deserializer.NoahArkRowData;
+import com.sdu.streaming.warehouse.utils.ByteArrayDataInput;
+import io.lettuce.core.KeyValue;
+import com.sdu.streaming.warehouse.utils.ByteArrayDataOutput;
+import org.apache.flink.table.data.ArrayData;
+import org.apache.flink.table.data.GenericArrayData;
+import org.apache.flink.table.data.GenericMapData;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.MapData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.data.binary.BinaryArrayData;
+import org.apache.flink.table.types.logical.ArrayType;
+import org.apache.flink.table.types.logical.BigIntType;
+import org.apache.flink.table.types.logical.DoubleType;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.MapType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.VarCharType;
+import org.apache.flink.types.RowKind;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.sdu.streaming.warehouse.connector.redis.RedisListTypeSerializer.REDIS_LIST_DESERIALIZER;
+import static com.sdu.streaming.warehouse.connector.redis.RedisMapTypeSerializer.REDIS_MAP_DESERIALIZER;
+import static com.sdu.streaming.warehouse.connector.redis.RedisStringTypeSerializer.REDIS_STRING_DESERIALIZER;
+import static com.sdu.streaming.warehouse.connector.redis.RedisValueCompressor.NONE;
+import static com.sdu.streaming.warehouse.deserializer.NoahArkDataDeserializer.createDataDeserializer;
+import static com.sdu.streaming.warehouse.deserializer.NoahArkDataSerializer.createDataSerializer;
+import static com.sdu.streaming.warehouse.deserializer.NoahArkRowCodec.createRowCodec;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RedisTypeSerializerTest {
+
+    private static final RowType ROW_TYPE = RowType.of(
+            new LogicalType[] {
+                    new BigIntType(false),
+                    new VarCharType(false, VarCharType.MAX_LENGTH),
+                    new DoubleType(false),
+                    new ArrayType(false, new IntType(false))
+            },
+            new String[] {"id", "name", "score", "tags"});
+
+    private String[] fieldNames;
+    private NoahArkRowCodec codec;
+
+    @Before
+    public void setup() {
+        fieldNames = ROW_TYPE.getFieldNames().toArray(new String[0]);
+        codec = createRowCodec(ROW_TYPE);
+    }
+
+    private static RowData row(long id) {
+        return GenericRowData.of(id, StringData.fromString("name-" + id), id * 1.5d, new GenericArrayData(new int[] {1, 2, 3}));
+    }
+
+    private static void assertRowEquals(RowData expected, RowData actual) {
+        assertEquals(expected.getLong(0), actual.getLong(0));
+        assertEquals(expected.getString(1), actual.getString(1));
+        assertEquals(expected.getDouble(2), actual.getDouble(2), 0.0d);
+        assertEquals(expected.getArray(3).size(), actual.getArray(3).size());
+        for (int i = 0; i < expected.getArray(3).size(); ++i) {
+            assertEquals(expected.getArray(3).getInt(i), actual.getArray(3).getInt(i));
+        }
+    }
+
+    @Test
+    public void testStringRoundTrip() throws Exception {
+        for (long id = 0; id < 3; ++id) {
+            byte[] bytes = REDIS_STRING_DESERIALIZER.serializeValue(row(id), fieldNames, codec, NoahArkEncoding.FIXED, NONE);
+            assertRowEquals(row(id), REDIS_STRING_DESERIALIZER.deserializeValue(bytes, fieldNames, codec, NoahArkEncoding.FIXED, NONE));
+        }
+    }
+
+    @Test
+    public void testListRoundTrip() throws Exception {
+        byte[][] bytes = REDIS_LIST_DESERIALIZER.serializeValue(row(7), fieldNames, codec, NoahArkEncoding.FIXED, NONE);
+        assertRowEquals(row(7), REDIS_LIST_DESERIALIZER.deserializeValue(bytes, fieldNames, codec, NoahArkEncoding.FIXED, NONE));
+    }
+
+    @Test
+    public void testMapRoundTrip() throws Exception {
+        Map<byte[], byte[]> values = REDIS_MAP_DESERIALIZER.serializeValue(row(9), fieldNames, codec, NoahArkEncoding.FIXED, NONE);
+        // redis 返回新的 byte[] key, 且字段顺序不保证与 schema 一致
+        Map<byte[], byte[]> response = new LinkedHashMap<>();
+        values.entrySet().stream()
+                .sorted((a, b) -> new String(b.getKey()).compareTo(new String(a.getKey())))
+                .forEach(entry -> response.put(Arrays.copyOf(entry.getKey(), entry.getKey().length), entry.getValue()));
+        assertRowEquals(row(9), REDIS_MAP_DESERIALIZER.deserializeValue(response, fieldNames, codec, NoahArkEncoding.FIXED, NONE));
+    }
+
+    @Test
+    public void testCodecLayout() throws Exception {
+        // 生成的 codec 与逐字段序列化布局一致
+        for (NoahArkEncoding encoding : NoahArkEncoding.values()) {
+            ByteArrayDataOutput expected = new ByteArrayDataOutput(64);
+            for (int i = 0; i < ROW_TYPE.getFieldCount(); ++i) {
+                NoahArkDataSerializer serializer = createDataSerializer(ROW_TYPE.getTypeAt(i), encoding);
+                serializer.serializer(RowData.createFieldGetter(ROW_TYPE.getTypeAt(i), i).getFieldOrNull(row(3)), expected);
+            }
+            ByteArrayDataOutput actual = new ByteArrayDataOutput(64);
+            createRowCodec(ROW_TYPE, encoding).serialize(row(3), actual);
+            assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+        }
+    }
+
+    @Test
+    public void testGeneratedRowData() throws Exception {
+        RowType rowType = RowType.of(
+                new LogicalType[] {new BigIntType(false), new VarCharType(VarCharType.MAX_LENGTH), new DoubleType(), new IntType()},
+                new String[] {"id", "name", "score", "level"});
+        String[] names = rowType.getFieldNames().toArray(new String[0]);
+        RowData row = GenericRowData.of(7L, null, 2.5d, 3);
+        NoahArkEncoding encoding = NoahArkEncoding.COMPACT;
+        NoahArkRowCodec rowCodec = createRowCodec(rowType, encoding);
+        byte[] bytes = REDIS_STRING_DESERIALIZER.serializeValue(row, names, rowCodec, encoding, NONE);
+
+        // 字段按类型存储, getter 不装箱
+        RowData actual = REDIS_STRING_DESERIALIZER.deserializeValue(bytes, names, rowCodec, encoding, NONE);
+        assertTrue(actual instanceof NoahArkRowData);
+        assertEquals(4, actual.getArity());
+        assertEquals(7L, actual.getLong(0));
+        assertTrue(actual.isNullAt(1));
+        assertEquals(2.5d, actual.getDouble(2), 0.0d);
+        assertEquals(3, actual.getInt(3));
+        RowData another = REDIS_STRING_DESERIALIZER.deserializeValue(bytes, names, rowCodec, encoding, NONE);
+        assertEquals(actual, another);
+        assertEquals(actual.hashCode(), another.hashCode());
+        assertEquals("+I(7,null,2.5,3)", actual.toString());
+        try {
+            actual.getInt(0);
+            fail("BIGINT field read as INT");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+
+        // 列裁剪: 输出位置映射到完整行位置
+        RowData projected = REDIS_STRING_DESERIALIZER.deserializeValue(bytes, rowCodec, NoahArkProjection.of(new int[] {3, 1, 0}, 4), encoding, NONE);
+        assertEquals(3, projected.getArity());
+        assertEquals(3, projected.getInt(0));
+        assertTrue(projected.isNullAt(1));
+        assertEquals(7L, projected.getLong(2));
+
+        // 逐字段读取仍返回装箱值
+        ByteArrayDataOutput out = new ByteArrayDataOutput(16);
+        rowCodec.serializeField(0, row, out);
+        assertEquals(7L, rowCodec.deserializeField(0, new ByteArrayDataInput(out.toByteArray())));
+    }
+
+    @Test
+    public void testPrimitiveArray() throws Exception {
+        ArrayType vectorType = new ArrayType(new DoubleType());
+        double[] vector = new double[] {0.1d, -2.5d, 3.75d};
+        for (NoahArkEncoding encoding : NoahArkEncoding.values()) {
+            NoahArkDataSerializer serializer = createDataSerializer(vectorType, encoding);
+            // 整块写入与逐元素写入一致
+            ByteArrayDataOutput bulk = new ByteArrayDataOutput(64);
+            serializer.serializer(new GenericArrayData(vector), bulk);
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            serializer.serializer(new GenericArrayData(new Object[] {0.1d, -2.5d, 3.75d}), new DataOutputStream(stream));
+            assertArrayEquals(stream.toByteArray(), bulk.toByteArray());
+
+            ArrayData actual = (ArrayData) createDataDeserializer(vectorType, encoding).deserializer(new ByteArrayDataInput(bulk.toByteArray()));
+            assertTrue(actual instanceof GenericArrayData && ((GenericArrayData) actual).isPrimitiveArray());
+            assertArrayEquals(vector, ((GenericArrayData) actual).toDoubleArray(), 0.0d);
+        }
+    }
+
+    @Test
+    public void testCompactRoundTrip() throws Exception {
+        NoahArkRowCodec compactCodec = createRowCodec(ROW_TYPE, NoahArkEncoding.COMPACT);
+        byte[] fixed = REDIS_STRING_DESERIALIZER.serializeValue(row(7), fieldNames, codec, NoahArkEncoding.FIXED, NONE);
+        byte[] compact = REDIS_STRING_DESERIALIZER.serializeValue(row(7), fieldNames, compactCodec, NoahArkEncoding.COMPACT, NONE);
+        assertTrue(compact.length < fixed.length);
+        assertRowEquals(row(7), REDIS_STRING_DESERIALIZER.deserializeValue(compact, fieldNames, compactCodec, NoahArkEncoding.COMPACT, NONE));
+
+        Map<byte[], byte[]> values = REDIS_MAP_DESERIALIZER.serializeValue(row(-9), fieldNames, compactCodec, NoahArkEncoding.COMPACT, NONE);
+        assertRowEquals(row(-9), REDIS_MAP_DESERIALIZER.deserializeValue(values, fieldNames, compactCodec, NoahArkEncoding.COMPACT, NONE));
+    }
+
+    @Test
+    public void testNullableRoundTrip() throws Exception {
+        RowType nestedType = RowType.of(
+                new LogicalType[] {new IntType(), new VarCharType(VarCharType.MAX_LENGTH)},
+                new String[] {"code", "desc"});
+        RowType rowType = RowType.of(
+                new LogicalType[] {
+                        new BigIntType(false),
+                        new VarCharType(VarCharType.MAX_LENGTH),
+                        new DoubleType(),
+                        new ArrayType(new IntType()),
+                        nestedType
+                },
+                new String[] {"id", "name", "score", "tags", "ext"});
+        String[] names = rowType.getFieldNames().toArray(new String[0]);
+        // FIXED 无 null bitmap, 见 testFixedRejectsNull
+        for (NoahArkEncoding encoding : new NoahArkEncoding[] {NoahArkEncoding.COMPACT, NoahArkEncoding.TAGGED}) {
+            NoahArkRowCodec nullableCodec = createRowCodec(rowType, encoding);
+            // null 位于中间字段, 嵌套 array / row 内同样含 null
+            RowData row = GenericRowData.of(
+                    1L,
+                    null,
+                    2.5d,
+                    new GenericArrayData(new Integer[] {1, null, 3}),
+                    GenericRowData.of(null, StringData.fromString("ok")));
+
+            byte[] bytes = REDIS_STRING_DESERIALIZER.serializeValue(row, names, nullableCodec, encoding, NONE);
+            assertNullableRowEquals(REDIS_STRING_DESERIALIZER.deserializeValue(bytes, names, nullableCodec, encoding, NONE));
+
+            byte[][] listBytes = REDIS_LIST_DESERIALIZER.serializeValue(row, names, nullableCodec, encoding, NONE);
+            assertNullableRowEquals(REDIS_LIST_DESERIALIZER.deserializeValue(listBytes, names, nullableCodec, encoding, NONE));
+
+            Map<byte[], byte[]> mapBytes = REDIS_MAP_DESERIALIZER.serializeValue(row, names, nullableCodec, encoding, NONE);
+            assertNullableRowEquals(REDIS_MAP_DESERIALIZER.deserializeValue(mapBytes, names, nullableCodec, encoding, NONE));
+        }
+    }
+
+    @Test
+    public void testFixedBaselineLayout() throws Exception {
+        // 字段均为 nullable, 值均非 null: FIXED 与存量数据布局一致, 不写 null bitmap
+        RowType nestedType = RowType.of(
+                new LogicalType[] {new IntType(), new VarCharType(VarCharType.MAX_LENGTH)},
+                new String[] {"code", "desc"});
+        RowType rowType = RowType.of(
+                new LogicalType[] {
+                        new BigIntType(),
+                        new VarCharType(VarCharType.MAX_LENGTH),
+                        new DoubleType(),
+                        new ArrayType(new IntType()),
+                        nestedType,
+                        new MapType(new VarCharType(VarCharType.MAX_LENGTH), new BigIntType())
+                },
+                new String[] {"id", "name", "score", "tags", "ext", "attrs"});
+        String[] names = rowType.getFieldNames().toArray(new String[0]);
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        DataOutputStream baseline = new DataOutputStream(stream);
+        baseline.writeLong(7L);
+        baseline.writeInt(2);
+        baseline.writeBytes("hz");
+        baseline.writeDouble(2.5d);
+        // array: size + 元素
+        baseline.writeInt(2);
+        baseline.writeInt(1);
+        baseline.writeInt(3);
+        // row: 字段数 + RowKind + 字段
+        baseline.writeInt(2);
+        baseline.writeByte(RowKind.INSERT.toByteValue());
+        baseline.writeInt(5);
+        baseline.writeInt(2);
+        baseline.writeBytes("ok");
+        // map: key 数组 + value 数组
+        baseline.writeInt(1);
+        baseline.writeInt(1);
+        baseline.writeBytes("k");
+        baseline.writeInt(1);
+        baseline.writeLong(9L);
+        byte[] bytes = stream.toByteArray();
+
+        NoahArkRowCodec fixedCodec = createRowCodec(rowType, NoahArkEncoding.FIXED);
+        RowData actual = REDIS_STRING_DESERIALIZER.deserializeValue(bytes, names, fixedCodec, NoahArkEncoding.FIXED, NONE);
+        assertEquals(7L, actual.getLong(0));
+        assertEquals(StringData.fromString("hz"), actual.getString(1));
+        assertEquals(2.5d, actual.getDouble(2), 0.0d);
+        assertEquals(2, actual.getArray(3).size());
+        assertEquals(3, actual.getArray(3).getInt(1));
+        assertEquals(5, actual.getRow(4, 2).getInt(0));
+        assertEquals(StringData.fromString("ok"), actual.getRow(4, 2).getString(1));
+        MapData attrs = actual.getMap(5);
+        assertEquals(1, attrs.size());
+        assertEquals(StringData.fromString("k"), attrs.keyArray().getString(0));
+        assertEquals(9L, attrs.valueArray().getLong(0));
+
+        // 写入结果与存量数据逐字节一致
+        Map<StringData, Long> map = new HashMap<>();
+        map.put(StringData.fromString("k"), 9L);
+        RowData row = GenericRowData.of(
+                7L,
+                StringData.fromString("hz"),
+                2.5d,
+                new GenericArrayData(new Integer[] {1, 3}),
+                GenericRowData.of(5, StringData.fromString("ok")),
+                new GenericMapData(map));
+        assertArrayEquals(bytes, REDIS_STRING_DESERIALIZER.serializeValue(row, names, fixedCodec, NoahArkEncoding.FIXED, NONE));
+    }
+
+    @Test
+    public void testFixedRejectsNull() throws Exception {
+        RowType rowType = RowType.of(
+                new LogicalType[] {new BigIntType(false), new VarCharType(VarCharType.MAX_LENGTH), new ArrayType(new IntType())},
+                new String[] {"id", "name", "tags"});
+        String[] names = rowType.getFieldNames().toArray(new String[0]);
+        NoahArkRowCodec fixedCodec = createRowCodec(rowType, NoahArkEncoding.FIXED);
+        RowData nullField = GenericRowData.of(1L, null, new GenericArrayData(new Integer[] {1}));
+        RowData nullElement = GenericRowData.of(1L, StringData.fromString("hz"), new GenericArrayData(new Integer[] {1, null}));
+        for (RowData row : new RowData[] {nullField, nullElement}) {
+            try {
+                REDIS_STRING_DESERIALIZER.serializeValue(row, names, fixedCodec, NoahArkEncoding.FIXED, NONE);
+                fail("FIXED encoding can't store null values");
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains("use COMPACT or TAGGED"));
+            }
+        }
+
+        // LIST/HASH 字段单独存储, null 字段以空值表示
+        byte[][] listBytes = REDIS_LIST_DESERIALIZER.serializeValue(nullField, names, fixedCodec, NoahArkEncoding.FIXED, NONE);
+        RowData actual = REDIS_LIST_DESERIALIZER.deserializeValue(listBytes, names, fixedCodec, NoahArkEncoding.FIXED, NONE);
+        assertEquals(1L, actual.getLong(0));
+        assertTrue(actual.isNullAt(1));
+    }
+
+    @Test
+    public void testProjection() throws Exception {
+        RowType rowType = RowType.of(
+                new LogicalType[] {
+                        new BigIntType(false),
+                        new VarCharType(VarCharType.MAX_LENGTH),
+                        new DoubleType(),
+                        new ArrayType(new IntType()),
+                        new VarCharType(VarCharType.MAX_LENGTH)
+                },
+                new String[] {"id", "name", "score", "tags", "city"});
+        String[] names = rowType.getFieldNames().toArray(new String[0]);
+        RowData row = GenericRowData.of(7L, null, 2.5d, new GenericArrayData(new Integer[] {1, null}), StringData.fromString("hz"));
+        for (NoahArkEncoding encoding : new NoahArkEncoding[] {NoahArkEncoding.COMPACT, NoahArkEncoding.TAGGED}) {
+            NoahArkRowCodec rowCodec = createRowCodec(rowType, encoding);
+            // 跳过 null 字段及 array 字段, 输出顺序与完整行不同
+            NoahArkProjection projection = NoahArkProjection.of(new int[] {4, 2, 1}, names.length);
+
+            byte[] bytes = REDIS_STRING_DESERIALIZER.serializeValue(row, names, rowCodec, encoding, NONE);
+            assertProjectedRowEquals(REDIS_STRING_DESERIALIZER.deserializeValue(bytes, rowCodec, projection, encoding, NONE));
+
+            byte[][] listBytes = REDIS_LIST_DESERIALIZER.serializeValue(row, names, rowCodec, encoding, NONE);
+            assertProjectedRowEquals(REDIS_LIST_DESERIALIZER.deserializeValue(listBytes, rowCodec, projection, encoding, NONE));
+
+            // 模拟 HMGET 结果
+            Map<byte[], byte[]> mapBytes = REDIS_MAP_DESERIALIZER.serializeValue(row, names, rowCodec, encoding, NONE);
+            List<KeyValue<byte[], byte[]>> hmget = new ArrayList<>();
+            for (byte[] name : REDIS_MAP_DESERIALIZER.projectedFieldNames(names, projection)) {
+                for (Map.Entry<byte[], byte[]> entry : mapBytes.entrySet()) {
+                    if (Arrays.equals(name, entry.getKey())) {
+                        hmget.add(KeyValue.just(name, entry.getValue()));
+                    }
+                }
+            }
+            assertProjectedRowEquals(REDIS_MAP_DESERIALIZER.deserializeValue(hmget, rowCodec, projection, encoding, NONE));
+        }
+
+        // FIXED: 跳过定长及 array 字段
+        byte[] bytes = REDIS_STRING_DESERIALIZER.serializeValue(row(7), fieldNames, codec, NoahArkEncoding.FIXED, NONE);
+        RowData projected = REDIS_STRING_DESERIALIZER.deserializeValue(bytes, codec, NoahArkProjection.of(new int[] {2, 1}, 4), NoahArkEncoding.FIXED, NONE);
+        assertEquals(10.5d, projected.getDouble(0), 0.0d);
+        assertEquals(StringData.fromString("name-7"), projected.getString(1));
+    }
+
+    private static void assertProjectedRowEquals(RowData actual) {
+        assertEquals(3, actual.getArity());
+        assertEquals(StringData.fromString("hz"), actual.getString(0));
+        assertEquals(2.5d, actual.getDouble(1), 0.0d);
+        assertTrue(actual.isNullAt(2));
+    }
+
+    private static void assertNullableRowEquals(RowData actual) {
+        assertEquals(1L, actual.getLong(0));
+        assertTrue(actual.isNullAt(1));
+        assertEquals(2.5d, actual.getDouble(2), 0.0d);
+        assertEquals(3, actual.getArray(3).size());
+        assertEquals(1, actual.getArray(3).getInt(0));
+        assertTrue(actual.getArray(3).isNullAt(1));
+        assertTrue(actual.getArray(3) instanceof BinaryArrayData);
+        assertEquals(3, actual.getArray(3).getInt(2));
+        assertTrue(actual.getRow(4, 2).isNullAt(0));
+        assertEquals(StringData.fromString("ok"), actual.getRow(4, 2).getString(1));
+    }
+
+    @Test
+    public void testTaggedSchemaEvolution() throws Exception {
+        NoahArkEncoding tagged = NoahArkEncoding.TAGGED;
+        RowType writerType = RowType.of(
+                new LogicalType[] {new BigIntType(false), new VarCharType(VarCharType.MAX_LENGTH), new DoubleType()},
+                new String[] {"id", "name", "score"});
+        // 新增 city, 字段顺序调整, name 类型变更
+        RowType readerType = RowType.of(
+                new LogicalType[] {new BigIntType(false), new DoubleType(), new VarCharType(VarCharType.MAX_LENGTH), new IntType()},
+                new String[] {"id", "score", "city", "name"});
+        String[] writerNames = writerType.getFieldNames().toArray(new String[0]);
+        String[] readerNames = readerType.getFieldNames().toArray(new String[0]);
+        NoahArkRowCodec writerCodec = createRowCodec(writerType, tagged);
+        NoahArkRowCodec readerCodec = createRowCodec(readerType, tagged);
+        RowData row = GenericRowData.of(7L, StringData.fromString("flink"), 2.5d);
+
+        byte[] bytes = REDIS_STRING_DESERIALIZER.serializeValue(row, writerNames, writerCodec, tagged, NONE);
+        assertEvolvedRowEquals(REDIS_STRING_DESERIALIZER.deserializeValue(bytes, readerNames, readerCodec, tagged, NONE));
+        RowData projected = REDIS_STRING_DESERIALIZER.deserializeValue(bytes, readerCodec, NoahArkProjection.of(new int[] {1}, 4), tagged, NONE);
+        assertEquals(2.5d, projected.getDouble(0), 0.0d);
+
+        byte[][] listBytes = REDIS_LIST_DESERIALIZER.serializeValue(row, writerNames, writerCodec, tagged, NONE);
+        assertEvolvedRowEquals(REDIS_LIST_DESERIALIZER.deserializeValue(listBytes, readerNames, readerCodec, tagged, NONE));
+
+        Map<byte[], byte[]> mapBytes = REDIS_MAP_DESERIALIZER.serializeValue(row, writerNames, writerCodec, tagged, NONE);
+        assertEvolvedRowEquals(REDIS_MAP_DESERIALIZER.deserializeValue(mapBytes, readerNames, readerCodec, tagged, NONE));
+
+        // 旧 schema 读取新数据: 未知字段跳过
+        RowData evolved = GenericRowData.of(8L, 1.5d, StringData.fromString("hz"), 3);
+        byte[] evolvedBytes = REDIS_STRING_DESERIALIZER.serializeValue(evolved, readerNames, readerCodec, tagged, NONE);
+        RowData actual = REDIS_STRING_DESERIALIZER.deserializeValue(evolvedBytes, writerNames, writerCodec, tagged, NONE);
+        assertEquals(8L, actual.getLong(0));
+        assertTrue(actual.isNullAt(1));
+        assertEquals(1.5d, actual.getDouble(2), 0.0d);
+    }
+
+    private static void assertEvolvedRowEquals(RowData actual) {
+        assertEquals(4, actual.getArity());
+        assertEquals(7L, actual.getLong(0));
+        assertEquals(2.5d, actual.getDouble(1), 0.0d);
+        assertTrue(actual.isNullAt(2));
+        assertTrue(actual.isNullAt(3));
+    }
+
+    @Test
+    public void testCompressedRoundTrip() throws Exception {
+        RowData large = largeRow();
+        for (NoahArkEncoding encoding : new NoahArkEncoding[] {NoahArkEncoding.COMPACT, NoahArkEncoding.TAGGED}) {
+            NoahArkRowCodec rowCodec = createRowCodec(ROW_TYPE, encoding);
+            byte[] raw = REDIS_STRING_DESERIALIZER.serializeValue(large, fieldNames, rowCodec, encoding, NONE);
+            for (RedisValueCompression compression : new RedisValueCompression[] {RedisValueCompression.LZ4, RedisValueCompression.ZSTD}) {
+                RedisValueCompressor compressor = new RedisValueCompressor(compression, 1024);
+
+                byte[] bytes = REDIS_STRING_DESERIALIZER.serializeValue(large, fieldNames, rowCodec, encoding, compressor);
+                assertTrue(RedisValueCompressor.isCompressed(bytes));
+                assertTrue(bytes.length < raw.length / 4);
+                assertRowEquals(large, REDIS_STRING_DESERIALIZER.deserializeValue(bytes, fieldNames, rowCodec, encoding, compressor));
+
+                byte[][] listBytes = REDIS_LIST_DESERIALIZER.serializeValue(large, fieldNames, rowCodec, encoding, compressor);
+                assertRowEquals(large, REDIS_LIST_DESERIALIZER.deserializeValue(listBytes, fieldNames, rowCodec, encoding, compressor));
+
+                Map<byte[], byte[]> mapBytes = REDIS_MAP_DESERIALIZER.serializeValue(large, fieldNames, rowCodec, encoding, compressor);
+                assertRowEquals(large, REDIS_MAP_DESERIALIZER.deserializeValue(mapBytes, fieldNames, rowCodec, encoding, compressor));
+
+                // 小于阈值: 原样存储
+                byte[] small = REDIS_STRING_DESERIALIZER.serializeValue(row(7), fieldNames, rowCodec, encoding, compressor);
+                assertArrayEquals(REDIS_STRING_DESERIALIZER.serializeValue(row(7), fieldNames, rowCodec, encoding, NONE), small);
+                assertRowEquals(row(7), REDIS_STRING_DESERIALIZER.deserializeValue(small, fieldNames, rowCodec, encoding, compressor));
+            }
+        }
+    }
+
+    @Test
+    public void testUncompressedValueReadableWithCompression() throws Exception {
+        // 开启压缩前写入的存量数据, 以及开启后新旧混合的 list/hash 字段
+        RowData large = largeRow();
+        for (NoahArkEncoding encoding : new NoahArkEncoding[] {NoahArkEncoding.COMPACT, NoahArkEncoding.TAGGED}) {
+            NoahArkRowCodec rowCodec = createRowCodec(ROW_TYPE, encoding);
+            for (RedisValueCompression compression : new RedisValueCompression[] {RedisValueCompression.LZ4, RedisValueCompression.ZSTD}) {
+                RedisValueCompressor compressor = new RedisValueCompressor(compression, 16);
+
+                for (RowData data : new RowData[] {row(7), large}) {
+                    byte[] legacy = REDIS_STRING_DESERIALIZER.serializeValue(data, fieldNames, rowCodec, encoding, NONE);
+                    assertFalse(RedisValueCompressor.isCompressed(legacy));
+                    assertRowEquals(data, REDIS_STRING_DESERIALIZER.deserializeValue(legacy, fieldNames, rowCodec, encoding, compressor));
+                    RowData projected = REDIS_STRING_DESERIALIZER.deserializeValue(legacy, rowCodec, NoahArkProjection.of(new int[] {2}, 4), encoding, compressor);
+                    assertEquals(data.getDouble(2), projected.getDouble(0), 0.0d);
+                }
+
+                byte[][] legacyList = REDIS_LIST_DESERIALIZER.serializeValue(large, fieldNames, rowCodec, encoding, NONE);
+                byte[][] compressedList = REDIS_LIST_DESERIALIZER.serializeValue(large, fieldNames, rowCodec, encoding, compressor);
+                assertTrue(RedisValueCompressor.isCompressed(compressedList[1]));
+                byte[][] mixedList = legacyList.clone();
+                mixedList[1] = compressedList[1];
+                assertRowEquals(large, REDIS_LIST_DESERIALIZER.deserializeValue(legacyList, fieldNames, rowCodec, encoding, compressor));
+                assertRowEquals(large, REDIS_LIST_DESERIALIZER.deserializeValue(mixedList, fieldNames, rowCodec, encoding, compressor));
+
+                Map<byte[], byte[]> legacyMap = REDIS_MAP_DESERIALIZER.serializeValue(large, fieldNames, rowCodec, encoding, NONE);
+                assertRowEquals(large, REDIS_MAP_DESERIALIZER.deserializeValue(legacyMap, fieldNames, rowCodec, encoding, compressor));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompressionRequiresHeader() {
+        RedisReadOptions.builder(ROW_TYPE)
+                .valueEncoding(NoahArkEncoding.FIXED)
+                .valueCompression(RedisValueCompression.LZ4, 1024)
+                .build();
+    }
+
+    private static RowData largeRow() {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 200; ++i) {
+            name.append("{\"city\":\"hangzhou\",\"seq\":").append(i).append('}');
+        }
+        return GenericRowData.of(1L, StringData.fromString(name.toString()), 1.5d, new GenericArrayData(new int[] {1, 2, 3}));
+    }
+
+    @Test
+    public void testHeaderDispatch() throws Exception {
+        // COMPACT 与 TAGGED 按版本号分派, 切换编码后存量数据仍可读取
+        NoahArkEncoding[][] pairs = new NoahArkEncoding[][] {
+                {NoahArkEncoding.COMPACT, NoahArkEncoding.TAGGED},
+                {NoahArkEncoding.TAGGED, NoahArkEncoding.COMPACT}
+        };
+        for (NoahArkEncoding[] pair : pairs) {
+            NoahArkRowCodec writerCodec = createRowCodec(ROW_TYPE, pair[0]);
+            NoahArkRowCodec readerCodec = createRowCodec(ROW_TYPE, pair[1]);
+
+            byte[] bytes = REDIS_STRING_DESERIALIZER.serializeValue(row(7), fieldNames, writerCodec, pair[0], NONE);
+            assertRowEquals(row(7), REDIS_STRING_DESERIALIZER.deserializeValue(bytes, fieldNames, readerCodec, pair[1], NONE));
+            RowData projected = REDIS_STRING_DESERIALIZER.deserializeValue(bytes, readerCodec, NoahArkProjection.of(new int[] {2}, 4), pair[1], NONE);
+            assertEquals(10.5d, projected.getDouble(0), 0.0d);
+
+            byte[][] listBytes = REDIS_LIST_DESERIALIZER.serializeValue(row(7), fieldNames, writerCodec, pair[0], NONE);
+            assertRowEquals(row(7), REDIS_LIST_DESERIALIZER.deserializeValue(listBytes, fieldNames, readerCodec, pair[1], NONE));
+            projected = REDIS_LIST_DESERIALIZER.deserializeValue(listBytes, readerCodec, NoahArkProjection.of(new int[] {1}, 4), pair[1], NONE);
+            assertEquals(StringData.fromString("name-7"), projected.getString(0));
+
+            Map<byte[], byte[]> mapBytes = REDIS_MAP_DESERIALIZER.serializeValue(row(7), fieldNames, writerCodec, pair[0], NONE);
+            assertRowEquals(row(7), REDIS_MAP_DESERIALIZER.deserializeValue(mapBytes, fieldNames, readerCodec, pair[1], NONE));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnknownVersion() throws Exception {
+        byte[] bytes = REDIS_STRING_DESERIALIZER.serializeValue(row(7), fieldNames, createRowCodec(ROW_TYPE, NoahArkEncoding.COMPACT), NoahArkEncoding.COMPACT, NONE);
+        bytes[0] = 9;
+        REDIS_STRING_DESERIALIZER.deserializeValue(bytes, fieldNames, createRowCodec(ROW_TYPE, NoahArkEncoding.TAGGED), NoahArkEncoding.TAGGED, NONE);
+    }
+
+    @Test(expected = IOException.class)
+    public void testCompactVersionMismatch() throws Exception {
+        byte[] fixed = REDIS_STRING_DESERIALIZER.serializeValue(row(7), fieldNames, codec, NoahArkEncoding.FIXED, NONE);
+        REDIS_STRING_DESERIALIZER.deserializeValue(fixed, fieldNames, createRowCodec(ROW_TYPE, NoahArkEncoding.COMPACT), NoahArkEncoding.COMPACT, NONE);
+    }
+
+}
@@ -0,0 +1,222 @@
+package com.sdu.streaming.warehouse.connector.redis.cache;
+
+import com.sdu.streaming.warehouse.connector.redis.RedisRowDataRuntimeConverter;
+import com.sdu.streaming.warehouse.connector.redis.source.RedisReadOptions;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.metrics.SimpleCounter;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.types.logical.BigIntType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.VarCharType;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RedisLookupCacheTest {
+
+    private static RedisReadOptions readOptions(RedisCachePolicy policy, long maxSize, long maxBytes) {
+        return readOptions(policy, maxSize, maxBytes, 0L);
+    }
+
+    private static RedisReadOptions readOptions(RedisCachePolicy policy, long maxSize, long maxBytes, long negativeMaxSize) {
+        return readOptions(RedisCacheMode.HEAP, policy, maxSize, maxBytes, negativeMaxSize);
+    }
+
+    private static RedisReadOptions readOptions(RedisCacheMode mode, RedisCachePolicy policy, long maxSize, long maxBytes, long negativeMaxSize) {
+        RowType rowType = RowType.of(new BigIntType(false), new VarCharType(false, VarCharType.MAX_LENGTH));
+        return RedisReadOptions.builder(rowType)
+                .keyPrefix("CN")
+                .clusterAddress("redis://127.0.0.1:6379")
+                .cacheMaxSize(maxSize)
+                .cacheExpireMs(60_000L)
+                .cacheMaxBytes(maxBytes)
+                .cacheMode(mode)
+                .cachePolicy(policy)
+                .negativeCacheMaxSize(negativeMaxSize)
+                .build();
+    }
+
+    private static RowData row(long id) {
+        return GenericRowData.of(id, StringData.fromString("name-" + id));
+    }
+
+    // 堆外缓存返回 codec 反序列化的行, 按字段比较
+    private static RowData generic(RowData row) {
+        return row == null ? null : GenericRowData.of(row.getLong(0), row.getString(1));
+    }
+
+    @Test
+    public void testBoundedByEntries() {
+        for (RedisCachePolicy policy : RedisCachePolicy.values()) {
+            RedisLookupCache cache = RedisLookupCache.createLookupCache(readOptions(policy, 100, -1), new UnregisteredMetricsGroup(), null);
+            assertNotNull(cache);
+            for (long id = 0; id < 1000; ++id) {
+                cache.put(GenericRowData.of(id), row(id));
+            }
+            cache.getIfPresent(GenericRowData.of(0L));
+            assertTrue(policy + " size: " + cache.size(), cache.size() <= 100);
+        }
+    }
+
+    @Test
+    public void testBoundedByBytes() {
+        for (RedisCachePolicy policy : RedisCachePolicy.values()) {
+            long maxBytes = 64 * 1024;
+            RedisLookupCache cache = RedisLookupCache.createLookupCache(readOptions(policy, 100_000, maxBytes), new UnregisteredMetricsGroup(), null);
+            assertNotNull(cache);
+            long entryBytes = RowDataSizeEstimator.estimateEntrySize(GenericRowData.of(1L), row(1L));
+            for (long id = 0; id < 10_000; ++id) {
+                cache.put(GenericRowData.of(id), row(id));
+            }
+            cache.getIfPresent(GenericRowData.of(0L));
+            assertTrue(policy + " size: " + cache.size(), cache.size() * entryBytes <= maxBytes + entryBytes);
+        }
+    }
+
+    @Test
+    public void testHitAndMiss() {
+        RedisLookupCache cache = RedisLookupCache.createLookupCache(readOptions(RedisCachePolicy.LRU, 10, -1), new UnregisteredMetricsGroup(), null);
+        assertNotNull(cache);
+        cache.put(GenericRowData.of(1L), row(1L));
+        assertEquals(row(1L), cache.getIfPresent(GenericRowData.of(1L)));
+        assertNull(cache.getIfPresent(GenericRowData.of(2L)));
+        // negative cache disabled by default
+        cache.putAbsent(GenericRowData.of(2L));
+        assertNull(cache.getIfPresent(GenericRowData.of(2L)));
+    }
+
+    @Test
+    public void testNegativeCache() {
+        RedisLookupCache cache = RedisLookupCache.createLookupCache(readOptions(RedisCachePolicy.W_TINY_LFU, 10, -1, 10), new UnregisteredMetricsGroup(), null);
+        assertNotNull(cache);
+        cache.putAbsent(GenericRowData.of(1L));
+        assertSame(RedisLookupCache.ABSENT_ROW, cache.getIfPresent(GenericRowData.of(1L)));
+        // key written later replaces absent marker
+        cache.put(GenericRowData.of(1L), row(1L));
+        assertEquals(row(1L), cache.getIfPresent(GenericRowData.of(1L)));
+    }
+
+    @Test
+    public void testOffHeapCache() throws Exception {
+        RedisReadOptions options = readOptions(RedisCacheMode.OFF_HEAP, RedisCachePolicy.LRU, 10, 16 * 1024, 0);
+        RedisRowDataRuntimeConverter converter = new RedisRowDataRuntimeConverter(options, new int[][] {{0, 0}});
+        converter.open();
+        RedisLookupCache cache = RedisLookupCache.createLookupCache(options, new UnregisteredMetricsGroup(), converter);
+        assertTrue(cache instanceof OffHeapRedisLookupCache);
+        try {
+            cache.put(GenericRowData.of(1L), row(1L));
+            assertEquals(row(1L), generic(cache.getIfPresent(GenericRowData.of(1L))));
+            assertNull(cache.getIfPresent(GenericRowData.of(2L)));
+
+            // oldest segments are recycled once memory is full, hot key survives by second chance
+            for (long id = 2; id < 10_000; ++id) {
+                cache.put(GenericRowData.of(id), row(id));
+                assertEquals(row(1L), generic(cache.getIfPresent(GenericRowData.of(1L))));
+            }
+            assertTrue(cache.size() < 10_000);
+            assertEquals(row(9_999L), generic(cache.getIfPresent(GenericRowData.of(9_999L))));
+            assertNull(cache.getIfPresent(GenericRowData.of(2L)));
+        } finally {
+            cache.close();
+        }
+    }
+
+    @Test
+    public void testOffHeapOversizedEntryRejected() throws Exception {
+        // 16KB 分为 16 个 segment, 单条数据超过 segment 大小时不缓存
+        RedisReadOptions options = readOptions(RedisCacheMode.OFF_HEAP, RedisCachePolicy.LRU, 10, 16 * 1024, 0);
+        RedisRowDataRuntimeConverter converter = new RedisRowDataRuntimeConverter(options, new int[][] {{0, 0}});
+        converter.open();
+        CounterCollectingMetricGroup metricGroup = new CounterCollectingMetricGroup();
+        RedisLookupCache cache = RedisLookupCache.createLookupCache(options, metricGroup, converter);
+        try {
+            StringBuilder name = new StringBuilder();
+            for (int i = 0; i < 2048; ++i) {
+                name.append('x');
+            }
+            cache.put(GenericRowData.of(1L), GenericRowData.of(1L, StringData.fromString(name.toString())));
+            assertNull(cache.getIfPresent(GenericRowData.of(1L)));
+            assertEquals(1L, metricGroup.counters.get("rejectionCount").getCount());
+
+            cache.put(GenericRowData.of(2L), row(2L));
+            assertEquals(row(2L), generic(cache.getIfPresent(GenericRowData.of(2L))));
+            assertEquals(1L, metricGroup.counters.get("rejectionCount").getCount());
+        } finally {
+            cache.close();
+        }
+    }
+
+    @Test
+    public void testOffHeapUnsupportedOptions() {
+        RowType rowType = RowType.of(new BigIntType(false), new VarCharType(false, VarCharType.MAX_LENGTH));
+        try {
+            RedisReadOptions.builder(rowType).cacheMode(RedisCacheMode.OFF_HEAP).cachePolicy(RedisCachePolicy.W_TINY_LFU).build();
+            fail("OFF_HEAP cache only supports LRU policy");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("W_TINY_LFU"));
+        }
+        try {
+            RedisReadOptions.builder(rowType).cacheMode(RedisCacheMode.OFF_HEAP).cacheExpireAfterAccess(true).build();
+            fail("OFF_HEAP cache only expires after write");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("expire after access"));
+        }
+        RedisReadOptions.builder(rowType).cacheMode(RedisCacheMode.HEAP).cachePolicy(RedisCachePolicy.W_TINY_LFU).cacheExpireAfterAccess(true).build();
+    }
+
+    @Test
+    public void testOffHeapCacheDefaultCapacity() throws Exception {
+        // max bytes 未配置时按条数和行类型估算, 索引超过初始容量后扩容
+        RedisReadOptions options = readOptions(RedisCacheMode.OFF_HEAP, RedisCachePolicy.LRU, 5_000, -1, 0);
+        RedisRowDataRuntimeConverter converter = new RedisRowDataRuntimeConverter(options, new int[][] {{0, 0}});
+        converter.open();
+        RedisLookupCache cache = RedisLookupCache.createLookupCache(options, new UnregisteredMetricsGroup(), converter);
+        try {
+            for (long id = 0; id < 5_000; ++id) {
+                cache.put(GenericRowData.of(id), row(id));
+            }
+            assertEquals(5_000, cache.size());
+            for (long id = 0; id < 5_000; ++id) {
+                assertEquals(row(id), generic(cache.getIfPresent(GenericRowData.of(id))));
+            }
+            // overwrite keeps a single index entry
+            cache.put(GenericRowData.of(1L), row(2L));
+            assertEquals(5_000, cache.size());
+            assertEquals(row(2L), generic(cache.getIfPresent(GenericRowData.of(1L))));
+
+            cache.invalidateAll();
+            assertEquals(0, cache.size());
+            assertNull(cache.getIfPresent(GenericRowData.of(1L)));
+        } finally {
+            cache.close();
+        }
+    }
+
+    private static class CounterCollectingMetricGroup extends UnregisteredMetricsGroup {
+
+        private final Map<String, Counter> counters = new HashMap<>();
+
+        @Override
+        public MetricGroup addGroup(String name) {
+            return this;
+        }
+
+        @Override
+        public Counter counter(String name) {
+            return counters.computeIfAbsent(name, ignored -> new SimpleCounter());
+        }
+    }
+
+}
@@ -0,0 +1,238 @@
+package com.sdu.streaming.warehouse.connector.redis.sink;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RedisAsyncBatchWriterTest {
+
+    @Test
+    public void testSwappedBufferSentInBackground() throws Exception {
+        RecordingSender sender = new RecordingSender();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try (RedisAsyncBatchWriter<String> writer = writer(sender, failure, 2, 10_000L)) {
+            assertEquals(1, writer.buffer("a"));
+            assertEquals(2, writer.buffer("b"));
+            // 不等待响应, 后台线程在前一批次完成后写入下一批次
+            writer.flush();
+            // 任务线程继续写入新缓冲区
+            assertEquals(1, writer.buffer("c"));
+            writer.flush();
+
+            sender.completeNext();
+            sender.completeNext();
+            writer.waitInFlightBatches();
+            assertEquals(Arrays.asList(Arrays.asList("a", "b"), Collections.singletonList("c")), sender.batches);
+            for (String threadName : sender.threads) {
+                assertNotEquals(Thread.currentThread().getName(), threadName);
+            }
+            assertNull(failure.get());
+        }
+    }
+
+    @Test
+    public void testInFlightBatchesBounded() throws Exception {
+        RecordingSender sender = new RecordingSender();
+        try (RedisAsyncBatchWriter<String> writer = writer(sender, new AtomicReference<>(), 1, 10_000L)) {
+            writer.buffer("a");
+            writer.flush();
+
+            writer.buffer("b");
+            Thread flusher = new Thread(writer::flush);
+            flusher.start();
+            flusher.join(100);
+            // 第一批未响应, 第二批等待 permit
+            assertTrue(flusher.isAlive());
+            assertEquals(1, sender.batches.size());
+
+            sender.completeNext();
+            flusher.join(10_000L);
+            assertFalse(flusher.isAlive());
+            sender.completeNext();
+            writer.waitInFlightBatches();
+            assertEquals(2, sender.batches.size());
+        }
+    }
+
+    @Test
+    public void testAsyncErrorReported() throws Exception {
+        RecordingSender sender = new RecordingSender();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try (RedisAsyncBatchWriter<String> writer = writer(sender, failure, 2, 10_000L)) {
+            writer.buffer("a");
+            writer.flush();
+            RuntimeException error = new RuntimeException("READONLY");
+            sender.take().completeExceptionally(error);
+            writer.waitInFlightBatches();
+            assertSame(error, rootCause(failure.get()));
+        }
+    }
+
+    @Test
+    public void testSendErrorReleasesPermit() throws Exception {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        RuntimeException error = new RuntimeException("connection closed");
+        RedisBatchWriter<String> batchWriter = new RedisBatchWriter<>(
+                batch -> {
+                    throw error;
+                },
+                () -> { },
+                () -> { },
+                10_000L,
+                0);
+        try (RedisAsyncBatchWriter<String> writer = new RedisAsyncBatchWriter<>(RedisSyncBufferQueue::new, batchWriter, failure::set, 1, 10_000L)) {
+            writer.buffer("a");
+            writer.flush();
+            writer.waitInFlightBatches();
+            assertSame(error, failure.get());
+        }
+    }
+
+    @Test
+    public void testCheckpointBarrierWaitsForInFlightBatches() throws Exception {
+        RecordingSender sender = new RecordingSender();
+        try (RedisAsyncBatchWriter<String> writer = writer(sender, new AtomicReference<>(), 2, 10_000L)) {
+            writer.buffer("a");
+            writer.flush();
+
+            AtomicReference<Throwable> barrierError = new AtomicReference<>();
+            Thread barrier = new Thread(() -> {
+                try {
+                    writer.waitInFlightBatches();
+                } catch (Throwable t) {
+                    barrierError.set(t);
+                }
+            });
+            barrier.start();
+            barrier.join(100);
+            assertTrue(barrier.isAlive());
+
+            sender.completeNext();
+            barrier.join(10_000L);
+            assertFalse(barrier.isAlive());
+            assertNull(barrierError.get());
+        }
+    }
+
+    @Test
+    public void testCheckpointBarrierTimeout() throws Exception {
+        RecordingSender sender = new RecordingSender();
+        try (RedisAsyncBatchWriter<String> writer = writer(sender, new AtomicReference<>(), 2, 50L)) {
+            writer.buffer("a");
+            writer.flush();
+            try {
+                writer.waitInFlightBatches();
+                fail("expect timeout");
+            } catch (RuntimeException e) {
+                assertTrue(e.getMessage().contains("not completed in 50 ms"));
+            }
+            sender.completeNext();
+        }
+    }
+
+    @Test
+    public void testFlushRedirectedCommandsWhileWaiting() throws Exception {
+        // 模拟 MOVED 重定向: 命令只有在再次 flushCommands 后才完成, 之后没有新批次触发 flush
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        AtomicInteger flushes = new AtomicInteger();
+        RedisBatchWriter<String> batchWriter = new RedisBatchWriter<>(
+                batch -> Collections.singletonList(future),
+                () -> {
+                    if (flushes.incrementAndGet() == 3) {
+                        future.complete("OK");
+                    }
+                },
+                () -> { },
+                10_000L,
+                0);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try (RedisAsyncBatchWriter<String> writer = new RedisAsyncBatchWriter<>(RedisSyncBufferQueue::new, batchWriter, failure::set, 2, 10_000L)) {
+            writer.buffer("a");
+            writer.flush();
+            writer.waitInFlightBatches();
+            assertEquals(3, flushes.get());
+            assertNull(failure.get());
+        }
+    }
+
+    @Test
+    public void testRecoverAndReplayFailedBatch() throws Exception {
+        // 故障切换后脚本缓存丢失: 恢复(重新加载脚本)后重放批次, 不报告失败
+        RecordingSender sender = new RecordingSender();
+        AtomicInteger recoveries = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        RedisBatchWriter<String> batchWriter = new RedisBatchWriter<>(sender::send, () -> { }, recoveries::incrementAndGet, 10_000L, 2);
+        try (RedisAsyncBatchWriter<String> writer = new RedisAsyncBatchWriter<>(RedisSyncBufferQueue::new, batchWriter, failure::set, 2, 10_000L)) {
+            writer.buffer("a");
+            writer.flush();
+            sender.take().completeExceptionally(new IllegalStateException("NOSCRIPT"));
+            sender.completeNext();
+            writer.waitInFlightBatches();
+            assertEquals(Arrays.asList(Collections.singletonList("a"), Collections.singletonList("a")), sender.batches);
+            assertEquals(1, recoveries.get());
+            assertNull(failure.get());
+        }
+    }
+
+    private static RedisAsyncBatchWriter<String> writer(RecordingSender sender, AtomicReference<Throwable> failure, int maxInFlightBatches, long timeoutMillis) {
+        RedisBatchWriter<String> batchWriter = new RedisBatchWriter<>(sender::send, () -> { }, () -> { }, 10_000L, 0);
+        return new RedisAsyncBatchWriter<>(
+                RedisSyncBufferQueue::new,
+                batchWriter,
+                throwable -> failure.compareAndSet(null, throwable),
+                maxInFlightBatches,
+                timeoutMillis);
+    }
+
+    private static Throwable rootCause(Throwable throwable) {
+        while (throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        return throwable;
+    }
+
+    // 每个批次返回一个由测试线程完成的 future
+    private static class RecordingSender {
+
+        private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+        private final List<String> threads = new CopyOnWriteArrayList<>();
+        private final LinkedBlockingQueue<CompletableFuture<Object>> pending = new LinkedBlockingQueue<>();
+
+        List<CompletableFuture<Object>> send(List<String> batch) {
+            batches.add(new ArrayList<>(batch));
+            threads.add(Thread.currentThread().getName());
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            pending.add(future);
+            return Collections.singletonList(future);
+        }
+
+        CompletableFuture<Object> take() throws InterruptedException {
+            CompletableFuture<Object> future = pending.poll(10, TimeUnit.SECONDS);
+            if (future == null) {
+                throw new AssertionError("no batch sent");
+            }
+            return future;
+        }
+
+        void completeNext() throws InterruptedException {
+            take().complete("OK");
+        }
+    }
+}
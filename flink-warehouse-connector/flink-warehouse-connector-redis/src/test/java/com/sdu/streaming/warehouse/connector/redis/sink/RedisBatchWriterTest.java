@@ -0,0 +1,85 @@
+package com.sdu.streaming.warehouse.connector.redis.sink;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RedisBatchWriterTest {
+
+    private static final List<String> BATCH = Collections.singletonList("k");
+
+    @Test
+    public void testFlushRedirectedCommandsWhileWaiting() {
+        // 模拟 MOVED 重定向: 命令只有在再次 flushCommands 后才完成
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        AtomicInteger flushes = new AtomicInteger();
+        AtomicInteger recoveries = new AtomicInteger();
+        RedisBatchWriter<String> writer = new RedisBatchWriter<>(
+                batch -> Collections.singletonList(future),
+                () -> {
+                    if (flushes.incrementAndGet() == 3) {
+                        future.complete("OK");
+                    }
+                },
+                recoveries::incrementAndGet,
+                10_000L,
+                0);
+        writer.write(BATCH);
+        assertEquals(3, flushes.get());
+        assertEquals(0, recoveries.get());
+    }
+
+    @Test
+    public void testTimeoutFailsAfterRetries() {
+        AtomicInteger sends = new AtomicInteger();
+        AtomicInteger recoveries = new AtomicInteger();
+        RedisBatchWriter<String> writer = new RedisBatchWriter<>(
+                batch -> {
+                    sends.incrementAndGet();
+                    return Collections.singletonList(new CompletableFuture<>());
+                },
+                () -> { },
+                recoveries::incrementAndGet,
+                50L,
+                2);
+        try {
+            writer.write(BATCH);
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains("not completed in 50 ms"));
+        }
+        assertEquals(3, sends.get());
+        assertEquals(2, recoveries.get());
+    }
+
+    @Test
+    public void testRecoverAndReplayOnFailure() {
+        AtomicInteger sends = new AtomicInteger();
+        AtomicInteger recoveries = new AtomicInteger();
+        RedisBatchWriter<String> writer = new RedisBatchWriter<>(
+                batch -> {
+                    CompletableFuture<Object> future = new CompletableFuture<>();
+                    if (sends.incrementAndGet() == 1) {
+                        future.completeExceptionally(new IllegalStateException("CLUSTERDOWN"));
+                    } else {
+                        future.complete("OK");
+                    }
+                    return Collections.singletonList(future);
+                },
+                () -> { },
+                recoveries::incrementAndGet,
+                1_000L,
+                2);
+        writer.write(BATCH);
+        assertEquals(2, sends.get());
+        assertEquals(1, recoveries.get());
+    }
+
+}
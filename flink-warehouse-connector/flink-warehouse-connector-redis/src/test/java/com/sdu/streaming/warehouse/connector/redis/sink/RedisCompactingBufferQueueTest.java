@@ -0,0 +1,43 @@
+package com.sdu.streaming.warehouse.connector.redis.sink;
+
+import com.sdu.streaming.warehouse.connector.redis.entry.RedisData;
+import com.sdu.streaming.warehouse.connector.redis.entry.RedisStringData;
+import org.apache.flink.types.RowKind;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RedisCompactingBufferQueueTest {
+
+    private static RedisData<?> data(RowKind kind, String key, String value) {
+        return new RedisStringData(60, kind, key.getBytes(StandardCharsets.UTF_8), value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testLastWriteWins() {
+        RedisBufferQueue<RedisData<?>> queue = new RedisCompactingBufferQueue<>(RedisData::getRedisKey);
+        for (int i = 0; i < 50; ++i) {
+            queue.buffer(data(RowKind.UPDATE_AFTER, "k1", "v" + i));
+        }
+        queue.buffer(data(RowKind.INSERT, "k2", "v"));
+        queue.buffer(data(RowKind.DELETE, "k2", "v"));
+
+        List<RedisData<?>> flushed = new ArrayList<>();
+        queue.flush(flushed::addAll);
+        assertEquals(2, flushed.size());
+        assertEquals(RowKind.UPDATE_AFTER, flushed.get(0).getRedisDataKind());
+        assertArrayEquals("v49".getBytes(StandardCharsets.UTF_8), (byte[]) flushed.get(0).getRedisValue());
+        assertEquals(RowKind.DELETE, flushed.get(1).getRedisDataKind());
+
+        flushed.clear();
+        queue.flush(flushed::addAll);
+        assertTrue(flushed.isEmpty());
+    }
+
+}
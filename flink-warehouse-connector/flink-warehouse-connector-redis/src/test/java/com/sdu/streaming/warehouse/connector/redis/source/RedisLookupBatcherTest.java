@@ -0,0 +1,127 @@
+package com.sdu.streaming.warehouse.connector.redis.source;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RedisLookupBatcherTest {
+
+    @Test
+    public void testFlushWhenBatchFull() throws Exception {
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        try (RedisLookupBatcher<String, String> batcher = new RedisLookupBatcher<>(3, 60_000L, 0, 1L, (keys, consumer) -> {
+            batches.add(new ArrayList<>(keys));
+            for (int i = 0; i < keys.size(); ++i) {
+                consumer.accept(i, keys.get(i).toUpperCase(), null);
+            }
+        })) {
+            List<CompletableFuture<String>> results = new ArrayList<>();
+            for (String key : new String[] {"a", "b", "c", "d"}) {
+                results.add(add(batcher, key));
+            }
+            // 第 4 个请求等待 linger
+            assertEquals(Collections.singletonList(Arrays.asList("a", "b", "c")), batches);
+            assertEquals("A", results.get(0).get(1, TimeUnit.SECONDS));
+            assertEquals("C", results.get(2).get(1, TimeUnit.SECONDS));
+            assertFalse(results.get(3).isDone());
+        }
+    }
+
+    @Test
+    public void testFlushAfterLinger() throws Exception {
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        try (RedisLookupBatcher<String, String> batcher = new RedisLookupBatcher<>(100, 20L, 0, 1L, (keys, consumer) -> {
+            batches.add(new ArrayList<>(keys));
+            for (int i = 0; i < keys.size(); ++i) {
+                consumer.accept(i, keys.get(i), null);
+            }
+        })) {
+            CompletableFuture<String> a = add(batcher, "a");
+            CompletableFuture<String> b = add(batcher, "b");
+            assertEquals("a", a.get(5, TimeUnit.SECONDS));
+            assertEquals("b", b.get(5, TimeUnit.SECONDS));
+            assertEquals(1, batches.size());
+            assertEquals(2, batches.get(0).size());
+        }
+    }
+
+    @Test
+    public void testRetryOnlyFailedKeys() throws Exception {
+        Map<String, Integer> attempts = new ConcurrentHashMap<>();
+        List<String> retryThreads = new CopyOnWriteArrayList<>();
+        try (RedisLookupBatcher<String, String> batcher = new RedisLookupBatcher<>(3, 10L, 2, 5L, (keys, consumer) -> {
+            for (int i = 0; i < keys.size(); ++i) {
+                String key = keys.get(i);
+                int attempt = attempts.merge(key, 1, Integer::sum);
+                if (attempt > 1) {
+                    retryThreads.add(Thread.currentThread().getName());
+                }
+                if ("b".equals(key) && attempt == 1) {
+                    consumer.accept(i, null, new IllegalStateException("MOVED"));
+                } else if ("c".equals(key)) {
+                    consumer.accept(i, null, new IllegalStateException("LOADING"));
+                } else {
+                    consumer.accept(i, key + attempt, null);
+                }
+            }
+        })) {
+            CompletableFuture<String> a = add(batcher, "a");
+            CompletableFuture<String> b = add(batcher, "b");
+            CompletableFuture<String> c = add(batcher, "c");
+            assertEquals("a1", a.get(5, TimeUnit.SECONDS));
+            assertEquals("b2", b.get(5, TimeUnit.SECONDS));
+            try {
+                c.get(5, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                assertEquals("LOADING", e.getCause().getMessage());
+            }
+            assertTrue(c.isCompletedExceptionally());
+            assertEquals(1, (int) attempts.get("a"));
+            assertEquals(2, (int) attempts.get("b"));
+            assertEquals(3, (int) attempts.get("c"));
+            // 重试在 batcher 线程上重新入队, 不在回调线程上执行
+            for (String thread : retryThreads) {
+                assertTrue(thread, thread.startsWith("redis-lookup-batcher"));
+            }
+        }
+    }
+
+    @Test
+    public void testLoaderExceptionFailsWholeBatch() throws Exception {
+        try (RedisLookupBatcher<String, String> batcher = new RedisLookupBatcher<>(2, 60_000L, 0, 1L, (keys, consumer) -> {
+            throw new IOException("connection reset");
+        })) {
+            CompletableFuture<String> a = add(batcher, "a");
+            CompletableFuture<String> b = add(batcher, "b");
+            assertTrue(a.isCompletedExceptionally());
+            assertTrue(b.isCompletedExceptionally());
+        }
+    }
+
+    private static CompletableFuture<String> add(RedisLookupBatcher<String, String> batcher, String key) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        batcher.add(key, (value, throwable) -> {
+            if (throwable != null) {
+                future.completeExceptionally(throwable);
+            } else {
+                future.complete(value);
+            }
+        });
+        return future;
+    }
+
+}
@@ -0,0 +1,263 @@
+package com.sdu.streaming.warehouse.connector.redis.source;
+
+import com.sdu.streaming.warehouse.connector.redis.RedisRuntimeConverter;
+import com.sdu.streaming.warehouse.connector.redis.entry.RedisData;
+import io.lettuce.core.api.StatefulRedisConnection;
+import org.apache.flink.api.common.functions.util.ListCollector;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.functions.FunctionContext;
+import org.apache.flink.table.types.logical.BigIntType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.VarCharType;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RedisSnapshotTableFunctionTest {
+
+    private static final RowType ROW_TYPE = RowType.of(new BigIntType(false), new VarCharType(false, VarCharType.MAX_LENGTH));
+
+    @Test
+    public void testPreloadOnOpen() throws Exception {
+        FakeConverter converter = new FakeConverter();
+        converter.scanAction = consumer -> {
+            consumer.accept(key(1L), row(1L, "a"));
+            consumer.accept(key(2L), row(2L, "b"));
+        };
+        GaugeCollectingMetricGroup metricGroup = new GaugeCollectingMetricGroup();
+        TestingSnapshotTableFunction function = open(converter, metricGroup, -1L);
+        try {
+            assertEquals(Collections.singletonList(row(1L, "a")), function.lookup(1L));
+            assertEquals(Collections.singletonList(row(2L, "b")), function.lookup(2L));
+            assertTrue(function.lookup(3L).isEmpty());
+            assertEquals(2, metricGroup.gaugeValue("size"));
+            assertTrue((Long) metricGroup.gaugeValue("lastLoadTimeMs") >= 0);
+        } finally {
+            function.close();
+        }
+    }
+
+    @Test
+    public void testRefreshSwapsSnapshotAtomically() throws Exception {
+        FakeConverter converter = new FakeConverter();
+        converter.scanAction = consumer -> consumer.accept(key(1L), row(1L, "v1"));
+        GaugeCollectingMetricGroup metricGroup = new GaugeCollectingMetricGroup();
+        TestingSnapshotTableFunction function = open(converter, metricGroup, -1L);
+        try {
+            CountDownLatch scanning = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            converter.scanAction = consumer -> {
+                consumer.accept(key(2L), row(2L, "v2"));
+                consumer.accept(key(1L), row(1L, "v2"));
+                scanning.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            };
+            Thread refresher = new Thread(function::refreshSnapshot);
+            refresher.start();
+            assertTrue(scanning.await(10, TimeUnit.SECONDS));
+
+            // 加载过程中仍读取旧快照
+            assertEquals(Collections.singletonList(row(1L, "v1")), function.lookup(1L));
+            assertTrue(function.lookup(2L).isEmpty());
+            assertEquals(1, metricGroup.gaugeValue("size"));
+
+            release.countDown();
+            refresher.join();
+            assertEquals(Collections.singletonList(row(1L, "v2")), function.lookup(1L));
+            assertEquals(Collections.singletonList(row(2L, "v2")), function.lookup(2L));
+            assertEquals(2, metricGroup.gaugeValue("size"));
+        } finally {
+            function.close();
+        }
+    }
+
+    @Test
+    public void testFailedRefreshKeepsPreviousSnapshot() throws Exception {
+        FakeConverter converter = new FakeConverter();
+        converter.scanAction = consumer -> consumer.accept(key(1L), row(1L, "v1"));
+        GaugeCollectingMetricGroup metricGroup = new GaugeCollectingMetricGroup();
+        TestingSnapshotTableFunction function = open(converter, metricGroup, -1L);
+        try {
+            converter.scanAction = consumer -> {
+                consumer.accept(key(3L), row(3L, "v2"));
+                throw new IOException("scan failed");
+            };
+            function.refreshSnapshot();
+
+            assertEquals(Collections.singletonList(row(1L, "v1")), function.lookup(1L));
+            assertTrue(function.lookup(3L).isEmpty());
+            assertEquals(1, metricGroup.gaugeValue("size"));
+        } finally {
+            function.close();
+        }
+    }
+
+    @Test
+    public void testScheduledRefresh() throws Exception {
+        FakeConverter converter = new FakeConverter();
+        AtomicInteger loads = new AtomicInteger();
+        converter.scanAction = consumer -> {
+            int version = loads.incrementAndGet();
+            for (long id = 0; id < version; ++id) {
+                consumer.accept(key(id), row(id, "v" + version));
+            }
+        };
+        GaugeCollectingMetricGroup metricGroup = new GaugeCollectingMetricGroup();
+        TestingSnapshotTableFunction function = open(converter, metricGroup, 10L);
+        try {
+            long deadline = System.currentTimeMillis() + 10_000L;
+            while ((Integer) metricGroup.gaugeValue("size") < 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue((Integer) metricGroup.gaugeValue("size") >= 3);
+            assertEquals(1, function.lookup(2L).size());
+        } finally {
+            function.close();
+        }
+    }
+
+    private static TestingSnapshotTableFunction open(FakeConverter converter, MetricGroup metricGroup, long intervalMs) throws Exception {
+        RedisReadOptions readOptions = RedisReadOptions.builder(ROW_TYPE)
+                .preload(true)
+                .preloadIntervalMs(intervalMs)
+                .build();
+        TestingSnapshotTableFunction function = new TestingSnapshotTableFunction(converter, readOptions);
+        function.open(new FunctionContext(null) {
+            @Override
+            public MetricGroup getMetricGroup() {
+                return metricGroup;
+            }
+        });
+        return function;
+    }
+
+    private static byte[] key(long id) {
+        return String.valueOf(id).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static RowData row(long id, String name) {
+        return GenericRowData.of(id, StringData.fromString(name));
+    }
+
+    private static class TestingSnapshotTableFunction extends RedisSnapshotTableFunction {
+
+        private final List<RowData> collected = new ArrayList<>();
+
+        TestingSnapshotTableFunction(RedisRuntimeConverter<RowData> converter, RedisReadOptions readOptions) {
+            super(converter, readOptions);
+            setCollector(new ListCollector<>(collected));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        StatefulRedisConnection<byte[], byte[]> connect() {
+            return (StatefulRedisConnection<byte[], byte[]>) Proxy.newProxyInstance(
+                    getClass().getClassLoader(),
+                    new Class<?>[] {StatefulRedisConnection.class},
+                    (proxy, method, args) -> null);
+        }
+
+        synchronized List<RowData> lookup(long id) throws IOException {
+            collected.clear();
+            eval(id);
+            return new ArrayList<>(collected);
+        }
+    }
+
+    private interface ScanAction {
+
+        void scan(BiConsumer<byte[], RowData> consumer) throws IOException;
+
+    }
+
+    private static class FakeConverter implements RedisRuntimeConverter<RowData> {
+
+        private volatile ScanAction scanAction;
+
+        @Override
+        public void open() { }
+
+        @Override
+        public void scan(StatefulRedisConnection<byte[], byte[]> client, int scanCount, BiConsumer<byte[], RowData> consumer) throws IOException {
+            scanAction.scan(consumer);
+        }
+
+        @Override
+        public byte[] serializeLookupKey(RowData key) {
+            return key(key.getLong(0));
+        }
+
+        @Override
+        public RedisData<?> serialize(RowData data) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public RowData deserialize(StatefulRedisConnection<byte[], byte[]> client, RowData key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void asyncDeserialize(StatefulRedisConnection<byte[], byte[]> client, RowData key, BiConsumer<RowData, Throwable> resultConsumer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void asyncBatchDeserialize(StatefulRedisConnection<byte[], byte[]> client, List<RowData> keys, BatchResultConsumer<RowData> resultConsumer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public byte[] serializeCacheValue(RowData data) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public RowData deserializeCacheValue(byte[] bytes) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class GaugeCollectingMetricGroup extends UnregisteredMetricsGroup {
+
+        private final Map<String, Gauge<?>> gauges = new ConcurrentHashMap<>();
+
+        @Override
+        public MetricGroup addGroup(String name) {
+            return this;
+        }
+
+        @Override
+        public <T, G extends Gauge<T>> G gauge(String name, G gauge) {
+            gauges.put(name, gauge);
+            return gauge;
+        }
+
+        Object gaugeValue(String name) {
+            return gauges.get(name).getValue();
+        }
+    }
+}
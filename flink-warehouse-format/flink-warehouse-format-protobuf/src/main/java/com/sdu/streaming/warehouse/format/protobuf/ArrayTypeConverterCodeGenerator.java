@@ -51,7 +51,7 @@ public class ArrayTypeConverterCodeGenerator implements TypeConverterCodeGenerat
         sb.append(format("Object %s = null;", ret));
         TypeConverterCodeGenerator codeGenerator = getProtobufTypeConverterCodeGenerator(fieldMappings, fd, type, ignoreDefaultValues);
         sb.append(codeGenerator.codegen(ret, el));
-        sb.append(format("%s[%s++] = %s; }", index, res, ret));
+        sb.append(format("%s[%s++] = %s; }", res, index, ret));
         sb.append(format("%s = new GenericArrayData(%s);", resultVariable, res));
         return sb.toString();
     }
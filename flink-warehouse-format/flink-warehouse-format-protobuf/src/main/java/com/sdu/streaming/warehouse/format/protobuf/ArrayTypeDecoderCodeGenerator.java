@@ -0,0 +1,75 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.WireFormat;
+import org.apache.flink.table.types.logical.ArrayType;
+
+import java.util.Map;
+
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufTypeConverterFactory.getProtobufTypeDecoderCodeGenerator;
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.makeTag;
+import static com.sdu.streaming.warehouse.utils.VariableUtils.getSerialId;
+import static java.lang.String.format;
+
+public class ArrayTypeDecoderCodeGenerator implements TypeDecoderCodeGenerator {
+
+    private final Descriptors.FieldDescriptor fd;
+    private final TypeDecoderCodeGenerator elementCodeGenerator;
+
+    public ArrayTypeDecoderCodeGenerator(Descriptors.FieldDescriptor fd, ArrayType type, Map<String, String[]> fieldMappings) {
+        this.fd = fd;
+        this.elementCodeGenerator = getProtobufTypeDecoderCodeGenerator(fieldMappings, fd, type.getElementType());
+    }
+
+    @Override
+    public int[] getTags() {
+        int elementTag = elementCodeGenerator.getTags()[0];
+        if (!fd.isPackable()) {
+            return new int[] {elementTag};
+        }
+        return new int[] {elementTag, getPackedTag()};
+    }
+
+    @Override
+    public String codegenRead(String resultVariable, String inputVariable, int tag) {
+        /*
+         * 代码:
+         *   if (result == null) { result = new ArrayList(); }
+         *   Object element = null;
+         *   element read;
+         *   ((ArrayList) result).add(element);
+         * packed 编码: 按长度循环读取元素
+         * */
+        StringBuilder sb = new StringBuilder("{");
+        sb.append(format("if (%s == null) { %s = new ArrayList(); }", resultVariable, resultVariable));
+        String element = format("el$%d", getSerialId());
+        String readElement = format("Object %s = null; %s ((ArrayList) %s).add(%s);",
+                element, elementCodeGenerator.codegenRead(element, inputVariable, elementCodeGenerator.getTags()[0]),
+                resultVariable, elementCodeGenerator.codegenResult(element));
+        if (fd.isPackable() && tag == getPackedTag()) {
+            String limit = format("limit$%d", getSerialId());
+            sb.append(format("int %s = %s.pushLimit(%s.readRawVarint32());", limit, inputVariable, inputVariable));
+            sb.append(format("while (%s.getBytesUntilLimit() > 0) { %s }", inputVariable, readElement));
+            sb.append(format("%s.popLimit(%s);", inputVariable, limit));
+        } else {
+            sb.append(readElement);
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    @Override
+    public String codegenResult(String resultVariable) {
+        return format("new GenericArrayData(((ArrayList) %s).toArray())", resultVariable);
+    }
+
+    @Override
+    public String codegenDefault() {
+        return "new GenericArrayData(new Object[0])";
+    }
+
+    private int getPackedTag() {
+        return makeTag(fd.getNumber(), WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import com.google.protobuf.Descriptors;
+import org.apache.flink.table.types.logical.ArrayType;
+import org.apache.flink.table.types.logical.LogicalType;
+
+import java.util.Map;
+
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufTypeConverterFactory.getProtobufTypeSerializerCodeGenerator;
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.getFlinkValueCode;
+import static com.sdu.streaming.warehouse.utils.VariableUtils.getSerialId;
+import static java.lang.String.format;
+
+public class ArrayTypeSerializerCodeGenerator implements TypeSerializerCodeGenerator {
+
+    private final Descriptors.FieldDescriptor fd;
+    private final LogicalType type;
+    private final TypeSerializerCodeGenerator elementCodeGenerator;
+
+    public ArrayTypeSerializerCodeGenerator(Descriptors.FieldDescriptor fd, ArrayType type, Map<String, String[]> fieldMappings) {
+        this.fd = fd;
+        this.type = type.getElementType();
+        this.elementCodeGenerator = getProtobufTypeSerializerCodeGenerator(fieldMappings, fd, this.type);
+    }
+
+    @Override
+    public String codegenSize(String sizeVariable, String inputCode) {
+        /*
+         * 代码:
+         *   ArrayData input = inputCode;
+         *   for (int i = 0; i < input.size(); ++i) {
+         *       if (!input.isNullAt(i)) { size += element size; }
+         *   }
+         * packed 编码: 元素不写 tag, 整体按 length-delimited 写入
+         * */
+        StringBuilder sb = new StringBuilder("{");
+        String input = format("input$%d", getSerialId());
+        sb.append(format("ArrayData %s = %s;", input, inputCode));
+        if (fd.isPacked()) {
+            String data = format("data$%d", getSerialId());
+            sb.append(format("int %s = 0;", data));
+            sb.append(packedDataSize(data, input));
+            sb.append(format("if (%s > 0) { %s += ProtobufSerializerUtils.computeMessageSize(%d, %s); }", data, sizeVariable, fd.getNumber(), data));
+        } else {
+            String index = format("index$%d", getSerialId());
+            sb.append(forEachElement(input, index, elementCodeGenerator.codegenSize(sizeVariable, getFlinkValueCode(type, input, index))));
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    @Override
+    public String codegenWrite(String outputVariable, String inputCode) {
+        StringBuilder sb = new StringBuilder("{");
+        String input = format("input$%d", getSerialId());
+        sb.append(format("ArrayData %s = %s;", input, inputCode));
+        String index = format("index$%d", getSerialId());
+        if (fd.isPacked()) {
+            BasicTypeSerializerCodeGenerator codeGenerator = (BasicTypeSerializerCodeGenerator) elementCodeGenerator;
+            String data = format("data$%d", getSerialId());
+            sb.append(format("int %s = 0;", data));
+            sb.append(packedDataSize(data, input));
+            sb.append(format("if (%s > 0) {", data));
+            sb.append(format("ProtobufSerializerUtils.writeMessageHeader(%s, %d, %s);", outputVariable, fd.getNumber(), data));
+            sb.append(forEachElement(input, index, codeGenerator.codegenWriteNoTag(outputVariable, getFlinkValueCode(type, input, index))));
+            sb.append("}");
+        } else {
+            sb.append(forEachElement(input, index, elementCodeGenerator.codegenWrite(outputVariable, getFlinkValueCode(type, input, index))));
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    private String packedDataSize(String dataVariable, String input) {
+        BasicTypeSerializerCodeGenerator codeGenerator = (BasicTypeSerializerCodeGenerator) elementCodeGenerator;
+        String index = format("index$%d", getSerialId());
+        return forEachElement(input, index, codeGenerator.codegenSizeNoTag(dataVariable, getFlinkValueCode(type, input, index)));
+    }
+
+    // protobuf repeated 字段不支持 null 元素, 跳过
+    private String forEachElement(String input, String index, String elementCode) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(format("for (int %s = 0; %s < %s.size(); ++%s) { ", index, index, input, index));
+        if (type.isNullable()) {
+            sb.append(format("if (%s.isNullAt(%s)) { continue; }", input, index));
+        }
+        sb.append(elementCode);
+        sb.append("}");
+        return sb.toString();
+    }
+
+}
@@ -1,8 +1,12 @@
 package com.sdu.streaming.warehouse.format.protobuf;
 
 import com.google.protobuf.Descriptors;
+import org.apache.flink.table.data.DecimalData;
+import org.apache.flink.table.types.logical.DecimalType;
 import org.apache.flink.table.types.logical.LogicalType;
 
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.getCastCode;
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.getPrimitiveType;
 import static java.lang.String.format;
 
 public class BasicTypeConverterCodeGenerator implements TypeConverterCodeGenerator {
@@ -17,25 +21,65 @@ public class BasicTypeConverterCodeGenerator implements TypeConverterCodeGenerat
 
     @Override
     public String codegen(String resultVariable, String inputCode) {
-        StringBuilder sb = new StringBuilder();
+        switch (type.getTypeRoot()) {
+            case CHAR:
+            case VARCHAR:
+                if (fd.getJavaType() == Descriptors.FieldDescriptor.JavaType.BYTE_STRING) {
+                    return format("%s = BinaryStringData.fromBytes(%s.toByteArray());", resultVariable, inputCode);
+                }
+                // janino 不支持调用接口静态方法(StringData.fromString)
+                return format("%s = BinaryStringData.fromString(%s.toString());", resultVariable, inputCode);
+
+            case BINARY:
+            case VARBINARY:
+                // ByteString 未暴露底层数组, 此处拷贝不可避免(直接解码路径无中间 ByteString)
+                return format("%s = %s.toByteArray();", resultVariable, inputCode);
+
+            case DECIMAL:
+                return format("%s = %s;", resultVariable, getDecimalCode(inputCode));
+
+            case TIMESTAMP_WITHOUT_TIME_ZONE:
+            case TIMESTAMP_WITH_LOCAL_TIME_ZONE:
+                // 整型字段为 epoch 毫秒
+                return format("%s = TimestampData.fromEpochMillis((long) %s);", resultVariable, getPrimitiveCode(inputCode));
+
+            default:
+                String primitiveType = getPrimitiveType(type);
+                if (primitiveType.equals(getPrimitiveType(fd))) {
+                    return format("%s = %s;", resultVariable, inputCode);
+                }
+                // 重复字段元素为包装类型, 先拆箱再转换到列类型(如 int32 -> SMALLINT), 收窄时检查范围
+                return format("%s = %s;", resultVariable, getCastCode(fd, type, getPrimitiveCode(inputCode)));
+        }
+    }
+
+    // DECIMAL: 字符串为十进制文本, 整型为非标度值(如以分存储的金额), bytes 为二进制补码非标度值
+    private String getDecimalCode(String inputCode) {
+        DecimalType decimalType = (DecimalType) type;
+        int precision = decimalType.getPrecision();
+        int scale = decimalType.getScale();
         switch (fd.getJavaType()) {
+            case STRING:
+                return format("ProtobufDeserializerUtils.toDecimal(%s.toString(), %d, %d)", inputCode, precision, scale);
+            case BYTE_STRING:
+                return format("ProtobufDeserializerUtils.toUnscaledDecimal(%s.toByteArray(), %d, %d)", inputCode, precision, scale);
             case INT:
             case LONG:
+                // 非标度值为 long, 仅支持 precision <= 18
+                if (!DecimalData.isCompact(precision)) {
+                    throw new UnsupportedOperationException("unsupported decimal field type: " + fd.getJavaType() + ", precision must be <= 18");
+                }
+                return format("DecimalData.fromUnscaledLong((long) %s, %d, %d)", getPrimitiveCode(inputCode), precision, scale);
             case FLOAT:
             case DOUBLE:
-            case BOOLEAN:
-                sb.append(format("%s = %s;", resultVariable, inputCode));
-                break;
-            case BYTE_STRING:
-                sb.append(format("%s = %s.toByteArray();", resultVariable, inputCode));
-                break;
-            case STRING:
-            case ENUM:
-                sb.append(format("%s = StringData.fromString(%s.toString());", resultVariable, inputCode));
-                break;
-
+                return format("DecimalData.fromBigDecimal(java.math.BigDecimal.valueOf((double) %s), %d, %d)", getPrimitiveCode(inputCode), precision, scale);
+            default:
+                throw new UnsupportedOperationException("unsupported decimal field type: " + fd.getJavaType());
         }
-        return sb.toString();
+    }
+
+    private String getPrimitiveCode(String inputCode) {
+        return format("((%s) %s)", getPrimitiveType(fd), inputCode);
     }
 
 }
@@ -0,0 +1,257 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Descriptors;
+import org.apache.flink.table.data.DecimalData;
+import org.apache.flink.table.types.logical.DecimalType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.LogicalTypeRoot;
+
+import java.nio.charset.StandardCharsets;
+
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.getCodedStreamMethodSuffix;
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.getJavaFullName;
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.makeTag;
+import static com.sdu.streaming.warehouse.utils.VariableUtils.getSerialId;
+import static java.lang.String.format;
+
+public class BasicTypeDecoderCodeGenerator implements TypeDecoderCodeGenerator {
+
+    private final Descriptors.FieldDescriptor fd;
+    private final LogicalType type;
+
+    public BasicTypeDecoderCodeGenerator(Descriptors.FieldDescriptor fd, LogicalType type) {
+        this.fd = fd;
+        this.type = type;
+    }
+
+    @Override
+    public int[] getTags() {
+        return new int[] {makeTag(fd.getNumber(), fd.getLiteType().getWireType())};
+    }
+
+    @Override
+    public String codegenRead(String resultVariable, String inputVariable, int tag) {
+        switch (fd.getType()) {
+            case STRING:
+            case BYTES:
+                if (isBinaryType()) {
+                    // readByteArray 直接从输入拷贝一次, 不经过 ByteString
+                    return format("%s = %s.readByteArray();", resultVariable, inputVariable);
+                }
+                if (isDecimalType()) {
+                    return format("%s = %s;", resultVariable, getDecimalCode(format("%s.readByteArray()", inputVariable)));
+                }
+                checkStringType();
+                // 直接使用读取的 UTF-8 字节, 不经过 String
+                return format("%s = BinaryStringData.fromBytes(%s.readByteArray());", resultVariable, inputVariable);
+            case ENUM:
+                if (!isStringType()) {
+                    return format("%s = %s;", resultVariable, getCastCode(format("%s.readEnum()", inputVariable)));
+                }
+                // 枚举按编号转换为名称, 未定义的编号与 protobuf getter 一致返回 UNRECOGNIZED
+                String enumClass = getJavaFullName(fd.getEnumType());
+                String value = format("enum$%d", getSerialId());
+                return format("{ %s %s = %s.forNumber(%s.readEnum()); %s = BinaryStringData.fromString(%s == null ? \"UNRECOGNIZED\" : %s.name()); }",
+                        enumClass, value, enumClass, inputVariable, resultVariable, value, value);
+            default:
+                String valueCode = format("%s.read%s()", inputVariable, getCodedStreamMethodSuffix(fd));
+                if (isDecimalType()) {
+                    return format("%s = %s;", resultVariable, getDecimalCode(valueCode));
+                }
+                if (isTimestampType()) {
+                    return format("%s = %s;", resultVariable, getTimestampCode(valueCode));
+                }
+                return format("%s = %s;", resultVariable, getCastCode(valueCode));
+        }
+    }
+
+    @Override
+    public String codegenResult(String resultVariable) {
+        return resultVariable;
+    }
+
+    @Override
+    public String codegenDefault() {
+        Object value = fd.getDefaultValue();
+        if (isStringType()) {
+            String str;
+            if (value instanceof Descriptors.EnumValueDescriptor) {
+                str = ((Descriptors.EnumValueDescriptor) value).getName();
+            } else if (value instanceof ByteString) {
+                str = ((ByteString) value).toStringUtf8();
+            } else {
+                str = (String) value;
+            }
+            return str.isEmpty() ? "BinaryStringData.EMPTY_UTF8" : format("BinaryStringData.fromString(\"%s\")", escape(str));
+        }
+        if (isBinaryType()) {
+            return getBytesCode(value instanceof ByteString ? ((ByteString) value).toByteArray() : ((String) value).getBytes(StandardCharsets.UTF_8));
+        }
+        if (isDecimalType()) {
+            if (value instanceof String) {
+                return getDecimalCode(format("\"%s\"", escape((String) value)));
+            }
+            return getDecimalCode(value instanceof ByteString ? getBytesCode(((ByteString) value).toByteArray()) : getPrimitiveCode(value));
+        }
+        if (isTimestampType()) {
+            return getTimestampCode(getPrimitiveCode(value));
+        }
+        if (value instanceof Descriptors.EnumValueDescriptor) {
+            value = ((Descriptors.EnumValueDescriptor) value).getNumber();
+        }
+        switch (type.getTypeRoot()) {
+            case BOOLEAN:
+                return String.valueOf(value);
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+                return getCastCode(fd.getJavaType() == Descriptors.FieldDescriptor.JavaType.LONG
+                        ? format("%dL", ((Number) value).longValue())
+                        : format("%d", ((Number) value).intValue()));
+            case BIGINT:
+                return format("%dL", ((Number) value).longValue());
+            case FLOAT:
+                return format("Float.intBitsToFloat(%d)", Float.floatToIntBits(((Number) value).floatValue()));
+            case DOUBLE:
+                return format("Double.longBitsToDouble(%dL)", Double.doubleToLongBits(((Number) value).doubleValue()));
+            default:
+                throw new UnsupportedOperationException("unsupported deserialize protobuf " + fd.getType() + " to " + type);
+        }
+    }
+
+    private boolean isStringType() {
+        switch (type.getTypeRoot()) {
+            case CHAR:
+            case VARCHAR:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private boolean isBinaryType() {
+        switch (type.getTypeRoot()) {
+            case BINARY:
+            case VARBINARY:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private boolean isDecimalType() {
+        return type.getTypeRoot() == LogicalTypeRoot.DECIMAL;
+    }
+
+    private boolean isTimestampType() {
+        switch (type.getTypeRoot()) {
+            case TIMESTAMP_WITHOUT_TIME_ZONE:
+            case TIMESTAMP_WITH_LOCAL_TIME_ZONE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // DECIMAL: 字符串为十进制文本, 整型为非标度值(如以分存储的金额), bytes 为二进制补码非标度值
+    private String getDecimalCode(String valueCode) {
+        DecimalType decimalType = (DecimalType) type;
+        int precision = decimalType.getPrecision();
+        int scale = decimalType.getScale();
+        switch (fd.getJavaType()) {
+            case STRING:
+                return format("ProtobufDeserializerUtils.toDecimal(%s, %d, %d)", valueCode, precision, scale);
+            case BYTE_STRING:
+                return format("ProtobufDeserializerUtils.toUnscaledDecimal(%s, %d, %d)", valueCode, precision, scale);
+            case INT:
+            case LONG:
+                // 非标度值为 long, 仅支持 precision <= 18
+                if (!DecimalData.isCompact(precision)) {
+                    throw new UnsupportedOperationException("unsupported deserialize protobuf " + fd.getType() + " to " + type + ", precision must be <= 18");
+                }
+                return format("DecimalData.fromUnscaledLong((long) %s, %d, %d)", valueCode, precision, scale);
+            case FLOAT:
+            case DOUBLE:
+                return format("DecimalData.fromBigDecimal(java.math.BigDecimal.valueOf((double) %s), %d, %d)", valueCode, precision, scale);
+            default:
+                throw new UnsupportedOperationException("unsupported deserialize protobuf " + fd.getType() + " to " + type);
+        }
+    }
+
+    // 整型字段为 epoch 毫秒
+    private String getTimestampCode(String valueCode) {
+        switch (fd.getJavaType()) {
+            case INT:
+            case LONG:
+                return format("TimestampData.fromEpochMillis((long) %s)", valueCode);
+            default:
+                throw new UnsupportedOperationException("unsupported deserialize protobuf " + fd.getType() + " to " + type);
+        }
+    }
+
+    // 字段默认值对应的 protobuf 基本类型字面量
+    private String getPrimitiveCode(Object value) {
+        switch (fd.getJavaType()) {
+            case INT:
+                return format("%d", ((Number) value).intValue());
+            case LONG:
+                return format("%dL", ((Number) value).longValue());
+            case FLOAT:
+                return format("Float.intBitsToFloat(%d)", Float.floatToIntBits(((Number) value).floatValue()));
+            case DOUBLE:
+                return format("Double.longBitsToDouble(%dL)", Double.doubleToLongBits(((Number) value).doubleValue()));
+            default:
+                throw new UnsupportedOperationException("unsupported deserialize protobuf " + fd.getType() + " to " + type);
+        }
+    }
+
+    private static String getBytesCode(byte[] bytes) {
+        StringBuilder sb = new StringBuilder("new byte[] {");
+        for (int i = 0; i < bytes.length; ++i) {
+            if (i != 0) {
+                sb.append(", ");
+            }
+            sb.append(bytes[i]);
+        }
+        return sb.append("}").toString();
+    }
+
+    private void checkStringType() {
+        if (!isStringType()) {
+            throw new UnsupportedOperationException("unsupported deserialize protobuf " + fd.getType() + " to " + type);
+        }
+    }
+
+    // 读取值转换为列类型对应的基本类型
+    private String getCastCode(String valueCode) {
+        switch (type.getTypeRoot()) {
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+            case FLOAT:
+            case DOUBLE:
+                return ProtobufUtils.getCastCode(fd, type, valueCode);
+            case BOOLEAN:
+                return valueCode;
+            default:
+                throw new UnsupportedOperationException("unsupported deserialize protobuf " + fd.getType() + " to " + type);
+        }
+    }
+
+    private static String escape(String str) {
+        StringBuilder sb = new StringBuilder();
+        for (char ch : str.toCharArray()) {
+            if (ch == '"' || ch == '\\') {
+                sb.append('\\').append(ch);
+            } else if (ch < 0x20 || ch > 0x7e) {
+                sb.append(format("\\u%04x", (int) ch));
+            } else {
+                sb.append(ch);
+            }
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,201 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import com.google.protobuf.Descriptors;
+import org.apache.flink.table.data.DecimalData;
+import org.apache.flink.table.types.logical.DecimalType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.LogicalTypeRoot;
+
+import java.util.function.Function;
+
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.getCodedStreamMethodSuffix;
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.getJavaFullName;
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.getPrimitiveType;
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.isDefaultValueSkipped;
+import static com.sdu.streaming.warehouse.utils.VariableUtils.getSerialId;
+import static java.lang.String.format;
+
+public class BasicTypeSerializerCodeGenerator implements TypeSerializerCodeGenerator {
+
+    private final Descriptors.FieldDescriptor fd;
+    private final LogicalType type;
+
+    public BasicTypeSerializerCodeGenerator(Descriptors.FieldDescriptor fd, LogicalType type) {
+        this.fd = fd;
+        this.type = type;
+    }
+
+    @Override
+    public String codegenSize(String sizeVariable, String inputCode) {
+        return skipDefaultValue(inputCode, value -> codegenSizeValue(sizeVariable, value));
+    }
+
+    @Override
+    public String codegenWrite(String outputVariable, String inputCode) {
+        return skipDefaultValue(inputCode, value -> codegenWriteValue(outputVariable, value));
+    }
+
+    private String codegenSizeValue(String sizeVariable, String valueCode) {
+        if (isLengthDelimited()) {
+            if (isStringType()) {
+                return format("%s += ProtobufSerializerUtils.computeStringSize(%d, %s);", sizeVariable, fd.getNumber(), valueCode);
+            }
+            return format("%s += CodedOutputStream.compute%sSize(%d, %s);", sizeVariable, getLengthDelimitedSuffix(), fd.getNumber(), valueCode);
+        }
+        return format("%s += CodedOutputStream.compute%sSize(%d, %s);", sizeVariable, getCodedStreamMethodSuffix(fd), fd.getNumber(), valueCode);
+    }
+
+    private String codegenWriteValue(String outputVariable, String valueCode) {
+        if (isLengthDelimited()) {
+            if (isStringType()) {
+                return format("ProtobufSerializerUtils.writeString(%s, %d, %s);", outputVariable, fd.getNumber(), valueCode);
+            }
+            return format("%s.write%s(%d, %s);", outputVariable, getLengthDelimitedSuffix(), fd.getNumber(), valueCode);
+        }
+        return format("%s.write%s(%d, %s);", outputVariable, getCodedStreamMethodSuffix(fd), fd.getNumber(), valueCode);
+    }
+
+    // proto3 无 presence 的字段与 protobuf-java 一致, 默认值不写入
+    private String skipDefaultValue(String inputCode, Function<String, String> valueCodeGenerator) {
+        String valueCode = getFieldValueCode(inputCode);
+        if (!isDefaultValueSkipped(fd)) {
+            return valueCodeGenerator.apply(valueCode);
+        }
+        String value = format("value$%d", getSerialId());
+        return format("{ %s %s = %s; if (%s) { %s } }",
+                getFieldValueType(), value, valueCode, getNotDefaultCode(value), valueCodeGenerator.apply(value));
+    }
+
+    // 写入 protobuf 的值: 字符串列为 StringData, 其余转换为字段类型
+    private String getFieldValueCode(String inputCode) {
+        if (isLengthDelimited()) {
+            return isStringType() ? inputCode : getLengthDelimitedValueCode(inputCode);
+        }
+        return getValueCode(inputCode);
+    }
+
+    private String getFieldValueType() {
+        if (isLengthDelimited()) {
+            if (isStringType()) {
+                return "StringData";
+            }
+            return "String".equals(getLengthDelimitedSuffix()) ? "String" : "byte[]";
+        }
+        return getPrimitiveType(fd);
+    }
+
+    private String getNotDefaultCode(String value) {
+        if (isLengthDelimited()) {
+            if (isStringType()) {
+                return format("!ProtobufSerializerUtils.isEmpty(%s)", value);
+            }
+            return "String".equals(getLengthDelimitedSuffix()) ? format("!%s.isEmpty()", value) : format("%s.length != 0", value);
+        }
+        if (fd.getJavaType() == Descriptors.FieldDescriptor.JavaType.BOOLEAN) {
+            return value;
+        }
+        return format("%s != 0", value);
+    }
+
+    // packed repeated 元素: 不写 tag
+    public String codegenSizeNoTag(String sizeVariable, String inputCode) {
+        return format("%s += CodedOutputStream.compute%sSizeNoTag(%s);", sizeVariable, getCodedStreamMethodSuffix(fd), getValueCode(inputCode));
+    }
+
+    public String codegenWriteNoTag(String outputVariable, String inputCode) {
+        return format("%s.write%sNoTag(%s);", outputVariable, getCodedStreamMethodSuffix(fd), getValueCode(inputCode));
+    }
+
+    private boolean isLengthDelimited() {
+        switch (fd.getType()) {
+            case STRING:
+            case BYTES:
+                switch (type.getTypeRoot()) {
+                    case CHAR:
+                    case VARCHAR:
+                    case BINARY:
+                    case VARBINARY:
+                    case DECIMAL:
+                        return true;
+                    default:
+                        throw new UnsupportedOperationException("unsupported serialize " + type + " to protobuf " + fd.getType());
+                }
+            default:
+                return false;
+        }
+    }
+
+    private boolean isStringType() {
+        switch (type.getTypeRoot()) {
+            case CHAR:
+            case VARCHAR:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // DECIMAL 写入 string 字段为十进制文本, 其余写入字节数组
+    private String getLengthDelimitedSuffix() {
+        if (type.getTypeRoot() == LogicalTypeRoot.DECIMAL && fd.getType() == Descriptors.FieldDescriptor.Type.STRING) {
+            return "String";
+        }
+        return "ByteArray";
+    }
+
+    private String getLengthDelimitedValueCode(String inputCode) {
+        if (type.getTypeRoot() != LogicalTypeRoot.DECIMAL) {
+            return inputCode;
+        }
+        if (fd.getType() == Descriptors.FieldDescriptor.Type.STRING) {
+            return format("%s.toBigDecimal().toPlainString()", inputCode);
+        }
+        return format("%s.toUnscaledBytes()", inputCode);
+    }
+
+    private String getValueCode(String inputCode) {
+        switch (type.getTypeRoot()) {
+            case CHAR:
+            case VARCHAR:
+                if (fd.getType() == Descriptors.FieldDescriptor.Type.ENUM) {
+                    // 枚举按名称转换为编号
+                    return format("%s.valueOf(%s.toString()).getNumber()", getJavaFullName(fd.getEnumType()), inputCode);
+                }
+                throw new UnsupportedOperationException("unsupported serialize " + type + " to protobuf " + fd.getType());
+            case DECIMAL:
+                // 整型字段为非标度值, 仅支持 precision <= 18 (非标度值可用 long 表示), 超出 int32 范围时抛出异常
+                switch (fd.getJavaType()) {
+                    case INT:
+                        checkCompactDecimal();
+                        return format("Math.toIntExact(%s.toUnscaledLong())", inputCode);
+                    case LONG:
+                        checkCompactDecimal();
+                        return format("%s.toUnscaledLong()", inputCode);
+                    case FLOAT:
+                        return format("%s.toBigDecimal().floatValue()", inputCode);
+                    case DOUBLE:
+                        return format("%s.toBigDecimal().doubleValue()", inputCode);
+                    default:
+                        throw new UnsupportedOperationException("unsupported serialize " + type + " to protobuf " + fd.getType());
+                }
+            case TIMESTAMP_WITHOUT_TIME_ZONE:
+            case TIMESTAMP_WITH_LOCAL_TIME_ZONE:
+                // 整型字段为 epoch 毫秒, int32 无法表示
+                switch (fd.getJavaType()) {
+                    case LONG:
+                        return format("%s.getMillisecond()", inputCode);
+                    default:
+                        throw new UnsupportedOperationException("unsupported serialize " + type + " to protobuf " + fd.getType());
+                }
+            default:
+                return inputCode;
+        }
+    }
+
+    private void checkCompactDecimal() {
+        if (!DecimalData.isCompact(((DecimalType) type).getPrecision())) {
+            throw new UnsupportedOperationException("unsupported serialize " + type + " to protobuf " + fd.getType() + ", precision must be <= 18");
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.WireFormat;
+import org.apache.flink.table.types.logical.MapType;
+
+import java.util.Map;
+
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufTypeConverterFactory.getProtobufTypeDecoderCodeGenerator;
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.makeTag;
+import static com.sdu.streaming.warehouse.utils.VariableUtils.getSerialId;
+import static java.lang.String.format;
+
+public class MapTypeDecoderCodeGenerator implements TypeDecoderCodeGenerator {
+
+    private final Descriptors.FieldDescriptor fd;
+    private final TypeDecoderCodeGenerator keyCodeGenerator;
+    private final TypeDecoderCodeGenerator valueCodeGenerator;
+
+    public MapTypeDecoderCodeGenerator(Descriptors.FieldDescriptor fd, MapType type, Map<String, String[]> fieldMappings) {
+        this.fd = fd;
+        Descriptors.FieldDescriptor keyFd = fd.getMessageType().findFieldByName("key");
+        Descriptors.FieldDescriptor valueFd = fd.getMessageType().findFieldByName("value");
+        this.keyCodeGenerator = getProtobufTypeDecoderCodeGenerator(fieldMappings, keyFd, type.getKeyType());
+        this.valueCodeGenerator = getProtobufTypeDecoderCodeGenerator(fieldMappings, valueFd, type.getValueType());
+    }
+
+    @Override
+    public int[] getTags() {
+        return new int[] {makeTag(fd.getNumber(), WireFormat.WIRETYPE_LENGTH_DELIMITED)};
+    }
+
+    @Override
+    public String codegenRead(String resultVariable, String inputVariable, int tag) {
+        /*
+         * 代码: map entry 是嵌套消息 {key = 1, value = 2}
+         *   int limit = input.pushLimit(input.readRawVarint32());
+         *   Object key = null; Object value = null;
+         *   while (!done) { switch (input.readTag()) { ... } }
+         *   input.popLimit(limit);
+         *   ((HashMap) result).put(key, value);
+         * */
+        StringBuilder sb = new StringBuilder("{");
+        String limit = format("limit$%d", getSerialId());
+        String key = format("key$%d", getSerialId());
+        String value = format("value$%d", getSerialId());
+        String done = format("done$%d", getSerialId());
+        String entryTag = format("tag$%d", getSerialId());
+        sb.append(format("int %s = %s.pushLimit(%s.readRawVarint32());", limit, inputVariable, inputVariable));
+        sb.append(format("Object %s = null;", key));
+        sb.append(format("Object %s = null;", value));
+        sb.append(format("boolean %s = false;", done));
+        sb.append(format("while (!%s) { int %s = %s.readTag(); switch (%s) { ", done, entryTag, inputVariable, entryTag));
+        sb.append(format("case 0: %s = true; break;", done));
+        sb.append(codegenCase(keyCodeGenerator, key, inputVariable));
+        sb.append(codegenCase(valueCodeGenerator, value, inputVariable));
+        sb.append(format("default: if (!%s.skipField(%s)) { %s = true; } break; } }", inputVariable, entryTag, done));
+        sb.append(format("%s.popLimit(%s);", inputVariable, limit));
+        sb.append(codegenResultOrDefault(keyCodeGenerator, key));
+        sb.append(codegenResultOrDefault(valueCodeGenerator, value));
+        sb.append(format("if (%s == null) { %s = new HashMap(); }", resultVariable, resultVariable));
+        sb.append(format("((HashMap) %s).put(%s, %s);", resultVariable, key, value));
+        sb.append("}");
+        return sb.toString();
+    }
+
+    @Override
+    public String codegenResult(String resultVariable) {
+        return format("new GenericMapData((HashMap) %s)", resultVariable);
+    }
+
+    @Override
+    public String codegenDefault() {
+        return "new GenericMapData(new HashMap())";
+    }
+
+    private static String codegenCase(TypeDecoderCodeGenerator codeGenerator, String resultVariable, String inputVariable) {
+        StringBuilder sb = new StringBuilder();
+        for (int tag : codeGenerator.getTags()) {
+            sb.append(format("case %d: { %s } break;", tag, codeGenerator.codegenRead(resultVariable, inputVariable, tag)));
+        }
+        return sb.toString();
+    }
+
+    private static String codegenResultOrDefault(TypeDecoderCodeGenerator codeGenerator, String resultVariable) {
+        return format("if (%s == null) { %s = %s; } else { %s = %s; }", resultVariable, resultVariable, codeGenerator.codegenDefault(),
+                resultVariable, codeGenerator.codegenResult(resultVariable));
+    }
+
+}
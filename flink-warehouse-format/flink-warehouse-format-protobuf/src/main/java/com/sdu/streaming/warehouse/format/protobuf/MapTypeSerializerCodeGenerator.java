@@ -0,0 +1,95 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import com.google.protobuf.Descriptors;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.MapType;
+
+import java.util.Map;
+
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufTypeConverterFactory.getProtobufTypeSerializerCodeGenerator;
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.getFlinkValueCode;
+import static com.sdu.streaming.warehouse.utils.VariableUtils.getSerialId;
+import static java.lang.String.format;
+
+public class MapTypeSerializerCodeGenerator implements TypeSerializerCodeGenerator {
+
+    private final Descriptors.FieldDescriptor fd;
+    private final LogicalType keyType;
+    private final LogicalType valueType;
+    private final TypeSerializerCodeGenerator keyCodeGenerator;
+    private final TypeSerializerCodeGenerator valueCodeGenerator;
+
+    public MapTypeSerializerCodeGenerator(Descriptors.FieldDescriptor fd, MapType type, Map<String, String[]> fieldMappings) {
+        this.fd = fd;
+        this.keyType = type.getKeyType();
+        this.valueType = type.getValueType();
+        Descriptors.FieldDescriptor keyFd = fd.getMessageType().findFieldByName("key");
+        Descriptors.FieldDescriptor valueFd = fd.getMessageType().findFieldByName("value");
+        this.keyCodeGenerator = getProtobufTypeSerializerCodeGenerator(fieldMappings, keyFd, keyType);
+        this.valueCodeGenerator = getProtobufTypeSerializerCodeGenerator(fieldMappings, valueFd, valueType);
+    }
+
+    @Override
+    public String codegenSize(String sizeVariable, String inputCode) {
+        /*
+         * 代码:
+         * MapData input = inputCode;
+         * ArrayData keys = input.keyArray();
+         * ArrayData values = input.valueArray();
+         * for (int i = 0; i < input.size(); ++i) {
+         *      int entry = key size + value size;
+         *      size += tag + length + entry;
+         * }
+         * */
+        String entry = format("entry$%d", getSerialId());
+        return forEachEntry(inputCode, entry, (keys, values, index) ->
+                format("%s += ProtobufSerializerUtils.computeMessageSize(%d, %s);", sizeVariable, fd.getNumber(), entry));
+    }
+
+    @Override
+    public String codegenWrite(String outputVariable, String inputCode) {
+        String entry = format("entry$%d", getSerialId());
+        return forEachEntry(inputCode, entry, (keys, values, index) ->
+                format("ProtobufSerializerUtils.writeMessageHeader(%s, %d, %s);", outputVariable, fd.getNumber(), entry)
+                        + keyCodeGenerator.codegenWrite(outputVariable, getFlinkValueCode(keyType, keys, index))
+                        + ifValueNotNull(values, index, valueCodeGenerator.codegenWrite(outputVariable, getFlinkValueCode(valueType, values, index))));
+    }
+
+    // 先计算 entry(key + value) 大小, 再拼接 entryCode
+    private String forEachEntry(String inputCode, String entry, EntryCodeGenerator entryCode) {
+        StringBuilder sb = new StringBuilder("{");
+        String input = format("input$%d", getSerialId());
+        String keys = format("keys$%d", getSerialId());
+        String values = format("values$%d", getSerialId());
+        String index = format("index$%d", getSerialId());
+        sb.append(format("MapData %s = %s;", input, inputCode));
+        sb.append(format("ArrayData %s = %s.keyArray();", keys, input));
+        sb.append(format("ArrayData %s = %s.valueArray();", values, input));
+        sb.append(format("for (int %s = 0; %s < %s.size(); ++%s) { ", index, index, input, index));
+        if (keyType.isNullable()) {
+            sb.append(format("if (%s.isNullAt(%s)) { continue; }", keys, index));
+        }
+        sb.append(format("int %s = 0;", entry));
+        sb.append(keyCodeGenerator.codegenSize(entry, getFlinkValueCode(keyType, keys, index)));
+        sb.append(ifValueNotNull(values, index, valueCodeGenerator.codegenSize(entry, getFlinkValueCode(valueType, values, index))));
+        sb.append(entryCode.codegen(keys, values, index));
+        sb.append("}");
+        sb.append("}");
+        return sb.toString();
+    }
+
+    // null key 跳过, null value 不写入(读取时为默认值)
+    private String ifValueNotNull(String values, String index, String code) {
+        if (!valueType.isNullable()) {
+            return code;
+        }
+        return format("if (!%s.isNullAt(%s)) { %s }", values, index, code);
+    }
+
+    private interface EntryCodeGenerator {
+
+        String codegen(String keys, String values, String index);
+
+    }
+
+}
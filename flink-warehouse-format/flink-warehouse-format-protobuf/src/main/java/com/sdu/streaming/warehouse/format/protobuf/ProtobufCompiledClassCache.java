@@ -0,0 +1,36 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import org.apache.flink.shaded.guava30.com.google.common.cache.Cache;
+import org.apache.flink.shaded.guava30.com.google.common.cache.CacheBuilder;
+
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import static org.apache.flink.table.runtime.generated.CompileUtils.compile;
+
+// JVM 级别的生成类缓存: 同一 TaskManager 内相同(protobuf 类, RowType, 字段映射, 选项)只生成代码并编译一次;
+// 生成代码变量名带序号, 每次生成的代码都不同, 无法命中 CompileUtils 按代码缓存的编译结果
+public class ProtobufCompiledClassCache {
+
+    private static final int MAX_CACHED_KEYS = 256;
+
+    // key -> (ClassLoader -> Class), ClassLoader 弱引用, 作业卸载后可回收
+    private static final Cache<String, Cache<ClassLoader, Class<?>>> COMPILED_CACHE =
+            CacheBuilder.newBuilder().maximumSize(MAX_CACHED_KEYS).softValues().build();
+
+    private ProtobufCompiledClassCache() {
+
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Class<T> getOrCompile(ClassLoader classLoader, String key, String className, Supplier<String> codegen) {
+        try {
+            Cache<ClassLoader, Class<?>> compiledClasses = COMPILED_CACHE.get(key,
+                    () -> CacheBuilder.newBuilder().weakKeys().softValues().build());
+            return (Class<T>) compiledClasses.get(classLoader, () -> compile(classLoader, className, codegen.get()));
+        } catch (ExecutionException e) {
+            throw new RuntimeException("failed compile protobuf class: " + className, e.getCause());
+        }
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import org.apache.flink.table.data.DecimalData;
+import org.apache.flink.table.data.TimestampData;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+// 生成代码调用的类型转换方法
+public class ProtobufDeserializerUtils {
+
+    private ProtobufDeserializerUtils() {
+
+    }
+
+    // 字符串表示的 DECIMAL, 空字符串(protobuf 默认值)返回 null
+    public static DecimalData toDecimal(String value, int precision, int scale) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        return DecimalData.fromBigDecimal(new BigDecimal(value), precision, scale);
+    }
+
+    public static DecimalData toDecimal(byte[] utf8, int precision, int scale) {
+        return toDecimal(new String(utf8, StandardCharsets.UTF_8), precision, scale);
+    }
+
+    // 二进制补码表示的非标度值(unscaled value), 空字节返回 null
+    public static DecimalData toUnscaledDecimal(byte[] unscaled, int precision, int scale) {
+        if (unscaled.length == 0) {
+            return null;
+        }
+        return DecimalData.fromBigDecimal(new BigDecimal(new BigInteger(unscaled), scale), precision, scale);
+    }
+
+    // 整型字段读取为 TINYINT / SMALLINT, 超出范围时抛出异常
+    public static byte toByteExact(long value) {
+        if ((byte) value != value) {
+            throw new ArithmeticException("byte overflow: " + value);
+        }
+        return (byte) value;
+    }
+
+    public static short toShortExact(long value) {
+        if ((short) value != value) {
+            throw new ArithmeticException("short overflow: " + value);
+        }
+        return (short) value;
+    }
+
+    // google.protobuf.Timestamp: nanos 取值 [0, 999999999]
+    public static TimestampData toTimestamp(long seconds, int nanos) {
+        return TimestampData.fromEpochMillis(seconds * 1000L + nanos / 1000000, nanos % 1000000);
+    }
+
+}
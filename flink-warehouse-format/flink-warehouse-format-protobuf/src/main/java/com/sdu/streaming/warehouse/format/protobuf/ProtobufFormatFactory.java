@@ -6,8 +6,11 @@ import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.configuration.ConfigOption;
 import org.apache.flink.configuration.ReadableConfig;
 import org.apache.flink.table.connector.ChangelogMode;
+import org.apache.flink.table.connector.Projection;
 import org.apache.flink.table.connector.format.DecodingFormat;
 import org.apache.flink.table.connector.format.EncodingFormat;
+import org.apache.flink.table.connector.format.ProjectableDecodingFormat;
+import org.apache.flink.table.connector.sink.DynamicTableSink;
 import org.apache.flink.table.connector.source.DynamicTableSource;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.factories.DeserializationFormatFactory;
@@ -33,15 +36,22 @@ public class ProtobufFormatFactory implements DeserializationFormatFactory, Seri
         final String fieldMapping = formatOptions.get(PROTOBUF_FIELD_MAPPING);
         final boolean ignoreParseError = formatOptions.get(PROTOBUF_IGNORE_PARSE_ERROR);
         final boolean ignoreDefaultValue = formatOptions.get(PROTOBUF_IGNORE_DEFAULT_VALUE);
+        final boolean directDecode = formatOptions.get(PROTOBUF_DIRECT_DECODE);
 
-        return new DecodingFormat<DeserializationSchema<RowData>>() {
+        return new ProjectableDecodingFormat<DeserializationSchema<RowData>>() {
 
             @Override
-            public DeserializationSchema<RowData> createRuntimeDecoder(DynamicTableSource.Context context, DataType produceDataType) {
-                final RowType rowType = (RowType) produceDataType.getLogicalType();
+            public DeserializationSchema<RowData> createRuntimeDecoder(DynamicTableSource.Context context, DataType physicalDataType, int[][] projections) {
+                final RowType rowType = (RowType) physicalDataType.getLogicalType();
+                final DataType produceDataType = Projection.of(projections).project(physicalDataType);
                 final TypeInformation<RowData> rowDataTypeInfo = context.createTypeInformation(produceDataType);
                 return new ProtobufRowDataDeserializationSchema(rowType, rowDataTypeInfo, clazz,
-                        fieldMapping, ignoreParseError, ignoreDefaultValue);
+                        fieldMapping, ignoreParseError, ignoreDefaultValue, directDecode, projections);
+            }
+
+            @Override
+            public boolean supportsNestedProjection() {
+                return true;
             }
 
             @Override
@@ -53,7 +63,23 @@ public class ProtobufFormatFactory implements DeserializationFormatFactory, Seri
 
     @Override
     public EncodingFormat<SerializationSchema<RowData>> createEncodingFormat(DynamicTableFactory.Context context, ReadableConfig formatOptions) {
-        throw new UnsupportedOperationException("unsupported serialize object to protobuf bytes.");
+        FactoryUtil.validateFactoryOptions(this, formatOptions);
+        final String clazz = formatOptions.get(PROTOBUF_CLASS);
+        final String fieldMapping = formatOptions.get(PROTOBUF_FIELD_MAPPING);
+
+        return new EncodingFormat<SerializationSchema<RowData>>() {
+
+            @Override
+            public SerializationSchema<RowData> createRuntimeEncoder(DynamicTableSink.Context context, DataType consumedDataType) {
+                final RowType rowType = (RowType) consumedDataType.getLogicalType();
+                return new ProtobufRowDataSerializationSchema(rowType, clazz, fieldMapping);
+            }
+
+            @Override
+            public ChangelogMode getChangelogMode() {
+                return ChangelogMode.insertOnly();
+            }
+        };
     }
 
     @Override
@@ -74,6 +100,7 @@ public class ProtobufFormatFactory implements DeserializationFormatFactory, Seri
         options.add(PROTOBUF_FIELD_MAPPING);
         options.add(PROTOBUF_IGNORE_PARSE_ERROR);
         options.add(PROTOBUF_IGNORE_DEFAULT_VALUE);
+        options.add(PROTOBUF_DIRECT_DECODE);
         return options;
     }
 
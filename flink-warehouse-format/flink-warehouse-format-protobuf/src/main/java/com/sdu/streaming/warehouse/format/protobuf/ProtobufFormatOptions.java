@@ -32,6 +32,14 @@ public class ProtobufFormatOptions {
                     .booleanType()
                     .defaultValue(false);
 
+    public static final ConfigOption<Boolean> PROTOBUF_DIRECT_DECODE =
+            ConfigOptions.key("protobuf-direct-decode")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Optional flag to decode protobuf wire format directly into row, only mapped fields are decoded\n"
+                                    + "and others are skipped without building protobuf object, false by default.");
+
     private ProtobufFormatOptions() {
 
     }
@@ -0,0 +1,139 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import com.google.protobuf.Descriptors;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+// 按字段路径组织的消息结构: 路径 $.a.b 的列属于嵌套消息 a, 同一前缀的列共享同一个嵌套消息
+public class ProtobufMessageNode<T> {
+
+    private final Descriptors.Descriptor descriptor;
+    private final List<Field<T>> fields;
+
+    private ProtobufMessageNode(Descriptors.Descriptor descriptor) {
+        this.descriptor = descriptor;
+        this.fields = new ArrayList<>();
+    }
+
+    public Descriptors.Descriptor getDescriptor() {
+        return descriptor;
+    }
+
+    // 按字段编号排序
+    public List<Field<T>> getFields() {
+        return fields;
+    }
+
+    private ProtobufMessageNode<T> getOrCreateMessage(Descriptors.FieldDescriptor fd) {
+        for (Field<T> field : fields) {
+            if (field.message != null && field.fd.equals(fd)) {
+                return field.message;
+            }
+        }
+        Field<T> field = new Field<>(fd, -1, null, null, new ProtobufMessageNode<>(fd.getMessageType()));
+        fields.add(field);
+        return field.message;
+    }
+
+    private void sortByFieldNumber() {
+        fields.sort(Comparator.comparingInt(field -> field.fd.getNumber()));
+        for (Field<T> field : fields) {
+            if (field.message != null) {
+                field.message.sortByFieldNumber();
+            }
+        }
+    }
+
+    public static <T> ProtobufMessageNode<T> of(
+            Descriptors.Descriptor descriptor,
+            RowType rowType,
+            Map<String, String[]> fieldMappings,
+            BiFunction<Descriptors.FieldDescriptor, LogicalType, T> codeGeneratorFactory) {
+        ProtobufMessageNode<T> message = new ProtobufMessageNode<>(descriptor);
+        for (int index = 0; index < rowType.getFieldCount(); ++index) {
+            String fieldName = rowType.getFieldNames().get(index);
+            // 未配置映射的嵌套 Row 字段按同名字段读写
+            String[] fields = fieldMappings.getOrDefault(fieldName, new String[] {fieldName});
+            ProtobufMessageNode<T> node = message;
+            for (int i = 0; i < fields.length - 1; ++i) {
+                Descriptors.FieldDescriptor fd = findFieldDescriptor(node.descriptor, fields, i);
+                if (fd.getJavaType() != Descriptors.FieldDescriptor.JavaType.MESSAGE || fd.isRepeated()) {
+                    throw new RuntimeException("field path should be message type: " + join(fields, i));
+                }
+                node = node.getOrCreateMessage(fd);
+            }
+            Descriptors.FieldDescriptor fd = findFieldDescriptor(node.descriptor, fields, fields.length - 1);
+            LogicalType type = rowType.getTypeAt(index);
+            node.fields.add(new Field<>(fd, index, type, codeGeneratorFactory.apply(fd, type), null));
+        }
+        message.sortByFieldNumber();
+        return message;
+    }
+
+    private static Descriptors.FieldDescriptor findFieldDescriptor(Descriptors.Descriptor descriptor, String[] fields, int offset) {
+        Descriptors.FieldDescriptor fd = descriptor.findFieldByName(fields[offset]);
+        if (fd == null) {
+            throw new RuntimeException("cant find field descriptor for path: " + join(fields, offset));
+        }
+        return fd;
+    }
+
+    private static String join(String[] fields, int offset) {
+        StringBuilder sb = new StringBuilder("$");
+        for (int i = 0; i <= offset; ++i) {
+            sb.append(".");
+            sb.append(fields[i]);
+        }
+        return sb.toString();
+    }
+
+    // 列字段或者字段路径上的嵌套消息
+    public static class Field<T> {
+
+        private final Descriptors.FieldDescriptor fd;
+        private final int index;
+        private final LogicalType type;
+        private final T codeGenerator;
+        private final ProtobufMessageNode<T> message;
+
+        private Field(Descriptors.FieldDescriptor fd, int index, LogicalType type, T codeGenerator, ProtobufMessageNode<T> message) {
+            this.fd = fd;
+            this.index = index;
+            this.type = type;
+            this.codeGenerator = codeGenerator;
+            this.message = message;
+        }
+
+        public Descriptors.FieldDescriptor getFieldDescriptor() {
+            return fd;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public LogicalType getType() {
+            return type;
+        }
+
+        public T getCodeGenerator() {
+            return codeGenerator;
+        }
+
+        public ProtobufMessageNode<T> getMessage() {
+            return message;
+        }
+
+        public boolean isMessage() {
+            return message != null;
+        }
+
+    }
+
+}
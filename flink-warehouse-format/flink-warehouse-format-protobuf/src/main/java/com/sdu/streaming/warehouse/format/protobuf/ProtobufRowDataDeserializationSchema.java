@@ -5,21 +5,24 @@ import com.sdu.streaming.warehouse.utils.FreeMarkerUtils;
 import org.apache.flink.annotation.Internal;
 import org.apache.flink.api.common.serialization.DeserializationSchema;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.table.connector.Projection;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.types.logical.RowType;
 import org.apache.flink.util.InstantiationUtil;
-import org.apache.flink.util.UserCodeClassLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
 import static com.sdu.streaming.warehouse.format.protobuf.ProtobufTypeConverterFactory.getRowTypeConverterCodeGenerator;
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufTypeConverterFactory.getRowTypeDecoderCodeGenerator;
 import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.getJavaFullName;
 import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.getProtobufDescriptor;
-import static org.apache.flink.table.runtime.generated.CompileUtils.compile;
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.projectFieldMappings;
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.standardFieldMappings;
 
 @Internal
 public class ProtobufRowDataDeserializationSchema implements DeserializationSchema<RowData> {
@@ -36,13 +39,18 @@ public class ProtobufRowDataDeserializationSchema implements DeserializationSche
 
     private static final String PROTOBUF_ROW_CONVERTER_CLASS = "com.sdu.streaming.warehouse.format.protobuf.ProtobufRuntimeRowDataConverter";
 
+    private static final String PROTOBUF_DECODER_TEMPLATE_NAME = "ProtobufRuntimeRowDataDecoder.ftl";
+    private static final String PROTOBUF_ROW_DECODER_CLASS = "com.sdu.streaming.warehouse.format.protobuf.ProtobufRuntimeRowDataDecoder";
+
     private final RowType rowType;
     private final TypeInformation<RowData> resultTypeInfo;
     private final String clazz;
     private final boolean ignoreParserErrors;
     private final boolean ignoreDefaultValue;
     private final String fieldMapping;
-
+    private final boolean directDecode;
+    // 投影字段路径, 为 null 时读取全部字段
+    private final int[][] projections;
 
     private transient RuntimeRowDataConverter runtimeRowDataConverter;
 
@@ -52,38 +60,77 @@ public class ProtobufRowDataDeserializationSchema implements DeserializationSche
             String clazz,
             String fieldMapping,
             boolean ignoreParserErrors,
-            boolean ignoreDefaultValue) {
+            boolean ignoreDefaultValue,
+            boolean directDecode) {
+        this(rowType, resultTypeInfo, clazz, fieldMapping, ignoreParserErrors, ignoreDefaultValue, directDecode, null);
+    }
+
+    public ProtobufRowDataDeserializationSchema(
+            RowType rowType,
+            TypeInformation<RowData> resultTypeInfo,
+            String clazz,
+            String fieldMapping,
+            boolean ignoreParserErrors,
+            boolean ignoreDefaultValue,
+            boolean directDecode,
+            int[][] projections) {
         this.rowType = rowType;
         this.resultTypeInfo = resultTypeInfo;
         this.fieldMapping = fieldMapping;
         this.clazz = clazz;
         this.ignoreParserErrors = ignoreParserErrors;
         this.ignoreDefaultValue = ignoreDefaultValue;
+        this.directDecode = directDecode;
+        this.projections = projections;
     }
 
     @Override
     public void open(InitializationContext context) throws Exception {
+        // 相同 protobuf 类 + RowType + 字段映射 + 选项的生成类只编译一次
+        ClassLoader classLoader = context.getUserCodeClassLoader().asClassLoader();
+        String className = directDecode ? PROTOBUF_ROW_DECODER_CLASS : PROTOBUF_ROW_CONVERTER_CLASS;
+        Class<RuntimeRowDataConverter> rowDataConverterClazz = ProtobufCompiledClassCache.getOrCompile(
+                classLoader, getCacheKey(), className, () -> codegen(classLoader));
+        this.runtimeRowDataConverter = InstantiationUtil.instantiate(rowDataConverterClazz);
+    }
+
+    private String codegen(ClassLoader classLoader) {
         // STEP1: 数据读取映射
-        Descriptors.Descriptor descriptor = getProtobufDescriptor(clazz, context.getUserCodeClassLoader().asClassLoader());
+        Descriptors.Descriptor descriptor = getProtobufDescriptor(clazz, classLoader);
         Map<String, String[]> fieldMappings = standardFieldMappings(fieldMapping, rowType);
+        RowType producedType = rowType;
+        if (projections != null) {
+            // 只为投影字段生成代码
+            producedType = (RowType) Projection.of(projections).project(rowType);
+            fieldMappings = projectFieldMappings(fieldMappings, rowType, producedType, projections);
+        }
         // STEP2: 生成模板代码
         Map<String, Object> props = new HashMap<>();
         props.put(PROTOBUF_CLASS_MACRO, getJavaFullName(descriptor));
         props.put(PROTOBUF_INPUT_MACRO, PROTOBUF_INPUT_VAR_NAME);
         props.put(PROTOBUF_OUTPUT_MACRO, PROTOBUF_OUTPUT_VAR_NAME);
 
-        TypeConverterCodeGenerator codeGenerator = getRowTypeConverterCodeGenerator(descriptor, rowType, fieldMappings, ignoreDefaultValue);
-//        String code = codeGenerator.codegen(PROTOBUF_OUTPUT_VAR_NAME, PROTOBUF_INPUT_VAR_NAME);
-//        LOG.info("converter code: {}", code);
-        props.put(PROTOBUF_CONVERT_MACRO, codeGenerator.codegen(PROTOBUF_OUTPUT_VAR_NAME, PROTOBUF_INPUT_VAR_NAME));
+        String templateName = PROTOBUF_CODE_TEMPLATE_NAME;
+        if (directDecode) {
+            RowTypeDecoderCodeGenerator codeGenerator = getRowTypeDecoderCodeGenerator(descriptor, producedType, fieldMappings);
+            props.put(PROTOBUF_CONVERT_MACRO, codeGenerator.codegen(PROTOBUF_OUTPUT_VAR_NAME, PROTOBUF_INPUT_VAR_NAME));
+            templateName = PROTOBUF_DECODER_TEMPLATE_NAME;
+        } else {
+            TypeConverterCodeGenerator codeGenerator = getRowTypeConverterCodeGenerator(descriptor, producedType, fieldMappings, ignoreDefaultValue);
+            props.put(PROTOBUF_CONVERT_MACRO, codeGenerator.codegen(PROTOBUF_OUTPUT_VAR_NAME, PROTOBUF_INPUT_VAR_NAME));
+        }
 
-        String codegen = FreeMarkerUtils.getTemplateCode(PROTOBUF_CODE_TEMPLATE_NAME, props);
-        LOG.info("codegen: \n {}", codegen);
+        String codegen = FreeMarkerUtils.getTemplateCode(templateName, props);
+        LOG.debug("codegen: \n {}", codegen);
+        return codegen;
+    }
 
-        // STEP3: 构建实例
-        UserCodeClassLoader userCodeClassLoader = context.getUserCodeClassLoader();
-        Class<RuntimeRowDataConverter> rowDataConverterClazz = compile(userCodeClassLoader.asClassLoader(), PROTOBUF_ROW_CONVERTER_CLASS, codegen);
-        this.runtimeRowDataConverter = InstantiationUtil.instantiate(rowDataConverterClazz);
+    // 缓存 key 包含决定生成代码的全部输入: protobuf 类名, 原始 RowType, 字段映射, 投影路径, directDecode, ignoreDefaultValue;
+    // resultTypeInfo 只用于 getProducedType, ignoreParserErrors 只在 deserialize 中处理, 均不影响生成代码, 不放入 key.
+    // 生成类另按 ClassLoader 区分(见 ProtobufCompiledClassCache)
+    private String getCacheKey() {
+        return String.join("|", "deserializer", clazz, rowType.asSummaryString(), String.valueOf(fieldMapping),
+                Arrays.deepToString(projections), String.valueOf(directDecode), String.valueOf(ignoreDefaultValue));
     }
 
     @Override
@@ -111,24 +158,4 @@ public class ProtobufRowDataDeserializationSchema implements DeserializationSche
     public TypeInformation<RowData> getProducedType() {
         return resultTypeInfo;
     }
-
-    private static Map<String, String[]> standardFieldMappings(String fieldMapping, RowType rowType) {
-        Map<String, String[]> mappings = new HashMap<>();
-        if (fieldMapping == null || fieldMapping.isEmpty()) {
-            rowType.getFieldNames().forEach((field) -> {
-                mappings.put(field, new String[] {field});
-            });
-            return mappings;
-        }
-        // format: field1=path1;field1=path1
-        String[] mapping = fieldMapping.split(";");
-        for (String mp : mapping) {
-            String[] nameToPath = mp.split("=");
-            if (!nameToPath[1].startsWith("$.")) {
-                throw new RuntimeException("field path should start with '$.'");
-            }
-            mappings.put(nameToPath[0], nameToPath[1].substring(2).split("\\."));
-        }
-        return mappings;
-    }
 }
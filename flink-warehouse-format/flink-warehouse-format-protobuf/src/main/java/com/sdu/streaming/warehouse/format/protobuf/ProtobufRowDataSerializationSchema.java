@@ -0,0 +1,92 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import com.google.protobuf.Descriptors;
+import com.sdu.streaming.warehouse.utils.FreeMarkerUtils;
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.common.serialization.SerializationSchema;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.util.InstantiationUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufTypeConverterFactory.getRowTypeSerializerCodeGenerator;
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.getProtobufDescriptor;
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.standardFieldMappings;
+
+@Internal
+public class ProtobufRowDataSerializationSchema implements SerializationSchema<RowData> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProtobufRowDataSerializationSchema.class);
+
+    private static final String PROTOBUF_CODE_TEMPLATE_NAME = "ProtobufRuntimeRowDataSerializer.ftl";
+    private static final String PROTOBUF_INPUT_MACRO = "input_variable";
+    private static final String PROTOBUF_INPUT_VAR_NAME = "row";
+    private static final String PROTOBUF_SIZE_MACRO = "size_variable";
+    private static final String PROTOBUF_SIZE_VAR_NAME = "size";
+    private static final String PROTOBUF_OUTPUT_MACRO = "output_variable";
+    private static final String PROTOBUF_OUTPUT_VAR_NAME = "out";
+    private static final String PROTOBUF_SIZE_CODE_MACRO = "size_code";
+    private static final String PROTOBUF_WRITE_CODE_MACRO = "write_code";
+
+    private static final String PROTOBUF_ROW_SERIALIZER_CLASS = "com.sdu.streaming.warehouse.format.protobuf.ProtobufRuntimeRowDataSerializer";
+
+    private final RowType rowType;
+    private final String clazz;
+    private final String fieldMapping;
+
+    private transient RuntimeRowDataSerializer runtimeRowDataSerializer;
+
+    public ProtobufRowDataSerializationSchema(RowType rowType, String clazz, String fieldMapping) {
+        this.rowType = rowType;
+        this.clazz = clazz;
+        this.fieldMapping = fieldMapping;
+    }
+
+    @Override
+    public void open(InitializationContext context) throws Exception {
+        // 相同 protobuf 类 + RowType + 字段映射的生成类只编译一次
+        ClassLoader classLoader = context.getUserCodeClassLoader().asClassLoader();
+        Class<RuntimeRowDataSerializer> rowDataSerializerClazz = ProtobufCompiledClassCache.getOrCompile(
+                classLoader, getCacheKey(), PROTOBUF_ROW_SERIALIZER_CLASS, () -> codegen(classLoader));
+        this.runtimeRowDataSerializer = InstantiationUtil.instantiate(rowDataSerializerClazz);
+    }
+
+    private String codegen(ClassLoader classLoader) {
+        // STEP1: 数据写入映射
+        Descriptors.Descriptor descriptor = getProtobufDescriptor(clazz, classLoader);
+        Map<String, String[]> fieldMappings = standardFieldMappings(fieldMapping, rowType);
+        // STEP2: 生成模板代码
+        Map<String, Object> props = new HashMap<>();
+        props.put(PROTOBUF_INPUT_MACRO, PROTOBUF_INPUT_VAR_NAME);
+        props.put(PROTOBUF_SIZE_MACRO, PROTOBUF_SIZE_VAR_NAME);
+        props.put(PROTOBUF_OUTPUT_MACRO, PROTOBUF_OUTPUT_VAR_NAME);
+
+        TypeSerializerCodeGenerator codeGenerator = getRowTypeSerializerCodeGenerator(descriptor, rowType, fieldMappings);
+        props.put(PROTOBUF_SIZE_CODE_MACRO, codeGenerator.codegenSize(PROTOBUF_SIZE_VAR_NAME, PROTOBUF_INPUT_VAR_NAME));
+        props.put(PROTOBUF_WRITE_CODE_MACRO, codeGenerator.codegenWrite(PROTOBUF_OUTPUT_VAR_NAME, PROTOBUF_INPUT_VAR_NAME));
+
+        String codegen = FreeMarkerUtils.getTemplateCode(PROTOBUF_CODE_TEMPLATE_NAME, props);
+        LOG.debug("codegen: \n {}", codegen);
+        return codegen;
+    }
+
+    // 缓存 key 包含决定生成代码的全部输入: protobuf 类名, RowType, 字段映射; 生成类另按 ClassLoader 区分
+    private String getCacheKey() {
+        return String.join("|", "serializer", clazz, rowType.asSummaryString(), String.valueOf(fieldMapping));
+    }
+
+    @Override
+    public byte[] serialize(RowData row) {
+        try {
+            return runtimeRowDataSerializer.serialize(row);
+        } catch (Throwable t) {
+            LOG.error("failed serialize row to protobuf bytes, class: " + clazz);
+            throw new RuntimeException("failed serialize row to protobuf bytes", t);
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.data.TimestampData;
+import org.apache.flink.table.data.binary.BinaryStringData;
+
+import java.io.IOException;
+
+// 生成代码调用的序列化方法(janino 不支持调用接口静态方法)
+public class ProtobufSerializerUtils {
+
+    private ProtobufSerializerUtils() {
+
+    }
+
+    public static int computeMessageSize(int fieldNumber, int bodySize) {
+        return CodedOutputStream.computeTagSize(fieldNumber) + CodedOutputStream.computeUInt32SizeNoTag(bodySize) + bodySize;
+    }
+
+    public static void writeMessageHeader(CodedOutputStream out, int fieldNumber, int bodySize) throws IOException {
+        out.writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(bodySize);
+    }
+
+    public static boolean isEmpty(StringData value) {
+        return ((BinaryStringData) value).getSizeInBytes() == 0;
+    }
+
+    public static int computeStringSize(int fieldNumber, StringData value) {
+        return computeMessageSize(fieldNumber, ((BinaryStringData) value).getSizeInBytes());
+    }
+
+    // 直接写 BinaryStringData 的 UTF-8 字节, 单个堆内 segment 时不拷贝
+    public static void writeString(CodedOutputStream out, int fieldNumber, StringData value) throws IOException {
+        BinaryStringData str = (BinaryStringData) value;
+        int size = str.getSizeInBytes();
+        writeMessageHeader(out, fieldNumber, size);
+        MemorySegment[] segments = str.getSegments();
+        if (segments.length == 1 && !segments[0].isOffHeap()) {
+            out.writeRawBytes(segments[0].getArray(), str.getOffset(), size);
+        } else {
+            out.writeRawBytes(str.toBytes());
+        }
+    }
+
+    // google.protobuf.Timestamp {seconds = 1, nanos = 2}, 默认值不写入
+    public static int computeTimestampSize(int fieldNumber, TimestampData value) {
+        return computeMessageSize(fieldNumber, computeTimestampBodySize(value));
+    }
+
+    public static void writeTimestamp(CodedOutputStream out, int fieldNumber, TimestampData value) throws IOException {
+        writeMessageHeader(out, fieldNumber, computeTimestampBodySize(value));
+        long seconds = getSeconds(value);
+        int nanos = getNanos(value);
+        if (seconds != 0L) {
+            out.writeInt64(1, seconds);
+        }
+        if (nanos != 0) {
+            out.writeInt32(2, nanos);
+        }
+    }
+
+    private static int computeTimestampBodySize(TimestampData value) {
+        long seconds = getSeconds(value);
+        int nanos = getNanos(value);
+        return (seconds == 0L ? 0 : CodedOutputStream.computeInt64Size(1, seconds))
+                + (nanos == 0 ? 0 : CodedOutputStream.computeInt32Size(2, nanos));
+    }
+
+    private static long getSeconds(TimestampData value) {
+        return Math.floorDiv(value.getMillisecond(), 1000L);
+    }
+
+    private static int getNanos(TimestampData value) {
+        return (int) Math.floorMod(value.getMillisecond(), 1000L) * 1000000 + value.getNanoOfMillisecond();
+    }
+
+}
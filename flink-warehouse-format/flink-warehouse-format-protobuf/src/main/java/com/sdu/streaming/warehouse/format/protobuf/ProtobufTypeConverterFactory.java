@@ -8,6 +8,8 @@ import org.apache.flink.table.types.logical.RowType;
 
 import java.util.Map;
 
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.isWellKnownType;
+
 public class ProtobufTypeConverterFactory {
 
     private ProtobufTypeConverterFactory() {
@@ -18,12 +20,21 @@ public class ProtobufTypeConverterFactory {
         switch (type.getTypeRoot()) {
             case INTEGER:
             case TINYINT:
+            case SMALLINT:
             case BIGINT:
             case FLOAT:
             case DOUBLE:
             case BOOLEAN:
             case CHAR:
             case VARCHAR:
+            case BINARY:
+            case VARBINARY:
+            case DECIMAL:
+            case TIMESTAMP_WITHOUT_TIME_ZONE:
+            case TIMESTAMP_WITH_LOCAL_TIME_ZONE:
+                if (isWellKnownType(fd)) {
+                    return new WellKnownTypeConverterCodeGenerator(fd, type);
+                }
                 return new BasicTypeConverterCodeGenerator(fd, type);
 
             case ARRAY:
@@ -40,8 +51,86 @@ public class ProtobufTypeConverterFactory {
         }
     }
 
+    public static TypeSerializerCodeGenerator getProtobufTypeSerializerCodeGenerator(Map<String, String[]> fieldMappings, Descriptors.FieldDescriptor fd, LogicalType type) {
+        switch (type.getTypeRoot()) {
+            case INTEGER:
+            case TINYINT:
+            case SMALLINT:
+            case BIGINT:
+            case FLOAT:
+            case DOUBLE:
+            case BOOLEAN:
+            case CHAR:
+            case VARCHAR:
+            case BINARY:
+            case VARBINARY:
+            case DECIMAL:
+            case TIMESTAMP_WITHOUT_TIME_ZONE:
+            case TIMESTAMP_WITH_LOCAL_TIME_ZONE:
+                if (isWellKnownType(fd)) {
+                    return new WellKnownTypeSerializerCodeGenerator(fd, type);
+                }
+                return new BasicTypeSerializerCodeGenerator(fd, type);
+
+            case ARRAY:
+                return new ArrayTypeSerializerCodeGenerator(fd, (ArrayType) type, fieldMappings);
+
+            case MAP:
+                return new MapTypeSerializerCodeGenerator(fd, (MapType) type, fieldMappings);
+
+            case ROW:
+                return new RowTypeSerializerCodeGenerator(fd, fd.getMessageType(), (RowType) type, fieldMappings);
+
+            default:
+                throw new UnsupportedOperationException("unsupported type serializer, type: " + type.getTypeRoot());
+        }
+    }
+
+    public static TypeDecoderCodeGenerator getProtobufTypeDecoderCodeGenerator(Map<String, String[]> fieldMappings, Descriptors.FieldDescriptor fd, LogicalType type) {
+        switch (type.getTypeRoot()) {
+            case INTEGER:
+            case TINYINT:
+            case SMALLINT:
+            case BIGINT:
+            case FLOAT:
+            case DOUBLE:
+            case BOOLEAN:
+            case CHAR:
+            case VARCHAR:
+            case BINARY:
+            case VARBINARY:
+            case DECIMAL:
+            case TIMESTAMP_WITHOUT_TIME_ZONE:
+            case TIMESTAMP_WITH_LOCAL_TIME_ZONE:
+                if (isWellKnownType(fd)) {
+                    return new WellKnownTypeDecoderCodeGenerator(fd, type);
+                }
+                return new BasicTypeDecoderCodeGenerator(fd, type);
+
+            case ARRAY:
+                return new ArrayTypeDecoderCodeGenerator(fd, (ArrayType) type, fieldMappings);
+
+            case MAP:
+                return new MapTypeDecoderCodeGenerator(fd, (MapType) type, fieldMappings);
+
+            case ROW:
+                return new RowTypeDecoderCodeGenerator(fd, fd.getMessageType(), (RowType) type, fieldMappings);
+
+            default:
+                throw new UnsupportedOperationException("unsupported type decoder, type: " + type.getTypeRoot());
+        }
+    }
+
     public static TypeConverterCodeGenerator getRowTypeConverterCodeGenerator(Descriptors.Descriptor descriptor, RowType rowType, Map<String, String[]> fieldMappings, boolean ignoreDefaultValue) {
         return new RowTypeConverterCodeGenerator(descriptor, rowType, fieldMappings, ignoreDefaultValue);
     }
 
+    public static TypeSerializerCodeGenerator getRowTypeSerializerCodeGenerator(Descriptors.Descriptor descriptor, RowType rowType, Map<String, String[]> fieldMappings) {
+        return new RowTypeSerializerCodeGenerator(null, descriptor, rowType, fieldMappings);
+    }
+
+    public static RowTypeDecoderCodeGenerator getRowTypeDecoderCodeGenerator(Descriptors.Descriptor descriptor, RowType rowType, Map<String, String[]> fieldMappings) {
+        return new RowTypeDecoderCodeGenerator(null, descriptor, rowType, fieldMappings);
+    }
+
 }
@@ -1,12 +1,45 @@
 package com.sdu.streaming.warehouse.format.protobuf;
 
+import com.google.protobuf.BoolValue;
+import com.google.protobuf.BytesValue;
 import com.google.protobuf.DescriptorProtos;
 import com.google.protobuf.Descriptors;
+import com.google.protobuf.DoubleValue;
+import com.google.protobuf.FloatValue;
+import com.google.protobuf.Int32Value;
+import com.google.protobuf.Int64Value;
+import com.google.protobuf.StringValue;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.UInt32Value;
+import com.google.protobuf.UInt64Value;
+import org.apache.flink.table.types.logical.DecimalType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static java.lang.String.format;
+import static org.apache.flink.table.types.logical.utils.LogicalTypeChecks.getPrecision;
 
 public class ProtobufUtils {
 
+    private static final Set<String> WRAPPER_TYPES = new HashSet<>(Arrays.asList(
+            DoubleValue.getDescriptor().getFullName(),
+            FloatValue.getDescriptor().getFullName(),
+            Int64Value.getDescriptor().getFullName(),
+            UInt64Value.getDescriptor().getFullName(),
+            Int32Value.getDescriptor().getFullName(),
+            UInt32Value.getDescriptor().getFullName(),
+            BoolValue.getDescriptor().getFullName(),
+            StringValue.getDescriptor().getFullName(),
+            BytesValue.getDescriptor().getFullName()));
+
     private ProtobufUtils() {
 
     }
@@ -65,15 +98,28 @@ public class ProtobufUtils {
     public static String getJavaFullName(Descriptors.Descriptor descriptor) {
         // see https://developers.google.com/protocol-buffers/docs/javatutorial
         // nb
-        DescriptorProtos.FileOptions options = descriptor.getFile().getOptions();
-        String javaPackage = options.hasJavaPackage() ? options.getJavaPackage()
-                : descriptor.getFile().getPackage();
+        if (descriptor.getContainingType() != null) {
+            return format("%s.%s", getJavaFullName(descriptor.getContainingType()), descriptor.getName());
+        }
+        return getJavaFullName(descriptor.getFile(), descriptor.getName());
+    }
+
+    public static String getJavaFullName(Descriptors.EnumDescriptor descriptor) {
+        if (descriptor.getContainingType() != null) {
+            return format("%s.%s", getJavaFullName(descriptor.getContainingType()), descriptor.getName());
+        }
+        return getJavaFullName(descriptor.getFile(), descriptor.getName());
+    }
+
+    private static String getJavaFullName(Descriptors.FileDescriptor file, String name) {
+        DescriptorProtos.FileOptions options = file.getOptions();
+        String javaPackage = options.hasJavaPackage() ? options.getJavaPackage() : file.getPackage();
         if (options.hasJavaMultipleFiles()) {
-            return format("%s.%s", javaPackage, descriptor.getName());
+            return format("%s.%s", javaPackage, name);
         }
         String wrapperClass = options.hasJavaOuterClassname() ? options.getJavaOuterClassname()
-                : getProtobufWrapperClass(descriptor.getFile().toProto());
-        return format("%s.%s.%s", javaPackage, wrapperClass, descriptor.getName());
+                : getProtobufWrapperClass(file.toProto());
+        return format("%s.%s.%s", javaPackage, wrapperClass, name);
     }
 
     private static String getProtobufWrapperClass(DescriptorProtos.FileDescriptorProto proto) {
@@ -100,7 +146,7 @@ public class ProtobufUtils {
             case DOUBLE:
                 return "Double";
             case BYTE_STRING:
-                return "byte[]";
+                return "com.google.protobuf.ByteString";
             case BOOLEAN:
                 return "Boolean";
             default:
@@ -108,4 +154,211 @@ public class ProtobufUtils {
         }
     }
 
+    // CodedOutputStream / CodedInputStream 读写方法名后缀
+    public static String getCodedStreamMethodSuffix(Descriptors.FieldDescriptor fd) {
+        switch (fd.getType()) {
+            case INT32:
+                return "Int32";
+            case SINT32:
+                return "SInt32";
+            case SFIXED32:
+                return "SFixed32";
+            case UINT32:
+                return "UInt32";
+            case FIXED32:
+                return "Fixed32";
+            case INT64:
+                return "Int64";
+            case SINT64:
+                return "SInt64";
+            case SFIXED64:
+                return "SFixed64";
+            case UINT64:
+                return "UInt64";
+            case FIXED64:
+                return "Fixed64";
+            case FLOAT:
+                return "Float";
+            case DOUBLE:
+                return "Double";
+            case BOOL:
+                return "Bool";
+            case ENUM:
+                return "Enum";
+            default:
+                throw new UnsupportedOperationException("unsupported protobuf field type: " + fd.getType());
+        }
+    }
+
+    // google.protobuf.Timestamp 及包装类型(Int64Value 等)按列类型直接转换, 不作为 Row 处理
+    public static boolean isWellKnownType(Descriptors.FieldDescriptor fd) {
+        if (fd.getJavaType() != Descriptors.FieldDescriptor.JavaType.MESSAGE) {
+            return false;
+        }
+        return isTimestampType(fd) || WRAPPER_TYPES.contains(fd.getMessageType().getFullName());
+    }
+
+    // proto3 singular 标量字段(非 oneof)无 presence, protobuf-java 不写入默认值(0, "", false, 空 bytes);
+    // map entry 的 key/value 始终写入
+    public static boolean isDefaultValueSkipped(Descriptors.FieldDescriptor fd) {
+        return fd.getFile().getSyntax() == Descriptors.FileDescriptor.Syntax.PROTO3
+                && !fd.isRepeated()
+                && fd.getJavaType() != Descriptors.FieldDescriptor.JavaType.MESSAGE
+                && fd.getContainingOneof() == null
+                && !fd.getContainingType().getOptions().getMapEntry();
+    }
+
+    public static boolean isTimestampType(Descriptors.FieldDescriptor fd) {
+        return fd.getJavaType() == Descriptors.FieldDescriptor.JavaType.MESSAGE
+                && Timestamp.getDescriptor().getFullName().equals(fd.getMessageType().getFullName());
+    }
+
+    // CodedStream 读写的 Java 基本类型
+    public static String getPrimitiveType(Descriptors.FieldDescriptor fd) {
+        switch (fd.getJavaType()) {
+            case INT:
+            case ENUM:
+                return "int";
+            case LONG:
+                return "long";
+            case FLOAT:
+                return "float";
+            case DOUBLE:
+                return "double";
+            case BOOLEAN:
+                return "boolean";
+            default:
+                throw new UnsupportedOperationException("unsupported primitive field type: " + fd.getJavaType());
+        }
+    }
+
+    // Flink 列类型对应的 Java 基本类型
+    public static String getPrimitiveType(LogicalType type) {
+        switch (type.getTypeRoot()) {
+            case BOOLEAN:
+                return "boolean";
+            case TINYINT:
+                return "byte";
+            case SMALLINT:
+                return "short";
+            case INTEGER:
+                return "int";
+            case BIGINT:
+                return "long";
+            case FLOAT:
+                return "float";
+            case DOUBLE:
+                return "double";
+            default:
+                throw new UnsupportedOperationException("unsupported primitive type: " + type);
+        }
+    }
+
+    // 读取值转换为列类型: 整型收窄时检查范围, 溢出抛出 ArithmeticException, 不静默截断
+    public static String getCastCode(Descriptors.FieldDescriptor fd, LogicalType type, String valueCode) {
+        boolean integral = fd.getJavaType() == Descriptors.FieldDescriptor.JavaType.INT
+                || fd.getJavaType() == Descriptors.FieldDescriptor.JavaType.LONG
+                || fd.getJavaType() == Descriptors.FieldDescriptor.JavaType.ENUM;
+        switch (type.getTypeRoot()) {
+            case TINYINT:
+                if (integral) {
+                    return format("ProtobufDeserializerUtils.toByteExact(%s)", valueCode);
+                }
+                break;
+            case SMALLINT:
+                if (integral) {
+                    return format("ProtobufDeserializerUtils.toShortExact(%s)", valueCode);
+                }
+                break;
+            case INTEGER:
+                if (fd.getJavaType() == Descriptors.FieldDescriptor.JavaType.LONG) {
+                    return format("Math.toIntExact(%s)", valueCode);
+                }
+                break;
+            default:
+                break;
+        }
+        return format("(%s) %s", getPrimitiveType(type), valueCode);
+    }
+
+    public static int makeTag(int fieldNumber, int wireType) {
+        return (fieldNumber << 3) | wireType;
+    }
+
+    // RowData / ArrayData 按类型取值代码
+    public static String getFlinkValueCode(LogicalType type, String container, String index) {
+        switch (type.getTypeRoot()) {
+            case BOOLEAN:
+                return format("%s.getBoolean(%s)", container, index);
+            case TINYINT:
+                return format("%s.getByte(%s)", container, index);
+            case SMALLINT:
+                return format("%s.getShort(%s)", container, index);
+            case INTEGER:
+                return format("%s.getInt(%s)", container, index);
+            case BIGINT:
+                return format("%s.getLong(%s)", container, index);
+            case FLOAT:
+                return format("%s.getFloat(%s)", container, index);
+            case DOUBLE:
+                return format("%s.getDouble(%s)", container, index);
+            case CHAR:
+            case VARCHAR:
+                return format("%s.getString(%s)", container, index);
+            case BINARY:
+            case VARBINARY:
+                return format("%s.getBinary(%s)", container, index);
+            case DECIMAL:
+                DecimalType decimalType = (DecimalType) type;
+                return format("%s.getDecimal(%s, %d, %d)", container, index, decimalType.getPrecision(), decimalType.getScale());
+            case TIMESTAMP_WITHOUT_TIME_ZONE:
+            case TIMESTAMP_WITH_LOCAL_TIME_ZONE:
+                return format("%s.getTimestamp(%s, %d)", container, index, getPrecision(type));
+            case ARRAY:
+                return format("%s.getArray(%s)", container, index);
+            case MAP:
+                return format("%s.getMap(%s)", container, index);
+            case ROW:
+                return format("%s.getRow(%s, %d)", container, index, ((RowType) type).getFieldCount());
+            default:
+                throw new UnsupportedOperationException("unsupported type: " + type.getTypeRoot());
+        }
+    }
+
+    public static Map<String, String[]> standardFieldMappings(String fieldMapping, RowType rowType) {
+        Map<String, String[]> mappings = new HashMap<>();
+        if (fieldMapping == null || fieldMapping.isEmpty()) {
+            rowType.getFieldNames().forEach((field) -> {
+                mappings.put(field, new String[] {field});
+            });
+            return mappings;
+        }
+        // format: field1=path1;field1=path1
+        String[] mapping = fieldMapping.split(";");
+        for (String mp : mapping) {
+            String[] nameToPath = mp.split("=");
+            if (!nameToPath[1].startsWith("$.")) {
+                throw new RuntimeException("field path should start with '$.'");
+            }
+            mappings.put(nameToPath[0], nameToPath[1].substring(2).split("\\."));
+        }
+        return mappings;
+    }
+
+    // 投影字段路径: 顶层列路径 + 嵌套 Row 字段的相对路径, 原有映射保留给嵌套 Row 字段使用
+    public static Map<String, String[]> projectFieldMappings(Map<String, String[]> fieldMappings, RowType rowType, RowType producedType, int[][] projections) {
+        Map<String, String[]> mappings = new HashMap<>(fieldMappings);
+        for (int i = 0; i < projections.length; ++i) {
+            List<String> path = new ArrayList<>();
+            LogicalType type = rowType;
+            for (int index : projections[i]) {
+                String fieldName = ((RowType) type).getFieldNames().get(index);
+                path.addAll(Arrays.asList(fieldMappings.getOrDefault(fieldName, new String[] {fieldName})));
+                type = ((RowType) type).getTypeAt(index);
+            }
+            mappings.put(producedType.getFieldNames().get(i), path.toArray(new String[0]));
+        }
+        return mappings;
+    }
+
 }
@@ -9,6 +9,7 @@ import java.util.Map;
 
 import static com.sdu.streaming.warehouse.format.protobuf.ProtobufTypeConverterFactory.getProtobufTypeConverterCodeGenerator;
 import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.getJavaFullName;
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.isWellKnownType;
 import static com.sdu.streaming.warehouse.utils.VariableUtils.getSerialId;
 import static java.lang.String.format;
 
@@ -48,7 +49,12 @@ public class RowTypeConverterCodeGenerator implements TypeConverterCodeGenerator
             sb.append(format("Object %s = null;", ret));
             // 字段值
             final String fileValueCode = getPrototbufFieldValueCode(subFd, fieldName, input);
-            sb.append(codegen.codegen(ret, fileValueCode));
+            if (isWellKnownType(subFd) && !subFd.isRepeated()) {
+                // Timestamp/包装类型未设置时为 null, 而非默认实例
+                sb.append(format("if (%s) { %s }", getPrototbufFieldHasCode(fieldName, input), codegen.codegen(ret, fileValueCode)));
+            } else {
+                sb.append(codegen.codegen(ret, fileValueCode));
+            }
 
             sb.append(format("%s.setField(%d, %s);", rowData, index, ret));
             index += 1;
@@ -58,7 +64,7 @@ public class RowTypeConverterCodeGenerator implements TypeConverterCodeGenerator
     }
 
     private Descriptors.FieldDescriptor getFieldDescriptor(String fieldName) {
-        String[] fields = fieldMappings.get(fieldName);
+        String[] fields = getFieldPath(fieldName);
         Descriptors.FieldDescriptor ret = null;
         List<Descriptors.FieldDescriptor> fds = this.fds;
         for(int i = 0; i < fields.length; ++i) {
@@ -78,6 +84,11 @@ public class RowTypeConverterCodeGenerator implements TypeConverterCodeGenerator
         return ret;
     }
 
+    // 未配置映射的嵌套 Row 字段按同名字段读取
+    private String[] getFieldPath(String fieldName) {
+        return fieldMappings.getOrDefault(fieldName, new String[] {fieldName});
+    }
+
     private static String join(String[] fields, int offset) {
         StringBuilder sb = new StringBuilder("$");
         for (int i = 0; i <= offset; ++i) {
@@ -89,8 +100,18 @@ public class RowTypeConverterCodeGenerator implements TypeConverterCodeGenerator
         return sb.toString();
     }
 
+    private String getPrototbufFieldHasCode(String fieldName, String protobufObjectVariable) {
+        String[] fields = getFieldPath(fieldName);
+        StringBuilder sb = new StringBuilder(protobufObjectVariable);
+        for (int i = 0; i < fields.length; ++i) {
+            String field = ProtobufUtils.getStrongCamelCaseJsonName(fields[i]);
+            sb.append(format(i == fields.length - 1 ? ".has%s()" : ".get%s()", field));
+        }
+        return sb.toString();
+    }
+
     private String getPrototbufFieldValueCode(Descriptors.FieldDescriptor fd, String fieldName, String protobufObjectVariable) {
-        String[] fields = fieldMappings.get(fieldName);
+        String[] fields = getFieldPath(fieldName);
         // index: (0, fields.length - 2) 必需为Message类型
         // todo: 若是中间节点取值null, 存在空指针问题
         StringBuilder sb = new StringBuilder(protobufObjectVariable);
@@ -0,0 +1,149 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.WireFormat;
+import org.apache.flink.table.types.logical.RowType;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufTypeConverterFactory.getProtobufTypeDecoderCodeGenerator;
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.makeTag;
+import static com.sdu.streaming.warehouse.utils.VariableUtils.getSerialId;
+import static java.lang.String.format;
+
+public class RowTypeDecoderCodeGenerator implements TypeDecoderCodeGenerator {
+
+    // 为 null 时是顶层消息, 只读消息体
+    private final Descriptors.FieldDescriptor fd;
+    private final RowType rowType;
+    // NOTE:
+    // 只解码映射的字段编号, 其余字段(含未映射的嵌套消息)按长度跳过
+    private final ProtobufMessageNode<TypeDecoderCodeGenerator> message;
+    private final TypeDecoderCodeGenerator[] codeGenerators;
+
+    public RowTypeDecoderCodeGenerator(Descriptors.FieldDescriptor fd, Descriptors.Descriptor descriptor, RowType rowType, Map<String, String[]> fieldMappings) {
+        this.fd = fd;
+        this.rowType = rowType;
+        this.message = ProtobufMessageNode.of(descriptor, rowType, fieldMappings,
+                (subFd, subType) -> getProtobufTypeDecoderCodeGenerator(fieldMappings, subFd, subType));
+        this.codeGenerators = new TypeDecoderCodeGenerator[rowType.getFieldCount()];
+        collectCodeGenerators(message, codeGenerators);
+    }
+
+    // 读取消息体, resultVariable 已声明
+    public String codegen(String resultVariable, String inputVariable) {
+        /*
+         * 代码:
+         *   GenericRowData row = new GenericRowData(size);
+         *   Object ret = null;
+         *   boolean done = false;
+         *   while (!done) {
+         *      int tag = input.readTag();
+         *      switch (tag) {
+         *          case 0: done = true; break;
+         *          case fieldTag: ret = read; break;
+         *          default: input.skipField(tag);
+         *      }
+         *   }
+         *   row.setField(index, ret == null ? default : ret);
+         * */
+        StringBuilder sb = new StringBuilder();
+        String rowData = format("row$%d", getSerialId());
+        sb.append(format("GenericRowData %s = new GenericRowData(%d);", rowData, rowType.getFieldCount()));
+        String[] values = new String[codeGenerators.length];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = format("ret$%d", getSerialId());
+            sb.append(format("Object %s = null;", values[i]));
+        }
+        sb.append(codegenMessage(message, values, inputVariable));
+        for (int i = 0; i < values.length; ++i) {
+            sb.append(format("if (%s == null) { %s.setField(%d, %s); } else { %s.setField(%d, %s); }",
+                    values[i], rowData, i, codeGenerators[i].codegenDefault(), rowData, i, codeGenerators[i].codegenResult(values[i])));
+        }
+        sb.append(format("%s = %s;", resultVariable, rowData));
+        return sb.toString();
+    }
+
+    @Override
+    public int[] getTags() {
+        return new int[] {makeTag(fd.getNumber(), WireFormat.WIRETYPE_LENGTH_DELIMITED)};
+    }
+
+    @Override
+    public String codegenRead(String resultVariable, String inputVariable, int tag) {
+        StringBuilder sb = new StringBuilder("{");
+        String limit = format("limit$%d", getSerialId());
+        sb.append(format("int %s = %s.pushLimit(%s.readRawVarint32());", limit, inputVariable, inputVariable));
+        sb.append(codegen(resultVariable, inputVariable));
+        sb.append(format("%s.popLimit(%s);", inputVariable, limit));
+        sb.append("}");
+        return sb.toString();
+    }
+
+    @Override
+    public String codegenResult(String resultVariable) {
+        return resultVariable;
+    }
+
+    @Override
+    public String codegenDefault() {
+        // janino 不支持可变参数
+        StringBuilder sb = new StringBuilder("GenericRowData.of(new Object[] {");
+        for (int i = 0; i < codeGenerators.length; ++i) {
+            if (i != 0) {
+                sb.append(", ");
+            }
+            sb.append(codeGenerators[i].codegenDefault());
+        }
+        sb.append("})");
+        return sb.toString();
+    }
+
+    private static String codegenMessage(ProtobufMessageNode<TypeDecoderCodeGenerator> node, String[] values, String inputVariable) {
+        StringBuilder sb = new StringBuilder();
+        String done = format("done$%d", getSerialId());
+        String tag = format("tag$%d", getSerialId());
+        sb.append(format("boolean %s = false;", done));
+        sb.append(format("while (!%s) { int %s = %s.readTag(); switch (%s) { ", done, tag, inputVariable, tag));
+        sb.append(format("case 0: %s = true; break;", done));
+        Set<Integer> tags = new HashSet<>();
+        for (ProtobufMessageNode.Field<TypeDecoderCodeGenerator> field : node.getFields()) {
+            if (field.isMessage()) {
+                // 字段路径上的嵌套消息, 多次出现时按 protobuf 语义合并
+                int messageTag = makeTag(field.getFieldDescriptor().getNumber(), WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                checkTag(tags, messageTag, field);
+                String limit = format("limit$%d", getSerialId());
+                sb.append(format("case %d: { int %s = %s.pushLimit(%s.readRawVarint32());", messageTag, limit, inputVariable, inputVariable));
+                sb.append(codegenMessage(field.getMessage(), values, inputVariable));
+                sb.append(format("%s.popLimit(%s); } break;", inputVariable, limit));
+                continue;
+            }
+            TypeDecoderCodeGenerator codeGenerator = field.getCodeGenerator();
+            for (int fieldTag : codeGenerator.getTags()) {
+                checkTag(tags, fieldTag, field);
+                sb.append(format("case %d: { %s } break;", fieldTag, codeGenerator.codegenRead(values[field.getIndex()], inputVariable, fieldTag)));
+            }
+        }
+        sb.append(format("default: if (!%s.skipField(%s)) { %s = true; } break; } }", inputVariable, tag, done));
+        return sb.toString();
+    }
+
+    private static void checkTag(Set<Integer> tags, int tag, ProtobufMessageNode.Field<?> field) {
+        if (!tags.add(tag)) {
+            throw new UnsupportedOperationException("protobuf field mapped to multiple columns: " + field.getFieldDescriptor().getFullName());
+        }
+    }
+
+    private static void collectCodeGenerators(ProtobufMessageNode<TypeDecoderCodeGenerator> node, TypeDecoderCodeGenerator[] codeGenerators) {
+        for (ProtobufMessageNode.Field<TypeDecoderCodeGenerator> field : node.getFields()) {
+            if (field.isMessage()) {
+                collectCodeGenerators(field.getMessage(), codeGenerators);
+            } else {
+                codeGenerators[field.getIndex()] = field.getCodeGenerator();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import com.google.protobuf.Descriptors;
+import org.apache.flink.table.types.logical.RowType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufTypeConverterFactory.getProtobufTypeSerializerCodeGenerator;
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.getFlinkValueCode;
+import static com.sdu.streaming.warehouse.utils.VariableUtils.getSerialId;
+import static java.lang.String.format;
+
+public class RowTypeSerializerCodeGenerator implements TypeSerializerCodeGenerator {
+
+    // 为 null 时是顶层消息, 只写消息体
+    private final Descriptors.FieldDescriptor fd;
+    // NOTE:
+    // 同一前缀的列写入同一个嵌套消息, 不构建中间 Message 对象
+    private final ProtobufMessageNode<TypeSerializerCodeGenerator> message;
+
+    public RowTypeSerializerCodeGenerator(Descriptors.FieldDescriptor fd, Descriptors.Descriptor descriptor, RowType rowType, Map<String, String[]> fieldMappings) {
+        this.fd = fd;
+        this.message = ProtobufMessageNode.of(descriptor, rowType, fieldMappings,
+                (subFd, subType) -> getProtobufTypeSerializerCodeGenerator(fieldMappings, subFd, subType));
+    }
+
+    @Override
+    public String codegenSize(String sizeVariable, String inputCode) {
+        StringBuilder sb = new StringBuilder("{");
+        String input = format("input$%d", getSerialId());
+        sb.append(format("RowData %s = %s;", input, inputCode));
+        if (fd == null) {
+            sb.append(codegenSize(message, sizeVariable, input));
+        } else {
+            String body = format("body$%d", getSerialId());
+            sb.append(format("int %s = 0;", body));
+            sb.append(codegenSize(message, body, input));
+            sb.append(format("%s += ProtobufSerializerUtils.computeMessageSize(%d, %s);", sizeVariable, fd.getNumber(), body));
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    @Override
+    public String codegenWrite(String outputVariable, String inputCode) {
+        StringBuilder sb = new StringBuilder("{");
+        String input = format("input$%d", getSerialId());
+        sb.append(format("RowData %s = %s;", input, inputCode));
+        if (fd != null) {
+            sb.append(codegenMessageHeader(fd, message, outputVariable, input));
+        }
+        sb.append(codegenWrite(message, outputVariable, input));
+        sb.append("}");
+        return sb.toString();
+    }
+
+    private static String codegenSize(ProtobufMessageNode<TypeSerializerCodeGenerator> node, String sizeVariable, String input) {
+        StringBuilder sb = new StringBuilder();
+        for (ProtobufMessageNode.Field<TypeSerializerCodeGenerator> field : node.getFields()) {
+            if (field.isMessage()) {
+                String body = format("body$%d", getSerialId());
+                StringBuilder code = new StringBuilder();
+                code.append(format("int %s = 0;", body));
+                code.append(codegenSize(field.getMessage(), body, input));
+                code.append(format("%s += ProtobufSerializerUtils.computeMessageSize(%d, %s);", sizeVariable, field.getFieldDescriptor().getNumber(), body));
+                sb.append(ifAnyNotNull(field.getMessage(), input, code.toString()));
+                continue;
+            }
+            String code = field.getCodeGenerator().codegenSize(sizeVariable, getFlinkValueCode(field.getType(), input, String.valueOf(field.getIndex())));
+            sb.append(ifNotNull(field, input, code));
+        }
+        return sb.toString();
+    }
+
+    private static String codegenWrite(ProtobufMessageNode<TypeSerializerCodeGenerator> node, String outputVariable, String input) {
+        StringBuilder sb = new StringBuilder();
+        for (ProtobufMessageNode.Field<TypeSerializerCodeGenerator> field : node.getFields()) {
+            if (field.isMessage()) {
+                String code = codegenMessageHeader(field.getFieldDescriptor(), field.getMessage(), outputVariable, input)
+                        + codegenWrite(field.getMessage(), outputVariable, input);
+                sb.append(ifAnyNotNull(field.getMessage(), input, code));
+                continue;
+            }
+            String code = field.getCodeGenerator().codegenWrite(outputVariable, getFlinkValueCode(field.getType(), input, String.valueOf(field.getIndex())));
+            sb.append(ifNotNull(field, input, code));
+        }
+        return sb.toString();
+    }
+
+    // 嵌套消息先计算消息体大小, 再写 tag + length
+    private static String codegenMessageHeader(Descriptors.FieldDescriptor fd, ProtobufMessageNode<TypeSerializerCodeGenerator> node, String outputVariable, String input) {
+        StringBuilder sb = new StringBuilder();
+        String body = format("body$%d", getSerialId());
+        sb.append(format("int %s = 0;", body));
+        sb.append(codegenSize(node, body, input));
+        sb.append(format("ProtobufSerializerUtils.writeMessageHeader(%s, %d, %s);", outputVariable, fd.getNumber(), body));
+        return sb.toString();
+    }
+
+    // 字段路径上的嵌套消息: 包含的列全部为 null 时不写入, 与未设置该消息一致(hasXxx() 为 false)
+    private static String ifAnyNotNull(ProtobufMessageNode<TypeSerializerCodeGenerator> node, String input, String code) {
+        List<String> conditions = new ArrayList<>();
+        if (!collectNotNullConditions(node, input, conditions)) {
+            return format("{ %s }", code);
+        }
+        return format("if (%s) { %s }", String.join(" || ", conditions), code);
+    }
+
+    // 存在非 null 列时返回 false
+    private static boolean collectNotNullConditions(ProtobufMessageNode<TypeSerializerCodeGenerator> node, String input, List<String> conditions) {
+        for (ProtobufMessageNode.Field<TypeSerializerCodeGenerator> field : node.getFields()) {
+            if (field.isMessage()) {
+                if (!collectNotNullConditions(field.getMessage(), input, conditions)) {
+                    return false;
+                }
+                continue;
+            }
+            if (!field.getType().isNullable()) {
+                return false;
+            }
+            conditions.add(format("!%s.isNullAt(%d)", input, field.getIndex()));
+        }
+        return true;
+    }
+
+    // null 字段不写入
+    private static String ifNotNull(ProtobufMessageNode.Field<?> field, String input, String code) {
+        if (!field.getType().isNullable()) {
+            return code;
+        }
+        return format("if (!%s.isNullAt(%d)) { %s }", input, field.getIndex(), code);
+    }
+
+}
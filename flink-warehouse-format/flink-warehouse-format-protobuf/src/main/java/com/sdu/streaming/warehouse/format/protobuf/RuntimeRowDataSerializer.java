@@ -0,0 +1,13 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.table.data.RowData;
+
+import java.io.Serializable;
+
+@Internal
+public interface RuntimeRowDataSerializer extends Serializable {
+
+    byte[] serialize(RowData row) throws Exception;
+
+}
@@ -0,0 +1,18 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+// 直接按 protobuf 编码读取字段, 字段值变量已声明为 Object, 初值 null
+public interface TypeDecoderCodeGenerator {
+
+    // 字段可能出现的 tag, repeated 数值字段同时支持 packed 和非 packed 编码
+    int[] getTags();
+
+    // tag 已读取, 读取一次字段值; repeated / map 字段每个元素读取一次
+    String codegenRead(String resultVariable, String inputVariable, int tag);
+
+    // 字段读取结束后的 Flink 值
+    String codegenResult(String resultVariable);
+
+    // 字段不存在时的默认值, 与 protobuf getter 返回值一致
+    String codegenDefault();
+
+}
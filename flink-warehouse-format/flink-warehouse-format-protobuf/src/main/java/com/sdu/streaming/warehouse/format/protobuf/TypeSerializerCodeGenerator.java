@@ -0,0 +1,10 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+public interface TypeSerializerCodeGenerator {
+
+    // sizeVariable 累加字段序列化后的字节数(含 tag)
+    String codegenSize(String sizeVariable, String inputCode);
+
+    String codegenWrite(String outputVariable, String inputCode);
+
+}
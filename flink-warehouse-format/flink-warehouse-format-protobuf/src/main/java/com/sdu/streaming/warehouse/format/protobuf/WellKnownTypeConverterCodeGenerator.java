@@ -0,0 +1,37 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import com.google.protobuf.Descriptors;
+import org.apache.flink.table.types.logical.LogicalType;
+
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.getJavaFullName;
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.isTimestampType;
+import static com.sdu.streaming.warehouse.utils.VariableUtils.getSerialId;
+import static java.lang.String.format;
+
+// google.protobuf.Timestamp -> TIMESTAMP(_LTZ), 包装类型(Int64Value 等) -> value 字段对应的列类型
+public class WellKnownTypeConverterCodeGenerator implements TypeConverterCodeGenerator {
+
+    private final Descriptors.FieldDescriptor fd;
+    private final LogicalType type;
+
+    public WellKnownTypeConverterCodeGenerator(Descriptors.FieldDescriptor fd, LogicalType type) {
+        this.fd = fd;
+        this.type = type;
+    }
+
+    @Override
+    public String codegen(String resultVariable, String inputCode) {
+        StringBuilder sb = new StringBuilder();
+        String input = format("input$%d", getSerialId());
+        sb.append(format("%s %s = (%s) %s;", getJavaFullName(fd.getMessageType()), input, getJavaFullName(fd.getMessageType()), inputCode));
+        if (isTimestampType(fd)) {
+            sb.append(format("%s = ProtobufDeserializerUtils.toTimestamp(%s.getSeconds(), %s.getNanos());", resultVariable, input, input));
+            return sb.toString();
+        }
+        Descriptors.FieldDescriptor valueFd = fd.getMessageType().findFieldByNumber(1);
+        TypeConverterCodeGenerator codegen = new BasicTypeConverterCodeGenerator(valueFd, type);
+        sb.append(codegen.codegen(resultVariable, format("%s.getValue()", input)));
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.WireFormat;
+import org.apache.flink.table.types.logical.LogicalType;
+
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.isTimestampType;
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.makeTag;
+import static com.sdu.streaming.warehouse.utils.VariableUtils.getSerialId;
+import static java.lang.String.format;
+
+// google.protobuf.Timestamp -> TIMESTAMP(_LTZ), 包装类型(Int64Value 等) -> value 字段对应的列类型, 字段不存在时为 null
+public class WellKnownTypeDecoderCodeGenerator implements TypeDecoderCodeGenerator {
+
+    private final Descriptors.FieldDescriptor fd;
+    // 包装类型 value 字段
+    private final TypeDecoderCodeGenerator valueCodeGenerator;
+
+    public WellKnownTypeDecoderCodeGenerator(Descriptors.FieldDescriptor fd, LogicalType type) {
+        this.fd = fd;
+        this.valueCodeGenerator = isTimestampType(fd) ? null : new BasicTypeDecoderCodeGenerator(fd.getMessageType().findFieldByNumber(1), type);
+    }
+
+    @Override
+    public int[] getTags() {
+        return new int[] {makeTag(fd.getNumber(), WireFormat.WIRETYPE_LENGTH_DELIMITED)};
+    }
+
+    @Override
+    public String codegenRead(String resultVariable, String inputVariable, int tag) {
+        /*
+         * 代码:
+         *   int limit = input.pushLimit(input.readRawVarint32());
+         *   while (!done) {
+         *      int tag = input.readTag();
+         *      switch (tag) {
+         *          case 0: done = true; break;
+         *          case valueTag: value = read; break;
+         *          default: input.skipField(tag);
+         *      }
+         *   }
+         *   input.popLimit(limit);
+         *   result = value;
+         * */
+        StringBuilder sb = new StringBuilder("{");
+        String limit = format("limit$%d", getSerialId());
+        String done = format("done$%d", getSerialId());
+        String messageTag = format("tag$%d", getSerialId());
+        sb.append(format("int %s = %s.pushLimit(%s.readRawVarint32());", limit, inputVariable, inputVariable));
+        String seconds = format("seconds$%d", getSerialId());
+        String nanos = format("nanos$%d", getSerialId());
+        String value = format("value$%d", getSerialId());
+        if (valueCodeGenerator == null) {
+            sb.append(format("long %s = 0L; int %s = 0;", seconds, nanos));
+        } else {
+            sb.append(format("Object %s = null;", value));
+        }
+        sb.append(format("boolean %s = false;", done));
+        sb.append(format("while (!%s) { int %s = %s.readTag(); switch (%s) { ", done, messageTag, inputVariable, messageTag));
+        sb.append(format("case 0: %s = true; break;", done));
+        if (valueCodeGenerator == null) {
+            sb.append(format("case %d: %s = %s.readInt64(); break;", makeTag(1, WireFormat.WIRETYPE_VARINT), seconds, inputVariable));
+            sb.append(format("case %d: %s = %s.readInt32(); break;", makeTag(2, WireFormat.WIRETYPE_VARINT), nanos, inputVariable));
+        } else {
+            for (int valueTag : valueCodeGenerator.getTags()) {
+                sb.append(format("case %d: { %s } break;", valueTag, valueCodeGenerator.codegenRead(value, inputVariable, valueTag)));
+            }
+        }
+        sb.append(format("default: if (!%s.skipField(%s)) { %s = true; } break; } }", inputVariable, messageTag, done));
+        sb.append(format("%s.popLimit(%s);", inputVariable, limit));
+        if (valueCodeGenerator == null) {
+            sb.append(format("%s = ProtobufDeserializerUtils.toTimestamp(%s, %s);", resultVariable, seconds, nanos));
+        } else {
+            sb.append(format("if (%s == null) { %s = %s; } else { %s = %s; }",
+                    value, resultVariable, valueCodeGenerator.codegenDefault(), resultVariable, valueCodeGenerator.codegenResult(value)));
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    @Override
+    public String codegenResult(String resultVariable) {
+        return resultVariable;
+    }
+
+    @Override
+    public String codegenDefault() {
+        return "null";
+    }
+
+}
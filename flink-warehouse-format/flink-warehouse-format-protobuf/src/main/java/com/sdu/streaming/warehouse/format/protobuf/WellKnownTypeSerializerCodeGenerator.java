@@ -0,0 +1,42 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import com.google.protobuf.Descriptors;
+import org.apache.flink.table.types.logical.LogicalType;
+
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufUtils.isTimestampType;
+import static com.sdu.streaming.warehouse.utils.VariableUtils.getSerialId;
+import static java.lang.String.format;
+
+// TIMESTAMP(_LTZ) -> google.protobuf.Timestamp, 列类型 -> 包装类型(Int64Value 等) value 字段
+public class WellKnownTypeSerializerCodeGenerator implements TypeSerializerCodeGenerator {
+
+    private final Descriptors.FieldDescriptor fd;
+    // 包装类型 value 字段
+    private final TypeSerializerCodeGenerator valueCodeGenerator;
+
+    public WellKnownTypeSerializerCodeGenerator(Descriptors.FieldDescriptor fd, LogicalType type) {
+        this.fd = fd;
+        this.valueCodeGenerator = isTimestampType(fd) ? null : new BasicTypeSerializerCodeGenerator(fd.getMessageType().findFieldByNumber(1), type);
+    }
+
+    @Override
+    public String codegenSize(String sizeVariable, String inputCode) {
+        if (valueCodeGenerator == null) {
+            return format("%s += ProtobufSerializerUtils.computeTimestampSize(%d, %s);", sizeVariable, fd.getNumber(), inputCode);
+        }
+        String body = format("body$%d", getSerialId());
+        return format("{ int %s = 0; %s %s += ProtobufSerializerUtils.computeMessageSize(%d, %s); }",
+                body, valueCodeGenerator.codegenSize(body, inputCode), sizeVariable, fd.getNumber(), body);
+    }
+
+    @Override
+    public String codegenWrite(String outputVariable, String inputCode) {
+        if (valueCodeGenerator == null) {
+            return format("ProtobufSerializerUtils.writeTimestamp(%s, %d, %s);", outputVariable, fd.getNumber(), inputCode);
+        }
+        String body = format("body$%d", getSerialId());
+        return format("{ int %s = 0; %s ProtobufSerializerUtils.writeMessageHeader(%s, %d, %s); %s }",
+                body, valueCodeGenerator.codegenSize(body, inputCode), outputVariable, fd.getNumber(), body, valueCodeGenerator.codegenWrite(outputVariable, inputCode));
+    }
+
+}
@@ -1,15 +1,19 @@
 package com.sdu.streaming.warehouse.format.protobuf;
 
+import com.sdu.streaming.warehouse.format.protobuf.ProtobufDeserializerUtils;
 import com.sdu.streaming.warehouse.format.protobuf.RuntimeRowDataConverter;
 import ${protobuf_class};
 import ${protobuf_class}.*;
 
+import org.apache.flink.table.data.DecimalData;
 import org.apache.flink.table.data.GenericRowData;
 import org.apache.flink.table.data.GenericArrayData;
 import org.apache.flink.table.data.GenericMapData;
 import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.TimestampData;
 import org.apache.flink.table.data.ArrayData;
 import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.data.binary.BinaryStringData;
 
 import java.lang.Integer;
 import java.lang.Long;
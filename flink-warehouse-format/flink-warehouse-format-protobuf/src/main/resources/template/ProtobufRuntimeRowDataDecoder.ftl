@@ -0,0 +1,34 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import com.google.protobuf.CodedInputStream;
+import com.sdu.streaming.warehouse.format.protobuf.ProtobufDeserializerUtils;
+import com.sdu.streaming.warehouse.format.protobuf.RuntimeRowDataConverter;
+
+import org.apache.flink.table.data.DecimalData;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.GenericArrayData;
+import org.apache.flink.table.data.GenericMapData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.TimestampData;
+import org.apache.flink.table.data.binary.BinaryStringData;
+
+import java.lang.Integer;
+import java.lang.Long;
+import java.lang.Float;
+import java.lang.Double;
+import java.lang.Boolean;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+public class ProtobufRuntimeRowDataDecoder implements RuntimeRowDataConverter {
+
+    @Override
+    public RowData convert(byte[] bytes) throws Exception {
+        // 直接读取 protobuf 编码, 不构建 protobuf 对象
+        CodedInputStream ${input_variable} = CodedInputStream.newInstance(bytes);
+        RowData ${result_variable} = null;
+        ${converter_code}
+        return ${result_variable};
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import com.google.protobuf.CodedOutputStream;
+import com.sdu.streaming.warehouse.format.protobuf.ProtobufSerializerUtils;
+import com.sdu.streaming.warehouse.format.protobuf.RuntimeRowDataSerializer;
+
+import org.apache.flink.table.data.ArrayData;
+import org.apache.flink.table.data.MapData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+
+public class ProtobufRuntimeRowDataSerializer implements RuntimeRowDataSerializer {
+
+    @Override
+    public byte[] serialize(RowData ${input_variable}) throws Exception {
+        // 先计算消息大小, 再按 protobuf 编码直接写入
+        int ${size_variable} = 0;
+        ${size_code}
+        byte[] bytes = new byte[${size_variable}];
+        CodedOutputStream ${output_variable} = CodedOutputStream.newInstance(bytes);
+        ${write_code}
+        ${output_variable}.checkNoSpaceLeft();
+        return bytes;
+    }
+
+}
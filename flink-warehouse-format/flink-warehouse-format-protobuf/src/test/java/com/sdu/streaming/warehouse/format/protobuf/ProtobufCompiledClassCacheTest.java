@@ -0,0 +1,82 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import com.google.protobuf.DescriptorProtos;
+import org.apache.flink.table.api.DataTypes;
+import org.apache.flink.table.types.logical.RowType;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufTestUtils.deserializer;
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufTestUtils.serializer;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class ProtobufCompiledClassCacheTest {
+
+    private static final Class<?> CLAZZ = DescriptorProtos.FileDescriptorProto.class;
+
+    private static final RowType ROW_TYPE = (RowType) DataTypes.ROW(
+            DataTypes.FIELD("name", DataTypes.STRING()),
+            DataTypes.FIELD("package", DataTypes.STRING()),
+            DataTypes.FIELD("java_package", DataTypes.STRING()))
+            .getLogicalType();
+    private static final String MAPPING = "java_package=$.options.java_package";
+
+    @Test
+    public void testSameKeySharesClass() throws Exception {
+        for (boolean directDecode : new boolean[] {false, true}) {
+            assertSame(
+                    converterClass(deserializer(ROW_TYPE, CLAZZ, MAPPING, false, directDecode, null)),
+                    converterClass(deserializer(ROW_TYPE, CLAZZ, MAPPING, false, directDecode, null)));
+            int[][] projections = new int[][] {{2}, {0}};
+            assertSame(
+                    converterClass(deserializer(ROW_TYPE, CLAZZ, MAPPING, false, directDecode, projections)),
+                    converterClass(deserializer(ROW_TYPE, CLAZZ, MAPPING, false, directDecode, new int[][] {{2}, {0}})));
+        }
+        assertSame(serializerClass(serializer(ROW_TYPE, CLAZZ, MAPPING)), serializerClass(serializer(ROW_TYPE, CLAZZ, MAPPING)));
+    }
+
+    @Test
+    public void testDifferentKeyCompilesNewClass() throws Exception {
+        Class<?> base = converterClass(deserializer(ROW_TYPE, CLAZZ, MAPPING, false, false, null));
+        // 只有投影不同
+        assertNotSame(base, converterClass(deserializer(ROW_TYPE, CLAZZ, MAPPING, false, false, new int[][] {{0}})));
+        assertNotSame(
+                converterClass(deserializer(ROW_TYPE, CLAZZ, MAPPING, false, false, new int[][] {{0}, {1}})),
+                converterClass(deserializer(ROW_TYPE, CLAZZ, MAPPING, false, false, new int[][] {{1}, {0}})));
+        // 只有 directDecode 不同
+        assertNotSame(base, converterClass(deserializer(ROW_TYPE, CLAZZ, MAPPING, false, true, null)));
+        // 只有 ignoreDefaultValue 不同
+        assertNotSame(base, converterClass(deserializer(ROW_TYPE, CLAZZ, MAPPING, true, false, null)));
+        // 只有字段映射不同
+        String otherMapping = "java_package=$.options.go_package";
+        assertNotSame(base, converterClass(deserializer(ROW_TYPE, CLAZZ, otherMapping, false, false, null)));
+
+        assertNotSame(serializerClass(serializer(ROW_TYPE, CLAZZ, MAPPING)), serializerClass(serializer(ROW_TYPE, CLAZZ, otherMapping)));
+    }
+
+    @Test
+    public void testClassLoaderIsolation() {
+        ClassLoader other = new ClassLoader(getClass().getClassLoader()) { };
+        String key = "test|" + getClass().getName();
+        Class<?> first = ProtobufCompiledClassCache.getOrCompile(getClass().getClassLoader(), key, "Generated", () -> "public class Generated { }");
+        assertSame(first, ProtobufCompiledClassCache.getOrCompile(getClass().getClassLoader(), key, "Generated", () -> "public class Generated { }"));
+        assertNotSame(first, ProtobufCompiledClassCache.getOrCompile(other, key, "Generated", () -> "public class Generated { }"));
+    }
+
+    private static Class<?> converterClass(ProtobufRowDataDeserializationSchema schema) throws Exception {
+        return fieldValue(ProtobufRowDataDeserializationSchema.class, schema, "runtimeRowDataConverter").getClass();
+    }
+
+    private static Class<?> serializerClass(ProtobufRowDataSerializationSchema schema) throws Exception {
+        return fieldValue(ProtobufRowDataSerializationSchema.class, schema, "runtimeRowDataSerializer").getClass();
+    }
+
+    private static Object fieldValue(Class<?> clazz, Object target, String name) throws Exception {
+        Field field = clazz.getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(target);
+    }
+
+}
@@ -0,0 +1,315 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.DescriptorProtos;
+import com.google.protobuf.WireFormat;
+import org.apache.flink.table.api.DataTypes;
+import org.apache.flink.table.connector.Projection;
+import org.apache.flink.table.data.ArrayData;
+import org.apache.flink.table.data.GenericArrayData;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.types.logical.ArrayType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ProtobufRowDataDeserializationSchemaTest {
+
+    private static final RowType FILE_TYPE = (RowType) DataTypes.ROW(
+            DataTypes.FIELD("name", DataTypes.STRING()),
+            DataTypes.FIELD("package", DataTypes.STRING()),
+            DataTypes.FIELD("dependency", DataTypes.ARRAY(DataTypes.STRING())),
+            DataTypes.FIELD("message_type", DataTypes.ARRAY(DataTypes.ROW(
+                    DataTypes.FIELD("name", DataTypes.STRING()),
+                    DataTypes.FIELD("field", DataTypes.ARRAY(DataTypes.ROW(
+                            DataTypes.FIELD("name", DataTypes.STRING()),
+                            DataTypes.FIELD("number", DataTypes.INT()),
+                            DataTypes.FIELD("type", DataTypes.STRING()))))))),
+            DataTypes.FIELD("java_package", DataTypes.STRING()),
+            DataTypes.FIELD("optimize", DataTypes.STRING()),
+            DataTypes.FIELD("multiple", DataTypes.BOOLEAN()),
+            DataTypes.FIELD("location", DataTypes.ARRAY(DataTypes.ROW(DataTypes.FIELD("path", DataTypes.ARRAY(DataTypes.INT()))))),
+            DataTypes.FIELD("public_dependency", DataTypes.ARRAY(DataTypes.INT())),
+            DataTypes.FIELD("syntax", DataTypes.STRING()))
+            .getLogicalType();
+    private static final String FILE_MAPPING = "java_package=$.options.java_package;optimize=$.options.optimize_for;"
+            + "multiple=$.options.java_multiple_files;location=$.source_code_info.location";
+
+    // FileDescriptorProto 字段编号
+    private static final int NAME = 1;
+    private static final int PACKAGE = 2;
+    private static final int OPTIONS = 8;
+    private static final int SOURCE_CODE_INFO = 9;
+    private static final int PUBLIC_DEPENDENCY = 10;
+
+    @Test
+    public void testUnknownAndSkippedFields() throws Exception {
+        // 未映射的字段(enum_type, service, go_package, leading_comments ...)及未知字段编号需跳过
+        DescriptorProtos.FileDescriptorProto message = DescriptorProtos.FileDescriptorProto.newBuilder()
+                .setName("x.proto")
+                .setPackage("中文")
+                .addDependency("a")
+                .addDependency("b")
+                .addEnumType(DescriptorProtos.EnumDescriptorProto.newBuilder().setName("skipped")
+                        .addValue(DescriptorProtos.EnumValueDescriptorProto.newBuilder().setName("V").setNumber(1)))
+                .addService(DescriptorProtos.ServiceDescriptorProto.newBuilder().setName("S"))
+                .addMessageType(DescriptorProtos.DescriptorProto.newBuilder()
+                        .setName("M")
+                        .addField(DescriptorProtos.FieldDescriptorProto.newBuilder()
+                                .setName("f")
+                                .setNumber(1)
+                                .setType(DescriptorProtos.FieldDescriptorProto.Type.TYPE_INT64)
+                                .setJsonName("skipped"))
+                        .addNestedType(DescriptorProtos.DescriptorProto.newBuilder().setName("skipped")))
+                .addMessageType(DescriptorProtos.DescriptorProto.newBuilder().setName("N"))
+                .setOptions(DescriptorProtos.FileOptions.newBuilder()
+                        .setJavaPackage("p")
+                        .setOptimizeFor(DescriptorProtos.FileOptions.OptimizeMode.CODE_SIZE)
+                        .setGoPackage("skipped"))
+                .setSourceCodeInfo(DescriptorProtos.SourceCodeInfo.newBuilder()
+                        .addLocation(DescriptorProtos.SourceCodeInfo.Location.newBuilder()
+                                .addPath(1)
+                                .addPath(300)
+                                .addSpan(7)
+                                .setLeadingComments("skipped")))
+                .setSyntax("proto2")
+                .build();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        message.writeTo(bytes);
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        // 未知字段: varint / fixed64 / length-delimited / fixed32
+        out.writeInt64(1000, -1L);
+        out.writeFixed64(1001, 42L);
+        out.writeByteArray(1002, new byte[] {1, 2, 3});
+        out.writeFixed32(1003, 7);
+        out.flush();
+
+        RowData[] rows = deserializeBoth(bytes.toByteArray());
+        assertEquals(rows[0], rows[1]);
+        assertEquals("中文", rows[1].getString(1).toString());
+        assertEquals(2, rows[1].getArray(3).size());
+        assertEquals("CODE_SIZE", rows[1].getString(5).toString());
+    }
+
+    @Test
+    public void testPackedAndUnpackedRepeatedFields() throws Exception {
+        // location.path 声明为 packed, public_dependency 未声明 packed; 解析时两种编码都需接受
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        byte[] location = location(false, 1, 300, -1);
+        out.writeTag(SOURCE_CODE_INFO, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(CodedOutputStream.computeByteArraySize(1, location));
+        out.writeByteArray(1, location);
+        writePacked(out, PUBLIC_DEPENDENCY, 5, 70000);
+        out.writeInt32(PUBLIC_DEPENDENCY, 6);
+        out.flush();
+
+        RowData[] rows = deserializeBoth(bytes.toByteArray());
+        assertEquals(rows[0], rows[1]);
+        assertEquals(3, rows[1].getArray(7).getRow(0, 1).getArray(0).size());
+        assertEquals(-1, rows[1].getArray(7).getRow(0, 1).getArray(0).getInt(2));
+        assertEquals(3, rows[1].getArray(8).size());
+        assertEquals(6, rows[1].getArray(8).getInt(2));
+
+        bytes.reset();
+        out = CodedOutputStream.newInstance(bytes);
+        location = location(true, 2, 3);
+        out.writeTag(SOURCE_CODE_INFO, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(CodedOutputStream.computeByteArraySize(1, location));
+        out.writeByteArray(1, location);
+        out.flush();
+        rows = deserializeBoth(bytes.toByteArray());
+        assertEquals(rows[0], rows[1]);
+        assertEquals(2, rows[1].getArray(7).getRow(0, 1).getArray(0).size());
+    }
+
+    @Test
+    public void testMissingFields() throws Exception {
+        // 缺失字段: proto2 optional 标量为默认值, 消息及 repeated 按 parseFrom 结果
+        byte[][] cases = new byte[][] {
+                new byte[0],
+                DescriptorProtos.FileDescriptorProto.newBuilder().setPackage("p").build().toByteArray(),
+                DescriptorProtos.FileDescriptorProto.newBuilder()
+                        .setOptions(DescriptorProtos.FileOptions.newBuilder().setJavaMultipleFiles(true))
+                        .addMessageType(DescriptorProtos.DescriptorProto.newBuilder()
+                                .addField(DescriptorProtos.FieldDescriptorProto.newBuilder().setNumber(3)))
+                        .build()
+                        .toByteArray()
+        };
+        for (byte[] bytes : cases) {
+            RowData[] rows = deserializeBoth(bytes);
+            assertEquals(rows[0], rows[1]);
+        }
+    }
+
+    @Test
+    public void testDuplicateFieldNumbers() throws Exception {
+        // 重复出现的字段: 标量取最后一个值, 消息合并, repeated 追加
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        out.writeString(NAME, "first");
+        out.writeString(PACKAGE, "p");
+        out.writeMessage(OPTIONS, DescriptorProtos.FileOptions.newBuilder().setJavaPackage("jp").setJavaMultipleFiles(false).build());
+        out.writeString(NAME, "last");
+        out.writeMessage(OPTIONS, DescriptorProtos.FileOptions.newBuilder()
+                .setOptimizeFor(DescriptorProtos.FileOptions.OptimizeMode.LITE_RUNTIME)
+                .setJavaMultipleFiles(true)
+                .build());
+        byte[] location = location(true, 1);
+        out.writeTag(SOURCE_CODE_INFO, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(CodedOutputStream.computeByteArraySize(1, location));
+        out.writeByteArray(1, location);
+        location = location(true, 2);
+        out.writeTag(SOURCE_CODE_INFO, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(CodedOutputStream.computeByteArraySize(1, location));
+        out.writeByteArray(1, location);
+        out.flush();
+
+        RowData[] rows = deserializeBoth(bytes.toByteArray());
+        assertEquals(rows[0], rows[1]);
+        RowData row = rows[1];
+        assertEquals("last", row.getString(0).toString());
+        assertEquals("jp", row.getString(4).toString());
+        assertEquals("LITE_RUNTIME", row.getString(5).toString());
+        assertTrue(row.getBoolean(6));
+        assertEquals(2, row.getArray(7).size());
+        assertFalse(row.isNullAt(1));
+    }
+
+    @Test
+    public void testNestedProjection() throws Exception {
+        RowType rowType = (RowType) DataTypes.ROW(
+                DataTypes.FIELD("name", DataTypes.STRING()),
+                DataTypes.FIELD("package", DataTypes.STRING()),
+                DataTypes.FIELD("opts", DataTypes.ROW(
+                        DataTypes.FIELD("java_package", DataTypes.STRING()),
+                        DataTypes.FIELD("optimize_for", DataTypes.STRING()),
+                        DataTypes.FIELD("multiple", DataTypes.BOOLEAN()))),
+                DataTypes.FIELD("dependency", DataTypes.ARRAY(DataTypes.STRING())),
+                DataTypes.FIELD("info", DataTypes.ROW(
+                        DataTypes.FIELD("location", DataTypes.ARRAY(DataTypes.ROW(DataTypes.FIELD("path", DataTypes.ARRAY(DataTypes.INT()))))))))
+                .getLogicalType();
+        String mapping = "opts=$.options;multiple=$.java_multiple_files;info=$.source_code_info";
+        byte[] bytes = DescriptorProtos.FileDescriptorProto.newBuilder()
+                .setName("x.proto")
+                .setPackage("pk")
+                .addDependency("d")
+                .setOptions(DescriptorProtos.FileOptions.newBuilder()
+                        .setJavaPackage("jp")
+                        .setOptimizeFor(DescriptorProtos.FileOptions.OptimizeMode.LITE_RUNTIME)
+                        .setJavaMultipleFiles(true))
+                .setSourceCodeInfo(DescriptorProtos.SourceCodeInfo.newBuilder()
+                        .addLocation(DescriptorProtos.SourceCodeInfo.Location.newBuilder().addPath(4).addPath(0)))
+                .build()
+                .toByteArray();
+
+        // 顶层列 + 嵌套列(opts.optimize_for, info.location), 顺序与原表不同
+        assertProjection(rowType, mapping, bytes,
+                new int[][] {{3}, {2, 1}, {0}, {4, 0}},
+                new String[][] {{"dependency"}, {"options", "optimize_for"}, {"name"}, {"source_code_info", "location"}},
+                new GenericArrayData(new Object[] {StringData.fromString("d")}),
+                StringData.fromString("LITE_RUNTIME"),
+                StringData.fromString("x.proto"),
+                new GenericArrayData(new Object[] {GenericRowData.of(new GenericArrayData(new int[] {4, 0}))}));
+        // 整个嵌套 Row(planner 引用父字段时不再下推其子字段)
+        assertProjection(rowType, mapping, bytes,
+                new int[][] {{2}, {1}},
+                new String[][] {{"options"}, {"package"}},
+                GenericRowData.of(StringData.fromString("jp"), StringData.fromString("LITE_RUNTIME"), true),
+                StringData.fromString("pk"));
+    }
+
+    // 投影后的类型及字段路径由 Projection 推导, 两种解码方式的结果按投影类型读取
+    private static void assertProjection(RowType rowType, String mapping, byte[] bytes, int[][] projections, String[][] expectedPaths, Object... expected) throws Exception {
+        RowType producedType = (RowType) Projection.of(projections).project(rowType);
+        Map<String, String[]> fieldMappings = ProtobufUtils.projectFieldMappings(
+                ProtobufUtils.standardFieldMappings(mapping, rowType), rowType, producedType, projections);
+        assertEquals(expectedPaths.length, producedType.getFieldCount());
+        for (int i = 0; i < expectedPaths.length; ++i) {
+            assertArrayEquals(expectedPaths[i], fieldMappings.get(producedType.getFieldNames().get(i)));
+        }
+
+        RowData[] rows = ProtobufTestUtils.deserializeBoth(rowType, DescriptorProtos.FileDescriptorProto.class, mapping, projections, bytes);
+        for (RowData row : rows) {
+            assertEquals(producedType.getFieldCount(), row.getArity());
+            for (int i = 0; i < producedType.getFieldCount(); ++i) {
+                LogicalType type = producedType.getTypeAt(i);
+                Object actual = RowData.createFieldGetter(type, i).getFieldOrNull(row);
+                assertEquals(producedType.getFieldNames().get(i), toList(expected[i], type), toList(actual, type));
+            }
+        }
+        assertEquals(rows[0], rows[1]);
+    }
+
+    // 按类型读取 ARRAY / ROW 元素, GenericArrayData 比较时区分基本类型数组与对象数组
+    private static Object toList(Object value, LogicalType type) {
+        if (value == null) {
+            return null;
+        }
+        List<Object> values = new ArrayList<>();
+        switch (type.getTypeRoot()) {
+            case ARRAY:
+                LogicalType elementType = ((ArrayType) type).getElementType();
+                ArrayData.ElementGetter elementGetter = ArrayData.createElementGetter(elementType);
+                ArrayData array = (ArrayData) value;
+                for (int i = 0; i < array.size(); ++i) {
+                    values.add(toList(elementGetter.getElementOrNull(array, i), elementType));
+                }
+                return values;
+            case ROW:
+                RowType rowType = (RowType) type;
+                RowData row = (RowData) value;
+                for (int i = 0; i < rowType.getFieldCount(); ++i) {
+                    values.add(toList(RowData.createFieldGetter(rowType.getTypeAt(i), i).getFieldOrNull(row), rowType.getTypeAt(i)));
+                }
+                return values;
+            default:
+                return value;
+        }
+    }
+
+    private static RowData[] deserializeBoth(byte[] bytes) throws Exception {
+        return ProtobufTestUtils.deserializeBoth(FILE_TYPE, DescriptorProtos.FileDescriptorProto.class, FILE_MAPPING, null, bytes);
+    }
+
+    // SourceCodeInfo.Location: path = 1
+    private static byte[] location(boolean packed, int... path) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        if (packed) {
+            writePacked(out, 1, path);
+        } else {
+            for (int value : path) {
+                out.writeInt32(1, value);
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writePacked(CodedOutputStream out, int fieldNumber, int... values) throws IOException {
+        int size = 0;
+        for (int value : values) {
+            size += CodedOutputStream.computeInt32SizeNoTag(value);
+        }
+        out.writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(size);
+        for (int value : values) {
+            out.writeInt32NoTag(value);
+        }
+    }
+
+}
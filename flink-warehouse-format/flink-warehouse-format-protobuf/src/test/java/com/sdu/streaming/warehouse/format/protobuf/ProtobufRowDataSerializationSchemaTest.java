@@ -0,0 +1,202 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import com.google.protobuf.DescriptorProtos;
+import com.google.protobuf.Field;
+import com.google.protobuf.SourceContext;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Syntax;
+import com.google.protobuf.Type;
+import com.google.protobuf.Value;
+import org.apache.flink.table.api.DataTypes;
+import org.apache.flink.table.data.GenericArrayData;
+import org.apache.flink.table.data.GenericMapData;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.types.logical.RowType;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufTestUtils.serializer;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ProtobufRowDataSerializationSchemaTest {
+
+    // proto2
+    private static final RowType FILE_TYPE = (RowType) DataTypes.ROW(
+            DataTypes.FIELD("name", DataTypes.STRING()),
+            DataTypes.FIELD("package", DataTypes.STRING()),
+            DataTypes.FIELD("dependency", DataTypes.ARRAY(DataTypes.STRING())),
+            DataTypes.FIELD("message_type", DataTypes.ARRAY(DataTypes.ROW(
+                    DataTypes.FIELD("name", DataTypes.STRING()),
+                    DataTypes.FIELD("field", DataTypes.ARRAY(DataTypes.ROW(
+                            DataTypes.FIELD("name", DataTypes.STRING()),
+                            DataTypes.FIELD("number", DataTypes.INT()),
+                            DataTypes.FIELD("type", DataTypes.STRING()),
+                            DataTypes.FIELD("label", DataTypes.INT()))))))),
+            DataTypes.FIELD("java_package", DataTypes.STRING()),
+            DataTypes.FIELD("optimize", DataTypes.STRING()),
+            DataTypes.FIELD("multiple", DataTypes.BOOLEAN()),
+            DataTypes.FIELD("location", DataTypes.ARRAY(DataTypes.ROW(DataTypes.FIELD("path", DataTypes.ARRAY(DataTypes.INT()))))),
+            DataTypes.FIELD("public_dependency", DataTypes.ARRAY(DataTypes.INT())))
+            .getLogicalType();
+    private static final String FILE_MAPPING = "java_package=$.options.java_package;optimize=$.options.optimize_for;"
+            + "multiple=$.options.java_multiple_files;location=$.source_code_info.location";
+
+    // proto3
+    private static final RowType TYPE_TYPE = (RowType) DataTypes.ROW(
+            DataTypes.FIELD("name", DataTypes.STRING()),
+            DataTypes.FIELD("fields", DataTypes.ARRAY(DataTypes.ROW(
+                    DataTypes.FIELD("kind", DataTypes.INT()),
+                    DataTypes.FIELD("cardinality", DataTypes.STRING()),
+                    DataTypes.FIELD("number", DataTypes.INT()),
+                    DataTypes.FIELD("name", DataTypes.STRING()),
+                    DataTypes.FIELD("packed", DataTypes.BOOLEAN()),
+                    DataTypes.FIELD("json_name", DataTypes.STRING())))),
+            DataTypes.FIELD("file", DataTypes.STRING()),
+            DataTypes.FIELD("syntax", DataTypes.STRING()))
+            .getLogicalType();
+    private static final String TYPE_MAPPING = "file=$.source_context.file_name";
+
+    @Test
+    public void testScalarRepeatedAndNestedFields() throws Exception {
+        RowData field1 = GenericRowData.of(StringData.fromString("f1"), 1, StringData.fromString("TYPE_STRING"), 1);
+        RowData field2 = GenericRowData.of(StringData.fromString("f2"), 2, StringData.fromString("TYPE_INT64"), 3);
+        RowData row = GenericRowData.of(
+                StringData.fromString("a.proto"),
+                StringData.fromString("中文.pkg"),
+                new GenericArrayData(new Object[] {StringData.fromString("d1"), null, StringData.fromString("d2")}),
+                new GenericArrayData(new Object[] {GenericRowData.of(StringData.fromString("M"), new GenericArrayData(new Object[] {field1, field2}))}),
+                StringData.fromString("com.x"),
+                StringData.fromString("SPEED"),
+                true,
+                new GenericArrayData(new Object[] {GenericRowData.of(new GenericArrayData(new int[] {1, 300, 70000}))}),
+                new GenericArrayData(new Object[] {5, null, 6}));
+
+        DescriptorProtos.FileDescriptorProto expected = DescriptorProtos.FileDescriptorProto.newBuilder()
+                .setName("a.proto")
+                .setPackage("中文.pkg")
+                .addDependency("d1")
+                .addDependency("d2")
+                .addMessageType(DescriptorProtos.DescriptorProto.newBuilder()
+                        .setName("M")
+                        .addField(DescriptorProtos.FieldDescriptorProto.newBuilder()
+                                .setName("f1")
+                                .setNumber(1)
+                                .setType(DescriptorProtos.FieldDescriptorProto.Type.TYPE_STRING)
+                                .setLabel(DescriptorProtos.FieldDescriptorProto.Label.LABEL_OPTIONAL))
+                        .addField(DescriptorProtos.FieldDescriptorProto.newBuilder()
+                                .setName("f2")
+                                .setNumber(2)
+                                .setType(DescriptorProtos.FieldDescriptorProto.Type.TYPE_INT64)
+                                .setLabel(DescriptorProtos.FieldDescriptorProto.Label.LABEL_REPEATED)))
+                .setOptions(DescriptorProtos.FileOptions.newBuilder()
+                        .setJavaPackage("com.x")
+                        .setOptimizeFor(DescriptorProtos.FileOptions.OptimizeMode.SPEED)
+                        .setJavaMultipleFiles(true))
+                .setSourceCodeInfo(DescriptorProtos.SourceCodeInfo.newBuilder()
+                        .addLocation(DescriptorProtos.SourceCodeInfo.Location.newBuilder().addPath(1).addPath(300).addPath(70000)))
+                .addPublicDependency(5)
+                .addPublicDependency(6)
+                .build();
+
+        byte[] bytes = serializer(FILE_TYPE, DescriptorProtos.FileDescriptorProto.class, FILE_MAPPING).serialize(row);
+        assertEquals(expected, DescriptorProtos.FileDescriptorProto.parseFrom(bytes));
+        // location.path 为 packed 编码
+        assertArrayEquals(expected.toByteArray(), bytes);
+    }
+
+    @Test
+    public void testNullColumns() throws Exception {
+        // null 列不写入; 共享前缀 $.options 的列全部为 null 时不写入 options
+        RowData row = GenericRowData.of(null, StringData.fromString("pkg"), null, null, null, null, null, null, null);
+        byte[] bytes = serializer(FILE_TYPE, DescriptorProtos.FileDescriptorProto.class, FILE_MAPPING).serialize(row);
+        DescriptorProtos.FileDescriptorProto actual = DescriptorProtos.FileDescriptorProto.parseFrom(bytes);
+        assertFalse(actual.hasName());
+        assertFalse(actual.hasOptions());
+        assertFalse(actual.hasSourceCodeInfo());
+        assertArrayEquals(DescriptorProtos.FileDescriptorProto.newBuilder().setPackage("pkg").build().toByteArray(), bytes);
+
+        // 部分列非 null 时写入 options
+        row = GenericRowData.of(null, null, null, null, null, StringData.fromString("LITE_RUNTIME"), null, null, null);
+        actual = DescriptorProtos.FileDescriptorProto.parseFrom(
+                serializer(FILE_TYPE, DescriptorProtos.FileDescriptorProto.class, FILE_MAPPING).serialize(row));
+        assertTrue(actual.hasOptions());
+        assertFalse(actual.getOptions().hasJavaPackage());
+        assertEquals(DescriptorProtos.FileOptions.OptimizeMode.LITE_RUNTIME, actual.getOptions().getOptimizeFor());
+    }
+
+    @Test
+    public void testProto3DefaultValues() throws Exception {
+        ProtobufRowDataSerializationSchema schema = serializer(TYPE_TYPE, Type.class, TYPE_MAPPING);
+
+        // proto3 标量默认值(0, "", false, 编号为 0 的枚举)不写入
+        RowData defaults = GenericRowData.of(0, StringData.fromString("CARDINALITY_UNKNOWN"), 0, StringData.fromString(""), false, null);
+        RowData field = GenericRowData.of(9, StringData.fromString("CARDINALITY_REPEATED"), 3, StringData.fromString("tags"), true, StringData.fromString("tagList"));
+        RowData row = GenericRowData.of(
+                StringData.fromString(""),
+                new GenericArrayData(new Object[] {defaults, field}),
+                null,
+                StringData.fromString("SYNTAX_PROTO2"));
+        Type expected = Type.newBuilder()
+                .addFields(Field.getDefaultInstance())
+                .addFields(Field.newBuilder()
+                        .setKind(Field.Kind.TYPE_STRING)
+                        .setCardinality(Field.Cardinality.CARDINALITY_REPEATED)
+                        .setNumber(3)
+                        .setName("tags")
+                        .setPacked(true)
+                        .setJsonName("tagList"))
+                .build();
+        byte[] bytes = schema.serialize(row);
+        assertArrayEquals(expected.toByteArray(), bytes);
+        assertFalse(Type.parseFrom(bytes).hasSourceContext());
+
+        // 嵌套消息的列非 null(即使为默认值)时写入空消息
+        row = GenericRowData.of(StringData.fromString("t"), new GenericArrayData(new Object[0]), StringData.fromString(""), StringData.fromString("SYNTAX_PROTO3"));
+        expected = Type.newBuilder()
+                .setName("t")
+                .setSourceContext(SourceContext.getDefaultInstance())
+                .setSyntax(Syntax.SYNTAX_PROTO3)
+                .build();
+        bytes = schema.serialize(row);
+        assertArrayEquals(expected.toByteArray(), bytes);
+        assertTrue(Type.parseFrom(bytes).hasSourceContext());
+    }
+
+    @Test
+    public void testMap() throws Exception {
+        RowType rowType = (RowType) DataTypes.ROW(DataTypes.FIELD("fields", DataTypes.MAP(
+                DataTypes.STRING(),
+                DataTypes.ROW(
+                        DataTypes.FIELD("string_value", DataTypes.STRING()),
+                        DataTypes.FIELD("number_value", DataTypes.DOUBLE()),
+                        DataTypes.FIELD("bool_value", DataTypes.BOOLEAN())))))
+                .getLogicalType();
+        Map<Object, Object> fields = new HashMap<>();
+        fields.put(StringData.fromString("a"), GenericRowData.of(StringData.fromString("x"), null, null));
+        fields.put(StringData.fromString("b"), GenericRowData.of(null, 1.5d, null));
+        // oneof 字段有 presence, 默认值也写入
+        fields.put(StringData.fromString("c"), GenericRowData.of(null, null, false));
+        // null value 读取为默认值, null key 不写入
+        fields.put(StringData.fromString("d"), null);
+        fields.put(null, GenericRowData.of(StringData.fromString("y"), null, null));
+
+        byte[] bytes = serializer(rowType, Struct.class, null).serialize(GenericRowData.of(new GenericMapData(fields)));
+        Struct expected = Struct.newBuilder()
+                .putFields("a", Value.newBuilder().setStringValue("x").build())
+                .putFields("b", Value.newBuilder().setNumberValue(1.5d).build())
+                .putFields("c", Value.newBuilder().setBoolValue(false).build())
+                .putFields("d", Value.getDefaultInstance())
+                .build();
+        Struct actual = Struct.parseFrom(bytes);
+        assertEquals(expected, actual);
+        assertEquals(Value.KindCase.BOOL_VALUE, actual.getFieldsOrThrow("c").getKindCase());
+    }
+
+}
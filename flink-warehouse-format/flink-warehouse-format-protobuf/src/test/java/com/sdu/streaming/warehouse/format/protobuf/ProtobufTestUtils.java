@@ -0,0 +1,72 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import org.apache.flink.api.common.serialization.DeserializationSchema;
+import org.apache.flink.api.common.serialization.SerializationSchema;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.util.SimpleUserCodeClassLoader;
+import org.apache.flink.util.UserCodeClassLoader;
+
+class ProtobufTestUtils {
+
+    private ProtobufTestUtils() {
+
+    }
+
+    static ProtobufRowDataSerializationSchema serializer(RowType rowType, Class<?> clazz, String fieldMapping) throws Exception {
+        ProtobufRowDataSerializationSchema schema = new ProtobufRowDataSerializationSchema(rowType, clazz.getName(), fieldMapping);
+        schema.open(new SerializationSchema.InitializationContext() {
+            @Override
+            public MetricGroup getMetricGroup() {
+                return new UnregisteredMetricsGroup();
+            }
+
+            @Override
+            public UserCodeClassLoader getUserCodeClassLoader() {
+                return userCodeClassLoader();
+            }
+        });
+        return schema;
+    }
+
+    static ProtobufRowDataDeserializationSchema deserializer(RowType rowType, Class<?> clazz, String fieldMapping, boolean directDecode) throws Exception {
+        return deserializer(rowType, clazz, fieldMapping, false, directDecode, null);
+    }
+
+    static ProtobufRowDataDeserializationSchema deserializer(RowType rowType, Class<?> clazz, String fieldMapping, boolean ignoreDefaultValue, boolean directDecode, int[][] projections) throws Exception {
+        return deserializer(rowType, clazz, fieldMapping, false, ignoreDefaultValue, directDecode, projections);
+    }
+
+    static ProtobufRowDataDeserializationSchema deserializer(RowType rowType, Class<?> clazz, String fieldMapping, boolean ignoreParseErrors,
+                                                             boolean ignoreDefaultValue, boolean directDecode, int[][] projections) throws Exception {
+        ProtobufRowDataDeserializationSchema schema = new ProtobufRowDataDeserializationSchema(
+                rowType, null, clazz.getName(), fieldMapping, ignoreParseErrors, ignoreDefaultValue, directDecode, projections);
+        schema.open(new DeserializationSchema.InitializationContext() {
+            @Override
+            public MetricGroup getMetricGroup() {
+                return new UnregisteredMetricsGroup();
+            }
+
+            @Override
+            public UserCodeClassLoader getUserCodeClassLoader() {
+                return userCodeClassLoader();
+            }
+        });
+        return schema;
+    }
+
+    // 两种解码方式(parseFrom / 直接解码)的结果
+    static RowData[] deserializeBoth(RowType rowType, Class<?> clazz, String fieldMapping, int[][] projections, byte[] bytes) throws Exception {
+        return new RowData[] {
+                deserializer(rowType, clazz, fieldMapping, false, false, projections).deserialize(bytes),
+                deserializer(rowType, clazz, fieldMapping, false, true, projections).deserialize(bytes)
+        };
+    }
+
+    private static UserCodeClassLoader userCodeClassLoader() {
+        return SimpleUserCodeClassLoader.create(ProtobufTestUtils.class.getClassLoader());
+    }
+
+}
@@ -0,0 +1,215 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Int32Value;
+import com.google.protobuf.Int64Value;
+import com.google.protobuf.StringValue;
+import com.google.protobuf.Timestamp;
+import org.apache.flink.table.api.DataTypes;
+import org.apache.flink.table.data.DecimalData;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.TimestampData;
+import org.apache.flink.table.types.DataType;
+import org.apache.flink.table.types.logical.RowType;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufTestUtils.deserializeBoth;
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufTestUtils.deserializer;
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufTestUtils.serializer;
+import static com.sdu.streaming.warehouse.format.protobuf.ProtobufTypesMessage.field;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ProtobufTypeConversionTest {
+
+    // 列顺序与字段编号一致, 序列化结果与 protobuf-java 逐字节相同
+    private static final RowType TYPES_TYPE = (RowType) DataTypes.ROW(
+            DataTypes.FIELD("ts", DataTypes.TIMESTAMP(9)),
+            DataTypes.FIELD("i64", DataTypes.BIGINT()),
+            DataTypes.FIELD("s", DataTypes.STRING()),
+            DataTypes.FIELD("i32", DataTypes.INT()),
+            DataTypes.FIELD("bin", DataTypes.BYTES()),
+            DataTypes.FIELD("dec_str", DataTypes.DECIMAL(10, 2)),
+            DataTypes.FIELD("dec_cents", DataTypes.DECIMAL(10, 2)),
+            DataTypes.FIELD("dec_int", DataTypes.DECIMAL(9, 2)),
+            DataTypes.FIELD("dec_bytes", DataTypes.DECIMAL(20, 4)),
+            DataTypes.FIELD("dec_double", DataTypes.DECIMAL(10, 3)),
+            DataTypes.FIELD("millis", DataTypes.TIMESTAMP_LTZ(3)),
+            DataTypes.FIELD("small", DataTypes.SMALLINT()),
+            DataTypes.FIELD("tiny", DataTypes.TINYINT()),
+            DataTypes.FIELD("tss", DataTypes.ARRAY(DataTypes.TIMESTAMP(9))),
+            DataTypes.FIELD("i64s", DataTypes.ARRAY(DataTypes.BIGINT())),
+            DataTypes.FIELD("bins", DataTypes.ARRAY(DataTypes.BYTES())),
+            DataTypes.FIELD("smalls", DataTypes.ARRAY(DataTypes.SMALLINT())))
+            .getLogicalType();
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        byte[] bytes = ProtobufTypesMessage.newBuilder()
+                // 负 epoch: seconds 向下取整, nanos 非负
+                .setField(field("ts"), Timestamp.newBuilder().setSeconds(-1L).setNanos(123456789).build())
+                .setField(field("i64"), Int64Value.of(42L))
+                .setField(field("s"), StringValue.of("wrap"))
+                // 包装类型值为默认值时仍存在, 与未设置(null)区分
+                .setField(field("i32"), Int32Value.of(0))
+                .setField(field("bin"), ByteString.copyFrom(new byte[] {1, 0, -1}))
+                .setField(field("dec_str"), "-12.30")
+                .setField(field("dec_cents"), -12345L)
+                .setField(field("dec_int"), 12345)
+                .setField(field("dec_bytes"), ByteString.copyFrom(BigInteger.valueOf(-123456789L).toByteArray()))
+                .setField(field("dec_double"), 1.5d)
+                .setField(field("millis"), -1500L)
+                .setField(field("small"), -300)
+                .setField(field("tiny"), -7)
+                .addRepeatedField(field("tss"), Timestamp.newBuilder().setSeconds(-2L).build())
+                .addRepeatedField(field("tss"), Timestamp.newBuilder().setSeconds(10L).setNanos(1000).build())
+                .addRepeatedField(field("i64s"), Int64Value.of(5L))
+                .addRepeatedField(field("i64s"), Int64Value.of(0L))
+                .addRepeatedField(field("bins"), ByteString.copyFrom(new byte[] {9}))
+                .addRepeatedField(field("smalls"), 7)
+                .addRepeatedField(field("smalls"), -8)
+                .build()
+                .toByteArray();
+
+        ProtobufRowDataSerializationSchema serializer = serializer(TYPES_TYPE, ProtobufTypesMessage.class, null);
+        for (RowData row : deserializeBoth(TYPES_TYPE, ProtobufTypesMessage.class, null, null, bytes)) {
+            assertEquals(TimestampData.fromEpochMillis(-877L, 456789), row.getTimestamp(0, 9));
+            assertEquals(42L, row.getLong(1));
+            assertEquals("wrap", row.getString(2).toString());
+            assertFalse(row.isNullAt(3));
+            assertEquals(0, row.getInt(3));
+            assertArrayEquals(new byte[] {1, 0, -1}, row.getBinary(4));
+            assertEquals(decimal("-12.30", 10, 2), row.getDecimal(5, 10, 2));
+            assertEquals(decimal("-123.45", 10, 2), row.getDecimal(6, 10, 2));
+            assertEquals(decimal("123.45", 9, 2), row.getDecimal(7, 9, 2));
+            assertEquals(decimal("-12345.6789", 20, 4), row.getDecimal(8, 20, 4));
+            assertEquals(decimal("1.500", 10, 3), row.getDecimal(9, 10, 3));
+            assertEquals(TimestampData.fromEpochMillis(-1500L), row.getTimestamp(10, 3));
+            assertEquals((short) -300, row.getShort(11));
+            assertEquals((byte) -7, row.getByte(12));
+            assertEquals(TimestampData.fromEpochMillis(-2000L), row.getArray(13).getTimestamp(0, 9));
+            assertEquals(TimestampData.fromEpochMillis(10000L, 1000), row.getArray(13).getTimestamp(1, 9));
+            assertEquals(5L, row.getArray(14).getLong(0));
+            assertEquals(0L, row.getArray(14).getLong(1));
+            assertArrayEquals(new byte[] {9}, row.getArray(15).getBinary(0));
+            assertEquals((short) 7, row.getArray(16).getShort(0));
+            assertEquals((short) -8, row.getArray(16).getShort(1));
+
+            assertArrayEquals(bytes, serializer.serialize(row));
+        }
+    }
+
+    @Test
+    public void testMissingFields() throws Exception {
+        // 未设置的 Timestamp / 包装类型为 null, proto3 标量字段为默认值(空字符串/空字节表示的 DECIMAL 为 null)
+        for (RowData row : deserializeBoth(TYPES_TYPE, ProtobufTypesMessage.class, null, null, new byte[0])) {
+            for (int pos = 0; pos < 4; ++pos) {
+                assertTrue(row.isNullAt(pos));
+            }
+            assertArrayEquals(new byte[0], row.getBinary(4));
+            assertTrue(row.isNullAt(5));
+            assertEquals(decimal("0.00", 10, 2), row.getDecimal(6, 10, 2));
+            assertTrue(row.isNullAt(8));
+            assertEquals(TimestampData.fromEpochMillis(0L), row.getTimestamp(10, 3));
+            assertEquals(0, row.getArray(13).size());
+        }
+    }
+
+    @Test
+    public void testTimestampToInt32Rejected() throws Exception {
+        // epoch 毫秒超出 int32 范围, 生成代码时拒绝
+        RowType rowType = (RowType) DataTypes.ROW(DataTypes.FIELD("small", DataTypes.TIMESTAMP(3))).getLogicalType();
+        try {
+            serializer(rowType, ProtobufTypesMessage.class, null);
+            fail("TIMESTAMP can't be serialized to int32");
+        } catch (Exception e) {
+            assertCause(UnsupportedOperationException.class, e);
+        }
+    }
+
+    @Test
+    public void testDecimalToInt32Overflow() throws Exception {
+        RowType rowType = (RowType) DataTypes.ROW(DataTypes.FIELD("dec_int", DataTypes.DECIMAL(18, 0))).getLogicalType();
+        ProtobufRowDataSerializationSchema serializer = serializer(rowType, ProtobufTypesMessage.class, null);
+        byte[] bytes = serializer.serialize(GenericRowData.of(decimal("-2147483648", 18, 0)));
+        assertEquals(Integer.MIN_VALUE, ProtobufTypesMessage.parseFrom(bytes).getDecInt());
+        try {
+            serializer.serialize(GenericRowData.of(decimal("2147483648", 18, 0)));
+            fail("unscaled value overflows int32");
+        } catch (RuntimeException e) {
+            assertCause(ArithmeticException.class, e);
+        }
+    }
+
+    @Test
+    public void testUnscaledLongPrecisionRejected() throws Exception {
+        // 整型字段的非标度值为 long, precision > 18 时生成代码时拒绝
+        RowType rowType = (RowType) DataTypes.ROW(DataTypes.FIELD("dec_cents", DataTypes.DECIMAL(19, 2))).getLogicalType();
+        try {
+            serializer(rowType, ProtobufTypesMessage.class, null);
+            fail("DECIMAL(19, 2) can't be serialized to int64");
+        } catch (Exception e) {
+            assertCause(UnsupportedOperationException.class, e);
+        }
+        for (boolean directDecode : new boolean[] {false, true}) {
+            try {
+                deserializer(rowType, ProtobufTypesMessage.class, null, directDecode);
+                fail("int64 can't be deserialized to DECIMAL(19, 2)");
+            } catch (Exception e) {
+                assertCause(UnsupportedOperationException.class, e);
+            }
+        }
+    }
+
+    @Test
+    public void testIntegerNarrowingOverflow() throws Exception {
+        // 收窄到列类型时检查范围, 溢出作为解析错误而不是静默截断
+        assertNarrowing("small", DataTypes.TINYINT(), -128, 300);
+        assertNarrowing("tiny", DataTypes.SMALLINT(), -32768, -40000);
+        assertNarrowing("millis", DataTypes.INT(), (long) Integer.MIN_VALUE, 1L << 40);
+        assertNarrowing("i64", DataTypes.INT(), Int64Value.of(Integer.MAX_VALUE), Int64Value.of(1L << 40));
+        assertNarrowing("smalls", DataTypes.ARRAY(DataTypes.SMALLINT()), Arrays.asList(1, 32767), Arrays.asList(1, 70000));
+    }
+
+    private static void assertNarrowing(String name, DataType dataType, Object inRange, Object overflow) throws Exception {
+        RowType rowType = (RowType) DataTypes.ROW(DataTypes.FIELD(name, dataType)).getLogicalType();
+        byte[] valid = ProtobufTypesMessage.newBuilder().setField(field(name), inRange).build().toByteArray();
+        byte[] invalid = ProtobufTypesMessage.newBuilder().setField(field(name), overflow).build().toByteArray();
+        for (boolean directDecode : new boolean[] {false, true}) {
+            RowData row = deserializer(rowType, ProtobufTypesMessage.class, null, directDecode).deserialize(valid);
+            assertEquals(ProtobufTypesMessage.newBuilder().setField(field(name), inRange).build(),
+                    ProtobufTypesMessage.newBuilder().mergeFrom(serializer(rowType, ProtobufTypesMessage.class, null).serialize(row)).build());
+            try {
+                deserializer(rowType, ProtobufTypesMessage.class, null, directDecode).deserialize(invalid);
+                fail(name + " overflows " + dataType);
+            } catch (IOException e) {
+                assertCause(ArithmeticException.class, e);
+            }
+            assertNull(deserializer(rowType, ProtobufTypesMessage.class, null, true, false, directDecode, null).deserialize(invalid));
+        }
+    }
+
+    private static DecimalData decimal(String value, int precision, int scale) {
+        return DecimalData.fromBigDecimal(new BigDecimal(value), precision, scale);
+    }
+
+    private static void assertCause(Class<? extends Throwable> expected, Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (expected.isInstance(t)) {
+                return;
+            }
+        }
+        throw new AssertionError("expect " + expected.getSimpleName(), throwable);
+    }
+
+}
@@ -0,0 +1,223 @@
+package com.sdu.streaming.warehouse.format.protobuf;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.DescriptorProtos;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.Int32Value;
+import com.google.protobuf.Int64Value;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
+import com.google.protobuf.StringValue;
+import com.google.protobuf.Timestamp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.protobuf.DescriptorProtos.FieldDescriptorProto.Label.LABEL_OPTIONAL;
+import static com.google.protobuf.DescriptorProtos.FieldDescriptorProto.Label.LABEL_REPEATED;
+import static com.google.protobuf.DescriptorProtos.FieldDescriptorProto.Type.TYPE_BYTES;
+import static com.google.protobuf.DescriptorProtos.FieldDescriptorProto.Type.TYPE_DOUBLE;
+import static com.google.protobuf.DescriptorProtos.FieldDescriptorProto.Type.TYPE_INT32;
+import static com.google.protobuf.DescriptorProtos.FieldDescriptorProto.Type.TYPE_INT64;
+import static com.google.protobuf.DescriptorProtos.FieldDescriptorProto.Type.TYPE_MESSAGE;
+import static com.google.protobuf.DescriptorProtos.FieldDescriptorProto.Type.TYPE_SINT32;
+import static com.google.protobuf.DescriptorProtos.FieldDescriptorProto.Type.TYPE_STRING;
+
+// 模拟 protoc 生成的 proto3 消息类(getDescriptor / parseFrom / getter), 覆盖类型转换涉及的字段类型, 内部由 DynamicMessage 实现
+public class ProtobufTypesMessage {
+
+    private static final Descriptors.Descriptor DESCRIPTOR = buildDescriptor();
+
+    private final DynamicMessage message;
+
+    private ProtobufTypesMessage(DynamicMessage message) {
+        this.message = message;
+    }
+
+    public static Descriptors.Descriptor getDescriptor() {
+        return DESCRIPTOR;
+    }
+
+    public static ProtobufTypesMessage parseFrom(byte[] bytes) throws InvalidProtocolBufferException {
+        return new ProtobufTypesMessage(DynamicMessage.parseFrom(DESCRIPTOR, bytes));
+    }
+
+    public static DynamicMessage.Builder newBuilder() {
+        return DynamicMessage.newBuilder(DESCRIPTOR);
+    }
+
+    public static Descriptors.FieldDescriptor field(String name) {
+        return DESCRIPTOR.findFieldByName(name);
+    }
+
+    public boolean hasTs() {
+        return has("ts");
+    }
+
+    public Timestamp getTs() {
+        return convert(get("ts"), Timestamp.parser());
+    }
+
+    public boolean hasI64() {
+        return has("i64");
+    }
+
+    public Int64Value getI64() {
+        return convert(get("i64"), Int64Value.parser());
+    }
+
+    public boolean hasS() {
+        return has("s");
+    }
+
+    public StringValue getS() {
+        return convert(get("s"), StringValue.parser());
+    }
+
+    public boolean hasI32() {
+        return has("i32");
+    }
+
+    public Int32Value getI32() {
+        return convert(get("i32"), Int32Value.parser());
+    }
+
+    public ByteString getBin() {
+        return (ByteString) get("bin");
+    }
+
+    public String getDecStr() {
+        return (String) get("dec_str");
+    }
+
+    public long getDecCents() {
+        return (Long) get("dec_cents");
+    }
+
+    public int getDecInt() {
+        return (Integer) get("dec_int");
+    }
+
+    public ByteString getDecBytes() {
+        return (ByteString) get("dec_bytes");
+    }
+
+    public double getDecDouble() {
+        return (Double) get("dec_double");
+    }
+
+    public long getMillis() {
+        return (Long) get("millis");
+    }
+
+    public int getSmall() {
+        return (Integer) get("small");
+    }
+
+    public int getTiny() {
+        return (Integer) get("tiny");
+    }
+
+    public List<Timestamp> getTssList() {
+        return convertList(get("tss"), Timestamp.parser());
+    }
+
+    public List<Int64Value> getI64sList() {
+        return convertList(get("i64s"), Int64Value.parser());
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<ByteString> getBinsList() {
+        return (List<ByteString>) get("bins");
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<Integer> getSmallsList() {
+        return (List<Integer>) get("smalls");
+    }
+
+    private boolean has(String name) {
+        return message.hasField(field(name));
+    }
+
+    private Object get(String name) {
+        return message.getField(field(name));
+    }
+
+    // DynamicMessage 的消息字段转换为生成类
+    private static <T extends Message> T convert(Object value, Parser<T> parser) {
+        try {
+            return parser.parseFrom(((Message) value).toByteString());
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static <T extends Message> List<T> convertList(Object values, Parser<T> parser) {
+        List<T> result = new ArrayList<>();
+        for (Object value : (List<?>) values) {
+            result.add(convert(value, parser));
+        }
+        return result;
+    }
+
+    private static Descriptors.Descriptor buildDescriptor() {
+        DescriptorProtos.DescriptorProto message = DescriptorProtos.DescriptorProto.newBuilder()
+                .setName("ProtobufTypesMessage")
+                .addField(messageField("ts", 1, Timestamp.getDescriptor(), false))
+                .addField(messageField("i64", 2, Int64Value.getDescriptor(), false))
+                .addField(messageField("s", 3, StringValue.getDescriptor(), false))
+                .addField(messageField("i32", 4, Int32Value.getDescriptor(), false))
+                .addField(field("bin", 5, TYPE_BYTES, LABEL_OPTIONAL))
+                .addField(field("dec_str", 6, TYPE_STRING, LABEL_OPTIONAL))
+                .addField(field("dec_cents", 7, TYPE_INT64, LABEL_OPTIONAL))
+                .addField(field("dec_int", 8, TYPE_INT32, LABEL_OPTIONAL))
+                .addField(field("dec_bytes", 9, TYPE_BYTES, LABEL_OPTIONAL))
+                .addField(field("dec_double", 10, TYPE_DOUBLE, LABEL_OPTIONAL))
+                .addField(field("millis", 11, TYPE_INT64, LABEL_OPTIONAL))
+                .addField(field("small", 12, TYPE_INT32, LABEL_OPTIONAL))
+                .addField(field("tiny", 13, TYPE_SINT32, LABEL_OPTIONAL))
+                .addField(messageField("tss", 14, Timestamp.getDescriptor(), true))
+                .addField(messageField("i64s", 15, Int64Value.getDescriptor(), true))
+                .addField(field("bins", 16, TYPE_BYTES, LABEL_REPEATED))
+                .addField(field("smalls", 17, TYPE_INT32, LABEL_REPEATED))
+                .build();
+        DescriptorProtos.FileDescriptorProto file = DescriptorProtos.FileDescriptorProto.newBuilder()
+                .setName("protobuf_types_message.proto")
+                .setSyntax("proto3")
+                .addDependency(Timestamp.getDescriptor().getFile().getName())
+                .addDependency(Int64Value.getDescriptor().getFile().getName())
+                .setOptions(DescriptorProtos.FileOptions.newBuilder()
+                        .setJavaPackage(ProtobufTypesMessage.class.getPackage().getName())
+                        .setJavaMultipleFiles(true))
+                .addMessageType(message)
+                .build();
+        try {
+            return Descriptors.FileDescriptor.buildFrom(file, new Descriptors.FileDescriptor[] {
+                    Timestamp.getDescriptor().getFile(), Int64Value.getDescriptor().getFile()})
+                    .findMessageTypeByName("ProtobufTypesMessage");
+        } catch (Descriptors.DescriptorValidationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static DescriptorProtos.FieldDescriptorProto field(String name, int number,
+                                                               DescriptorProtos.FieldDescriptorProto.Type type,
+                                                               DescriptorProtos.FieldDescriptorProto.Label label) {
+        return DescriptorProtos.FieldDescriptorProto.newBuilder()
+                .setName(name)
+                .setNumber(number)
+                .setType(type)
+                .setLabel(label)
+                .build();
+    }
+
+    private static DescriptorProtos.FieldDescriptorProto messageField(String name, int number, Descriptors.Descriptor type, boolean repeated) {
+        return DescriptorProtos.FieldDescriptorProto.newBuilder(field(name, number, TYPE_MESSAGE, repeated ? LABEL_REPEATED : LABEL_OPTIONAL))
+                .setTypeName("." + type.getFullName())
+                .build();
+    }
+
+}